@@ -7,6 +7,7 @@ import it.unive.lisa.analysis.lattices.Satisfiability;
 import it.unive.lisa.analysis.type.TypeDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.symbolic.ExpressionInterner;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.heap.MemoryAllocation;
 import it.unive.lisa.symbolic.value.Identifier;
@@ -19,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
+import org.apache.commons.lang3.tuple.Pair;
 
 /**
  * An abstract state of the analysis, composed by a heap state modeling the
@@ -136,6 +138,9 @@ public class SimpleAbstractState<H extends HeapDomain<H>,
 			ProgramPoint pp,
 			SemanticOracle oracle)
 			throws SemanticException {
+		// the identifier becomes a key of the sub-states: interning it lets
+		// later lookups succeed on a reference check
+		id = ExpressionInterner.intern(id);
 		if (!expression.mightNeedRewriting()) {
 			ValueExpression ve = (ValueExpression) expression;
 			return new SimpleAbstractState<>(
@@ -689,6 +694,24 @@ public class SimpleAbstractState<H extends HeapDomain<H>,
 				throws SemanticException {
 			return heap.isReachableFrom(x, y, pp, oracle);
 		}
+
+		@Override
+		public List<Satisfiability> alias(
+				List<Pair<SymbolicExpression, SymbolicExpression>> queries,
+				ProgramPoint pp,
+				SemanticOracle oracle)
+				throws SemanticException {
+			return heap.alias(queries, pp, oracle);
+		}
+
+		@Override
+		public List<Satisfiability> isReachableFrom(
+				List<Pair<SymbolicExpression, SymbolicExpression>> queries,
+				ProgramPoint pp,
+				SemanticOracle oracle)
+				throws SemanticException {
+			return heap.isReachableFrom(queries, pp, oracle);
+		}
 	}
 
 	@Override
@@ -710,4 +733,22 @@ public class SimpleAbstractState<H extends HeapDomain<H>,
 			throws SemanticException {
 		return heapState.isReachableFrom(x, y, pp, oracle);
 	}
+
+	@Override
+	public List<Satisfiability> alias(
+			List<Pair<SymbolicExpression, SymbolicExpression>> queries,
+			ProgramPoint pp,
+			SemanticOracle oracle)
+			throws SemanticException {
+		return heapState.alias(queries, pp, oracle);
+	}
+
+	@Override
+	public List<Satisfiability> isReachableFrom(
+			List<Pair<SymbolicExpression, SymbolicExpression>> queries,
+			ProgramPoint pp,
+			SemanticOracle oracle)
+			throws SemanticException {
+		return heapState.isReachableFrom(queries, pp, oracle);
+	}
 }
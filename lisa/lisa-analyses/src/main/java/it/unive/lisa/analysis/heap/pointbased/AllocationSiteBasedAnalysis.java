@@ -10,6 +10,7 @@ import it.unive.lisa.analysis.nonrelational.heap.HeapEnvironment;
 import it.unive.lisa.program.annotations.Annotation;
 import it.unive.lisa.program.cfg.CodeLocation;
 import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.symbolic.ExpressionInterner;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.heap.AccessChild;
 import it.unive.lisa.symbolic.heap.HeapDereference;
@@ -23,15 +24,17 @@ import it.unive.lisa.symbolic.value.PushAny;
 import it.unive.lisa.symbolic.value.Variable;
 import it.unive.lisa.type.ReferenceType;
 import it.unive.lisa.type.Type;
-import it.unive.lisa.util.collections.workset.VisitOnceFIFOWorkingSet;
-import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.representation.StructuredRepresentation;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import org.apache.commons.lang3.tuple.Pair;
 
 /**
  * A base class for heap analyses based on the allocation sites of the objects
@@ -60,6 +63,12 @@ public abstract class AllocationSiteBasedAnalysis<A extends AllocationSiteBasedA
 	 */
 	public final List<HeapReplacement> replacements;
 
+	/**
+	 * The points-to graph view of {@link #heapEnv}, lazily built on the first
+	 * reachability query.
+	 */
+	private PointsToGraph graph;
+
 	/**
 	 * Builds a new instance of allocation site-based heap.
 	 */
@@ -345,7 +354,7 @@ public abstract class AllocationSiteBasedAnalysis<A extends AllocationSiteBasedA
 							for (Annotation ann : e.getAnnotations())
 								e.addAnnotation(ann);
 
-					result.add(e);
+					result.add(ExpressionInterner.intern(e));
 				} else if (rec instanceof AllocationSite)
 					result.add(rec);
 
@@ -400,7 +409,7 @@ public abstract class AllocationSiteBasedAnalysis<A extends AllocationSiteBasedA
 					for (Annotation ann : allocSite.getAnnotations())
 						e.addAnnotation(ann);
 
-					result.add(e);
+					result.add(ExpressionInterner.intern(e));
 				} else
 					result.add(loc);
 			return new ExpressionSet(result);
@@ -440,7 +449,7 @@ public abstract class AllocationSiteBasedAnalysis<A extends AllocationSiteBasedA
 						for (Annotation ann : id.getAnnotations())
 							site.addAnnotation(ann);
 
-						result.add(site);
+						result.add(ExpressionInterner.intern(site));
 					}
 				} else
 					result.add(ref);
@@ -467,7 +476,7 @@ public abstract class AllocationSiteBasedAnalysis<A extends AllocationSiteBasedA
 						new ReferenceType(site.getStaticType()),
 						site,
 						site.getCodeLocation());
-				result.add(e);
+				result.add(ExpressionInterner.intern(e));
 			}
 
 			return result;
@@ -513,12 +522,40 @@ public abstract class AllocationSiteBasedAnalysis<A extends AllocationSiteBasedA
 		if (isBottom())
 			return Satisfiability.BOTTOM;
 
+		return alias(rewrite(x, pp, oracle), rewrite(y, pp, oracle));
+	}
+
+	@Override
+	public List<Satisfiability> alias(
+			List<Pair<SymbolicExpression, SymbolicExpression>> queries,
+			ProgramPoint pp,
+			SemanticOracle oracle)
+			throws SemanticException {
+		if (isTop() || isBottom())
+			return Collections.nCopies(queries.size(),
+					isTop() ? Satisfiability.UNKNOWN : Satisfiability.BOTTOM);
+
+		// each expression is rewritten only once
+		Map<SymbolicExpression, ExpressionSet> rewritten = new HashMap<>();
+		for (Pair<SymbolicExpression, SymbolicExpression> query : queries) {
+			if (!rewritten.containsKey(query.getLeft()))
+				rewritten.put(query.getLeft(), rewrite(query.getLeft(), pp, oracle));
+			if (!rewritten.containsKey(query.getRight()))
+				rewritten.put(query.getRight(), rewrite(query.getRight(), pp, oracle));
+		}
+
+		List<Satisfiability> result = new ArrayList<>(queries.size());
+		for (Pair<SymbolicExpression, SymbolicExpression> query : queries)
+			result.add(alias(rewritten.get(query.getLeft()), rewritten.get(query.getRight())));
+		return result;
+	}
+
+	private static Satisfiability alias(
+			ExpressionSet xrs,
+			ExpressionSet yrs) {
 		boolean atLeastOne = false;
 		boolean all = true;
 
-		ExpressionSet xrs = rewrite(x, pp, oracle);
-		ExpressionSet yrs = rewrite(y, pp, oracle);
-
 		for (SymbolicExpression xr : xrs)
 			for (SymbolicExpression yr : yrs)
 				if (xr instanceof MemoryPointer && yr instanceof MemoryPointer) {
@@ -541,6 +578,22 @@ public abstract class AllocationSiteBasedAnalysis<A extends AllocationSiteBasedA
 			return Satisfiability.NOT_SATISFIED;
 	}
 
+	/**
+	 * Yields the {@link PointsToGraph} view of the heap environment of this
+	 * domain. Since the environment is immutable, the graph (and the
+	 * transitive closures that it caches) is built once and then shared by
+	 * all the reachability queries issued on this domain instance.
+	 * 
+	 * @return the points-to graph
+	 */
+	public PointsToGraph getPointsToGraph() {
+		PointsToGraph g = graph;
+		if (g == null)
+			// concurrent initializations just build equivalent views
+			graph = g = new PointsToGraph(heapEnv);
+		return g;
+	}
+
 	@Override
 	public Satisfiability isReachableFrom(
 			SymbolicExpression x,
@@ -553,21 +606,58 @@ public abstract class AllocationSiteBasedAnalysis<A extends AllocationSiteBasedA
 		if (isBottom())
 			return Satisfiability.BOTTOM;
 
-		WorkingSet<SymbolicExpression> ws = VisitOnceFIFOWorkingSet.mk();
-		rewrite(x, pp, oracle).elements().forEach(ws::push);
-		ExpressionSet targets = rewrite(y, pp, oracle);
-
-		while (!ws.isEmpty()) {
-			SymbolicExpression current = ws.peek();
-			if (targets.elements().contains(current))
-				return Satisfiability.SATISFIED;
+		return isReachableFrom(toNodes(rewrite(x, pp, oracle)), toNodes(rewrite(y, pp, oracle)));
+	}
 
-			if (current instanceof Identifier && heapEnv.knowsIdentifier((Identifier) current))
-				heapEnv.getState((Identifier) current).elements().forEach(ws::push);
-			else
-				rewrite(current, pp, oracle).elements().forEach(ws::push);
+	@Override
+	public List<Satisfiability> isReachableFrom(
+			List<Pair<SymbolicExpression, SymbolicExpression>> queries,
+			ProgramPoint pp,
+			SemanticOracle oracle)
+			throws SemanticException {
+		if (isTop() || isBottom())
+			return Collections.nCopies(queries.size(),
+					isTop() ? Satisfiability.UNKNOWN : Satisfiability.BOTTOM);
+
+		// each expression is rewritten only once, and the closures of all
+		// sources are computed in a single traversal
+		Map<SymbolicExpression, Set<SymbolicExpression>> nodes = new HashMap<>();
+		Set<SymbolicExpression> sources = new HashSet<>();
+		for (Pair<SymbolicExpression, SymbolicExpression> query : queries) {
+			if (!nodes.containsKey(query.getLeft()))
+				nodes.put(query.getLeft(), toNodes(rewrite(query.getLeft(), pp, oracle)));
+			if (!nodes.containsKey(query.getRight()))
+				nodes.put(query.getRight(), toNodes(rewrite(query.getRight(), pp, oracle)));
+			sources.addAll(nodes.get(query.getLeft()));
 		}
+		getPointsToGraph().close(sources);
+
+		List<Satisfiability> result = new ArrayList<>(queries.size());
+		for (Pair<SymbolicExpression, SymbolicExpression> query : queries)
+			result.add(isReachableFrom(nodes.get(query.getLeft()), nodes.get(query.getRight())));
+		return result;
+	}
 
+	private Satisfiability isReachableFrom(
+			Set<SymbolicExpression> sources,
+			Set<SymbolicExpression> targets) {
+		PointsToGraph g = getPointsToGraph();
+		for (SymbolicExpression source : sources)
+			for (SymbolicExpression reached : g.closure(source))
+				if (targets.contains(reached))
+					return Satisfiability.SATISFIED;
 		return Satisfiability.NOT_SATISFIED;
 	}
+
+	private static Set<SymbolicExpression> toNodes(
+			ExpressionSet rewritten) {
+		// pointers are followed to the location they refer to
+		Set<SymbolicExpression> result = new HashSet<>();
+		for (SymbolicExpression e : rewritten)
+			if (e instanceof MemoryPointer)
+				result.add(((MemoryPointer) e).getReferencedLocation());
+			else
+				result.add(e);
+		return result;
+	}
 }
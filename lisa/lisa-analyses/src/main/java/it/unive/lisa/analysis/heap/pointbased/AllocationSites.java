@@ -11,6 +11,8 @@ import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -37,7 +39,21 @@ public class AllocationSites extends SetLattice<AllocationSites, AllocationSite>
 	 * element.
 	 */
 	public AllocationSites() {
-		this(new HashSet<>(), true);
+		this(false);
+	}
+
+	/**
+	 * Builds an instance of HeapIdentiferSetLattice, corresponding to the top
+	 * element.
+	 * 
+	 * @param useBitsets whether the sites of this instance (and of all the
+	 *                       ones derived from it) should be stored in bitsets
+	 *                       over a common {@link ExternalSetCache}, instead of
+	 *                       {@link HashSet}s
+	 */
+	public AllocationSites(
+			boolean useBitsets) {
+		this(useBitsets ? new ExternalSetCache<AllocationSite>().mkEmptySet() : new HashSet<>(), true);
 	}
 
 	/**
@@ -54,12 +70,12 @@ public class AllocationSites extends SetLattice<AllocationSites, AllocationSite>
 
 	@Override
 	public AllocationSites top() {
-		return TOP;
+		return elements instanceof ExternalSet ? new AllocationSites(newSet(Collections.emptySet()), true) : TOP;
 	}
 
 	@Override
 	public AllocationSites bottom() {
-		return BOTTOM;
+		return elements instanceof ExternalSet ? new AllocationSites(newSet(Collections.emptySet()), false) : BOTTOM;
 	}
 
 	@Override
@@ -79,7 +95,8 @@ public class AllocationSites extends SetLattice<AllocationSites, AllocationSite>
 			HeapEnvironment<AllocationSites> environment,
 			ProgramPoint pp,
 			SemanticOracle oracle) {
-		return new AllocationSites(Collections.singleton((AllocationSite) expression), false);
+		Set<AllocationSite> site = Collections.singleton((AllocationSite) expression);
+		return new AllocationSites(elements instanceof ExternalSet ? newSet(site) : site, false);
 	}
 
 	@Override
@@ -117,7 +134,7 @@ public class AllocationSites extends SetLattice<AllocationSites, AllocationSite>
 				.filter(e -> !lub.containsKey(e.getName()))
 				.forEach(e -> lub.put(e.getName(), e));
 
-		return new AllocationSites(new HashSet<>(lub.values()), false);
+		return new AllocationSites(newSet(lub.values()), false);
 	}
 
 	@Override
@@ -169,7 +186,7 @@ public class AllocationSites extends SetLattice<AllocationSites, AllocationSite>
 		if (isTop() || isBottom() || r.getSources().isEmpty())
 			return this;
 
-		Set<AllocationSite> copy = new HashSet<>(elements);
+		Set<AllocationSite> copy = newSet(elements);
 		if (copy.removeAll(r.getSources())) {
 			r.getTargets().stream()
 					.filter(AllocationSite.class::isInstance)
@@ -0,0 +1,204 @@
+package it.unive.lisa.analysis.heap.pointbased;
+
+import it.unive.lisa.analysis.nonrelational.heap.HeapEnvironment;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.Identifier;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A points-to graph view of a {@link HeapEnvironment} tracking
+ * {@link AllocationSites}, used to answer reachability queries without
+ * exploring the environment over and over. Each {@link Identifier} tracked by
+ * the environment has an edge towards each of the allocation sites it is
+ * mapped to. Moreover, each {@link AllocationSite} has an edge towards each
+ * tracked allocation site that represents one of its fields (that is, that
+ * has the same location name and a non-{@code null} field), so that the graph
+ * is meaningful for field-sensitive analyses as well. Any other expression is
+ * a node without outgoing edges.<br>
+ * <br>
+ * Since heap environments are immutable, the transitive closure of each node
+ * is computed at most once: a traversal computes the closures of all the
+ * nodes that it visits, bottom-up over the strongly connected components of
+ * the graph, and caches them for later queries.
+ */
+public class PointsToGraph {
+
+	private final HeapEnvironment<AllocationSites> heapEnv;
+
+	private final Map<SymbolicExpression, Set<SymbolicExpression>> closures;
+
+	private Map<String, Set<AllocationSite>> fields;
+
+	/**
+	 * Builds the graph view of the given environment.
+	 *
+	 * @param heapEnv the environment
+	 */
+	public PointsToGraph(
+			HeapEnvironment<AllocationSites> heapEnv) {
+		this.heapEnv = heapEnv;
+		this.closures = new HashMap<>();
+	}
+
+	/**
+	 * Yields the environment that this graph is a view of.
+	 *
+	 * @return the environment
+	 */
+	public HeapEnvironment<AllocationSites> getEnvironment() {
+		return heapEnv;
+	}
+
+	/**
+	 * Yields the nodes that are directly reachable from the given one.
+	 *
+	 * @param node the node
+	 *
+	 * @return the successors of {@code node}
+	 */
+	public synchronized Set<SymbolicExpression> successors(
+			SymbolicExpression node) {
+		if (!(node instanceof Identifier))
+			return Collections.emptySet();
+
+		Set<SymbolicExpression> result = new HashSet<>();
+		Identifier id = (Identifier) node;
+		if (heapEnv.getKeys().contains(id)) {
+			AllocationSites sites = heapEnv.getState(id);
+			if (!sites.isTop() && !sites.isBottom())
+				result.addAll(sites.elements());
+		}
+
+		if (node instanceof AllocationSite) {
+			if (fields == null)
+				fields = indexFields();
+			AllocationSite site = (AllocationSite) node;
+			for (AllocationSite field : fields.getOrDefault(site.getLocationName(), Collections.emptySet()))
+				if (!field.equals(site))
+					result.add(field);
+		}
+
+		return result;
+	}
+
+	private Map<String, Set<AllocationSite>> indexFields() {
+		Map<String, Set<AllocationSite>> result = new HashMap<>();
+		for (Identifier id : heapEnv.getKeys())
+			if (id instanceof AllocationSite && ((AllocationSite) id).getField() != null)
+				result.computeIfAbsent(((AllocationSite) id).getLocationName(), k -> new HashSet<>())
+						.add((AllocationSite) id);
+		return result;
+	}
+
+	/**
+	 * Yields the transitive closure of the given node, that is, the set of
+	 * all nodes that can be reached from it through zero or more edges. The
+	 * result is cached and shared with subsequent invocations.
+	 *
+	 * @param node the node
+	 *
+	 * @return the (unmodifiable) closure of {@code node}
+	 */
+	public synchronized Set<SymbolicExpression> closure(
+			SymbolicExpression node) {
+		close(Collections.singleton(node));
+		return closures.get(node);
+	}
+
+	/**
+	 * Computes the transitive closures of all the given nodes in a single
+	 * traversal of the graph, caching them for later queries.
+	 *
+	 * @param nodes the nodes
+	 */
+	public synchronized void close(
+			Collection<? extends SymbolicExpression> nodes) {
+		Map<SymbolicExpression, Integer> indexes = new HashMap<>();
+		Map<SymbolicExpression, Set<SymbolicExpression>> partial = new HashMap<>();
+		LinkedList<SymbolicExpression> stack = new LinkedList<>();
+		for (SymbolicExpression node : nodes)
+			if (!closures.containsKey(node) && !indexes.containsKey(node))
+				visit(node, indexes, partial, stack);
+	}
+
+	/**
+	 * Yields whether {@code target} is in the transitive closure of
+	 * {@code source}.
+	 *
+	 * @param source the source node
+	 * @param target the target node
+	 *
+	 * @return whether {@code target} can be reached from {@code source}
+	 */
+	public boolean reaches(
+			SymbolicExpression source,
+			SymbolicExpression target) {
+		return closure(source).contains(target);
+	}
+
+	/**
+	 * Yields the number of nodes whose transitive closure has already been
+	 * computed.
+	 *
+	 * @return the number of cached closures
+	 */
+	public synchronized int cachedClosures() {
+		return closures.size();
+	}
+
+	private int visit(
+			SymbolicExpression node,
+			Map<SymbolicExpression, Integer> indexes,
+			Map<SymbolicExpression, Set<SymbolicExpression>> partial,
+			LinkedList<SymbolicExpression> stack) {
+		// tarjan's algorithm: closures are finalized when the root of a
+		// strongly connected component is found, and are shared by all the
+		// nodes of the component
+		int index = indexes.size();
+		int low = index;
+		indexes.put(node, index);
+		stack.push(node);
+		Set<SymbolicExpression> reach = new HashSet<>();
+		reach.add(node);
+		partial.put(node, reach);
+
+		for (SymbolicExpression succ : successors(node)) {
+			Set<SymbolicExpression> known = closures.get(succ);
+			if (known != null)
+				reach.addAll(known);
+			else if (!indexes.containsKey(succ)) {
+				low = Math.min(low, visit(succ, indexes, partial, stack));
+				known = closures.get(succ);
+				if (known != null)
+					// succ's component has been completed
+					reach.addAll(known);
+			} else
+				// succ is still on the stack: it belongs to our component,
+				// and its closure will be merged when the root is found
+				low = Math.min(low, indexes.get(succ));
+		}
+
+		if (low == index) {
+			Set<SymbolicExpression> component = new HashSet<>();
+			Set<SymbolicExpression> closure = new HashSet<>();
+			SymbolicExpression member;
+			do {
+				member = stack.pop();
+				component.add(member);
+				closure.addAll(partial.remove(member));
+			} while (member != node);
+
+			closure = Collections.unmodifiableSet(closure);
+			for (SymbolicExpression m : component)
+				closures.put(m, closure);
+		}
+
+		return low;
+	}
+}
@@ -0,0 +1,662 @@
+package it.unive.lisa.analysis.numeric;
+
+import it.unive.lisa.symbolic.value.Identifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * An octagonal difference-bound matrix over a fixed set of integer variables,
+ * used as building block of the {@link Octagon} domain. Each variable
+ * {@code v} (at position {@code k} in the matrix) is represented by two
+ * literals, the positive one {@code V[2k] = v} and the negative one
+ * {@code V[2k+1] = -v}, and the entry {@code m[i][j]} of the matrix is the
+ * bound {@code V[j] - V[i] <= m[i][j]}. As {@code m[i][j]} and
+ * {@code m[j^1][i^1]} bound the same constraint, only the entries with
+ * {@code j <= (i|1)} are stored, packed row by row in a single array of
+ * {@code 2n(n+1)} doubles where {@code n} is the number of variables, and a
+ * missing bound is {@link Double#POSITIVE_INFINITY}.<br>
+ * <br>
+ * Instances of this class are immutable. Unless explicitly stated, the
+ * operations expect and produce <i>closed</i> matrices, that is, matrices
+ * whose bounds are all tight (the tight closure of integer octagons is used
+ * here: shortest-path closure, followed by the tightening of unary bounds and
+ * by a single strengthening step). The only matrices that are not closed are
+ * the ones produced by {@link #widening(DifferenceBoundMatrix)} and
+ * {@link #narrowing(DifferenceBoundMatrix)}, that must not be closed to
+ * guarantee the convergence of the fixpoint: {@link #close()} can be used to
+ * retrieve their closure. Operations that make the set of represented values
+ * empty return {@code null}.
+ *
+ * @see <a href="https://arxiv.org/abs/cs/0703084">The Octagon Abstract
+ *          Domain</a>
+ */
+public class DifferenceBoundMatrix {
+
+	/**
+	 * The variables of this matrix, in the order of their literals.
+	 */
+	private final Identifier[] variables;
+
+	/**
+	 * The stored bounds, see {@link #idx(int, int)}.
+	 */
+	private final double[] bounds;
+
+	/**
+	 * Whether or not this matrix is closed. This is not part of the
+	 * equality, as it only tells if {@link #close()} has something to do.
+	 */
+	private final boolean closed;
+
+	/**
+	 * The position of each variable, derived from {@link #variables}.
+	 */
+	private final Map<Identifier, Integer> index;
+
+	/**
+	 * Builds a matrix where the given variables are unconstrained.
+	 *
+	 * @param variables the variables of the matrix
+	 */
+	public DifferenceBoundMatrix(
+			Identifier... variables) {
+		this(variables, top(variables.length), true);
+	}
+
+	private DifferenceBoundMatrix(
+			Identifier[] variables,
+			double[] bounds,
+			boolean closed) {
+		this.variables = variables;
+		this.bounds = bounds;
+		this.closed = closed;
+		this.index = new HashMap<>(variables.length * 2);
+		for (int i = 0; i < variables.length; i++)
+			index.put(variables[i], i);
+	}
+
+	private static double[] top(
+			int n) {
+		double[] m = new double[2 * n * (n + 1)];
+		Arrays.fill(m, Double.POSITIVE_INFINITY);
+		for (int i = 0; i < 2 * n; i++)
+			m[idx(i, i)] = 0;
+		return m;
+	}
+
+	/**
+	 * Yields the position of the first stored entry of row {@code i}.
+	 */
+	private static int rowStart(
+			int i) {
+		return ((i + 1) * (i + 1)) / 2;
+	}
+
+	/**
+	 * Yields the position where {@code m[i][j]} is stored, exploiting the
+	 * coherence of octagonal matrices ({@code m[i][j] = m[j^1][i^1]}).
+	 */
+	private static int idx(
+			int i,
+			int j) {
+		if (j > (i | 1))
+			return (i ^ 1) + rowStart(j ^ 1);
+		return j + rowStart(i);
+	}
+
+	/**
+	 * Yields the literal of the {@code k}-th variable with the given sign.
+	 *
+	 * @param k        the position of the variable
+	 * @param positive whether the positive literal ({@code v}) or the
+	 *                     negative one ({@code -v}) should be returned
+	 *
+	 * @return the literal
+	 */
+	public static int literal(
+			int k,
+			boolean positive) {
+		return positive ? 2 * k : 2 * k + 1;
+	}
+
+	/**
+	 * Yields the variables of this matrix, in the order of their literals.
+	 *
+	 * @return the variables
+	 */
+	public List<Identifier> getVariables() {
+		return Collections.unmodifiableList(Arrays.asList(variables));
+	}
+
+	/**
+	 * Yields the number of variables of this matrix.
+	 *
+	 * @return the number of variables
+	 */
+	public int size() {
+		return variables.length;
+	}
+
+	/**
+	 * Yields the position of the given variable in this matrix.
+	 *
+	 * @param id the variable
+	 *
+	 * @return the position, or {@code -1} if {@code id} is not a variable of
+	 *             this matrix
+	 */
+	public int indexOf(
+			Identifier id) {
+		Integer i = index.get(id);
+		return i == null ? -1 : i;
+	}
+
+	/**
+	 * Yields the bound {@code m[i][j]} of {@code V[j] - V[i]}.
+	 *
+	 * @param i the first literal
+	 * @param j the second literal
+	 *
+	 * @return the bound, possibly {@link Double#POSITIVE_INFINITY}
+	 */
+	public double get(
+			int i,
+			int j) {
+		return bounds[idx(i, j)];
+	}
+
+	/**
+	 * Yields the lower bound of the {@code k}-th variable.
+	 *
+	 * @param k the position of the variable
+	 *
+	 * @return the lower bound, possibly {@link Double#NEGATIVE_INFINITY}
+	 */
+	public double getLowerBound(
+			int k) {
+		return -bounds[idx(2 * k, 2 * k + 1)] / 2;
+	}
+
+	/**
+	 * Yields the upper bound of the {@code k}-th variable.
+	 *
+	 * @param k the position of the variable
+	 *
+	 * @return the upper bound, possibly {@link Double#POSITIVE_INFINITY}
+	 */
+	public double getUpperBound(
+			int k) {
+		return bounds[idx(2 * k + 1, 2 * k)] / 2;
+	}
+
+	/**
+	 * Yields {@code true} if and only if this matrix is closed.
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Yields {@code true} if and only if all variables of this matrix are
+	 * unconstrained.
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean isTop() {
+		for (int i = 0; i < 2 * variables.length; i++) {
+			int start = rowStart(i);
+			for (int j = 0; j <= (i | 1); j++)
+				if (i != j && bounds[start + j] != Double.POSITIVE_INFINITY)
+					return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Yields the closure of this matrix, through the Floyd-Warshall algorithm
+	 * (pivoting on both literals of a variable at each step) followed by
+	 * tightening and strengthening. This runs in cubic time
+	 * w.r.t. the number of variables, and it returns {@code this} if the
+	 * matrix is already closed.
+	 *
+	 * @return the closed matrix, or {@code null} if it represents no value
+	 */
+	public DifferenceBoundMatrix close() {
+		if (closed)
+			return this;
+
+		int n2 = 2 * variables.length;
+		double[] m = bounds.clone();
+		double[] toPos = new double[n2], toNeg = new double[n2], fromPos = new double[n2], fromNeg = new double[n2];
+		for (int k = 0; k < n2; k += 2) {
+			// both literals of a variable are used as pivots at once: since
+			// the resulting update is coherent, only stored entries need to
+			// be updated
+			for (int i = 0; i < n2; i++) {
+				toPos[i] = m[idx(i, k)];
+				toNeg[i] = m[idx(i, k + 1)];
+				fromPos[i] = m[idx(k, i)];
+				fromNeg[i] = m[idx(k + 1, i)];
+			}
+			double posToNeg = m[idx(k, k + 1)], negToPos = m[idx(k + 1, k)];
+			for (int i = 0; i < n2; i++) {
+				double ip = toPos[i], in = toNeg[i];
+				if (ip == Double.POSITIVE_INFINITY && in == Double.POSITIVE_INFINITY)
+					continue;
+				double ipn = ip + posToNeg, inp = in + negToPos;
+				int start = rowStart(i);
+				for (int j = 0; j <= (i | 1); j++) {
+					double v = m[start + j];
+					v = Math.min(v, ip + fromPos[j]);
+					v = Math.min(v, in + fromNeg[j]);
+					v = Math.min(v, ipn + fromNeg[j]);
+					v = Math.min(v, inp + fromPos[j]);
+					m[start + j] = v;
+				}
+			}
+		}
+
+		if (!tighten(m, n2))
+			return null;
+		return new DifferenceBoundMatrix(variables, m, true);
+	}
+
+	/**
+	 * Completes the closure of a matrix that is closed w.r.t. shortest paths,
+	 * by tightening the unary bounds and then strengthening all bounds.
+	 *
+	 * @return {@code false} if the matrix represents no value
+	 */
+	private static boolean tighten(
+			double[] m,
+			int n2) {
+		for (int i = 0; i < n2; i++)
+			if (m[idx(i, i)] < 0)
+				return false;
+			else
+				m[idx(i, i)] = 0;
+
+		double[] unary = new double[n2];
+		for (int i = 0; i < n2; i++) {
+			int pos = idx(i, i ^ 1);
+			// integer variables: 2v <= c implies 2v <= 2 * floor(c / 2)
+			m[pos] = 2 * Math.floor(m[pos] / 2);
+			unary[i] = m[pos];
+		}
+		for (int i = 0; i < n2; i += 2)
+			if (unary[i] + unary[i + 1] < 0)
+				return false;
+
+		for (int i = 0; i < n2; i++) {
+			if (unary[i] == Double.POSITIVE_INFINITY)
+				continue;
+			int start = rowStart(i);
+			for (int j = 0; j <= (i | 1); j++) {
+				double strengthened = (unary[i] + unary[j ^ 1]) / 2;
+				if (strengthened < m[start + j])
+					m[start + j] = strengthened;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Adds the constraint {@code V[j] - V[i] <= c} (and its coherent
+	 * counterpart {@code V[i^1] - V[j^1] <= c}) to this matrix. As this matrix
+	 * is closed, the new bounds can be computed in quadratic time by only
+	 * considering the paths passing through the new edges.
+	 *
+	 * @param i the first literal
+	 * @param j the second literal
+	 * @param c the bound, rounded down to an integer
+	 *
+	 * @return the closed matrix with the new constraint, or {@code null} if it
+	 *             represents no value
+	 */
+	public DifferenceBoundMatrix addConstraint(
+			int i,
+			int j,
+			double c) {
+		DifferenceBoundMatrix base = close();
+		if (base == null)
+			return null;
+		c = Math.floor(c);
+		if (c >= base.get(i, j))
+			return base;
+		if (c + base.get(j, i) < 0)
+			return null;
+
+		int n2 = 2 * variables.length;
+		double[] m = base.bounds.clone();
+		double[] toI = new double[n2], toJ1 = new double[n2], fromJ = new double[n2], fromI1 = new double[n2];
+		for (int k = 0; k < n2; k++) {
+			toI[k] = m[idx(k, i)];
+			toJ1[k] = m[idx(k, j ^ 1)];
+			fromJ[k] = m[idx(j, k)];
+			fromI1[k] = m[idx(i ^ 1, k)];
+		}
+		// paths using both i -> j and j^1 -> i^1
+		double viaJJ1 = c + m[idx(j, j ^ 1)] + c;
+		double viaI1I = c + m[idx(i ^ 1, i)] + c;
+
+		for (int a = 0; a < n2; a++) {
+			int start = rowStart(a);
+			for (int b = 0; b <= (a | 1); b++) {
+				double v = m[start + b];
+				v = Math.min(v, toI[a] + c + fromJ[b]);
+				v = Math.min(v, toJ1[a] + c + fromI1[b]);
+				v = Math.min(v, toI[a] + viaJJ1 + fromI1[b]);
+				v = Math.min(v, toJ1[a] + viaI1I + fromJ[b]);
+				m[start + b] = v;
+			}
+		}
+
+		if (!tighten(m, n2))
+			return null;
+		return new DifferenceBoundMatrix(variables, m, true);
+	}
+
+	/**
+	 * Yields the matrix where the {@code k}-th variable is shifted by
+	 * {@code c}, that is, the result of assigning {@code v + c} to it.
+	 *
+	 * @param k the position of the variable
+	 * @param c the shift
+	 *
+	 * @return the shifted matrix
+	 */
+	public DifferenceBoundMatrix translate(
+			int k,
+			double c) {
+		if (c == 0)
+			return this;
+		int n2 = 2 * variables.length;
+		double[] m = bounds.clone();
+		for (int i = 0; i < n2; i++) {
+			double si = shift(i, k, c);
+			int start = rowStart(i);
+			for (int j = 0; j <= (i | 1); j++)
+				// V[j] - V[i] grows by shift(j) - shift(i)
+				m[start + j] += shift(j, k, c) - si;
+		}
+		return new DifferenceBoundMatrix(variables, m, closed);
+	}
+
+	private static double shift(
+			int literal,
+			int k,
+			double c) {
+		return literal == 2 * k ? c : literal == 2 * k + 1 ? -c : 0;
+	}
+
+	/**
+	 * Yields the matrix where the {@code k}-th variable is negated, that is,
+	 * the result of assigning {@code -v} to it.
+	 *
+	 * @param k the position of the variable
+	 *
+	 * @return the negated matrix
+	 */
+	public DifferenceBoundMatrix negate(
+			int k) {
+		int n2 = 2 * variables.length;
+		double[] m = new double[bounds.length];
+		for (int i = 0; i < n2; i++) {
+			int start = rowStart(i);
+			int pi = i / 2 == k ? i ^ 1 : i;
+			for (int j = 0; j <= (i | 1); j++)
+				m[start + j] = bounds[idx(pi, j / 2 == k ? j ^ 1 : j)];
+		}
+		return new DifferenceBoundMatrix(variables, m, closed);
+	}
+
+	/**
+	 * Yields the matrix where variables are renamed according to the given
+	 * function. Variables that are mapped to {@code null}, or to a variable
+	 * that another one has already been mapped to, are removed from the
+	 * matrix, forgetting the constraints on them.
+	 *
+	 * @param renaming the renaming function
+	 *
+	 * @return the renamed matrix
+	 */
+	public DifferenceBoundMatrix rename(
+			UnaryOperator<Identifier> renaming) {
+		Identifier[] renamed = new Identifier[variables.length];
+		int[] kept = new int[variables.length];
+		Set<Identifier> seen = new HashSet<>();
+		int n = 0;
+		boolean changed = false;
+		for (int k = 0; k < variables.length; k++) {
+			Identifier id = renaming.apply(variables[k]);
+			if (id == null || !seen.add(id)) {
+				changed = true;
+				continue;
+			}
+			changed |= id != variables[k];
+			renamed[n] = id;
+			kept[n++] = k;
+		}
+
+		if (!changed)
+			return this;
+		if (n == variables.length)
+			return new DifferenceBoundMatrix(renamed, bounds, closed);
+
+		double[] m = new double[2 * n * (n + 1)];
+		for (int i = 0; i < 2 * n; i++) {
+			int start = rowStart(i);
+			int oi = 2 * kept[i / 2] + (i & 1);
+			for (int j = 0; j <= (i | 1); j++)
+				m[start + j] = bounds[idx(oi, 2 * kept[j / 2] + (j & 1))];
+		}
+		// removing variables from a closed matrix keeps it closed
+		return new DifferenceBoundMatrix(Arrays.copyOf(renamed, n), m, closed);
+	}
+
+	/**
+	 * Builds the matrix over the given variables that joins the constraints
+	 * of the matrices owning them, that is, their cartesian product
+	 * restricted to the given variables. Variables owned by no matrix are
+	 * unconstrained. Bounds between variables owned by different matrices
+	 * are the ones implied by the bounds of the two variables, so that the
+	 * result is closed if all the matrices are.
+	 *
+	 * @param variables the variables of the result
+	 * @param owners    the function yielding the matrix owning each variable,
+	 *                      or {@code null} for unconstrained variables
+	 *
+	 * @return the combined matrix
+	 */
+	public static DifferenceBoundMatrix combine(
+			Identifier[] variables,
+			Function<Identifier, DifferenceBoundMatrix> owners) {
+		int n = variables.length;
+		DifferenceBoundMatrix[] owner = new DifferenceBoundMatrix[n];
+		int[] pos = new int[2 * n];
+		boolean closed = true;
+		for (int k = 0; k < n; k++) {
+			owner[k] = owners.apply(variables[k]);
+			if (owner[k] != null) {
+				closed &= owner[k].closed;
+				int p = owner[k].indexOf(variables[k]);
+				pos[2 * k] = 2 * p;
+				pos[2 * k + 1] = 2 * p + 1;
+			}
+		}
+
+		double[] unary = new double[2 * n];
+		for (int i = 0; i < 2 * n; i++)
+			unary[i] = owner[i / 2] == null ? Double.POSITIVE_INFINITY : owner[i / 2].get(pos[i], pos[i ^ 1]);
+
+		double[] m = new double[2 * n * (n + 1)];
+		for (int i = 0; i < 2 * n; i++) {
+			int start = rowStart(i);
+			DifferenceBoundMatrix oi = owner[i / 2];
+			for (int j = 0; j <= (i | 1); j++)
+				if (i == j)
+					m[start + j] = 0;
+				else if (oi != null && oi == owner[j / 2])
+					m[start + j] = oi.get(pos[i], pos[j]);
+				else
+					m[start + j] = (unary[i] + unary[j ^ 1]) / 2;
+		}
+		return new DifferenceBoundMatrix(variables, m, closed);
+	}
+
+	private void checkCompatible(
+			DifferenceBoundMatrix other) {
+		if (!Arrays.equals(variables, other.variables))
+			throw new IllegalArgumentException("Matrices over different variables: "
+					+ Arrays.toString(variables) + " and " + Arrays.toString(other.variables));
+	}
+
+	/**
+	 * Yields the least upper bound between this matrix and the given one,
+	 * defined over the same variables, as the pointwise maximum of their
+	 * bounds.
+	 *
+	 * @param other the other matrix
+	 *
+	 * @return the least upper bound
+	 */
+	public DifferenceBoundMatrix lub(
+			DifferenceBoundMatrix other) {
+		checkCompatible(other);
+		double[] m = new double[bounds.length];
+		for (int i = 0; i < m.length; i++)
+			m[i] = Math.max(bounds[i], other.bounds[i]);
+		return new DifferenceBoundMatrix(variables, m, closed && other.closed);
+	}
+
+	/**
+	 * Yields the greatest lower bound between this matrix and the given one,
+	 * defined over the same variables, as the closure of the pointwise
+	 * minimum of their bounds.
+	 *
+	 * @param other the other matrix
+	 *
+	 * @return the greatest lower bound, or {@code null} if it represents no
+	 *             value
+	 */
+	public DifferenceBoundMatrix glb(
+			DifferenceBoundMatrix other) {
+		checkCompatible(other);
+		double[] m = new double[bounds.length];
+		for (int i = 0; i < m.length; i++)
+			m[i] = Math.min(bounds[i], other.bounds[i]);
+		return new DifferenceBoundMatrix(variables, m, false).close();
+	}
+
+	/**
+	 * Yields the widening between this matrix and the given one, defined over
+	 * the same variables, that drops all bounds of this matrix that are not
+	 * stable in {@code other}. The result is not closed.
+	 *
+	 * @param other the other matrix
+	 *
+	 * @return the widening
+	 */
+	public DifferenceBoundMatrix widening(
+			DifferenceBoundMatrix other) {
+		checkCompatible(other);
+		double[] m = new double[bounds.length];
+		for (int i = 0; i < m.length; i++)
+			m[i] = other.bounds[i] <= bounds[i] ? bounds[i] : Double.POSITIVE_INFINITY;
+		return new DifferenceBoundMatrix(variables, m, false);
+	}
+
+	/**
+	 * Yields the narrowing between this matrix and the given one, defined
+	 * over the same variables, that refines only the missing bounds of this
+	 * matrix with the ones of {@code other}. The result is not closed.
+	 *
+	 * @param other the other matrix
+	 *
+	 * @return the narrowing
+	 */
+	public DifferenceBoundMatrix narrowing(
+			DifferenceBoundMatrix other) {
+		checkCompatible(other);
+		double[] m = new double[bounds.length];
+		for (int i = 0; i < m.length; i++)
+			m[i] = bounds[i] == Double.POSITIVE_INFINITY ? other.bounds[i] : bounds[i];
+		return new DifferenceBoundMatrix(variables, m, false);
+	}
+
+	/**
+	 * Yields {@code true} if and only if all the bounds of this matrix are
+	 * smaller or equal than the ones of the given matrix, defined over the
+	 * same variables. If this matrix is closed, this holds exactly when all
+	 * the values represented by this matrix are also represented by
+	 * {@code other}.
+	 *
+	 * @param other the other matrix
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean lessOrEqual(
+			DifferenceBoundMatrix other) {
+		checkCompatible(other);
+		for (int i = 0; i < bounds.length; i++)
+			if (bounds[i] > other.bounds[i])
+				return false;
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Arrays.hashCode(variables);
+		result = prime * result + Arrays.hashCode(bounds);
+		return result;
+	}
+
+	@Override
+	public boolean equals(
+			Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		DifferenceBoundMatrix other = (DifferenceBoundMatrix) obj;
+		return Arrays.equals(variables, other.variables) && Arrays.equals(bounds, other.bounds);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(Arrays.toString(variables));
+		for (int i = 0; i < 2 * variables.length; i++) {
+			sb.append("\n");
+			for (int j = 0; j < 2 * variables.length; j++) {
+				double v = get(i, j);
+				sb.append(j == 0 ? "" : "\t").append(v == Double.POSITIVE_INFINITY ? "+Inf" : format(v));
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Formats a finite bound, omitting the decimal part of integers.
+	 *
+	 * @param v the bound
+	 *
+	 * @return the formatted bound
+	 */
+	static String format(
+			double v) {
+		return v == Math.rint(v) && Math.abs(v) < 1e15 ? Long.toString((long) v) : Double.toString(v);
+	}
+}
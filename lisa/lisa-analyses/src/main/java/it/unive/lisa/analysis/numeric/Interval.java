@@ -146,8 +146,8 @@ public class Interval implements BaseNonRelationalValueDomain<Interval>, Compara
 			ProgramPoint pp,
 			SemanticOracle oracle) {
 		if (constant.getValue() instanceof Integer) {
-			Integer i = (Integer) constant.getValue();
-			return new Interval(new MathNumber(i), new MathNumber(i));
+			MathNumber i = new MathNumber((Integer) constant.getValue());
+			return new Interval(i, i);
 		}
 
 		return top();
@@ -275,7 +275,7 @@ public class Interval implements BaseNonRelationalValueDomain<Interval>, Compara
 			throws SemanticException {
 		MathNumber newLow = interval.getLow().min(other.interval.getLow());
 		MathNumber newHigh = interval.getHigh().max(other.interval.getHigh());
-		return newLow.isMinusInfinity() && newHigh.isPlusInfinity() ? top() : new Interval(newLow, newHigh);
+		return newLow.isMinusInfinity() && newHigh.isPlusInfinity() ? top() : mk(newLow, newHigh, other);
 	}
 
 	@Override
@@ -286,7 +286,7 @@ public class Interval implements BaseNonRelationalValueDomain<Interval>, Compara
 
 		if (newLow.compareTo(newHigh) > 0)
 			return bottom();
-		return newLow.isMinusInfinity() && newHigh.isPlusInfinity() ? top() : new Interval(newLow, newHigh);
+		return newLow.isMinusInfinity() && newHigh.isPlusInfinity() ? top() : mk(newLow, newHigh, other);
 	}
 
 	@Override
@@ -304,7 +304,7 @@ public class Interval implements BaseNonRelationalValueDomain<Interval>, Compara
 		else
 			newLow = interval.getLow();
 
-		return newLow.isMinusInfinity() && newHigh.isPlusInfinity() ? top() : new Interval(newLow, newHigh);
+		return newLow.isMinusInfinity() && newHigh.isPlusInfinity() ? top() : mk(newLow, newHigh, other);
 	}
 
 	@Override
@@ -314,7 +314,24 @@ public class Interval implements BaseNonRelationalValueDomain<Interval>, Compara
 		MathNumber newLow, newHigh;
 		newHigh = interval.getHigh().isInfinite() ? other.interval.getHigh() : interval.getHigh();
 		newLow = interval.getLow().isInfinite() ? other.interval.getLow() : interval.getLow();
-		return new Interval(newLow, newHigh);
+		return mk(newLow, newHigh, other);
+	}
+
+	/**
+	 * Yields an interval with the given bounds, avoiding the creation of a new
+	 * one if either this interval or {@code other} already has them. Bounds
+	 * are compared by identity, as the operations of {@link MathNumber}
+	 * return one of their operands whenever possible.
+	 */
+	private Interval mk(
+			MathNumber low,
+			MathNumber high,
+			Interval other) {
+		if (low == interval.getLow() && high == interval.getHigh())
+			return this;
+		if (low == other.interval.getLow() && high == other.interval.getHigh())
+			return other;
+		return new Interval(low, high);
 	}
 
 	@Override
@@ -0,0 +1,1159 @@
+package it.unive.lisa.analysis.numeric;
+
+import it.unive.lisa.analysis.BaseLattice;
+import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.analysis.ScopeToken;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.SemanticOracle;
+import it.unive.lisa.analysis.lattices.Satisfiability;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.UnaryExpression;
+import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.symbolic.value.operator.AdditionOperator;
+import it.unive.lisa.symbolic.value.operator.MultiplicationOperator;
+import it.unive.lisa.symbolic.value.operator.SubtractionOperator;
+import it.unive.lisa.symbolic.value.operator.binary.BinaryOperator;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonEq;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonGe;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonGt;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonLe;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonLt;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonNe;
+import it.unive.lisa.symbolic.value.operator.binary.LogicalAnd;
+import it.unive.lisa.symbolic.value.operator.binary.LogicalOr;
+import it.unive.lisa.symbolic.value.operator.unary.LogicalNegation;
+import it.unive.lisa.symbolic.value.operator.unary.NumericNegation;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.numeric.MathNumber;
+import it.unive.lisa.util.representation.SetRepresentation;
+import it.unive.lisa.util.representation.StringRepresentation;
+import it.unive.lisa.util.representation.StructuredRepresentation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * The octagon abstract domain, a weakly relational numeric abstract domain
+ * capturing properties of the form &plusmn;x &plusmn; y &le; c over integer
+ * variables. It is more precise than the {@link Pentagon} domain, and it is
+ * implemented as a {@link ValueDomain}.<br>
+ * <br>
+ * Constraints are stored in {@link DifferenceBoundMatrix}es through
+ * <i>variable packing</i>: variables are partitioned in packs, and only the
+ * variables of the same pack share a matrix. Packs are built on demand: a
+ * variable enters a pack when an assignment or an assumption relates it with
+ * the variables of the pack, and it leaves its pack when it is forgotten or
+ * reassigned. Unrelated packs are never merged, keeping the cost of the
+ * (quadratic or cubic) matrix operations proportional to the size of the
+ * packs instead of the number of variables, and untouched packs are shared
+ * among abstract states.<br>
+ * <br>
+ * Assignments and assumptions of octagonal constraints are handled through
+ * the incremental closure of the matrix of the pack they involve, while
+ * non-octagonal expressions are approximated through the bounds of their
+ * variables (resorting to {@link Interval}s for non-linear ones). Since
+ * bounds are tightened to integers, only variables and expressions whose
+ * runtime types are all integral numeric types are tracked: all other
+ * variables (e.g., floating point ones, or ones whose type is unknown) are
+ * left unconstrained.
+ *
+ * @see <a href="https://arxiv.org/abs/cs/0703084">The Octagon Abstract
+ *          Domain</a>
+ */
+public class Octagon implements ValueDomain<Octagon>, BaseLattice<Octagon> {
+
+	private static final Octagon TOP = new Octagon();
+
+	private static final Octagon BOTTOM = new Octagon(Collections.emptyMap(), true);
+
+	/**
+	 * The pack of each variable: variables in the same pack are mapped to the
+	 * same matrix, and variables that are not mapped are unconstrained.
+	 */
+	private final Map<Identifier, DifferenceBoundMatrix> packs;
+
+	/**
+	 * Whether or not this is the bottom element.
+	 */
+	private final boolean isBottom;
+
+	/**
+	 * Builds the top octagon.
+	 */
+	public Octagon() {
+		this(Collections.emptyMap(), false);
+	}
+
+	private Octagon(
+			Map<Identifier, DifferenceBoundMatrix> packs,
+			boolean isBottom) {
+		this.packs = packs;
+		this.isBottom = isBottom;
+	}
+
+	@Override
+	public Octagon top() {
+		return TOP;
+	}
+
+	@Override
+	public boolean isTop() {
+		return !isBottom && packs.isEmpty();
+	}
+
+	@Override
+	public Octagon bottom() {
+		return BOTTOM;
+	}
+
+	@Override
+	public boolean isBottom() {
+		return isBottom;
+	}
+
+	/**
+	 * Yields the distinct packs of this octagon.
+	 */
+	private Set<DifferenceBoundMatrix> distinctPacks() {
+		Set<DifferenceBoundMatrix> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+		distinct.addAll(packs.values());
+		return distinct;
+	}
+
+	/**
+	 * Yields the octagon where the variables of the given packs are mapped to
+	 * them. Packs with no variables or no constraints are dropped, leaving
+	 * their variables unconstrained.
+	 */
+	private Octagon install(
+			Iterable<DifferenceBoundMatrix> updated) {
+		Map<Identifier, DifferenceBoundMatrix> result = new HashMap<>(packs);
+		for (DifferenceBoundMatrix pack : updated)
+			if (pack.isTop())
+				for (Identifier id : pack.getVariables())
+					result.remove(id);
+			else
+				for (Identifier id : pack.getVariables())
+					result.put(id, pack);
+		return result.isEmpty() ? TOP : new Octagon(result, false);
+	}
+
+	/**
+	 * Yields the octagon where the given variables are unconstrained.
+	 */
+	private Octagon remove(
+			Set<Identifier> ids) {
+		Map<Identifier, DifferenceBoundMatrix> result = new HashMap<>(packs);
+		Set<DifferenceBoundMatrix> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Identifier id : ids) {
+			DifferenceBoundMatrix pack = result.remove(id);
+			if (pack != null)
+				touched.add(pack);
+		}
+		if (touched.isEmpty())
+			return this;
+
+		for (DifferenceBoundMatrix pack : touched) {
+			DifferenceBoundMatrix closed = pack.close();
+			if (closed == null)
+				return BOTTOM;
+			DifferenceBoundMatrix reduced = closed.rename(id -> ids.contains(id) ? null : id);
+			if (reduced.isTop())
+				for (Identifier id : reduced.getVariables())
+					result.remove(id);
+			else
+				for (Identifier id : reduced.getVariables())
+					result.put(id, reduced);
+		}
+		return result.isEmpty() ? TOP : new Octagon(result, false);
+	}
+
+	/**
+	 * Yields the closed matrix over the given variables and the ones sharing
+	 * a pack with them, that is, the union of their packs.
+	 */
+	private DifferenceBoundMatrix merge(
+			Set<Identifier> ids) {
+		Set<Identifier> vars = new LinkedHashSet<>();
+		Set<DifferenceBoundMatrix> merged = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Identifier id : ids) {
+			DifferenceBoundMatrix pack = packs.get(id);
+			if (pack == null)
+				vars.add(id);
+			else if (merged.add(pack))
+				vars.addAll(pack.getVariables());
+		}
+
+		if (merged.size() == 1 && vars.size() == merged.iterator().next().size())
+			// all the variables are already in the same pack
+			return merged.iterator().next().close();
+
+		return DifferenceBoundMatrix.combine(vars.toArray(Identifier[]::new), id -> {
+			DifferenceBoundMatrix pack = packs.get(id);
+			return pack == null ? null : pack.close();
+		});
+	}
+
+	/**
+	 * Yields the bounds of the given variable.
+	 */
+	private double[] range(
+			Identifier id) {
+		DifferenceBoundMatrix pack = packs.get(id);
+		if (pack == null)
+			return new double[] { Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY };
+		int k = pack.indexOf(id);
+		pack = pack.close();
+		if (pack == null)
+			return new double[] { Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY };
+		return new double[] { pack.getLowerBound(k), pack.getUpperBound(k) };
+	}
+
+	/**
+	 * Yields the bounds of the given linear expression: expressions of the
+	 * form &plusmn;x &plusmn; y + c are bounded through the relational
+	 * constraints between {@code x} and {@code y}, while the others are
+	 * bounded through the ones of their variables.
+	 */
+	private double[] range(
+			LinearExpression expr) {
+		double lo = expr.constant, hi = expr.constant;
+		if (expr.isOctagonal() && expr.coefficients.size() == 2) {
+			Iterator<Entry<Identifier, Double>> it = expr.coefficients.entrySet().iterator();
+			Entry<Identifier, Double> first = it.next(), second = it.next();
+			DifferenceBoundMatrix pack = packs.get(first.getKey());
+			if (pack != null && pack == packs.get(second.getKey()) && (pack = pack.close()) != null) {
+				int x = pack.indexOf(first.getKey()), y = pack.indexOf(second.getKey());
+				boolean px = first.getValue() > 0, py = second.getValue() > 0;
+				// sx*x + sy*y = V[lit(x, sx)] - V[lit(y, -sy)]
+				double up = pack.get(DifferenceBoundMatrix.literal(y, !py), DifferenceBoundMatrix.literal(x, px));
+				double down = pack.get(DifferenceBoundMatrix.literal(y, py), DifferenceBoundMatrix.literal(x, !px));
+				return new double[] { lo - down, hi + up };
+			}
+		}
+
+		for (Entry<Identifier, Double> entry : expr.coefficients.entrySet()) {
+			double[] r = range(entry.getKey());
+			double a = entry.getValue();
+			if (a > 0) {
+				lo += a * r[0];
+				hi += a * r[1];
+			} else {
+				lo += a * r[1];
+				hi += a * r[0];
+			}
+		}
+		return new double[] { lo, hi };
+	}
+
+	/**
+	 * Adds the constraint {@code expr <= 0} to the given matrix, that must
+	 * contain all the variables of {@code expr}. This is exact for octagonal
+	 * constraints, while the other ones are approximated by bounding each of
+	 * their variables with the bounds of the others.
+	 *
+	 * @return the resulting matrix, or {@code null} if it represents no value
+	 */
+	private static DifferenceBoundMatrix constrain(
+			DifferenceBoundMatrix pack,
+			LinearExpression expr) {
+		int size = expr.coefficients.size();
+		if (size == 0)
+			return expr.constant <= 0 ? pack : null;
+
+		if (expr.isOctagonal() && size <= 2) {
+			Iterator<Entry<Identifier, Double>> it = expr.coefficients.entrySet().iterator();
+			Entry<Identifier, Double> first = it.next();
+			int x = pack.indexOf(first.getKey());
+			boolean px = first.getValue() > 0;
+			if (size == 1)
+				// sx*x <= -c is V[lit(x, sx)] - V[lit(x, -sx)] <= -2c
+				return pack.addConstraint(DifferenceBoundMatrix.literal(x, !px),
+						DifferenceBoundMatrix.literal(x, px), -2 * expr.constant);
+			Entry<Identifier, Double> second = it.next();
+			int y = pack.indexOf(second.getKey());
+			boolean py = second.getValue() > 0;
+			// sx*x + sy*y <= -c is V[lit(x, sx)] - V[lit(y, -sy)] <= -c
+			return pack.addConstraint(DifferenceBoundMatrix.literal(y, !py),
+					DifferenceBoundMatrix.literal(x, px), -expr.constant);
+		}
+
+		// a*v <= -(c + rest), where rest is the sum of the other terms
+		DifferenceBoundMatrix result = pack.close();
+		if (result == null)
+			return null;
+		double[] lows = new double[size];
+		int i = 0;
+		double lowSum = expr.constant;
+		int unbounded = 0;
+		for (Entry<Identifier, Double> entry : expr.coefficients.entrySet()) {
+			int k = result.indexOf(entry.getKey());
+			double a = entry.getValue();
+			lows[i] = a > 0 ? a * result.getLowerBound(k) : a * result.getUpperBound(k);
+			if (lows[i] == Double.NEGATIVE_INFINITY)
+				unbounded++;
+			else
+				lowSum += lows[i];
+			i++;
+		}
+
+		i = 0;
+		for (Entry<Identifier, Double> entry : expr.coefficients.entrySet()) {
+			double rest;
+			if (lows[i] == Double.NEGATIVE_INFINITY)
+				rest = unbounded == 1 ? lowSum : Double.NEGATIVE_INFINITY;
+			else
+				rest = unbounded == 0 ? lowSum - lows[i] : Double.NEGATIVE_INFINITY;
+			i++;
+			if (rest == Double.NEGATIVE_INFINITY)
+				continue;
+
+			double a = entry.getValue();
+			int k = result.indexOf(entry.getKey());
+			if (a > 0)
+				// v <= -rest / a
+				result = result.addConstraint(2 * k + 1, 2 * k, 2 * Math.floor(-rest / a));
+			else
+				// -v <= rest / a, that is, v >= -rest / a
+				result = result.addConstraint(2 * k, 2 * k + 1, 2 * Math.floor(rest / a));
+			if (result == null)
+				return null;
+		}
+		return result;
+	}
+
+	/**
+	 * Yields {@code true} if and only if the static type and all the runtime
+	 * types of the given expression are integral numeric types (an untyped
+	 * static type is accepted, leaving the decision to the runtime ones). Bounds are tightened to integers
+	 * when closing matrices and when turning strict inequalities into
+	 * non-strict ones, so only integral expressions can be tracked soundly:
+	 * expressions that might be rationals, or whose types are unknown, are
+	 * never related with the variables of this domain.
+	 */
+	private static boolean isIntegral(
+			SymbolicExpression expression,
+			ProgramPoint pp,
+			SemanticOracle oracle) {
+		if (!isIntegral(expression.getStaticType()))
+			return false;
+
+		Set<Type> rts = null;
+		try {
+			rts = oracle.getRuntimeTypesOf(expression, pp, oracle);
+		} catch (SemanticException e) {
+			return false;
+		}
+
+		if (rts == null || rts.isEmpty())
+			return false;
+
+		return rts.stream().allMatch(t -> !t.isUntyped() && isIntegral(t));
+	}
+
+	/**
+	 * Yields {@code true} if the given static type might hold integral
+	 * values only, that is, if it is either an integral numeric type or it is
+	 * untyped (in which case the runtime types decide).
+	 */
+	private static boolean isIntegral(
+			Type type) {
+		return type.isUntyped() || (type.isNumericType() && type.asNumericType().isIntegral());
+	}
+
+	/**
+	 * Yields {@code true} if and only if all the variables of the given linear
+	 * expression are integral (see
+	 * {@link #isIntegral(SymbolicExpression, ProgramPoint, SemanticOracle)}).
+	 */
+	private static boolean hasIntegralVariables(
+			LinearExpression expr,
+			ProgramPoint pp,
+			SemanticOracle oracle) {
+		for (Identifier id : expr.coefficients.keySet())
+			if (!isIntegral(id, pp, oracle))
+				return false;
+		return true;
+	}
+
+	@Override
+	public Octagon assign(
+			Identifier id,
+			ValueExpression expression,
+			ProgramPoint pp,
+			SemanticOracle oracle)
+			throws SemanticException {
+		if (isBottom)
+			return this;
+
+		Octagon result = strongAssign(id, expression, pp, oracle);
+		if (id.isWeak() && knowsIdentifier(id))
+			return result.lub(this);
+		return result;
+	}
+
+	private Octagon strongAssign(
+			Identifier id,
+			ValueExpression expression,
+			ProgramPoint pp,
+			SemanticOracle oracle)
+			throws SemanticException {
+		// the value of id after the assignment is the one of expression
+		if (!isIntegral(id.getStaticType()) || !isIntegral(expression, pp, oracle))
+			return remove(Collections.singleton(id));
+
+		LinearExpression linear = LinearExpression.of(expression);
+		if (linear != null && !hasIntegralVariables(linear, pp, oracle))
+			linear = null;
+		if (linear != null && linear.coefficients.size() == 1 && linear.isOctagonal()
+				&& linear.coefficients.containsKey(id)) {
+			// invertible assignments (x = x + c, x = -x + c) only move the
+			// bounds of x
+			DifferenceBoundMatrix pack = packs.get(id);
+			if (pack == null)
+				return this;
+			pack = pack.close();
+			if (pack == null)
+				return BOTTOM;
+			int k = pack.indexOf(id);
+			if (linear.coefficients.get(id) < 0)
+				pack = pack.negate(k);
+			return install(Collections.singleton(pack.translate(k, Math.floor(linear.constant))));
+		}
+
+		// the constraints on the new value are computed on the old state, and
+		// each of them is a linear expression that must be non-positive
+		List<LinearExpression> constraints = new ArrayList<>();
+		double[] range;
+		if (linear == null) {
+			Interval eval = evalInterval(expression, pp, oracle);
+			if (eval.isBottom())
+				return BOTTOM;
+			range = eval.isTop() ? null : new double[] { toDouble(eval.interval.getLow()),
+					toDouble(eval.interval.getHigh()) };
+		} else {
+			range = range(linear);
+			// x - a*y is bounded by the bounds of expr - a*y
+			for (Entry<Identifier, Double> entry : linear.coefficients.entrySet()) {
+				double a = entry.getValue();
+				if (Math.abs(a) != 1 || entry.getKey().equals(id))
+					continue;
+				double[] rest = range(linear.minus(entry.getKey(), a));
+				LinearExpression diff = LinearExpression.variable(id).minus(entry.getKey(), a);
+				constraints.add(diff.minus(rest[1]));
+				constraints.add(diff.negate().plus(rest[0]));
+			}
+		}
+		if (range != null) {
+			LinearExpression x = LinearExpression.variable(id);
+			constraints.add(x.minus(range[1]));
+			constraints.add(x.negate().plus(range[0]));
+		}
+
+		// infinite bounds are no constraint
+		constraints.removeIf(c -> !Double.isFinite(c.constant));
+		Octagon forgotten = remove(Collections.singleton(id));
+		if (constraints.isEmpty())
+			return forgotten;
+
+		Set<Identifier> involved = new LinkedHashSet<>();
+		for (LinearExpression c : constraints)
+			involved.addAll(c.coefficients.keySet());
+		DifferenceBoundMatrix pack = forgotten.merge(involved);
+		for (LinearExpression c : constraints)
+			if ((pack = constrain(pack, c)) == null)
+				return BOTTOM;
+		return forgotten.install(Collections.singleton(pack));
+	}
+
+	private Interval evalInterval(
+			ValueExpression expression,
+			ProgramPoint pp,
+			SemanticOracle oracle)
+			throws SemanticException {
+		Interval singleton = new Interval();
+		ValueEnvironment<Interval> env = new ValueEnvironment<>(singleton).top();
+		for (Identifier id : packs.keySet()) {
+			double[] r = range(id);
+			env = env.putState(id, new Interval(toMathNumber(r[0]), toMathNumber(r[1])));
+		}
+		return singleton.eval(expression, env, pp, oracle);
+	}
+
+	private static MathNumber toMathNumber(
+			double v) {
+		if (v == Double.NEGATIVE_INFINITY)
+			return MathNumber.MINUS_INFINITY;
+		if (v == Double.POSITIVE_INFINITY)
+			return MathNumber.PLUS_INFINITY;
+		// large bounds are converted through their decimal representation
+		return v == Math.rint(v) && Math.abs(v) < 1e15 ? new MathNumber((long) v) : new MathNumber(v);
+	}
+
+	private static double toDouble(
+			MathNumber n) {
+		if (n.isMinusInfinity())
+			return Double.NEGATIVE_INFINITY;
+		if (n.isPlusInfinity() || n.isNaN())
+			return Double.POSITIVE_INFINITY;
+		return n.getNumber().doubleValue();
+	}
+
+	@Override
+	public Octagon smallStepSemantics(
+			ValueExpression expression,
+			ProgramPoint pp,
+			SemanticOracle oracle)
+			throws SemanticException {
+		// octagons do not change without assignments
+		return this;
+	}
+
+	@Override
+	public Octagon assume(
+			ValueExpression expression,
+			ProgramPoint src,
+			ProgramPoint dest,
+			SemanticOracle oracle)
+			throws SemanticException {
+		if (isBottom)
+			return this;
+
+		Satisfiability sat = satisfies(expression, src, oracle);
+		if (sat == Satisfiability.NOT_SATISFIED)
+			return BOTTOM;
+		if (sat == Satisfiability.SATISFIED)
+			return this;
+
+		if (expression instanceof UnaryExpression) {
+			UnaryExpression unary = (UnaryExpression) expression;
+			if (unary.getOperator() == LogicalNegation.INSTANCE) {
+				ValueExpression rewritten = unary.removeNegations();
+				if (rewritten != unary)
+					return assume(rewritten, src, dest, oracle);
+			}
+			return this;
+		}
+
+		if (!(expression instanceof BinaryExpression))
+			return this;
+
+		BinaryExpression binary = (BinaryExpression) expression;
+		BinaryOperator operator = binary.getOperator();
+		if (operator == LogicalAnd.INSTANCE)
+			return assume((ValueExpression) binary.getLeft(), src, dest, oracle)
+					.assume((ValueExpression) binary.getRight(), src, dest, oracle);
+		if (operator == LogicalOr.INSTANCE)
+			return assume((ValueExpression) binary.getLeft(), src, dest, oracle)
+					.lub(assume((ValueExpression) binary.getRight(), src, dest, oracle));
+
+		List<LinearExpression> constraints = toConstraints(operator, binary, src, oracle);
+		if (constraints == null)
+			return this;
+
+		Set<Identifier> involved = new LinkedHashSet<>();
+		for (LinearExpression c : constraints)
+			involved.addAll(c.coefficients.keySet());
+		if (involved.isEmpty())
+			// comparison between constants, already handled by satisfies
+			return this;
+
+		DifferenceBoundMatrix pack = merge(involved);
+		for (LinearExpression c : constraints)
+			if ((pack = constrain(pack, c)) == null)
+				return BOTTOM;
+		return install(Collections.singleton(pack));
+	}
+
+	/**
+	 * Yields the linear expressions {@code e} such that the given comparison
+	 * holds if and only if {@code e <= 0} holds for all of them, or
+	 * {@code null} if the comparison cannot be expressed this way.
+	 */
+	private static List<LinearExpression> toConstraints(
+			BinaryOperator operator,
+			BinaryExpression binary,
+			ProgramPoint pp,
+			SemanticOracle oracle) {
+		if (operator != ComparisonLe.INSTANCE && operator != ComparisonLt.INSTANCE
+				&& operator != ComparisonGe.INSTANCE && operator != ComparisonGt.INSTANCE
+				&& operator != ComparisonEq.INSTANCE)
+			return null;
+		if (!isIntegral(binary.getLeft(), pp, oracle) || !isIntegral(binary.getRight(), pp, oracle))
+			return null;
+
+		LinearExpression left = LinearExpression.of((ValueExpression) binary.getLeft());
+		LinearExpression right = LinearExpression.of((ValueExpression) binary.getRight());
+		if (left == null || right == null || !hasIntegralVariables(left, pp, oracle)
+				|| !hasIntegralVariables(right, pp, oracle))
+			return null;
+
+		// diff = left - right
+		LinearExpression diff = left.plus(right.negate());
+		if (operator == ComparisonLe.INSTANCE)
+			return List.of(diff);
+		else if (operator == ComparisonLt.INSTANCE)
+			// integer values: diff < 0 is diff <= -1
+			return List.of(diff.plus(1));
+		else if (operator == ComparisonGe.INSTANCE)
+			return List.of(diff.negate());
+		else if (operator == ComparisonGt.INSTANCE)
+			return List.of(diff.negate().plus(1));
+		else
+			return List.of(diff, diff.negate());
+	}
+
+	@Override
+	public Satisfiability satisfies(
+			ValueExpression expression,
+			ProgramPoint pp,
+			SemanticOracle oracle)
+			throws SemanticException {
+		if (isBottom)
+			return Satisfiability.BOTTOM;
+
+		if (expression instanceof UnaryExpression) {
+			UnaryExpression unary = (UnaryExpression) expression;
+			if (unary.getOperator() == LogicalNegation.INSTANCE)
+				return satisfies((ValueExpression) unary.getExpression(), pp, oracle).negate();
+			return Satisfiability.UNKNOWN;
+		}
+
+		if (!(expression instanceof BinaryExpression))
+			return Satisfiability.UNKNOWN;
+
+		BinaryExpression binary = (BinaryExpression) expression;
+		BinaryOperator operator = binary.getOperator();
+		if (operator == LogicalAnd.INSTANCE)
+			return satisfies((ValueExpression) binary.getLeft(), pp, oracle)
+					.and(satisfies((ValueExpression) binary.getRight(), pp, oracle));
+		if (operator == LogicalOr.INSTANCE)
+			return satisfies((ValueExpression) binary.getLeft(), pp, oracle)
+					.or(satisfies((ValueExpression) binary.getRight(), pp, oracle));
+
+		// x != y is the negation of x == y
+		boolean negated = operator == ComparisonNe.INSTANCE;
+		List<LinearExpression> constraints = toConstraints(negated ? ComparisonEq.INSTANCE : operator, binary, pp,
+				oracle);
+		if (constraints == null)
+			return Satisfiability.UNKNOWN;
+
+		Satisfiability result = Satisfiability.SATISFIED;
+		for (LinearExpression c : constraints) {
+			double[] r = range(c);
+			if (r[0] > 0)
+				result = Satisfiability.NOT_SATISFIED;
+			else if (r[1] > 0 && result == Satisfiability.SATISFIED)
+				result = Satisfiability.UNKNOWN;
+		}
+		return negated ? result.negate() : result;
+	}
+
+	@Override
+	public Octagon forgetIdentifier(
+			Identifier id)
+			throws SemanticException {
+		if (isBottom || isTop())
+			return this;
+		return remove(Collections.singleton(id));
+	}
+
+	@Override
+	public Octagon forgetIdentifiersIf(
+			Predicate<Identifier> test)
+			throws SemanticException {
+		if (isBottom || isTop())
+			return this;
+		Set<Identifier> ids = new LinkedHashSet<>();
+		for (Identifier id : packs.keySet())
+			if (test.test(id))
+				ids.add(id);
+		return remove(ids);
+	}
+
+	@Override
+	public boolean knowsIdentifier(
+			Identifier id) {
+		return packs.containsKey(id);
+	}
+
+	@Override
+	public Octagon pushScope(
+			ScopeToken token)
+			throws SemanticException {
+		return rename(id -> (Identifier) id.pushScope(token), "Pushing the scope '" + token + "' raised an error");
+	}
+
+	@Override
+	public Octagon popScope(
+			ScopeToken token)
+			throws SemanticException {
+		return rename(id -> (Identifier) id.popScope(token), "Popping the scope '" + token + "' raised an error");
+	}
+
+	private interface ScopeFunction {
+		Identifier apply(
+				Identifier id)
+				throws SemanticException;
+	}
+
+	private Octagon rename(
+			ScopeFunction function,
+			String message)
+			throws SemanticException {
+		if (isBottom || isTop())
+			return this;
+
+		AtomicReference<SemanticException> holder = new AtomicReference<>();
+		UnaryOperator<Identifier> renaming = id -> {
+			try {
+				return function.apply(id);
+			} catch (SemanticException e) {
+				holder.set(e);
+			}
+			return null;
+		};
+
+		List<DifferenceBoundMatrix> renamed = new ArrayList<>();
+		for (DifferenceBoundMatrix pack : distinctPacks())
+			renamed.add(pack.rename(renaming));
+		if (holder.get() != null)
+			throw new SemanticException(message, holder.get());
+
+		Map<Identifier, DifferenceBoundMatrix> result = new HashMap<>();
+		for (DifferenceBoundMatrix pack : renamed)
+			if (!pack.isTop())
+				for (Identifier id : pack.getVariables())
+					// identifiers mapped twice are dropped to stay sound
+					if (result.putIfAbsent(id, pack) != null)
+						result.put(id, null);
+		result.values().removeIf(Objects::isNull);
+		return result.isEmpty() ? TOP : new Octagon(result, false);
+	}
+
+	/**
+	 * Applies the given operation to the packs of this octagon and of the
+	 * given one, after aligning them: variables that share a pack in either
+	 * octagon end up in the same pack, and the operands of each pack of the
+	 * result are built from the original packs of the two octagons. The
+	 * operation must be idempotent, as packs that are the same in both
+	 * octagons are not rebuilt, and it must have the unconstrained matrix as
+	 * identity, as packs built from only one octagon are returned as-is.
+	 *
+	 * @param other      the other octagon
+	 * @param vars       the variables to consider
+	 * @param related    additional sets of variables that must end up in the
+	 *                       same pack
+	 * @param closeLeft  whether or not the packs of this octagon must be closed
+	 *                       before the operation
+	 * @param closeRight whether or not the packs of {@code other} must be
+	 *                       closed before the operation
+	 * @param op         the operation
+	 *
+	 * @return the packs of the result, or {@code null} if one of them
+	 *             represents no value
+	 */
+	private List<DifferenceBoundMatrix> pointwise(
+			Octagon other,
+			Set<Identifier> vars,
+			Collection<? extends Collection<Identifier>> related,
+			boolean closeLeft,
+			boolean closeRight,
+			BiFunction<DifferenceBoundMatrix, DifferenceBoundMatrix, DifferenceBoundMatrix> op) {
+		// union-find over the packs of both octagons
+		Map<Identifier, Identifier> parent = new HashMap<>();
+		for (Identifier id : vars)
+			parent.put(id, id);
+		List<Collection<Identifier>> toMerge = new ArrayList<>(related);
+		for (Octagon o : List.of(this, other))
+			for (DifferenceBoundMatrix pack : o.distinctPacks())
+				toMerge.add(pack.getVariables());
+		for (Collection<Identifier> set : toMerge) {
+			Identifier root = null;
+			for (Identifier id : set)
+				if (!vars.contains(id))
+					continue;
+				else if (root == null)
+					root = find(parent, id);
+				else {
+					Identifier r = find(parent, id);
+					if (!r.equals(root))
+						parent.put(r, root);
+				}
+		}
+
+		Map<Identifier, List<Identifier>> groups = new LinkedHashMap<>();
+		for (Identifier id : vars)
+			groups.computeIfAbsent(find(parent, id), k -> new ArrayList<>()).add(id);
+
+		Function<Identifier, DifferenceBoundMatrix> left = closing(packs, closeLeft);
+		Function<Identifier, DifferenceBoundMatrix> right = closing(other.packs, closeRight);
+		List<DifferenceBoundMatrix> result = new ArrayList<>(groups.size());
+		for (List<Identifier> group : groups.values()) {
+			Identifier first = group.get(0);
+			DifferenceBoundMatrix l = packs.get(first), r = other.packs.get(first);
+			if (l != null && l == r && l.size() == group.size()) {
+				result.add(l);
+				continue;
+			}
+
+			Identifier[] ids = group.toArray(Identifier[]::new);
+			DifferenceBoundMatrix res;
+			if (group.stream().noneMatch(other.packs::containsKey))
+				res = DifferenceBoundMatrix.combine(ids, left);
+			else if (group.stream().noneMatch(packs::containsKey))
+				res = DifferenceBoundMatrix.combine(ids, right);
+			else
+				res = op.apply(DifferenceBoundMatrix.combine(ids, left), DifferenceBoundMatrix.combine(ids, right));
+			if (res == null)
+				return null;
+			result.add(res);
+		}
+		return result;
+	}
+
+	private static Function<Identifier, DifferenceBoundMatrix> closing(
+			Map<Identifier, DifferenceBoundMatrix> packs,
+			boolean close) {
+		if (!close)
+			return packs::get;
+		Map<DifferenceBoundMatrix, DifferenceBoundMatrix> closed = new IdentityHashMap<>();
+		return id -> {
+			DifferenceBoundMatrix pack = packs.get(id);
+			// empty packs cannot be stored, so closures are never null
+			return pack == null ? null : closed.computeIfAbsent(pack, DifferenceBoundMatrix::close);
+		};
+	}
+
+	private static Identifier find(
+			Map<Identifier, Identifier> parent,
+			Identifier id) {
+		Identifier p = parent.get(id);
+		while (!p.equals(id)) {
+			Identifier gp = parent.get(p);
+			parent.put(id, gp);
+			id = p;
+			p = gp;
+		}
+		return p;
+	}
+
+	private Set<Identifier> commonVariables(
+			Octagon other) {
+		Set<Identifier> vars = new LinkedHashSet<>();
+		for (Identifier id : packs.keySet())
+			if (other.packs.containsKey(id))
+				vars.add(id);
+		return vars;
+	}
+
+	private Set<Identifier> allVariables(
+			Octagon other) {
+		Set<Identifier> vars = new LinkedHashSet<>(packs.keySet());
+		vars.addAll(other.packs.keySet());
+		return vars;
+	}
+
+	private Octagon mk(
+			List<DifferenceBoundMatrix> result) {
+		if (result == null)
+			return BOTTOM;
+		return TOP.install(result);
+	}
+
+	/**
+	 * Yields the sets of variables that have a constant value in both this
+	 * octagon and the given one, and whose values differ by the same amount
+	 * (possibly with opposite signs) between the two. As their sums or
+	 * differences are the same in both octagons, they are octagonal
+	 * constraints holding in the least upper bound, that are preserved only
+	 * if the variables share a pack (e.g., when joining {@code x = 0, y = 3}
+	 * and {@code x = -2, y = 1}, where {@code y - x = 3} holds in both).
+	 */
+	private Collection<List<Identifier>> sameShift(
+			Octagon other,
+			Set<Identifier> vars) {
+		Map<Double, List<Identifier>> shifts = new HashMap<>();
+		for (Identifier id : vars) {
+			double[] l = range(id), r = other.range(id);
+			if (l[0] == l[1] && r[0] == r[1] && Double.isFinite(l[0]) && l[0] != r[0])
+				shifts.computeIfAbsent(Math.abs(l[0] - r[0]), k -> new ArrayList<>()).add(id);
+		}
+		shifts.values().removeIf(ids -> ids.size() < 2);
+		return shifts.values();
+	}
+
+	@Override
+	public Octagon lubAux(
+			Octagon other)
+			throws SemanticException {
+		// variables unconstrained in one of the octagons are unconstrained
+		// in the result
+		Set<Identifier> vars = commonVariables(other);
+		return mk(pointwise(other, vars, sameShift(other, vars), true, true, DifferenceBoundMatrix::lub));
+	}
+
+	@Override
+	public Octagon glbAux(
+			Octagon other)
+			throws SemanticException {
+		// variables unconstrained in one of the octagons keep the
+		// constraints of the other one
+		return mk(pointwise(other, allVariables(other), List.of(), true, true, DifferenceBoundMatrix::glb));
+	}
+
+	@Override
+	public Octagon wideningAux(
+			Octagon other)
+			throws SemanticException {
+		// the left-hand side must not be closed to ensure convergence
+		return mk(pointwise(other, commonVariables(other), List.of(), false, true,
+				DifferenceBoundMatrix::widening));
+	}
+
+	@Override
+	public Octagon narrowingAux(
+			Octagon other)
+			throws SemanticException {
+		return mk(pointwise(other, allVariables(other), List.of(), false, true,
+				DifferenceBoundMatrix::narrowing));
+	}
+
+	@Override
+	public boolean lessOrEqualAux(
+			Octagon other)
+			throws SemanticException {
+		Function<Identifier, DifferenceBoundMatrix> closed = closing(packs, true);
+		for (DifferenceBoundMatrix pack : other.distinctPacks()) {
+			Identifier[] ids = pack.getVariables().toArray(Identifier[]::new);
+			DifferenceBoundMatrix mine = DifferenceBoundMatrix.combine(ids, closed);
+			if (!mine.lessOrEqual(pack))
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public StructuredRepresentation representation() {
+		if (isTop())
+			return Lattice.topRepresentation();
+		if (isBottom())
+			return Lattice.bottomRepresentation();
+
+		Set<StructuredRepresentation> constraints = new TreeSet<>();
+		for (DifferenceBoundMatrix pack : distinctPacks()) {
+			DifferenceBoundMatrix closed = pack.close();
+			if (closed == null)
+				return Lattice.bottomRepresentation();
+			for (String c : describe(closed))
+				constraints.add(new StringRepresentation(c));
+		}
+		return new SetRepresentation(constraints);
+	}
+
+	/**
+	 * Yields the constraints of the given closed matrix, omitting the
+	 * relational ones that are implied by the bounds of the variables.
+	 */
+	private static List<String> describe(
+			DifferenceBoundMatrix pack) {
+		List<String> result = new ArrayList<>();
+		List<Identifier> vars = pack.getVariables();
+		for (int k = 0; k < vars.size(); k++) {
+			double lo = pack.getLowerBound(k), hi = pack.getUpperBound(k);
+			String name = vars.get(k).toString();
+			if (lo == hi)
+				result.add(name + " = " + DifferenceBoundMatrix.format(lo));
+			else {
+				if (lo != Double.NEGATIVE_INFINITY)
+					result.add(name + " >= " + DifferenceBoundMatrix.format(lo));
+				if (hi != Double.POSITIVE_INFINITY)
+					result.add(name + " <= " + DifferenceBoundMatrix.format(hi));
+			}
+		}
+
+		for (int x = 0; x < vars.size(); x++)
+			for (int y = x + 1; y < vars.size(); y++)
+				for (int s = 0; s < 4; s++) {
+					boolean px = (s & 2) == 0, py = (s & 1) == 0;
+					// sx*x + sy*y <= m[lit(y, -sy)][lit(x, sx)]
+					int i = DifferenceBoundMatrix.literal(y, !py), j = DifferenceBoundMatrix.literal(x, px);
+					double bound = pack.get(i, j);
+					double implied = (pack.get(i, i ^ 1) + pack.get(j ^ 1, j)) / 2;
+					if (bound < implied)
+						result.add((px ? "" : "-") + vars.get(x) + (py ? " + " : " - ") + vars.get(y) + " <= "
+								+ DifferenceBoundMatrix.format(bound));
+				}
+		return result;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(isBottom, packs);
+	}
+
+	@Override
+	public boolean equals(
+			Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Octagon other = (Octagon) obj;
+		return isBottom == other.isBottom && Objects.equals(packs, other.packs);
+	}
+
+	@Override
+	public String toString() {
+		return representation().toString();
+	}
+
+	/**
+	 * A linear expression {@code a1*x1 + ... + an*xn + c}, with non-zero
+	 * coefficients.
+	 */
+	private static class LinearExpression {
+
+		private final Map<Identifier, Double> coefficients;
+
+		private final double constant;
+
+		private LinearExpression(
+				Map<Identifier, Double> coefficients,
+				double constant) {
+			this.coefficients = coefficients;
+			this.constant = constant;
+		}
+
+		private static LinearExpression variable(
+				Identifier id) {
+			Map<Identifier, Double> coefficients = new LinkedHashMap<>();
+			coefficients.put(id, 1.0);
+			return new LinearExpression(coefficients, 0);
+		}
+
+		/**
+		 * Yields the linear expression corresponding to the given one, or
+		 * {@code null} if it is not linear.
+		 */
+		private static LinearExpression of(
+				ValueExpression expression) {
+			if (expression instanceof Identifier)
+				return variable((Identifier) expression);
+
+			if (expression instanceof Constant) {
+				Object value = ((Constant) expression).getValue();
+				if (value instanceof Integer || value instanceof Long || value instanceof Short
+						|| value instanceof Byte)
+					return new LinearExpression(new LinkedHashMap<>(), ((Number) value).doubleValue());
+				return null;
+			}
+
+			if (expression instanceof UnaryExpression) {
+				UnaryExpression unary = (UnaryExpression) expression;
+				if (unary.getOperator() != NumericNegation.INSTANCE)
+					return null;
+				LinearExpression arg = of((ValueExpression) unary.getExpression());
+				return arg == null ? null : arg.negate();
+			}
+
+			if (expression instanceof BinaryExpression) {
+				BinaryExpression binary = (BinaryExpression) expression;
+				BinaryOperator operator = binary.getOperator();
+				if (!(operator instanceof AdditionOperator) && !(operator instanceof SubtractionOperator)
+						&& !(operator instanceof MultiplicationOperator))
+					return null;
+				LinearExpression left = of((ValueExpression) binary.getLeft());
+				LinearExpression right = left == null ? null : of((ValueExpression) binary.getRight());
+				if (right == null)
+					return null;
+				if (operator instanceof AdditionOperator)
+					return left.plus(right);
+				if (operator instanceof SubtractionOperator)
+					return left.plus(right.negate());
+				if (left.coefficients.isEmpty())
+					return right.scale(left.constant);
+				if (right.coefficients.isEmpty())
+					return left.scale(right.constant);
+			}
+
+			return null;
+		}
+
+		/**
+		 * Yields {@code true} if all coefficients are either 1 or -1.
+		 */
+		private boolean isOctagonal() {
+			for (double a : coefficients.values())
+				if (Math.abs(a) != 1)
+					return false;
+			return true;
+		}
+
+		private LinearExpression plus(
+				LinearExpression other) {
+			Map<Identifier, Double> result = new LinkedHashMap<>(coefficients);
+			for (Entry<Identifier, Double> entry : other.coefficients.entrySet())
+				if (result.merge(entry.getKey(), entry.getValue(), Double::sum) == 0)
+					result.remove(entry.getKey());
+			return new LinearExpression(result, constant + other.constant);
+		}
+
+		private LinearExpression plus(
+				double c) {
+			return new LinearExpression(coefficients, constant + c);
+		}
+
+		private LinearExpression minus(
+				double c) {
+			return new LinearExpression(coefficients, constant - c);
+		}
+
+		private LinearExpression minus(
+				Identifier id,
+				double a) {
+			Map<Identifier, Double> result = new LinkedHashMap<>(coefficients);
+			if (result.merge(id, -a, Double::sum) == 0)
+				result.remove(id);
+			return new LinearExpression(result, constant);
+		}
+
+		private LinearExpression negate() {
+			return scale(-1);
+		}
+
+		private LinearExpression scale(
+				double factor) {
+			if (factor == 0)
+				return new LinearExpression(new LinkedHashMap<>(), 0);
+			Map<Identifier, Double> result = new LinkedHashMap<>();
+			for (Entry<Identifier, Double> entry : coefficients.entrySet())
+				result.put(entry.getKey(), entry.getValue() * factor);
+			return new LinearExpression(result, constant * factor);
+		}
+	}
+}
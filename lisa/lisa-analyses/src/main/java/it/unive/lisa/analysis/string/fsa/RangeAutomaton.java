@@ -0,0 +1,559 @@
+package it.unive.lisa.analysis.string.fsa;
+
+import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
+import it.unive.lisa.util.collections.workset.WorkingSet;
+import it.unive.lisa.util.datastructures.automaton.Automaton;
+import it.unive.lisa.util.datastructures.automaton.State;
+import it.unive.lisa.util.datastructures.automaton.Transition;
+import it.unive.lisa.util.datastructures.automaton.TransitionSymbol;
+import it.unive.lisa.util.datastructures.regex.Atom;
+import it.unive.lisa.util.datastructures.regex.RegularExpression;
+import it.unive.lisa.util.datastructures.regex.TopAtom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+
+/**
+ * A symbolic automaton over characters, whose transitions are labeled with
+ * {@link RangeSymbol}s. Since a single transition can read a whole range of
+ * characters, automata modeling statically unknown strings stay small
+ * regardless of the size of the alphabet: while a {@link SimpleAutomaton}
+ * needs one transition for each character, here a single one (reading
+ * {@link RangeSymbol#ANY}) suffices. Determinization, totalization,
+ * complement and intersection operate on the partitions of the characters
+ * induced by the ranges appearing in the automata, instead of on single
+ * characters. Automata with other kinds of symbols can be converted to this
+ * representation through {@link #of(Automaton)}.
+ */
+public class RangeAutomaton extends Automaton<RangeAutomaton, RangeSymbol> {
+
+	/**
+	 * Builds a {@link RangeAutomaton} recognizing any string, that is, with a
+	 * single state looping over {@link RangeSymbol#ANY}.
+	 *
+	 * @return the automaton
+	 */
+	public static RangeAutomaton topString() {
+		State q0 = new State(0, true, true);
+
+		SortedSet<State> states = new TreeSet<>();
+		states.add(q0);
+
+		SortedSet<Transition<RangeSymbol>> delta = new TreeSet<>();
+		delta.add(new Transition<>(q0, q0, RangeSymbol.ANY));
+
+		RangeAutomaton result = new RangeAutomaton(states, delta);
+		result.deterministic = Optional.of(true);
+		result.minimized = Optional.of(true);
+		return result;
+	}
+
+	/**
+	 * Builds a {@link RangeAutomaton} recognizing the empty language.
+	 *
+	 * @return the automaton
+	 */
+	public static RangeAutomaton emptyLang() {
+		SortedSet<State> newStates = new TreeSet<>();
+		newStates.add(new State(0, true, false));
+
+		RangeAutomaton result = new RangeAutomaton(newStates, Collections.emptySortedSet());
+		result.deterministic = Optional.of(true);
+		result.minimized = Optional.of(true);
+		return result;
+	}
+
+	/**
+	 * Builds a {@link RangeAutomaton} recognizing only the empty string.
+	 *
+	 * @return the automaton
+	 */
+	public static RangeAutomaton emptyStr() {
+		SortedSet<State> newStates = new TreeSet<>();
+		newStates.add(new State(0, true, true));
+
+		RangeAutomaton result = new RangeAutomaton(newStates, Collections.emptySortedSet());
+		result.deterministic = Optional.of(true);
+		result.minimized = Optional.of(true);
+		return result;
+	}
+
+	/**
+	 * Builds a {@link RangeAutomaton} recognizing the given string.
+	 *
+	 * @param string the string to recognize
+	 *
+	 * @return the automaton
+	 */
+	public static RangeAutomaton string(
+			String string) {
+		SortedSet<State> states = new TreeSet<>();
+		SortedSet<Transition<RangeSymbol>> delta = new TreeSet<>();
+
+		State last = new State(0, true, string.isEmpty());
+		states.add(last);
+		for (int i = 0; i < string.length(); i++) {
+			State next = new State(i + 1, false, i == string.length() - 1);
+			states.add(next);
+			delta.add(new Transition<>(last, next, RangeSymbol.of(string.charAt(i))));
+			last = next;
+		}
+
+		RangeAutomaton result = new RangeAutomaton(states, delta);
+		result.deterministic = Optional.of(true);
+		result.minimized = Optional.of(true);
+		return result;
+	}
+
+	/**
+	 * Converts the given automaton to a {@link RangeAutomaton} recognizing the
+	 * same language. Each transition is converted through the regular
+	 * expression corresponding to its symbol (see
+	 * {@link Automaton#symbolToRegex(TransitionSymbol)}): single characters
+	 * become single-character ranges, while {@link TopAtom}s (e.g., the ones
+	 * of {@link it.unive.lisa.analysis.string.tarsis.RegexAutomaton}s) become
+	 * loops over {@link RangeSymbol#ANY}. The resulting automaton is
+	 * minimized, so that transitions reading different characters between the
+	 * same states are merged into a single one.
+	 *
+	 * @param <A>       the concrete type of the automaton to convert
+	 * @param <T>       the type of symbols of the automaton to convert
+	 * @param automaton the automaton to convert
+	 *
+	 * @return the converted automaton
+	 */
+	public static <A extends Automaton<A, T>,
+			T extends TransitionSymbol<T>> RangeAutomaton of(
+					Automaton<A, T> automaton) {
+		SortedSet<State> states = new TreeSet<>();
+		SortedSet<Transition<RangeSymbol>> delta = new TreeSet<>();
+		Map<State, State> mapping = new HashMap<>();
+		for (State s : automaton.getStates()) {
+			State st = new State(mapping.size(), s.isInitial(), s.isFinal());
+			mapping.put(s, st);
+			states.add(st);
+		}
+
+		RangeAutomaton factory = emptyLang();
+		int code = mapping.size();
+		for (Transition<T> t : automaton.getTransitions()) {
+			State from = mapping.get(t.getSource());
+			State to = mapping.get(t.getDestination());
+			RegularExpression regex = t.getSymbol().isEpsilon() ? Atom.EPSILON
+					: automaton.symbolToRegex(t.getSymbol());
+
+			if (regex instanceof Atom && !(regex instanceof TopAtom) && ((Atom) regex).getString().length() < 2) {
+				String str = ((Atom) regex).getString();
+				RangeSymbol sym = str.isEmpty() ? RangeSymbol.EPSILON : RangeSymbol.of(str.charAt(0));
+				delta.add(new Transition<>(from, to, sym));
+				continue;
+			}
+
+			// we splice the automaton of the regex between the two states
+			RangeAutomaton sub = regex.toAutomaton(factory);
+			Map<State, State> subMapping = new HashMap<>();
+			for (State s : sub.states) {
+				State st = new State(code++, false, false);
+				subMapping.put(s, st);
+				states.add(st);
+				if (s.isInitial())
+					delta.add(new Transition<>(from, st, RangeSymbol.EPSILON));
+				if (s.isFinal())
+					delta.add(new Transition<>(st, to, RangeSymbol.EPSILON));
+			}
+			for (Transition<RangeSymbol> st : sub.transitions)
+				delta.add(new Transition<>(
+						subMapping.get(st.getSource()),
+						subMapping.get(st.getDestination()),
+						st.getSymbol()));
+		}
+
+		return new RangeAutomaton(states, delta).minimize();
+	}
+
+	/**
+	 * Builds a new automaton with given {@code states} and {@code transitions}.
+	 *
+	 * @param states      the set of states of the new automaton
+	 * @param transitions the set of the transitions of the new automaton
+	 */
+	public RangeAutomaton(
+			SortedSet<State> states,
+			SortedSet<Transition<RangeSymbol>> transitions) {
+		super(states, transitions);
+	}
+
+	@Override
+	public RangeAutomaton singleString(
+			String string) {
+		return string(string);
+	}
+
+	@Override
+	public RangeAutomaton unknownString() {
+		return topString();
+	}
+
+	@Override
+	public RangeAutomaton emptyLanguage() {
+		return emptyLang();
+	}
+
+	@Override
+	public RangeAutomaton emptyString() {
+		return emptyStr();
+	}
+
+	@Override
+	public RangeAutomaton from(
+			SortedSet<State> states,
+			SortedSet<Transition<RangeSymbol>> transitions) {
+		return new RangeAutomaton(states, transitions);
+	}
+
+	@Override
+	public RangeSymbol epsilon() {
+		return RangeSymbol.EPSILON;
+	}
+
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * Since {@link RangeSymbol}s represent single characters, they cannot be
+	 * concatenated: this method always throws an
+	 * {@link UnsupportedOperationException}, unless one of the symbols is
+	 * epsilon.
+	 */
+	@Override
+	public RangeSymbol concat(
+			RangeSymbol first,
+			RangeSymbol second) {
+		if (first.isEpsilon())
+			return second;
+		if (second.isEpsilon())
+			return first;
+		throw new UnsupportedOperationException("Character ranges cannot be concatenated");
+	}
+
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * Ranges are represented as the disjunction of the characters they
+	 * contain, with the exception of {@link RangeSymbol#ANY} that is
+	 * represented by {@link TopAtom} (that is, any string), as regular
+	 * expressions do not have a representation for unknown characters.
+	 */
+	@Override
+	public RegularExpression symbolToRegex(
+			RangeSymbol symbol) {
+		if (symbol.isEpsilon())
+			return Atom.EPSILON;
+		if (symbol.equals(RangeSymbol.ANY))
+			return TopAtom.INSTANCE;
+
+		RegularExpression result = null;
+		for (int i = 0; i < symbol.getRangesCount(); i++)
+			for (int c = symbol.getLowerBound(i); c <= symbol.getUpperBound(i); c++) {
+				RegularExpression atom = new Atom(String.valueOf((char) c));
+				result = result == null ? atom : result.or(atom);
+			}
+		return result;
+	}
+
+	@Override
+	public boolean isDeterministic() {
+		if (deterministic.isPresent())
+			return deterministic.get();
+
+		deterministic = Optional.of(false);
+		if (getInitialStates().size() > 1)
+			return false;
+
+		// the ranges read from each state must be disjoint
+		for (State s : states) {
+			RangeSymbol read = RangeSymbol.EPSILON;
+			for (Transition<RangeSymbol> t : getOutgoingTransitionsFrom(s))
+				if (t.getSymbol().isEpsilon() || read.intersects(t.getSymbol()))
+					return false;
+				else
+					read = read.union(t.getSymbol());
+		}
+
+		deterministic = Optional.of(true);
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * The subset construction is performed on the partition of the characters
+	 * induced by all the ranges of this automaton (see
+	 * {@link RangeSymbol#partition(java.util.Collection)}), and transitions
+	 * between the same states of the resulting automaton are then merged.
+	 */
+	@Override
+	public RangeAutomaton determinize() {
+		if (isDeterministic())
+			return this;
+		RangeAutomaton det = determinizeOnPartition().mergeSymbols();
+		det.deterministic = Optional.of(true);
+		det.minimized = Optional.of(false);
+		return det;
+	}
+
+	private RangeAutomaton determinizeOnPartition() {
+		List<RangeSymbol> partition = RangeSymbol.partition(getAlphabet());
+		SortedSet<State> newStates = new TreeSet<>();
+		SortedSet<Transition<RangeSymbol>> newDelta = new TreeSet<>();
+		Map<Set<State>, State> statesName = new HashMap<>();
+		WorkingSet<Set<State>> unmarked = FIFOWorkingSet.mk();
+
+		Set<State> init = epsilonClosure(getInitialStates());
+		statesName.put(init, new State(0, true, init.stream().anyMatch(State::isFinal)));
+		unmarked.push(init);
+
+		while (!unmarked.isEmpty()) {
+			Set<State> current = unmarked.pop();
+			State from = statesName.get(current);
+			newStates.add(from);
+
+			List<SortedSet<State>> next = new ArrayList<>(partition.size());
+			for (int i = 0; i < partition.size(); i++)
+				next.add(new TreeSet<>());
+			for (State s : current)
+				for (Transition<RangeSymbol> t : getOutgoingTransitionsFrom(s))
+					if (!t.getSymbol().isEpsilon())
+						for (int i = 0; i < partition.size(); i++)
+							// elements of the partition are either contained
+							// in a range or disjoint from it
+							if (t.getSymbol().intersects(partition.get(i)))
+								next.get(i).add(t.getDestination());
+
+			for (int i = 0; i < partition.size(); i++) {
+				if (next.get(i).isEmpty())
+					continue;
+				Set<State> dest = epsilonClosure(next.get(i));
+				State to = statesName.get(dest);
+				if (to == null) {
+					to = new State(statesName.size(), false, dest.stream().anyMatch(State::isFinal));
+					statesName.put(dest, to);
+					unmarked.push(dest);
+				}
+				newDelta.add(new Transition<>(from, to, partition.get(i)));
+			}
+		}
+
+		return from(newStates, newDelta);
+	}
+
+	@Override
+	protected RangeAutomaton partitionSymbols() {
+		if (!isDeterministic())
+			return determinizeOnPartition();
+
+		// the automaton is deterministic, so we just need to split ranges
+		List<RangeSymbol> partition = RangeSymbol.partition(getAlphabet());
+		SortedSet<Transition<RangeSymbol>> newDelta = new TreeSet<>();
+		for (Transition<RangeSymbol> t : transitions)
+			for (RangeSymbol sym : partition)
+				if (t.getSymbol().intersects(sym))
+					newDelta.add(new Transition<>(t.getSource(), t.getDestination(), sym));
+		return from(new TreeSet<>(states), newDelta);
+	}
+
+	@Override
+	protected RangeAutomaton mergeSymbols() {
+		Map<Pair<State, State>, RangeSymbol> merged = new HashMap<>();
+		for (Transition<RangeSymbol> t : transitions)
+			merged.merge(Pair.of(t.getSource(), t.getDestination()), t.getSymbol(), RangeSymbol::union);
+
+		SortedSet<Transition<RangeSymbol>> newDelta = new TreeSet<>();
+		for (Map.Entry<Pair<State, State>, RangeSymbol> entry : merged.entrySet())
+			newDelta.add(new Transition<>(entry.getKey().getLeft(), entry.getKey().getRight(), entry.getValue()));
+		return from(new TreeSet<>(states), newDelta);
+	}
+
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * The alphabet is the union of the ranges in {@code sigma}: each state gets
+	 * a single transition to the garbage state, reading the characters of the
+	 * alphabet that are not read by its outgoing transitions.
+	 */
+	@Override
+	public RangeAutomaton totalize(
+			Set<RangeSymbol> sigma) {
+		SortedSet<State> newStates = new TreeSet<>(states);
+		SortedSet<Transition<RangeSymbol>> newTransitions = new TreeSet<>(transitions);
+
+		RangeSymbol all = RangeSymbol.EPSILON;
+		for (RangeSymbol sym : sigma)
+			all = all.union(sym);
+
+		int code = 1 + states.stream().map(State::getId).max(Integer::compare).orElseGet(() -> -1);
+
+		// add a new "garbage" state
+		State garbage = new State(code, false, false);
+		newStates.add(garbage);
+
+		// add additional transitions towards the garbage state
+		for (State s : states) {
+			RangeSymbol missing = all;
+			for (Transition<RangeSymbol> t : getOutgoingTransitionsFrom(s))
+				missing = missing.minus(t.getSymbol());
+			if (!missing.isEpsilon())
+				newTransitions.add(new Transition<>(s, garbage, missing));
+		}
+
+		// self loop over garbage state
+		if (!all.isEpsilon())
+			newTransitions.add(new Transition<>(garbage, garbage, all));
+
+		return from(newStates, newTransitions);
+	}
+
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * Only the pairs of states that are reachable from the initial ones are
+	 * built, and two transitions are paired if their ranges intersect.
+	 */
+	@Override
+	public RangeAutomaton intersection(
+			RangeAutomaton other) {
+		if (this == other)
+			return this;
+
+		SortedSet<State> newStates = new TreeSet<>();
+		SortedSet<Transition<RangeSymbol>> newDelta = new TreeSet<>();
+		Map<Pair<State, State>, State> mapping = new HashMap<>();
+		WorkingSet<Pair<State, State>> ws = FIFOWorkingSet.mk();
+
+		for (State s1 : getInitialStates())
+			for (State s2 : other.getInitialStates())
+				pair(s1, s2, mapping, newStates, ws);
+
+		while (!ws.isEmpty()) {
+			Pair<State, State> current = ws.pop();
+			State from = mapping.get(current);
+			SortedSet<Transition<RangeSymbol>> out1 = getOutgoingTransitionsFrom(current.getLeft());
+			SortedSet<Transition<RangeSymbol>> out2 = other.getOutgoingTransitionsFrom(current.getRight());
+
+			// epsilon transitions are taken by one automaton at a time
+			for (Transition<RangeSymbol> t1 : out1)
+				if (t1.getSymbol().isEpsilon())
+					newDelta.add(new Transition<>(from,
+							pair(t1.getDestination(), current.getRight(), mapping, newStates, ws),
+							RangeSymbol.EPSILON));
+			for (Transition<RangeSymbol> t2 : out2)
+				if (t2.getSymbol().isEpsilon())
+					newDelta.add(new Transition<>(from,
+							pair(current.getLeft(), t2.getDestination(), mapping, newStates, ws),
+							RangeSymbol.EPSILON));
+
+			for (Transition<RangeSymbol> t1 : out1)
+				if (!t1.getSymbol().isEpsilon())
+					for (Transition<RangeSymbol> t2 : out2)
+						if (!t2.getSymbol().isEpsilon()) {
+							RangeSymbol sym = t1.getSymbol().intersection(t2.getSymbol());
+							if (!sym.isEpsilon())
+								newDelta.add(new Transition<>(from,
+										pair(t1.getDestination(), t2.getDestination(), mapping, newStates, ws),
+										sym));
+						}
+		}
+
+		return from(newStates, newDelta).minimize();
+	}
+
+	private static State pair(
+			State s1,
+			State s2,
+			Map<Pair<State, State>, State> mapping,
+			SortedSet<State> states,
+			WorkingSet<Pair<State, State>> ws) {
+		Pair<State, State> key = Pair.of(s1, s2);
+		State s = mapping.get(key);
+		if (s == null) {
+			s = new State(mapping.size(), s1.isInitial() && s2.isInitial(), s1.isFinal() && s2.isFinal());
+			mapping.put(key, s);
+			states.add(s);
+			ws.push(key);
+		}
+		return s;
+	}
+
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * Since ranges cannot be concatenated, states are partitioned with respect
+	 * to the sequences of ranges (excluding epsilon) that can be read starting
+	 * from them, traversing at most {@code n} transitions.
+	 */
+	@Override
+	public RangeAutomaton widening(
+			int n) {
+		Map<Set<List<RangeSymbol>>, SortedSet<State>> powerStates = new HashMap<>();
+		Map<State, Set<List<RangeSymbol>>> languages = new HashMap<>();
+		for (State s : states) {
+			Set<List<RangeSymbol>> lang = getNextRanges(s, n);
+			languages.put(s, lang);
+			powerStates.computeIfAbsent(lang, k -> new TreeSet<>()).add(s);
+		}
+
+		SortedSet<State> newStates = new TreeSet<>();
+		Map<SortedSet<State>, State> mapping = new HashMap<>();
+		for (SortedSet<State> ps : powerStates.values()) {
+			State ns = new State(mapping.size(),
+					ps.stream().anyMatch(State::isInitial),
+					ps.stream().anyMatch(State::isFinal));
+			newStates.add(ns);
+			mapping.put(ps, ns);
+		}
+
+		SortedSet<Transition<RangeSymbol>> newTransitions = new TreeSet<>();
+		for (Transition<RangeSymbol> t : transitions)
+			newTransitions.add(new Transition<>(
+					mapping.get(powerStates.get(languages.get(t.getSource()))),
+					mapping.get(powerStates.get(languages.get(t.getDestination()))),
+					t.getSymbol()));
+
+		return new RangeAutomaton(newStates, newTransitions).minimize();
+	}
+
+	private Set<List<RangeSymbol>> getNextRanges(
+			State s,
+			int n) {
+		Set<List<RangeSymbol>> lang = new HashSet<>();
+		if (n == 0)
+			return lang;
+
+		WorkingSet<Triple<List<RangeSymbol>, State, Integer>> ws = FIFOWorkingSet.mk();
+		ws.push(Triple.of(Collections.emptyList(), s, n));
+		while (!ws.isEmpty()) {
+			Triple<List<RangeSymbol>, State, Integer> top = ws.pop();
+			for (Transition<RangeSymbol> t : getOutgoingTransitionsFrom(top.getMiddle())) {
+				List<RangeSymbol> sequence = top.getLeft();
+				if (!t.getSymbol().isEpsilon()) {
+					sequence = new ArrayList<>(sequence);
+					sequence.add(t.getSymbol());
+				}
+				lang.add(sequence);
+
+				if (top.getRight() - 1 > 0)
+					ws.push(Triple.of(sequence, t.getDestination(), top.getRight() - 1));
+			}
+		}
+
+		return lang;
+	}
+}
@@ -0,0 +1,441 @@
+package it.unive.lisa.analysis.string.fsa;
+
+import it.unive.lisa.util.datastructures.automaton.TransitionSymbol;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * A {@link TransitionSymbol} for sets of characters, represented as sorted
+ * sequences of disjoint ranges of characters. A single transition labeled with
+ * an instance of this class reads any of the characters it contains, and thus
+ * stands for many {@link StringSymbol}-labeled transitions (e.g., a
+ * statically unknown character is the single range containing all
+ * characters). The empty set of characters is used to represent epsilon, as
+ * no character can be read through it: set operations yielding no characters
+ * thus return {@link #EPSILON}.
+ */
+public class RangeSymbol implements TransitionSymbol<RangeSymbol> {
+
+	/**
+	 * Singleton symbol for the epsilon, that is, the empty set of characters.
+	 */
+	public static final RangeSymbol EPSILON = new RangeSymbol(new char[0]);
+
+	/**
+	 * Singleton symbol for the set of all characters.
+	 */
+	public static final RangeSymbol ANY = new RangeSymbol(new char[] { Character.MIN_VALUE, Character.MAX_VALUE });
+
+	/**
+	 * The bounds of the ranges: the {@code i}-th range goes from
+	 * {@code bounds[2 * i]} to {@code bounds[2 * i + 1]} (both inclusive).
+	 * Ranges are sorted, and they are neither overlapping nor adjacent.
+	 */
+	private final char[] bounds;
+
+	private RangeSymbol(
+			char[] bounds) {
+		this.bounds = bounds;
+	}
+
+	/**
+	 * Yields the symbol containing only the given character.
+	 *
+	 * @param c the character
+	 *
+	 * @return the symbol
+	 */
+	public static RangeSymbol of(
+			char c) {
+		return new RangeSymbol(new char[] { c, c });
+	}
+
+	/**
+	 * Yields the symbol containing all characters between {@code from} and
+	 * {@code to}, both inclusive.
+	 *
+	 * @param from the first character of the range
+	 * @param to   the last character of the range
+	 *
+	 * @return the symbol
+	 *
+	 * @throws IllegalArgumentException if {@code from} is greater than
+	 *                                      {@code to}
+	 */
+	public static RangeSymbol range(
+			char from,
+			char to) {
+		if (from > to)
+			throw new IllegalArgumentException("Invalid range: '" + from + "' comes after '" + to + "'");
+		if (from == Character.MIN_VALUE && to == Character.MAX_VALUE)
+			return ANY;
+		return new RangeSymbol(new char[] { from, to });
+	}
+
+	/**
+	 * Yields the number of characters contained in this symbol.
+	 *
+	 * @return the number of characters
+	 */
+	public int size() {
+		int size = 0;
+		for (int i = 0; i < bounds.length; i += 2)
+			size += bounds[i + 1] - bounds[i] + 1;
+		return size;
+	}
+
+	/**
+	 * Yields the smallest character contained in this symbol.
+	 *
+	 * @return the smallest character
+	 *
+	 * @throws IllegalStateException if this symbol is {@link #EPSILON}
+	 */
+	public char min() {
+		if (isEpsilon())
+			throw new IllegalStateException("Epsilon contains no characters");
+		return bounds[0];
+	}
+
+	/**
+	 * Yields the number of disjoint ranges of characters composing this
+	 * symbol.
+	 *
+	 * @return the number of ranges
+	 */
+	public int getRangesCount() {
+		return bounds.length / 2;
+	}
+
+	/**
+	 * Yields the first character of the {@code i}-th range of this symbol.
+	 *
+	 * @param i the index of the range
+	 *
+	 * @return the first character of the range
+	 */
+	public char getLowerBound(
+			int i) {
+		return bounds[2 * i];
+	}
+
+	/**
+	 * Yields the last character of the {@code i}-th range of this symbol.
+	 *
+	 * @param i the index of the range
+	 *
+	 * @return the last character of the range
+	 */
+	public char getUpperBound(
+			int i) {
+		return bounds[2 * i + 1];
+	}
+
+	/**
+	 * Yields {@code true} if and only if this symbol contains the given
+	 * character.
+	 *
+	 * @param c the character
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean contains(
+			char c) {
+		int lo = 0, hi = bounds.length / 2 - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			if (c < bounds[2 * mid])
+				hi = mid - 1;
+			else if (c > bounds[2 * mid + 1])
+				lo = mid + 1;
+			else
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Yields {@code true} if and only if this symbol and the given one have at
+	 * least one character in common.
+	 *
+	 * @param other the other symbol
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean intersects(
+			RangeSymbol other) {
+		int i = 0, j = 0;
+		while (i < bounds.length && j < other.bounds.length)
+			if (bounds[i + 1] < other.bounds[j])
+				i += 2;
+			else if (other.bounds[j + 1] < bounds[i])
+				j += 2;
+			else
+				return true;
+		return false;
+	}
+
+	/**
+	 * Yields {@code true} if and only if all the characters of the given
+	 * symbol are also contained in this one.
+	 *
+	 * @param other the other symbol
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean includes(
+			RangeSymbol other) {
+		return other.minus(this).isEpsilon();
+	}
+
+	/**
+	 * Yields the symbol containing the characters of both this symbol and the
+	 * given one.
+	 *
+	 * @param other the other symbol
+	 *
+	 * @return the union of the two symbols
+	 */
+	public RangeSymbol union(
+			RangeSymbol other) {
+		if (other.isEpsilon() || this == other)
+			return this;
+		if (isEpsilon())
+			return other;
+
+		char[] result = new char[bounds.length + other.bounds.length];
+		int i = 0, j = 0, n = 0;
+		while (i < bounds.length || j < other.bounds.length) {
+			char lo, hi;
+			if (j >= other.bounds.length || (i < bounds.length && bounds[i] <= other.bounds[j])) {
+				lo = bounds[i];
+				hi = bounds[i + 1];
+				i += 2;
+			} else {
+				lo = other.bounds[j];
+				hi = other.bounds[j + 1];
+				j += 2;
+			}
+
+			// ranges are visited by increasing lower bound, so we only
+			// need to check if they overlap or touch the last one
+			if (n > 0 && lo <= result[n - 1] + 1) {
+				if (hi > result[n - 1])
+					result[n - 1] = hi;
+			} else {
+				result[n++] = lo;
+				result[n++] = hi;
+			}
+		}
+
+		return mk(result, n);
+	}
+
+	/**
+	 * Yields the symbol containing the characters that are contained in both
+	 * this symbol and the given one.
+	 *
+	 * @param other the other symbol
+	 *
+	 * @return the intersection of the two symbols ({@link #EPSILON} if they
+	 *             have no character in common)
+	 */
+	public RangeSymbol intersection(
+			RangeSymbol other) {
+		if (this == other)
+			return this;
+
+		char[] result = new char[bounds.length + other.bounds.length];
+		int i = 0, j = 0, n = 0;
+		while (i < bounds.length && j < other.bounds.length) {
+			char lo = (char) Math.max(bounds[i], other.bounds[j]);
+			char hi = (char) Math.min(bounds[i + 1], other.bounds[j + 1]);
+			if (lo <= hi) {
+				result[n++] = lo;
+				result[n++] = hi;
+			}
+
+			if (bounds[i + 1] < other.bounds[j + 1])
+				i += 2;
+			else
+				j += 2;
+		}
+
+		return mk(result, n);
+	}
+
+	/**
+	 * Yields the symbol containing the characters of this symbol that are not
+	 * contained in the given one.
+	 *
+	 * @param other the other symbol
+	 *
+	 * @return the difference between the two symbols ({@link #EPSILON} if all
+	 *             characters of this symbol are contained in {@code other})
+	 */
+	public RangeSymbol minus(
+			RangeSymbol other) {
+		if (other.isEpsilon())
+			return this;
+		if (this == other)
+			return EPSILON;
+
+		char[] result = new char[bounds.length + other.bounds.length];
+		int j = 0, n = 0;
+		for (int i = 0; i < bounds.length; i += 2) {
+			int lo = bounds[i], hi = bounds[i + 1];
+			// ranges of other that end before this one are irrelevant
+			while (j < other.bounds.length && other.bounds[j + 1] < lo)
+				j += 2;
+			int k = j;
+			while (lo <= hi && k < other.bounds.length && other.bounds[k] <= hi) {
+				if (other.bounds[k] > lo) {
+					result[n++] = (char) lo;
+					result[n++] = (char) (other.bounds[k] - 1);
+				}
+				lo = other.bounds[k + 1] + 1;
+				k += 2;
+			}
+			if (lo <= hi) {
+				result[n++] = (char) lo;
+				result[n++] = (char) hi;
+			}
+		}
+
+		return mk(result, n);
+	}
+
+	private static RangeSymbol mk(
+			char[] bounds,
+			int length) {
+		if (length == 0)
+			return EPSILON;
+		if (length == 2 && bounds[0] == Character.MIN_VALUE && bounds[1] == Character.MAX_VALUE)
+			return ANY;
+		return new RangeSymbol(length == bounds.length ? bounds : Arrays.copyOf(bounds, length));
+	}
+
+	/**
+	 * Partitions the characters contained in the given symbols in disjoint
+	 * symbols, such that each of the given symbols (excluding
+	 * {@link #EPSILON}) is the union of some elements of the partition and
+	 * each element of the partition is contained in the same given symbols.
+	 * The elements of the partition are sorted by their smallest character.
+	 *
+	 * @param symbols the symbols to partition
+	 *
+	 * @return the partition
+	 */
+	public static List<RangeSymbol> partition(
+			Collection<RangeSymbol> symbols) {
+		List<RangeSymbol> distinct = new ArrayList<>(new TreeSet<>(symbols));
+		distinct.remove(EPSILON);
+		if (distinct.size() < 2)
+			return distinct;
+
+		// the points where the set of symbols containing a character can
+		// change are the lower bounds of the ranges and the characters
+		// following their upper bounds
+		TreeSet<Integer> points = new TreeSet<>();
+		for (RangeSymbol s : distinct)
+			for (int i = 0; i < s.bounds.length; i += 2) {
+				points.add((int) s.bounds[i]);
+				points.add(s.bounds[i + 1] + 1);
+			}
+
+		// consecutive points delimit elementary ranges, that are grouped
+		// by the symbols containing them
+		Map<List<Integer>, Integer> groups = new HashMap<>();
+		List<RangeSymbol> order = new ArrayList<>();
+		Integer lo = null;
+		for (Integer hi : points) {
+			if (lo != null) {
+				char c = (char) lo.intValue();
+				List<Integer> containing = new ArrayList<>();
+				for (int i = 0; i < distinct.size(); i++)
+					if (distinct.get(i).contains(c))
+						containing.add(i);
+				if (!containing.isEmpty()) {
+					RangeSymbol elementary = range(c, (char) (hi - 1));
+					Integer group = groups.get(containing);
+					if (group == null) {
+						groups.put(containing, order.size());
+						order.add(elementary);
+					} else
+						order.set(group, order.get(group).union(elementary));
+				}
+			}
+			lo = hi;
+		}
+
+		return order;
+	}
+
+	@Override
+	public int compareTo(
+			RangeSymbol o) {
+		return Arrays.compare(bounds, o.bounds);
+	}
+
+	@Override
+	public boolean isEpsilon() {
+		return bounds.length == 0;
+	}
+
+	@Override
+	public RangeSymbol reverse() {
+		// symbols contain single characters, that are their own reverse
+		return this;
+	}
+
+	@Override
+	public int maxLength() {
+		return isEpsilon() ? 0 : 1;
+	}
+
+	@Override
+	public int minLength() {
+		return isEpsilon() ? 0 : 1;
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(bounds);
+	}
+
+	@Override
+	public boolean equals(
+			Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		RangeSymbol other = (RangeSymbol) obj;
+		return Arrays.equals(bounds, other.bounds);
+	}
+
+	@Override
+	public String toString() {
+		if (isEpsilon())
+			return TransitionSymbol.EPSILON;
+		if (this.equals(ANY))
+			return UNKNOWN_SYMBOL;
+		if (bounds.length == 2 && bounds[0] == bounds[1])
+			return String.valueOf(bounds[0]);
+
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < bounds.length; i += 2) {
+			sb.append(bounds[i]);
+			if (bounds[i + 1] != bounds[i])
+				sb.append('-').append(bounds[i + 1]);
+		}
+		return sb.append(']').toString();
+	}
+}
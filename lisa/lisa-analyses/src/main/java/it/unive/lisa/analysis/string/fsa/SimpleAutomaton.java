@@ -131,6 +131,37 @@ public final class SimpleAutomaton extends Automaton<SimpleAutomaton, StringSymb
 		minimized = Optional.of(true);
 	}
 
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * If one of the automata reads any character from some state (e.g., since
+	 * it models an unknown string), the check is performed on the
+	 * {@link RangeAutomaton}s recognizing the same languages, where such
+	 * characters are read by a single transition: this avoids complementing
+	 * and intersecting automata with one transition per character.
+	 */
+	@Override
+	public boolean isContained(
+			SimpleAutomaton other) {
+		if (hasSameCanonicalForm(other))
+			return true;
+		if (readsAnyCharacter() || other.readsAnyCharacter())
+			return RangeAutomaton.of(this).isContained(RangeAutomaton.of(other));
+		return super.isContained(other);
+	}
+
+	private boolean readsAnyCharacter() {
+		// the characters read by unknownString()
+		int alphabet = '~' - '!' + 1;
+		for (State s : states)
+			if (getOutgoingTransitionsFrom(s).stream()
+					.map(Transition::getSymbol)
+					.filter(sym -> sym.getSymbol().length() == 1)
+					.count() >= alphabet)
+				return true;
+		return false;
+	}
+
 	/**
 	 * Computes all the automaton transitions to validate a given string
 	 * {@code str}.
@@ -154,8 +185,8 @@ public final class SimpleAutomaton extends Automaton<SimpleAutomaton, StringSymb
 			for (State s : currentStates) {
 
 				// stores all the states reached after char computation
-				Set<State> dest = transitions.stream()
-						.filter(t -> t.getSource().equals(s) && t.getSymbol().getSymbol().equals(c))
+				Set<State> dest = getOutgoingTransitionsFrom(s).stream()
+						.filter(t -> t.getSymbol().getSymbol().equals(c))
 						.map(Transition::getDestination).collect(Collectors.toSet());
 				if (!dest.isEmpty()) {
 					dest = epsilonClosure(dest);
@@ -221,7 +252,7 @@ public final class SimpleAutomaton extends Automaton<SimpleAutomaton, StringSymb
 				}
 
 			result.removeTransitions(toRemove);
-			result.getTransitions().addAll(toAdd);
+			toAdd.forEach(result::addTransition);
 
 			result.minimize();
 
@@ -264,7 +295,7 @@ public final class SimpleAutomaton extends Automaton<SimpleAutomaton, StringSymb
 			}
 
 			result.removeTransitions(toRemove);
-			result.getTransitions().addAll(toAdd);
+			toAdd.forEach(result::addTransition);
 
 			result.minimize();
 
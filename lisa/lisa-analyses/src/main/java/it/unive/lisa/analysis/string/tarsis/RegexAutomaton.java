@@ -1,5 +1,6 @@
 package it.unive.lisa.analysis.string.tarsis;
 
+import it.unive.lisa.analysis.string.fsa.RangeAutomaton;
 import it.unive.lisa.util.datastructures.automaton.Automaton;
 import it.unive.lisa.util.datastructures.automaton.CyclicAutomatonException;
 import it.unive.lisa.util.datastructures.automaton.State;
@@ -232,6 +233,25 @@ public class RegexAutomaton extends Automaton<RegexAutomaton, RegularExpression>
 		super(states, transitions);
 	}
 
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * If one of the automata {@link #acceptsTopEventually() recognizes a top
+	 * string}, the check is performed on the {@link RangeAutomaton}s
+	 * recognizing the same languages. There, top strings are loops over all
+	 * characters, while here they are symbols that are contained only in
+	 * other top symbols.
+	 */
+	@Override
+	public boolean isContained(
+			RegexAutomaton other) {
+		if (hasSameCanonicalForm(other))
+			return true;
+		if (acceptsTopEventually() || other.acceptsTopEventually())
+			return RangeAutomaton.of(this).isContained(RangeAutomaton.of(other));
+		return super.isContained(other);
+	}
+
 	/**
 	 * Yields {@code true} if and only if there is at least one transition in
 	 * this automaton that recognizes a top string.
@@ -0,0 +1,772 @@
+package it.unive.lisa.interprocedural;
+
+import it.unive.lisa.AnalysisExecutionException;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.AnalyzedCFG;
+import it.unive.lisa.analysis.FixpointInfo;
+import it.unive.lisa.analysis.OptimizedAnalyzedCFG;
+import it.unive.lisa.analysis.ScopeToken;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.StatementStore;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.symbols.SymbolAliasing;
+import it.unive.lisa.conf.FixpointConfiguration;
+import it.unive.lisa.interprocedural.callgraph.CallGraph;
+import it.unive.lisa.interprocedural.callgraph.CallGraphEdge;
+import it.unive.lisa.interprocedural.callgraph.CallGraphNode;
+import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
+import it.unive.lisa.logging.IterationLogger;
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.call.CFGCall;
+import it.unive.lisa.program.cfg.statement.call.Call;
+import it.unive.lisa.program.cfg.statement.call.OpenCall;
+import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
+import it.unive.lisa.program.language.parameterassignment.ParameterAssigningStrategy;
+import it.unive.lisa.symbolic.value.HeapLocation;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.OutOfScopeIdentifier;
+import it.unive.lisa.symbolic.value.PushAny;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.workset.WorkingSet;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import it.unive.lisa.util.datastructures.graph.algorithms.SCCs;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A modular analysis that processes the strongly connected components of the
+ * call graph bottom-up, computing a summary for each cfg that is then used at
+ * the calls targeting the cfg.<br>
+ * <br>
+ * Before the analysis starts, all calls of the program are resolved using the
+ * static types of their parameters, building the whole call graph. Each cfg is
+ * then analyzed starting from a generic entry state where its formal
+ * parameters hold unknown values (see
+ * {@link #prepareEntryStateOfEntryPoint(AnalysisState, CFG)}). The exit state
+ * of such analysis is the summary of the cfg, that does not depend on the
+ * context where the cfg is called, and the analysis itself is the result
+ * stored for the cfg. Summaries are applied at calls: the summary of each
+ * target is joined with the variables of the caller (that are hidden by the
+ * call's scope) and with the heap of the caller (that the target might have
+ * modified), while the values returned come from the summary. To recover some
+ * of the precision lost this way, each cfg that does not belong to a recursive
+ * component also has a bounded table of specializations, mapping entry states
+ * to exit states. A call whose entry state (where formal parameters are
+ * assigned to the actual ones, with the heap of the caller) is in the table
+ * uses the corresponding exit state. Otherwise, if the table has room, the
+ * target is analyzed from that entry state and the result is added to the
+ * table. If the table is full, the exit state of an entry that is greater
+ * than or equal to the one of the call is used if available, falling back to
+ * the summary otherwise. Each cfg outside recursive components is thus
+ * analyzed at most {@code 1 + specializations} times, regardless of the number
+ * of contexts it is called from (see {@link #ModularSummaryAnalysis(int)}).<br>
+ * <br>
+ * Components are processed following their level in the call graph, where a
+ * component has level 0 if it does not call any other component, and a level
+ * greater than the one of all the components it calls otherwise: this ensures
+ * that the summaries of all callees are available when a component is
+ * analyzed. The members of a recursive component are analyzed repeatedly,
+ * starting from bottom summaries for all of them, until their summaries are
+ * stable, applying widening after
+ * {@link FixpointConfiguration#recursionWideningThreshold} iterations.
+ * Components with the same level do not call each other: if
+ * {@link FixpointConfiguration#analysisThreads} is greater than 1, they are
+ * processed in parallel.<br>
+ * <br>
+ * Calls that hit the specializations of their targets thus yield values that
+ * depend on the actual parameters and on the heap of the caller, as in a
+ * context-sensitive analysis. Calls that use summaries, as the ones to
+ * recursive cfgs and the ones to cfgs called from more distinct contexts than
+ * the bound, yield instead values that depend neither on the actual
+ * parameters nor on the heap of the caller (e.g., a recursive factorial yields
+ * the same values regardless of its parameter), and their effects on the heap
+ * are weakly applied. The bound thus trades precision for the cost of the
+ * analysis: with no specializations, such cfgs are analyzed exactly once. In
+ * all cases, calls yield the values computed by their targets instead of
+ * unknown values, making results more precise than the ones of
+ * {@link ModularWorstCaseAnalysis}. Note that the results stored for each cfg
+ * are the ones of its generic analysis, and that optimized results (see
+ * {@link FixpointConfiguration#optimize}) are unwinded using the summaries of
+ * the targets of each call, without the variables of the caller.
+ *
+ * @param <A> the {@link AbstractState} of the analysis
+ */
+public class ModularSummaryAnalysis<A extends AbstractState<A>> extends CallGraphBasedAnalysis<A> {
+
+	private static final Logger LOG = LogManager.getLogger(ModularSummaryAnalysis.class);
+
+	private static final ScopeId ID = new UniqueScope();
+
+	/**
+	 * The default number of specializations of each cfg.
+	 */
+	public static final int DEFAULT_SPECIALIZATIONS = 5;
+
+	/**
+	 * The summaries of the cfgs whose component has been completely analyzed,
+	 * that is, the exit states of their fixpoints.
+	 */
+	private final Map<CFG, AnalysisState<A>> summaries;
+
+	/**
+	 * The cfgs that belong to recursive components of the call graph, whose
+	 * summaries are applied regardless of the values they are called with.
+	 */
+	private final Set<CFG> recursive;
+
+	/**
+	 * The exit states of the cfgs that do not belong to recursive components,
+	 * indexed by the entry states (without the frames of the callers) they
+	 * have been analyzed from at calls.
+	 */
+	private final Map<CFG, Map<AnalysisState<A>, AnalysisState<A>>> specialized;
+
+	/**
+	 * The number of specializations of each cfg that have been computed, or
+	 * that are being computed.
+	 */
+	private final Map<CFG, AtomicInteger> reserved;
+
+	/**
+	 * The maximum number of specializations of each cfg.
+	 */
+	private final int specializations;
+
+	/**
+	 * The members of the component under analysis, or {@code null} if this
+	 * analysis is not processing a component.
+	 */
+	private final Collection<CFG> members;
+
+	/**
+	 * The current summaries of the members of the component under analysis
+	 * (absent for members that have not been analyzed yet), or {@code null}
+	 * if this analysis is not processing a component.
+	 */
+	private final Map<CFG, AnalysisState<A>> component;
+
+	/**
+	 * The results computed by this analysis.
+	 */
+	private FixpointResults<A> results;
+
+	/**
+	 * The working set used for the fixpoints of the current analysis.
+	 */
+	private Class<? extends WorkingSet<Statement>> workingSet;
+
+	/**
+	 * The configuration of the fixpoints of the current analysis.
+	 */
+	private FixpointConfiguration conf;
+
+	/**
+	 * Builds the analysis, using {@link #DEFAULT_SPECIALIZATIONS}
+	 * specializations for each cfg.
+	 */
+	public ModularSummaryAnalysis() {
+		this(DEFAULT_SPECIALIZATIONS);
+	}
+
+	/**
+	 * Builds the analysis.
+	 *
+	 * @param specializations the maximum number of entry states each cfg that
+	 *                            does not belong to a recursive component is
+	 *                            analyzed from at calls, besides the analysis
+	 *                            computing its summary; {@code 0} means that
+	 *                            summaries are used at all calls
+	 */
+	public ModularSummaryAnalysis(
+			int specializations) {
+		this.summaries = new ConcurrentHashMap<>();
+		this.recursive = ConcurrentHashMap.newKeySet();
+		this.specialized = new ConcurrentHashMap<>();
+		this.reserved = new ConcurrentHashMap<>();
+		this.specializations = specializations;
+		this.members = null;
+		this.component = null;
+	}
+
+	/**
+	 * Builds a copy of the given analysis, sharing its summaries, that
+	 * processes the given component.
+	 *
+	 * @param other     the analysis to copy
+	 * @param members   the members of the component, or {@code null} if the
+	 *                      copy is not processing a component
+	 * @param component the current summaries of the members, or {@code null}
+	 *                      if the copy is not processing a component
+	 */
+	private ModularSummaryAnalysis(
+			ModularSummaryAnalysis<A> other,
+			Collection<CFG> members,
+			Map<CFG, AnalysisState<A>> component) {
+		super(other);
+		this.summaries = other.summaries;
+		this.recursive = other.recursive;
+		this.specialized = other.specialized;
+		this.reserved = other.reserved;
+		this.specializations = other.specializations;
+		this.members = members;
+		this.component = component;
+		this.results = other.results;
+		this.workingSet = other.workingSet;
+		this.conf = other.conf;
+	}
+
+	@Override
+	public void init(
+			Application app,
+			CallGraph callgraph,
+			OpenCallPolicy policy)
+			throws InterproceduralAnalysisException {
+		super.init(app, callgraph, policy);
+		this.results = null;
+		this.summaries.clear();
+		this.recursive.clear();
+		this.specialized.clear();
+		this.reserved.clear();
+	}
+
+	@Override
+	public void fixpoint(
+			AnalysisState<A> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf)
+			throws FixpointException {
+		// new fixpoint execution: reset
+		this.results = null;
+		this.summaries.clear();
+		this.recursive.clear();
+		this.specialized.clear();
+		this.reserved.clear();
+		this.workingSet = fixpointWorkingSet;
+		this.conf = conf;
+
+		Collection<CFG> all = app.getAllCFGs();
+		if (all.isEmpty())
+			return;
+
+		CFG first = all.iterator().next();
+		AnalyzedCFG<A> graph = conf.optimize
+				? new OptimizedAnalyzedCFG<>(first, ID, entryState.bottom(), this)
+				: new AnalyzedCFG<>(first, ID, entryState);
+		this.results = new FixpointResults<>(new CFGResults<>(graph).top());
+
+		// the call graph is not read nor modified after this point, except
+		// for calls resolved again by the fixpoints (see resolve)
+		buildCallGraph(all);
+		List<List<Collection<CFG>>> levels = levels();
+
+		int level = 0;
+		for (List<Collection<CFG>> components : levels) {
+			LOG.info("Processing {} components at level {}", components.size(), level++);
+			Collection<Map<CFG, AnalyzedCFG<A>>> solved = conf.analysisThreads <= 1 || components.size() <= 1
+					? solveSequentially(entryState, fixpointWorkingSet, conf, components)
+					: solveInParallel(entryState, fixpointWorkingSet, conf, components);
+
+			// components of the same level do not call each other, so their
+			// summaries can be published only once all of them are done
+			try {
+				for (Map<CFG, AnalyzedCFG<A>> res : solved)
+					for (Entry<CFG, AnalyzedCFG<A>> entry : res.entrySet()) {
+						summaries.put(entry.getKey(), entry.getValue().getExitState());
+						results.putResult(entry.getKey(), ID, entry.getValue());
+					}
+			} catch (SemanticException e) {
+				throw new FixpointException("Error while storing the results of a component", e);
+			}
+		}
+	}
+
+	/**
+	 * Resolves all calls of the given cfgs using the static types of their
+	 * parameters, so that the call graph contains all the calls that can
+	 * happen during the analysis. Calls of cfgs reported by
+	 * {@link CallGraph#pollInvalidatedCallers()} are resolved again, until no
+	 * resolution is invalidated.
+	 *
+	 * @param all the cfgs of the program
+	 *
+	 * @throws FixpointException if a call cannot be resolved
+	 */
+	private void buildCallGraph(
+			Collection<CFG> all)
+			throws FixpointException {
+		Map<CFG, List<UnresolvedCall>> calls = new HashMap<>();
+		for (CFG cfg : all) {
+			callgraph.addNode(new CallGraphNode(callgraph, cfg), app.getEntryPoints().contains(cfg));
+			List<UnresolvedCall> found = new ArrayList<>();
+			cfg.accept(new CallsFinder(), found);
+			calls.put(cfg, found);
+		}
+
+		Collection<CFG> pending = all;
+		while (!pending.isEmpty()) {
+			for (CFG cfg : IterationLogger.iterate(LOG, pending, "Resolving calls", "cfgs"))
+				for (UnresolvedCall call : calls.get(cfg)) {
+					Set<Type>[] types = newTypes(call.getParameters().length);
+					for (int i = 0; i < types.length; i++)
+						types[i] = call.getParameters()[i].getStaticType().allInstances(call.getProgram().getTypes());
+					try {
+						callgraph.resolve(call, types, null);
+					} catch (CallResolutionException e) {
+						throw new FixpointException("Unable to resolve " + call, e);
+					}
+				}
+
+			// resolutions might have been invalidated by the targets of
+			// other calls (e.g., if they instantiate new receivers)
+			pending = new HashSet<>();
+			for (CodeMember invalidated : callgraph.pollInvalidatedCallers())
+				if (invalidated instanceof CFG && calls.containsKey(invalidated))
+					pending.add((CFG) invalidated);
+		}
+	}
+
+	/**
+	 * Creates an array of sets of types with the given length. Generic arrays
+	 * cannot be instantiated, but the cast is safe since the array is only
+	 * filled with sets of types before being passed to the call graph.
+	 *
+	 * @param length the length of the array
+	 *
+	 * @return the array
+	 */
+	@SuppressWarnings("unchecked")
+	private static Set<Type>[] newTypes(
+			int length) {
+		return (Set<Type>[]) new Set<?>[length];
+	}
+
+	/**
+	 * Yields the strongly connected components of the call graph made of
+	 * cfgs, grouped by their level. Members of recursive components are also
+	 * added to {@link #recursive}. Components of each level are sorted by the
+	 * location of their first member, and members of each component are
+	 * sorted by location.
+	 *
+	 * @return the components, grouped by level
+	 */
+	private List<List<Collection<CFG>>> levels() {
+		Comparator<CFG> byLocation = Comparator.comparing(cfg -> cfg.getDescriptor().getLocation());
+		Map<CodeMember, Integer> indexes = new HashMap<>();
+		List<Collection<CFG>> components = new ArrayList<>();
+		for (Collection<CallGraphNode> scc : new SCCs<CallGraph, CallGraphNode, CallGraphEdge>().build(callgraph)) {
+			List<CFG> members = new ArrayList<>();
+			for (CallGraphNode node : scc) {
+				indexes.put(node.getCodeMember(), components.size());
+				if (node.getCodeMember() instanceof CFG)
+					members.add((CFG) node.getCodeMember());
+			}
+			if (members.size() > 1
+					|| members.size() == 1 && callgraph.getCallees(members.get(0)).contains(members.get(0)))
+				recursive.addAll(members);
+			members.sort(byLocation);
+			components.add(members);
+		}
+
+		// components calling a component, and number of components called
+		List<Set<Integer>> callers = new ArrayList<>();
+		int[] pending = new int[components.size()];
+		for (int i = 0; i < components.size(); i++)
+			callers.add(new HashSet<>());
+		for (int i = 0; i < components.size(); i++) {
+			Set<Integer> callees = new HashSet<>();
+			for (CFG cfg : components.get(i))
+				for (CodeMember callee : callgraph.getCallees(cfg))
+					callees.add(indexes.get(callee));
+			callees.remove(i);
+			pending[i] = callees.size();
+			for (int callee : callees)
+				callers.get(callee).add(i);
+		}
+
+		// components are assigned a level as soon as all their callees have one
+		int[] level = new int[components.size()];
+		List<Integer> ws = new ArrayList<>();
+		for (int i = 0; i < components.size(); i++)
+			if (pending[i] == 0)
+				ws.add(i);
+		while (!ws.isEmpty()) {
+			int next = ws.remove(ws.size() - 1);
+			for (int caller : callers.get(next)) {
+				level[caller] = Math.max(level[caller], level[next] + 1);
+				if (--pending[caller] == 0)
+					ws.add(caller);
+			}
+		}
+
+		TreeMap<Integer, List<Collection<CFG>>> byLevel = new TreeMap<>();
+		for (int i = 0; i < components.size(); i++)
+			if (!components.get(i).isEmpty())
+				byLevel.computeIfAbsent(level[i], l -> new ArrayList<>()).add(components.get(i));
+		List<List<Collection<CFG>>> result = new ArrayList<>();
+		for (List<Collection<CFG>> comps : byLevel.values()) {
+			comps.sort(Comparator.comparing(comp -> comp.iterator().next(), byLocation));
+			result.add(comps);
+		}
+		return result;
+	}
+
+	private Collection<Map<CFG, AnalyzedCFG<A>>> solveSequentially(
+			AnalysisState<A> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf,
+			List<Collection<CFG>> components)
+			throws FixpointException {
+		List<Map<CFG, AnalyzedCFG<A>>> solved = new ArrayList<>(components.size());
+		for (Collection<CFG> comp : components)
+			solved.add(solve(entryState, fixpointWorkingSet, conf, comp));
+		return solved;
+	}
+
+	private Collection<Map<CFG, AnalyzedCFG<A>>> solveInParallel(
+			AnalysisState<A> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf,
+			List<Collection<CFG>> components)
+			throws FixpointException {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(conf.analysisThreads, components.size()));
+		try {
+			List<Future<Map<CFG, AnalyzedCFG<A>>>> futures = new ArrayList<>(components.size());
+			for (Collection<CFG> comp : components)
+				futures.add(executor.submit(() -> solve(entryState, fixpointWorkingSet, conf, comp)));
+			List<Map<CFG, AnalyzedCFG<A>>> solved = new ArrayList<>(components.size());
+			for (Future<Map<CFG, AnalyzedCFG<A>>> future : futures)
+				solved.add(future.get());
+			return solved;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AnalysisExecutionException("Interrupted while processing components", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof FixpointException)
+				throw (FixpointException) e.getCause();
+			throw new AnalysisExecutionException("Error while processing components", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Computes the summaries of the members of a component, analyzing them
+	 * repeatedly if the component is recursive.
+	 *
+	 * @param entryState         the entry state of the analysis
+	 * @param fixpointWorkingSet the working set to use for the fixpoints
+	 * @param conf               the fixpoint configuration
+	 * @param members            the members of the component
+	 *
+	 * @return the results computed for each member
+	 *
+	 * @throws FixpointException if a fixpoint terminates abruptly
+	 */
+	private Map<CFG, AnalyzedCFG<A>> solve(
+			AnalysisState<A> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf,
+			Collection<CFG> members)
+			throws FixpointException {
+		Map<CFG, AnalysisState<A>> current = new HashMap<>();
+		ModularSummaryAnalysis<A> analysis = new ModularSummaryAnalysis<>(this, members, current);
+		boolean loops = recursive.containsAll(members);
+
+		Map<CFG, AnalyzedCFG<A>> res = new HashMap<>();
+		try {
+			int iter = 0;
+			boolean changed;
+			do {
+				changed = false;
+				for (CFG cfg : members) {
+					AnalysisState<A> entry = prepareEntryStateOfEntryPoint(entryState, cfg);
+					AnalyzedCFG<A> result = cfg.fixpoint(entry, analysis, WorkingSet.of(fixpointWorkingSet), conf, ID);
+					res.put(cfg, result);
+
+					AnalysisState<A> exit = result.getExitState();
+					AnalysisState<A> previous = current.get(cfg);
+					if (previous == null) {
+						// calls to members of the component yielded bottom
+						current.put(cfg, exit);
+						changed = true;
+					} else if (!exit.lessOrEqual(previous)) {
+						current.put(cfg, iter < conf.recursionWideningThreshold
+								? previous.lub(exit)
+								: previous.widening(exit));
+						changed = true;
+					}
+				}
+				iter++;
+			} while (loops && changed);
+		} catch (SemanticException e) {
+			throw new FixpointException("Error while computing the summaries of " + members, e);
+		}
+		return res;
+	}
+
+	@Override
+	public Call resolve(
+			UnresolvedCall call,
+			Set<Type>[] types,
+			SymbolAliasing aliasing)
+			throws CallResolutionException {
+		// components are analyzed in parallel, but all calls have been
+		// already resolved once: this is rarely contended
+		synchronized (callgraph) {
+			return super.resolve(call, types, aliasing);
+		}
+	}
+
+	@Override
+	public Collection<AnalyzedCFG<A>> getAnalysisResultsOf(
+			CFG cfg) {
+		if (results != null && results.contains(cfg))
+			return results.getState(cfg).getAll();
+		else
+			return Collections.emptySet();
+	}
+
+	@Override
+	public FixpointResults<A> getFixpointResults() {
+		return results;
+	}
+
+	@Override
+	public AnalysisState<A> getAbstractResultOf(
+			CFGCall call,
+			AnalysisState<A> entryState,
+			ExpressionSet[] parameters,
+			StatementStore<A> expressions)
+			throws SemanticException {
+		ScopeToken scope = new ScopeToken(call);
+		AnalysisState<A> result = entryState.bottom();
+
+		for (CFG cfg : call.getTargetedCFGs()) {
+			boolean local = members != null && members.contains(cfg);
+			if (!local && !summaries.containsKey(cfg)) {
+				// this can only happen if the target has not been found
+				// while building the call graph: we fall back to the
+				// worst case assumption
+				LOG.warn("No summary available for {}, treating {} as an open call", cfg, call);
+				OpenCall open = new OpenCall(call.getCFG(), call.getLocation(), call.getCallType(),
+						call.getQualifier(), call.getTargetName(), call.getStaticType(), call.getParameters());
+				result = result.lub(getAbstractResultOf(open, entryState, parameters, expressions));
+				continue;
+			}
+
+			if (!local && !recursive.contains(cfg)) {
+				AnalysisState<A> res = specialize(call, cfg, entryState, parameters, expressions, scope);
+				if (res != null) {
+					result = result.lub(res);
+					continue;
+				}
+				// no specialization can be used: the summary is applied
+			}
+
+			AnalysisState<A> summary = local ? component.get(cfg) : summaries.get(cfg);
+			if (summary == null || summary.getState().isBottom()) {
+				// a member of a recursive component that has not been
+				// analyzed yet, or a cfg that never returns
+				result = result.lub(noReturn(call, entryState));
+				continue;
+			}
+
+			// the summary has been computed starting from unknown values for
+			// everything that the callee can access: the variables of the
+			// caller, that are hidden by the scope, survive the call, while
+			// the heap might have been modified by the callee, and its values
+			// are thus joined with the ones of the summary
+			AnalysisState<A> caller = scope(entryState, scope, parameters).getLeft()
+					.forgetIdentifiersIf(id -> !(id instanceof OutOfScopeIdentifier) && !(id instanceof HeapLocation));
+			result = result.lub(unscope(call, scope, restoreFrame(call, scope, caller, summary)));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Yields the result of a call to a cfg that does not belong to a recursive
+	 * component through the specializations of the cfg, if possible. The entry
+	 * state of the call is the state where the formal parameters of the cfg
+	 * have been assigned to the actual ones, without the variables of the
+	 * caller that are hidden by the scope of the call. If a specialization for
+	 * that entry state exists, its exit state is used. Otherwise, if less than
+	 * {@link #specializations} specializations of the cfg exist, the cfg is
+	 * analyzed starting from the entry state, and a new specialization is
+	 * added. Otherwise, the exit state of a specialization whose entry state
+	 * is greater than or equal to the one of the call is used, if any.
+	 *
+	 * @param call        the call
+	 * @param cfg         the target of the call
+	 * @param entryState  the entry state of the call
+	 * @param parameters  the expressions representing the actual parameters
+	 * @param expressions the cache where analysis states of intermediate
+	 *                        expressions are stored
+	 * @param scope       the scope of the call
+	 *
+	 * @return the result of the call, or {@code null} if no specialization
+	 *             can be used
+	 *
+	 * @throws SemanticException if something goes wrong during the
+	 *                               computation
+	 */
+	private AnalysisState<A> specialize(
+			CFGCall call,
+			CFG cfg,
+			AnalysisState<A> entryState,
+			ExpressionSet[] parameters,
+			StatementStore<A> expressions,
+			ScopeToken scope)
+			throws SemanticException {
+		Pair<AnalysisState<A>, ExpressionSet[]> scoped = scope(entryState, scope, parameters);
+		ParameterAssigningStrategy strategy = call.getProgram().getFeatures().getAssigningStrategy();
+		AnalysisState<A> prepared = strategy.prepare(
+				call,
+				scoped.getLeft(),
+				this,
+				expressions,
+				cfg.getDescriptor().getFormals(),
+				scoped.getRight()).getLeft();
+
+		AnalysisState<A> entry = prepared.forgetIdentifiersIf(OutOfScopeIdentifier.class::isInstance);
+		Map<AnalysisState<A>, AnalysisState<A>> table = specialized.computeIfAbsent(cfg,
+				k -> new ConcurrentHashMap<>());
+		AnalysisState<A> exit = table.get(entry);
+		if (exit == null && !reserve(cfg)) {
+			// the analysis of cfg is monotone: the exit state of a greater
+			// entry state is sound for the call
+			for (Entry<AnalysisState<A>, AnalysisState<A>> spec : table.entrySet())
+				if (entry.lessOrEqual(spec.getKey())) {
+					exit = spec.getValue();
+					break;
+				}
+			if (exit == null)
+				return null;
+		} else if (exit == null) {
+			// callees of cfg have been completely analyzed, and calls to
+			// them are evaluated in the same way
+			try {
+				exit = cfg.fixpoint(
+						entry,
+						new ModularSummaryAnalysis<>(this, null, null),
+						WorkingSet.of(workingSet),
+						conf,
+						ID)
+						.getExitState();
+			} catch (FixpointException e) {
+				throw new SemanticException("Error while analyzing " + cfg + " for the call at " + call.getLocation(),
+						e);
+			}
+			table.putIfAbsent(entry, exit);
+		}
+
+		if (exit.getState().isBottom())
+			return noReturn(call, entryState);
+
+		// the callee started from the actual heap, that is thus taken from
+		// its exit state
+		AnalysisState<A> caller = prepared.forgetIdentifiersIf(id -> !(id instanceof OutOfScopeIdentifier));
+		return unscope(call, scope, restoreFrame(call, scope, caller, exit));
+	}
+
+	/**
+	 * Reserves a new specialization of the given cfg, if less than
+	 * {@link #specializations} have been already reserved.
+	 *
+	 * @param cfg the cfg
+	 *
+	 * @return {@code true} if the specialization has been reserved
+	 */
+	private boolean reserve(
+			CFG cfg) {
+		AtomicInteger count = reserved.computeIfAbsent(cfg, k -> new AtomicInteger());
+		return count.getAndUpdate(n -> n < specializations ? n + 1 : n) < specializations;
+	}
+
+	/**
+	 * Joins the given state of the caller with the exit state of a callee.
+	 * The caller is expected to contain only identifiers that are not part of
+	 * the exit state, or whose value has to be joined with the one in the exit
+	 * state. The meta variable of the call is bound in advance, since a caller
+	 * that knows nothing would absorb the exit state: it will be overwritten
+	 * with the returned values while unscoping.
+	 *
+	 * @param call      the call
+	 * @param scope     the scope of the call
+	 * @param caller    the state of the caller
+	 * @param exitState the exit state of the callee
+	 *
+	 * @return the joined state, still to be unscoped
+	 *
+	 * @throws SemanticException if something goes wrong during the
+	 *                               computation
+	 */
+	private AnalysisState<A> restoreFrame(
+			CFGCall call,
+			ScopeToken scope,
+			AnalysisState<A> caller,
+			AnalysisState<A> exitState)
+			throws SemanticException {
+		AnalysisState<A> frame = caller;
+		if (!returnsVoid(call, exitState)) {
+			Identifier meta = (Identifier) call.getMetaVariable().pushScope(scope);
+			frame = frame.assign(meta, new PushAny(meta.getStaticType(), call.getLocation()), call);
+		}
+		AnalysisState<A> joined = frame.lub(exitState);
+		return new AnalysisState<>(joined.getState(), exitState.getComputedExpressions(),
+				joined.getFixpointInformation());
+	}
+
+	private AnalysisState<A> noReturn(
+			CFGCall call,
+			AnalysisState<A> entryState) {
+		if (returnsVoid(call, null))
+			return entryState.bottom();
+		else
+			return new AnalysisState<>(
+					entryState.getState().bottom(),
+					call.getMetaVariable(),
+					FixpointInfo.BOTTOM);
+	}
+
+	/**
+	 * A {@link GraphVisitor} collecting all the {@link UnresolvedCall}s of a
+	 * {@link CFG}, including the ones nested in other expressions.
+	 */
+	private static class CallsFinder implements GraphVisitor<CFG, Statement, Edge, List<UnresolvedCall>> {
+
+		@Override
+		public boolean visit(
+				List<UnresolvedCall> tool,
+				CFG graph,
+				Statement node) {
+			if (node instanceof UnresolvedCall)
+				tool.add((UnresolvedCall) node);
+			return true;
+		}
+	}
+}
@@ -10,6 +10,7 @@ import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.symbols.SymbolAliasing;
 import it.unive.lisa.conf.FixpointConfiguration;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
+import it.unive.lisa.interprocedural.callgraph.CallGraphNode;
 import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
 import it.unive.lisa.logging.IterationLogger;
 import it.unive.lisa.program.Application;
@@ -48,6 +49,11 @@ public class ModularWorstCaseAnalysis<A extends AbstractState<A>> implements Int
 	 */
 	private Application app;
 
+	/**
+	 * The call graph used by semantic checks to resolve calls, if any.
+	 */
+	private CallGraph callgraph;
+
 	/**
 	 * The policy used for computing the result of cfg calls.
 	 */
@@ -83,6 +89,7 @@ public class ModularWorstCaseAnalysis<A extends AbstractState<A>> implements Int
 				c2) -> c1.getDescriptor().getLocation()
 						.compareTo(c2.getDescriptor().getLocation()));
 		all.addAll(app.getAllCFGs());
+		registerAll(all);
 
 		for (CFG cfg : IterationLogger.iterate(LOG, all, "Computing fixpoint over the whole program",
 				"cfgs"))
@@ -113,6 +120,32 @@ public class ModularWorstCaseAnalysis<A extends AbstractState<A>> implements Int
 			}
 	}
 
+	/**
+	 * Adds the given cfgs to the call graph, if any. This analysis never
+	 * resolves calls through the call graph, but semantic checks do it once
+	 * the analysis has terminated: since all cfgs are analyzed, they are all
+	 * added as reachable, so that call graphs built incrementally (e.g., the
+	 * ones that track the instantiated types) know all of them before any
+	 * call is resolved. Callers invalidated by the new nodes are then polled
+	 * and discarded: the results of this analysis do not depend on the
+	 * resolution of calls, and thus need not be computed again.
+	 *
+	 * @param cfgs the cfgs to add
+	 */
+	private void registerAll(
+			Collection<CFG> cfgs) {
+		if (callgraph == null)
+			return;
+
+		for (CFG cfg : cfgs) {
+			CallGraphNode node = new CallGraphNode(callgraph, cfg);
+			if (!callgraph.containsNode(node))
+				callgraph.addNode(node, app.getEntryPoints().contains(cfg));
+		}
+
+		callgraph.pollInvalidatedCallers();
+	}
+
 	@Override
 	public Collection<AnalyzedCFG<A>> getAnalysisResultsOf(
 			CFG cfg) {
@@ -148,6 +181,7 @@ public class ModularWorstCaseAnalysis<A extends AbstractState<A>> implements Int
 			OpenCallPolicy policy)
 			throws InterproceduralAnalysisException {
 		this.app = app;
+		this.callgraph = callgraph;
 		this.policy = policy;
 		this.results = null;
 	}
@@ -1,8 +1,27 @@
 package it.unive.lisa.interprocedural.callgraph;
 
+import it.unive.lisa.analysis.symbols.SymbolAliasing;
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.program.cfg.Parameter;
+import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.statement.Expression;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.VariableRef;
+import it.unive.lisa.program.cfg.statement.call.Call;
+import it.unive.lisa.program.cfg.statement.call.Call.CallType;
+import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
 import it.unive.lisa.type.Type;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -11,17 +30,262 @@ import java.util.Set;
  * construction algorithms. In Proceedings of the 15th ACM SIGPLAN conference on
  * Object-oriented programming, systems, languages, and applications (OOPSLA
  * '00). Association for Computing Machinery, New York, NY, USA, 281–293.
- * DOI:https://doi.org/10.1145/353171.353190
+ * DOI:https://doi.org/10.1145/353171.353190<br>
+ * <br>
+ * This call graph tracks the set of {@link CompilationUnit}s that are
+ * instantiated by the code members reachable in the graph: whenever a
+ * {@link CFG} becomes part of the graph, its expressions are inspected through
+ * {@link #instantiatedUnit(Expression)}. Units of the formal parameters of the
+ * entrypoints (and of their subtypes) are considered as instantiated as well,
+ * since the environment creates the objects passed to them. Receivers of
+ * instance calls are then restricted to the types whose unit has been
+ * instantiated (types that are not defined by units are always kept). Since
+ * units can be discovered after the
+ * resolution of a call that would target them, calls remember the units that
+ * have been excluded from their receivers: when one of those is instantiated,
+ * cached resolutions of the call are discarded and its caller is reported by
+ * {@link #pollInvalidatedCallers()}, so that the analysis can resolve the call
+ * again. Analyses that do not resolve calls through this graph should instead
+ * add all the code members they analyze to it, so that calls resolved later
+ * (e.g., by semantic checks) see all the instantiated units.
  *
  * @author <a href="mailto:pietro.ferrara@unive.it">Pietro Ferrara</a>
  */
 public class RTACallGraph extends BaseCallGraph {
 
+	private Application app;
+
+	private Instantiations instantiations = new Instantiations();
+
+	private final Map<UnresolvedCall, Set<CompilationUnit>> excluded = new IdentityHashMap<>();
+
+	@Override
+	public void init(
+			Application app)
+			throws CallGraphConstructionException {
+		super.init(app);
+		if (this.app != app) {
+			// instantiated units are a property of the application, and are
+			// kept together with the resolutions cached by the super class
+			this.instantiations = new Instantiations();
+			this.excluded.clear();
+		}
+		this.app = app;
+	}
+
+	/**
+	 * Makes this call graph share the instantiated units with the given one.
+	 * Units discovered by either graph will be used to restrict the receivers
+	 * of calls resolved by both, and invalidated callers will be reported by
+	 * both. This is useful when this graph is used to provide a local view
+	 * over {@code other}.
+	 *
+	 * @param other the call graph to share the instantiated units with
+	 */
+	public void shareInstantiations(
+			RTACallGraph other) {
+		this.instantiations = other.instantiations;
+	}
+
+	/**
+	 * Yields the {@link CompilationUnit}s that have been found to be
+	 * instantiated so far.
+	 *
+	 * @return the instantiated units
+	 */
+	public Collection<CompilationUnit> getInstantiatedUnits() {
+		return instantiations.units();
+	}
+
+	@Override
+	public void addNode(
+			CallGraphNode node,
+			boolean entrypoint) {
+		super.addNode(node, entrypoint);
+		scan(node.getCodeMember());
+	}
+
+	@Override
+	public Call resolve(
+			UnresolvedCall call,
+			Set<Type>[] types,
+			SymbolAliasing aliasing)
+			throws CallResolutionException {
+		// the caller is reachable even if it has not been added to the graph
+		// yet (e.g., if it is an entrypoint)
+		scan(call.getCFG());
+
+		Set<CompilationUnit> skipped = excluded.get(call);
+		if (skipped != null && instantiations.containsAny(skipped)) {
+			// some of the receivers that were discarded are now possible
+			forgetResolutions(call);
+			excluded.remove(call);
+		}
+
+		if (call.getCallType() != CallType.STATIC && call.getParameters().length > 0) {
+			// units excluded from the receivers are recorded before resolving
+			// the call, as the targets might instantiate some of them
+			Collection<Type> receivers = types == null || types.length == 0 || types[0] == null || types[0].isEmpty()
+					? call.getParameters()[0].getStaticType().allInstances(call.getProgram().getTypes())
+					: types[0];
+			for (Type rec : receivers) {
+				CompilationUnit unit = unitOf(rec);
+				if (unit != null && !instantiations.contains(unit)) {
+					excluded.computeIfAbsent(call, c -> new HashSet<>()).add(unit);
+					instantiations.await(unit, call.getCFG());
+				}
+			}
+		}
+
+		return super.resolve(call, types, aliasing);
+	}
+
 	@Override
 	public Collection<Type> getPossibleTypesOfReceiver(
 			Expression receiver,
 			Set<Type> types) {
-		return types;
+		Collection<Type> result = new ArrayList<>(types.size());
+		for (Type type : types) {
+			CompilationUnit unit = unitOf(type);
+			if (unit == null || instantiations.contains(unit))
+				result.add(type);
+		}
+		return result;
+	}
+
+	@Override
+	public Collection<CodeMember> pollInvalidatedCallers() {
+		return instantiations.poll();
 	}
 
+	/**
+	 * Yields the {@link CompilationUnit} that is instantiated by the given
+	 * expression, if any. The default implementation considers as
+	 * instantiations all expressions whose static type is a unit type (or a
+	 * pointer to one) of a unit that can be instantiated, excluding
+	 * {@link VariableRef}s and {@link Call}s since they only refer to or
+	 * return existing objects. Instantiations are recognized through static
+	 * types since neither the SDK nor the language-independent statements of
+	 * the program module define an allocation statement: those (e.g., the
+	 * {@code new} expressions of IMP) are frontend-specific, and this module
+	 * does not depend on any frontend. Frontends can override this method to
+	 * detect their instantiations more precisely.
+	 *
+	 * @param expression the expression
+	 *
+	 * @return the instantiated unit, or {@code null} if {@code expression}
+	 *             does not instantiate a unit
+	 */
+	protected CompilationUnit instantiatedUnit(
+			Expression expression) {
+		if (expression instanceof VariableRef || expression instanceof Call)
+			return null;
+		CompilationUnit unit = unitOf(expression.getStaticType());
+		return unit != null && unit.canBeInstantiated() ? unit : null;
+	}
+
+	private static CompilationUnit unitOf(
+			Type type) {
+		if (type.isUnitType())
+			return type.asUnitType().getUnit();
+		if (type.isPointerType() && type.asPointerType().getInnerType().isUnitType())
+			return type.asPointerType().getInnerType().asUnitType().getUnit();
+		return null;
+	}
+
+	private void scan(
+			CodeMember cm) {
+		if (!(cm instanceof CFG) || !instantiations.visit(cm))
+			return;
+
+		Set<CompilationUnit> found = new HashSet<>();
+		((CFG) cm).accept(new InstantiationsFinder(), found);
+		if (app != null && app.getEntryPoints().contains(cm))
+			// the objects passed to entrypoints are created by the environment
+			for (Parameter formal : cm.getDescriptor().getFormals())
+				if (unitOf(formal.getStaticType()) != null)
+					for (Type type : formal.getStaticType().allInstances(cm.getDescriptor().getUnit().getProgram().getTypes())) {
+						CompilationUnit unit = unitOf(type);
+						if (unit != null && unit.canBeInstantiated())
+							found.add(unit);
+					}
+		instantiations.addAll(found);
+	}
+
+	/**
+	 * A {@link GraphVisitor} collecting the units instantiated by the
+	 * expressions of a {@link CFG}.
+	 */
+	private class InstantiationsFinder implements GraphVisitor<CFG, Statement, Edge, Set<CompilationUnit>> {
+
+		@Override
+		public boolean visit(
+				Set<CompilationUnit> tool,
+				CFG graph,
+				Statement node) {
+			if (node instanceof Expression) {
+				CompilationUnit unit = instantiatedUnit((Expression) node);
+				if (unit != null)
+					tool.add(unit);
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * The set of instantiated units, together with the callers that are
+	 * waiting for units to be instantiated. Instances of this class might be
+	 * shared among several graphs that are used concurrently.
+	 */
+	private static final class Instantiations {
+
+		private final Set<CompilationUnit> units = new HashSet<>();
+
+		private final Set<CodeMember> scanned = new HashSet<>();
+
+		private final Map<CompilationUnit, Set<CodeMember>> waiting = new HashMap<>();
+
+		private final Set<CodeMember> invalidated = new HashSet<>();
+
+		private synchronized boolean visit(
+				CodeMember cm) {
+			return scanned.add(cm);
+		}
+
+		private synchronized boolean contains(
+				CompilationUnit unit) {
+			return units.contains(unit);
+		}
+
+		private synchronized boolean containsAny(
+				Collection<CompilationUnit> units) {
+			return !Collections.disjoint(this.units, units);
+		}
+
+		private synchronized Collection<CompilationUnit> units() {
+			return new HashSet<>(units);
+		}
+
+		private synchronized void addAll(
+				Collection<CompilationUnit> found) {
+			for (CompilationUnit unit : found)
+				if (units.add(unit)) {
+					Set<CodeMember> callers = waiting.remove(unit);
+					if (callers != null)
+						invalidated.addAll(callers);
+				}
+		}
+
+		private synchronized void await(
+				CompilationUnit unit,
+				CodeMember caller) {
+			waiting.computeIfAbsent(unit, u -> new HashSet<>()).add(caller);
+		}
+
+		private synchronized Collection<CodeMember> poll() {
+			Collection<CodeMember> result = new HashSet<>(invalidated);
+			invalidated.clear();
+			return result;
+		}
+	}
 }
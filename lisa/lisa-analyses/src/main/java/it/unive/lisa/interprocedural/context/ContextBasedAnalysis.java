@@ -17,8 +17,14 @@ import it.unive.lisa.interprocedural.FixpointResults;
 import it.unive.lisa.interprocedural.InterproceduralAnalysisException;
 import it.unive.lisa.interprocedural.NoEntryPointException;
 import it.unive.lisa.interprocedural.OpenCallPolicy;
+import it.unive.lisa.interprocedural.ResultStore;
+import it.unive.lisa.interprocedural.ResultStore.Reusable;
 import it.unive.lisa.interprocedural.ScopeId;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
+import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
+import it.unive.lisa.interprocedural.callgraph.CallGraphEdge;
+import it.unive.lisa.interprocedural.callgraph.CallGraphNode;
+import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
 import it.unive.lisa.interprocedural.context.recursion.Recursion;
 import it.unive.lisa.interprocedural.context.recursion.RecursionSolver;
 import it.unive.lisa.logging.IterationLogger;
@@ -32,17 +38,32 @@ import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.call.CFGCall;
 import it.unive.lisa.program.cfg.statement.call.Call;
 import it.unive.lisa.program.language.parameterassignment.ParameterAssigningStrategy;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.OutOfScopeIdentifier;
+import it.unive.lisa.symbolic.value.PushAny;
 import it.unive.lisa.util.StringUtilities;
 import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import it.unive.lisa.util.datastructures.graph.algorithms.SCCs;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
@@ -52,7 +73,48 @@ import org.apache.logging.log4j.Logger;
  * A context sensitive interprocedural analysis. The context sensitivity is
  * tuned by the kind of {@link ContextSensitivityToken} used. Recursions are
  * approximated applying the iterates of the recursion starting from bottom and
- * using the same widening threshold of cfg fixpoints.
+ * using the same widening threshold of cfg fixpoints.<br>
+ * <br>
+ * The first fixpoint iteration processes all entrypoints. While doing so, the
+ * analysis records which results (that is, a cfg and the token it has been
+ * analyzed with) evaluated calls targeting each cfg. Later iterations only
+ * analyze again the results that observed a cfg whose approximation changed,
+ * starting from the entry states they have been computed with. These are
+ * processed through a worklist following the topological order of the strongly
+ * connected components of the call graph, so that callees are processed before
+ * their callers and changes are propagated upwards only as long as they
+ * affect the results of the callers.<br>
+ * <br>
+ * If {@link FixpointConfiguration#analysisThreads} is greater than 1, the
+ * entrypoints of the program are processed in parallel. Each entrypoint is
+ * analyzed by a copy of this analysis working on an isolated view of the
+ * results and of the call graph, that records what has been read and written.
+ * The outcomes of such runs are then committed to the global state following
+ * the (sorted) order of the entrypoints, and runs that read something that has
+ * been written by an earlier commit are discarded and executed again. This
+ * ensures that results are the same of a sequential execution.<br>
+ * <br>
+ * If {@link FixpointConfiguration#summaryCacheSize} is positive, entrypoints
+ * are processed sequentially and results are not optimized, the results of
+ * the fixpoints computed for each cfg are cached in a {@link SummaryCache},
+ * keyed by the entry state they started from. Such entry states do not contain
+ * the frames of the callers, that are hidden by the scope of the call and are
+ * added back to the exit state of the callee afterwards. A cfg invoked with an
+ * entry state equal to a cached one is then not analyzed again: the cached
+ * result is stored for the current token instead. Callees of that cfg keep
+ * only the results computed for the token that produced the summary. The
+ * cache is cleared at each fixpoint iteration and whenever a result changes,
+ * since the summaries of its callers might be outdated.<br>
+ * <br>
+ * If {@link FixpointConfiguration#resultStore} is set, results of cfgs that are
+ * not affected by the changes to the program since the previous analysis
+ * using the same store are taken from it (see {@link ResultStore}), together
+ * with the calls among them, and entrypoints whose results are reused are not
+ * processed. Reused results are treated as if they were computed by this
+ * analysis: callees invoked with an entry state that is not covered by their
+ * reused result are analyzed again, and reused callers that observed them are
+ * analyzed again if their results change. All results are then stored at the
+ * end of the analysis.
  * 
  * @param <A> the {@link AbstractState} of the analysis
  */
@@ -67,6 +129,13 @@ public class ContextBasedAnalysis<A extends AbstractState<A>> extends CallGraphB
 	 */
 	private final Collection<CodeMember> triggers;
 
+	/**
+	 * For each cfg, the results (identified by the cfg and the token they
+	 * refer to) whose computation evaluated at least one call targeting the
+	 * cfg, and that thus observed its results.
+	 */
+	private final Map<CFG, Set<Pair<CFG, ContextSensitivityToken>>> observers;
+
 	/**
 	 * Whether or not a new recursion has been discovered in the latest fixpoint
 	 * iteration.
@@ -93,6 +162,19 @@ public class ContextBasedAnalysis<A extends AbstractState<A>> extends CallGraphB
 	 */
 	protected FixpointConfiguration conf;
 
+	/**
+	 * The run that this analysis is executing in isolation when processing
+	 * entrypoints in parallel, or {@code null} if this analysis is directly
+	 * working on {@link #results} and {@link #callgraph}.
+	 */
+	private EntrypointRun isolation;
+
+	/**
+	 * The cache of the summaries computed during the current fixpoint
+	 * iteration, or {@code null} if summaries should not be cached.
+	 */
+	private SummaryCache<A> summaries;
+
 	/**
 	 * Builds the analysis, using {@link LastCallToken}s.
 	 */
@@ -110,6 +192,7 @@ public class ContextBasedAnalysis<A extends AbstractState<A>> extends CallGraphB
 			ContextSensitivityToken token) {
 		this.token = token;
 		triggers = new HashSet<>();
+		observers = new ConcurrentHashMap<>();
 	}
 
 	/**
@@ -124,8 +207,26 @@ public class ContextBasedAnalysis<A extends AbstractState<A>> extends CallGraphB
 		this.results = other.results;
 		this.token = other.token;
 		this.triggers = other.triggers;
+		this.observers = other.observers;
 		this.workingSet = other.workingSet;
 		this.pendingRecursions = false;
+		this.summaries = other.summaries;
+	}
+
+	private ContextBasedAnalysis(
+			ContextBasedAnalysis<A> other,
+			EntrypointRun isolation,
+			CallGraph callgraph) {
+		super(other);
+		this.conf = other.conf;
+		this.results = other.results;
+		this.token = other.token;
+		this.triggers = new HashSet<>();
+		this.observers = other.observers;
+		this.workingSet = other.workingSet;
+		this.pendingRecursions = false;
+		this.isolation = isolation;
+		this.callgraph = callgraph;
 	}
 
 	@Override
@@ -140,7 +241,10 @@ public class ContextBasedAnalysis<A extends AbstractState<A>> extends CallGraphB
 		this.token = token.startingId();
 		this.workingSet = null;
 		this.pendingRecursions = false;
+		this.isolation = null;
+		this.summaries = null;
 		this.triggers.clear();
+		this.observers.clear();
 	}
 
 	@Override
@@ -153,6 +257,7 @@ public class ContextBasedAnalysis<A extends AbstractState<A>> extends CallGraphB
 		this.conf = conf;
 		// new fixpoint execution: reset
 		this.results = null;
+		this.observers.clear();
 
 		if (app.getEntryPoints().isEmpty())
 			throw new NoEntryPointException();
@@ -166,13 +271,47 @@ public class ContextBasedAnalysis<A extends AbstractState<A>> extends CallGraphB
 						c2) -> c1.getDescriptor().getLocation().compareTo(c2.getDescriptor().getLocation()));
 		entryPoints.addAll(app.getEntryPoints());
 
+		// results of previous analyses for the parts of the program that did
+		// not change: entrypoints among them do not need to be processed (open
+		// call policies are stateless, and are thus identified by their class)
+		ResultStore store = canReuseResults() ? conf.resultStore : null;
+		Map<CFG, Reusable> reusable = store == null
+				? Collections.emptyMap()
+				: store.reusable(app, Arrays.asList(getClass(), token, callgraph.getClass(), policy.getClass(),
+						fixpointWorkingSet, conf, entryState));
+		if (!reusable.isEmpty()) {
+			LOG.info("Reusing the results of {} cfgs from previous analyses", reusable.size());
+			initResults(entryState, empty, entryPoints.iterator().next());
+			reuseResults(reusable);
+			entryPoints.removeAll(reusable.keySet());
+		}
+
+		boolean parallel = canProcessInParallel(entryPoints);
+		// cached summaries would make results depend on the order in which
+		// entrypoints are processed, and optimized results cannot be unwinded
+		// under a token different from the one they have been computed with
+		summaries = parallel || conf.optimize || conf.summaryCacheSize <= 0
+				? null
+				: new SummaryCache<>(conf.summaryCacheSize);
+
+		// null until all entrypoints have been processed once
+		Collection<Pair<CFG, ContextSensitivityToken>> dirty = null;
 		do {
 			LOG.info("Performing {} fixpoint iteration", StringUtilities.ordinal(iter + 1));
 			triggers.clear();
 			pendingRecursions = false;
+			if (summaries != null)
+				summaries.clear();
 
-			processEntrypoints(entryState, empty, entryPoints);
+			if (dirty == null)
+				if (parallel)
+					processEntrypointsInParallel(entryState, empty, new ArrayList<>(entryPoints));
+				else
+					processEntrypoints(entryState, empty, entryPoints);
+			else
+				processWorklist(dirty);
 
+			Set<CodeMember> solved = new HashSet<>();
 			if (pendingRecursions) {
 				Set<Recursion<A>> recursions = new HashSet<>();
 
@@ -180,17 +319,210 @@ public class ContextBasedAnalysis<A extends AbstractState<A>> extends CallGraphB
 					buildRecursion(entryState, recursions, rec);
 
 				solveRecursions(recursions);
+				recursions.forEach(rec -> solved.addAll(rec.getMembers()));
 			}
 
-			// starting from the callers of the cfgs that needed a lub,
-			// find out the complete set of cfgs that might need to be
-			// processed again
-			Collection<CodeMember> toRemove = callgraph.getCallersTransitively(triggers);
-			toRemove.removeAll(triggers);
-			toRemove.stream().filter(CFG.class::isInstance).map(CFG.class::cast).forEach(results::forget);
+			// starting from the cfgs whose results changed, find out the
+			// results that observed their previous approximation: members of
+			// the recursions that have just been solved are kept as they are,
+			// as analyzing them again would just start the recursion again
+			dirty = new HashSet<>();
+			for (CodeMember trigger : triggers)
+				for (Pair<CFG, ContextSensitivityToken> observer : observersOf(trigger))
+					if (!solved.contains(observer.getLeft()))
+						dirty.add(observer);
+
+			// calls that the call graph wants to resolve again might now have
+			// more targets: all results of their callers have to be computed
+			// again
+			for (CodeMember invalidated : callgraph.pollInvalidatedCallers())
+				if (invalidated instanceof CFG && results.contains((CFG) invalidated))
+					for (Entry<ScopeId, AnalyzedCFG<A>> res : results.get((CFG) invalidated))
+						dirty.add(Pair.of((CFG) invalidated, (ContextSensitivityToken) res.getKey()));
 
 			iter++;
-		} while (!triggers.isEmpty());
+		} while (!dirty.isEmpty());
+
+		if (store != null) {
+			for (CFG cfg : app.getAllCFGs())
+				if (!reusable.containsKey(cfg) && results.contains(cfg))
+					for (int i = 0; i < results.get(cfg).getAll().size(); i++)
+						conf.getStatistics().computedResult();
+			try {
+				store.store(app, callgraph, results);
+			} catch (IOException e) {
+				throw new AnalysisExecutionException("Unable to store the results of the analysis", e);
+			}
+		}
+	}
+
+	/**
+	 * Whether or not this analysis can reuse the results stored in
+	 * {@link FixpointConfiguration#resultStore}, and store its own results
+	 * there. This is not possible if results are optimized, as they would
+	 * need to be unwinded through the analysis that produced them, or if
+	 * fixpoint results are not stored.
+	 * 
+	 * @return {@code true} if that condition holds
+	 */
+	private boolean canReuseResults() {
+		return conf.resultStore != null && !conf.optimize && shouldStoreFixpointResults();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void reuseResults(
+			Map<CFG, Reusable> reusable) {
+		try {
+			for (Entry<CFG, Reusable> entry : reusable.entrySet()) {
+				CFG cfg = entry.getKey();
+				// reused members are added to the call graph as they would
+				// be reached by a new analysis, letting it inspect them
+				callgraph.addNode(new CallGraphNode(callgraph, cfg), app.getEntryPoints().contains(cfg));
+				for (AnalyzedCFG<?> result : entry.getValue().getResults()) {
+					storeResult(cfg, (ContextSensitivityToken) result.getId(), (AnalyzedCFG<A>) result);
+					conf.getStatistics().reusedResult();
+				}
+			}
+		} catch (SemanticException e) {
+			throw new AnalysisExecutionException("Error while reusing the results of previous analyses", e);
+		}
+
+		// callees of reused members are reused as well, and reused results
+		// observe them: callees might be analyzed again if invoked by an
+		// affected caller with a different entry state
+		for (Entry<CFG, Reusable> entry : reusable.entrySet())
+			for (CFG callee : entry.getValue().getCallees()) {
+				callgraph.addEdge(new CallGraphEdge(
+						new CallGraphNode(callgraph, entry.getKey()),
+						new CallGraphNode(callgraph, callee)));
+				for (AnalyzedCFG<?> result : entry.getValue().getResults())
+					observers.computeIfAbsent(callee, cfg -> ConcurrentHashMap.newKeySet())
+							.add(Pair.of(entry.getKey(), (ContextSensitivityToken) result.getId()));
+			}
+	}
+
+	private Collection<Pair<CFG, ContextSensitivityToken>> observersOf(
+			CodeMember cm) {
+		return cm instanceof CFG ? observers.getOrDefault(cm, Collections.emptySet()) : Collections.emptySet();
+	}
+
+	/**
+	 * Analyzes again the given results, starting from the entry states they
+	 * have been computed with. Results are processed following the
+	 * topological order of the strongly connected components of the call
+	 * graph, callees first: whenever a result changes, the results that
+	 * observed it are added to the worklist, so that they are processed after
+	 * it. Results belonging to a component that follows the one of the changed
+	 * result are queued again even if they have already been processed, while
+	 * members of the same component are processed at most once: changes
+	 * propagating inside a recursion are left to the next fixpoint iteration,
+	 * where the recursion is solved as a whole.
+	 * 
+	 * @param dirty the results to analyze again
+	 */
+	private void processWorklist(
+			Collection<Pair<CFG, ContextSensitivityToken>> dirty) {
+		Map<CodeMember, Integer> ranks = topologicalRanks(callgraph);
+		TreeSet<Pair<CFG, ContextSensitivityToken>> ws = new TreeSet<>(
+				Comparator.<Pair<CFG, ContextSensitivityToken>>comparingInt(p -> ranks.get(p.getLeft()))
+						.thenComparing(p -> p.getLeft().getDescriptor().getLocation())
+						.thenComparing(p -> p.getLeft().getDescriptor().getFullSignature())
+						.thenComparing(p -> p.getRight().toString()));
+		ws.addAll(dirty);
+		LOG.info("Processing {} results affected by the previous iteration", ws.size());
+
+		Set<Pair<CFG, ContextSensitivityToken>> done = new HashSet<>();
+		while (!ws.isEmpty()) {
+			Pair<CFG, ContextSensitivityToken> next = ws.pollFirst();
+			done.add(next);
+			if (reanalyze(next.getLeft(), next.getRight())) {
+				int rank = ranks.get(next.getLeft());
+				for (Pair<CFG, ContextSensitivityToken> observer : observersOf(next.getLeft()))
+					if (ranks.get(observer.getLeft()) > rank || !done.contains(observer))
+						ws.add(observer);
+			}
+		}
+	}
+
+	/**
+	 * Yields, for each node of the given call graph, the index of its strongly
+	 * connected component in a topological order of the condensation of the
+	 * graph, callees first. Members of the same component share the same
+	 * index, while a component calling another one always has a greater index.
+	 * 
+	 * @param callgraph the call graph
+	 * 
+	 * @return the index of each node of the call graph
+	 */
+	static Map<CodeMember, Integer> topologicalRanks(
+			CallGraph callgraph) {
+		Map<CodeMember, Integer> components = new HashMap<>();
+		List<Collection<CallGraphNode>> sccs = new ArrayList<>(
+				new SCCs<CallGraph, CallGraphNode, CallGraphEdge>().build(callgraph));
+		for (int i = 0; i < sccs.size(); i++)
+			for (CallGraphNode node : sccs.get(i))
+				components.put(node.getCodeMember(), i);
+
+		// components calling a component, and number of components called
+		List<Set<Integer>> callers = new ArrayList<>();
+		int[] pending = new int[sccs.size()];
+		for (int i = 0; i < sccs.size(); i++)
+			callers.add(new HashSet<>());
+		for (int i = 0; i < sccs.size(); i++) {
+			Set<Integer> callees = new HashSet<>();
+			for (CallGraphNode node : sccs.get(i))
+				for (CodeMember callee : callgraph.getCallees(node.getCodeMember()))
+					callees.add(components.get(callee));
+			callees.remove(i);
+			pending[i] = callees.size();
+			for (int callee : callees)
+				callers.get(callee).add(i);
+		}
+
+		// components are numbered as soon as all their callees are
+		int[] index = new int[sccs.size()];
+		int next = 0;
+		List<Integer> ws = new ArrayList<>();
+		for (int i = 0; i < sccs.size(); i++)
+			if (pending[i] == 0)
+				ws.add(i);
+		while (!ws.isEmpty()) {
+			int comp = ws.remove(ws.size() - 1);
+			index[comp] = next++;
+			for (int caller : callers.get(comp))
+				if (--pending[caller] == 0)
+					ws.add(caller);
+		}
+
+		Map<CodeMember, Integer> ranks = new HashMap<>();
+		for (Entry<CodeMember, Integer> entry : components.entrySet())
+			ranks.put(entry.getKey(), index[entry.getValue()]);
+		return ranks;
+	}
+
+	private boolean reanalyze(
+			CFG cfg,
+			ContextSensitivityToken id) {
+		AnalyzedCFG<A> previous = results.contains(cfg) ? results.get(cfg).get(id) : null;
+		if (previous == null)
+			return false;
+
+		try {
+			token = id;
+			AnalyzedCFG<A> result = cfg.fixpoint(previous.getEntryState(), this, WorkingSet.of(workingSet), conf, id);
+			if (Boolean.TRUE.equals(storeResult(cfg, id, result).getLeft())) {
+				triggers.add(cfg);
+				// summaries of the callers of cfg might be outdated now
+				if (summaries != null)
+					summaries.clear();
+				return true;
+			}
+			return false;
+		} catch (SemanticException e) {
+			throw new AnalysisExecutionException("Error while storing the results of " + cfg, e);
+		} catch (FixpointException e) {
+			throw new AnalysisExecutionException("Error while computing fixpoint for " + cfg, e);
+		}
 	}
 
 	private void solveRecursions(
@@ -272,24 +604,108 @@ public class ContextBasedAnalysis<A extends AbstractState<A>> extends CallGraphB
 			ContextSensitivityToken empty,
 			Collection<CFG> entryPoints) {
 		for (CFG cfg : IterationLogger.iterate(LOG, entryPoints, "Processing entrypoints", "entries"))
-			try {
-				if (results == null) {
-					AnalyzedCFG<A> graph = conf.optimize
-							? new OptimizedAnalyzedCFG<>(cfg, empty, entryState.bottom(), this)
-							: new AnalyzedCFG<>(cfg, empty, entryState);
-					CFGResults<A> value = new CFGResults<>(graph);
-					this.results = new FixpointResults<>(value.top());
+			processEntrypoint(entryState, empty, cfg);
+	}
+
+	private void processEntrypoint(
+			AnalysisState<A> entryState,
+			ContextSensitivityToken empty,
+			CFG cfg) {
+		try {
+			initResults(entryState, empty, cfg);
+			token = empty;
+			AnalysisState<A> entryStateCFG = prepareEntryStateOfEntryPoint(entryState, cfg);
+			storeResult(cfg, empty, cfg.fixpoint(entryStateCFG, this, WorkingSet.of(workingSet), conf, empty));
+		} catch (SemanticException e) {
+			throw new AnalysisExecutionException("Error while creating the entrystate for " + cfg, e);
+		} catch (FixpointException e) {
+			throw new AnalysisExecutionException("Error while computing fixpoint for entrypoint " + cfg, e);
+		}
+	}
+
+	private void initResults(
+			AnalysisState<A> entryState,
+			ContextSensitivityToken empty,
+			CFG cfg) {
+		if (results == null) {
+			AnalyzedCFG<A> graph = conf.optimize
+					? new OptimizedAnalyzedCFG<>(cfg, empty, entryState.bottom(), this)
+					: new AnalyzedCFG<>(cfg, empty, entryState);
+			CFGResults<A> value = new CFGResults<>(graph);
+			this.results = new FixpointResults<>(value.top());
+		}
+	}
+
+	private boolean canProcessInParallel(
+			Collection<CFG> entryPoints) {
+		if (conf.analysisThreads <= 1 || entryPoints.size() <= 1)
+			return false;
+
+		if (getClass() != ContextBasedAnalysis.class) {
+			// isolated copies would lose the overridden behaviors
+			LOG.warn("Entrypoints will be processed sequentially: parallel execution is not supported by {}",
+					getClass().getName());
+			return false;
+		}
+
+		try {
+			new IsolatedCallGraph(callgraph, app);
+		} catch (CallGraphConstructionException e) {
+			LOG.warn("Entrypoints will be processed sequentially: unable to create isolated copies of the call graph",
+					e);
+			return false;
+		}
+
+		return true;
+	}
+
+	private void processEntrypointsInParallel(
+			AnalysisState<A> entryState,
+			ContextSensitivityToken empty,
+			List<CFG> entryPoints) {
+		// the results must exist before the runs start, as they are shared
+		initResults(entryState, empty, entryPoints.iterator().next());
+
+		int size = entryPoints.size();
+		List<EntrypointRun> runs = new ArrayList<>(Collections.nCopies(size, null));
+		List<EntrypointRun> committed = new ArrayList<>(size);
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(conf.analysisThreads, size));
+		try {
+			int next = 0;
+			while (next < size) {
+				// all runs of a wave observe the same global state
+				List<Future<EntrypointRun>> wave = new ArrayList<>();
+				for (int i = next; i < size; i++)
+					if (runs.get(i) == null)
+						wave.add(executor.submit(
+								new EntrypointRun(i, committed.size(), entryPoints.get(i), entryState, empty)));
+				LOG.info("Processing {} out of {} entrypoints in parallel", wave.size(), size - next);
+				for (Future<EntrypointRun> future : wave) {
+					EntrypointRun run = future.get();
+					runs.set(run.index, run);
 				}
 
-				token = empty;
-				AnalysisState<A> entryStateCFG = prepareEntryStateOfEntryPoint(entryState, cfg);
-				results.putResult(cfg, empty,
-						cfg.fixpoint(entryStateCFG, this, WorkingSet.of(workingSet), conf, empty));
-			} catch (SemanticException e) {
-				throw new AnalysisExecutionException("Error while creating the entrystate for " + cfg, e);
-			} catch (FixpointException e) {
-				throw new AnalysisExecutionException("Error while computing fixpoint for entrypoint " + cfg, e);
+				// commit following the order of the entrypoints, stopping at
+				// the first run that is no longer valid: the first run of a
+				// wave is always valid, so at least one commit happens
+				while (next < size && runs.get(next).isValid(committed)) {
+					EntrypointRun run = runs.get(next++);
+					run.commit();
+					committed.add(run);
+				}
+
+				for (int i = next; i < size; i++)
+					if (!runs.get(i).isValid(committed))
+						runs.set(i, null);
 			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AnalysisExecutionException("Interrupted while processing entrypoints", e);
+		} catch (ExecutionException e) {
+			throw new AnalysisExecutionException("Error while processing entrypoints", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
 	}
 
 	@Override
@@ -326,13 +742,90 @@ public class ContextBasedAnalysis<A extends AbstractState<A>> extends CallGraphB
 				WorkingSet.of(workingSet),
 				conf,
 				token);
-		if (shouldStoreFixpointResults()) {
-			Pair<Boolean, AnalyzedCFG<A>> res = results.putResult(cfg, token, fixpointResult);
-			if (shouldStoreFixpointResults() && Boolean.TRUE.equals(res.getLeft()))
-				triggers.add(cfg);
-			fixpointResult = res.getRight();
+		return record(cfg, token, fixpointResult);
+	}
+
+	/**
+	 * Stores the given result of a fixpoint execution for the given token, if
+	 * results have to be stored, marking the cfg as changed if the stored
+	 * result changed.
+	 * 
+	 * @param cfg    the cfg
+	 * @param token  the token of the result
+	 * @param result the result to store
+	 * 
+	 * @return the result stored for the token, or {@code result} if results
+	 *             are not stored
+	 * 
+	 * @throws SemanticException if an exception happens while storing the
+	 *                               result
+	 */
+	private AnalyzedCFG<A> record(
+			CFG cfg,
+			ContextSensitivityToken token,
+			AnalyzedCFG<A> result)
+			throws SemanticException {
+		if (!shouldStoreFixpointResults())
+			return result;
+
+		Pair<Boolean, AnalyzedCFG<A>> res = storeResult(cfg, token, result);
+		if (Boolean.TRUE.equals(res.getLeft()))
+			triggers.add(cfg);
+		return res.getRight();
+	}
+
+	/**
+	 * Adds the frame of the caller, that the callee could not access, back to
+	 * the exit state of a call. The meta variable of the call is bound in
+	 * advance, since a frame that knows nothing would absorb the exit state:
+	 * it will be overwritten with the returned values while unscoping.
+	 * 
+	 * @param call      the call
+	 * @param scope     the scope of the call
+	 * @param frame     the frame of the caller, containing only the
+	 *                      identifiers hidden by the scope
+	 * @param exitState the exit state of the callee
+	 * 
+	 * @return the exit state of the call, before unscoping
+	 * 
+	 * @throws SemanticException if an exception happens while joining the
+	 *                               states
+	 */
+	private AnalysisState<A> restoreFrame(
+			CFGCall call,
+			ScopeToken scope,
+			AnalysisState<A> frame,
+			AnalysisState<A> exitState)
+			throws SemanticException {
+		if (exitState.getState().isBottom())
+			// the callee never returns
+			return exitState;
+
+		AnalysisState<A> caller = frame;
+		if (!returnsVoid(call, exitState)) {
+			Identifier meta = (Identifier) call.getMetaVariable().pushScope(scope);
+			caller = caller.assign(meta, new PushAny(meta.getStaticType(), call.getLocation()), call);
 		}
-		return fixpointResult;
+		AnalysisState<A> joined = caller.lub(exitState);
+		return new AnalysisState<>(joined.getState(), exitState.getComputedExpressions(),
+				joined.getFixpointInformation());
+	}
+
+	private Pair<Boolean, AnalyzedCFG<A>> storeResult(
+			CFG cfg,
+			ContextSensitivityToken token,
+			AnalyzedCFG<A> result)
+			throws SemanticException {
+		if (isolation == null)
+			return results.putResult(cfg, token, result);
+		return isolation.putResult(cfg, token, result);
+	}
+
+	private CFGResults<A> resultsOf(
+			CFG cfg) {
+		if (isolation == null)
+			return results.get(cfg);
+		return isolation.get(cfg);
 	}
 
 	/**
@@ -413,9 +906,12 @@ public class ContextBasedAnalysis<A extends AbstractState<A>> extends CallGraphB
 			StatementStore<A> expressions)
 			throws SemanticException {
 		callgraph.registerCall(call);
+		for (CFG target : call.getTargetedCFGs())
+			observers.computeIfAbsent(target, cfg -> ConcurrentHashMap.newKeySet())
+					.add(Pair.of(call.getCFG(), token));
 
 		if (shouldCheckForRecursions() && (call.getTargetedCFGs().stream().anyMatch(call.getCFG()::equals)
-				|| callgraph.getCalleesTransitively(call.getTargets()).contains(call.getCFG()))) {
+				|| callgraph.callsTransitively(call.getTargets(), call.getCFG()))) {
 			// this calls introduces a loop in the call graph -> recursion
 			// we need a special fixpoint to compute its result
 			// we compute that at the end of each fixpoint iteration
@@ -440,7 +936,7 @@ public class ContextBasedAnalysis<A extends AbstractState<A>> extends CallGraphB
 		// compute the result over all possible targets, and take the lub of
 		// the results
 		for (CFG cfg : call.getTargetedCFGs()) {
-			CFGResults<A> localResults = results.get(cfg);
+			CFGResults<A> localResults = resultsOf(cfg);
 			AnalyzedCFG<A> states = localResults == null ? null : localResults.get(token);
 			Pair<AnalysisState<A>, ExpressionSet[]> prepared = prepareEntryState(
 					call,
@@ -450,24 +946,56 @@ public class ContextBasedAnalysis<A extends AbstractState<A>> extends CallGraphB
 					scope,
 					cfg);
 
+			// when summaries are cached, the callee is analyzed starting
+			// from the part of the entry state that it can access: the frame
+			// of the caller, hidden by the scope, is kept apart and added back
+			// to the exit state, so that callers with different frames can
+			// share the same summary
+			boolean cacheable = summaries != null && canShortcut(cfg);
+			AnalysisState<A> calleeState = prepared.getLeft();
+			AnalysisState<A> frame = null;
+			if (cacheable) {
+				frame = calleeState.forgetIdentifiersIf(id -> !(id instanceof OutOfScopeIdentifier));
+				calleeState = calleeState.forgetIdentifiersIf(OutOfScopeIdentifier.class::isInstance);
+			}
+
 			AnalysisState<A> exitState;
-			if (canShortcut(cfg) && states != null && prepared.getLeft().lessOrEqual(states.getEntryState()))
+			if (canShortcut(cfg) && states != null && calleeState.lessOrEqual(states.getEntryState()))
 				// no need to compute the fixpoint: we already have an
 				// (over-)approximation of the result computed starting from
 				// an over-approximation of the entry state
 				exitState = states.getExitState();
 			else {
-				// compute the result with a fixpoint iteration
-				AnalyzedCFG<A> fixpointResult = null;
-				try {
-					fixpointResult = computeFixpoint(cfg, token, prepared.getLeft());
-				} catch (FixpointException e) {
-					throw new SemanticException("Exception during the interprocedural analysis", e);
+				AnalyzedCFG<A> fixpointResult = cacheable ? summaries.get(cfg, calleeState) : null;
+				if (cacheable)
+					if (fixpointResult != null)
+						conf.getStatistics().summaryHit();
+					else
+						conf.getStatistics().summaryMiss();
+
+				if (fixpointResult != null)
+					// no need to compute the fixpoint: the same cfg has been
+					// already analyzed from the same entry state, and its
+					// result is stored for this token as well
+					fixpointResult = record(cfg, token, fixpointResult.withId(token));
+				else {
+					// compute the result with a fixpoint iteration
+					try {
+						fixpointResult = computeFixpoint(cfg, token, calleeState);
+					} catch (FixpointException e) {
+						throw new SemanticException("Exception during the interprocedural analysis", e);
+					}
+
+					if (cacheable)
+						summaries.put(cfg, calleeState, fixpointResult);
 				}
 
 				exitState = fixpointResult.getExitState();
 			}
 
+			if (frame != null)
+				exitState = restoreFrame(call, scope, frame, exitState);
+
 			// save the resulting state
 			result = result.lub(unscope(call, scope, exitState));
 		}
@@ -475,4 +1003,135 @@ public class ContextBasedAnalysis<A extends AbstractState<A>> extends CallGraphB
 		token = callerToken;
 		return result;
 	}
+
+	/**
+	 * The processing of a single entrypoint, executed by a copy of the
+	 * analysis in isolation from the global state. Results are read from the
+	 * global {@link FixpointResults} of the enclosing analysis, while updates
+	 * are performed on private copies of the {@link CFGResults} of each cfg.
+	 * The same happens for the call graph, through an
+	 * {@link IsolatedCallGraph}.
+	 */
+	private class EntrypointRun implements Callable<EntrypointRun> {
+
+		private final int index;
+
+		private final int epoch;
+
+		private final CFG entrypoint;
+
+		private final AnalysisState<A> entryState;
+
+		private final ContextSensitivityToken empty;
+
+		private final Map<CFG, CFGResults<A>> localResults;
+
+		private final Set<CFG> read;
+
+		private final Set<CFG> written;
+
+		private ContextBasedAnalysis<A> analysis;
+
+		private IsolatedCallGraph view;
+
+		private Set<CodeMember> modified;
+
+		private RuntimeException failure;
+
+		private EntrypointRun(
+				int index,
+				int epoch,
+				CFG entrypoint,
+				AnalysisState<A> entryState,
+				ContextSensitivityToken empty) {
+			this.index = index;
+			this.epoch = epoch;
+			this.entrypoint = entrypoint;
+			this.entryState = entryState;
+			this.empty = empty;
+			this.localResults = new HashMap<>();
+			this.read = new HashSet<>();
+			this.written = new HashSet<>();
+		}
+
+		@Override
+		public EntrypointRun call() {
+			try {
+				view = new IsolatedCallGraph(callgraph, app);
+				analysis = new ContextBasedAnalysis<>(ContextBasedAnalysis.this, this, view);
+				analysis.processEntrypoint(entryState, empty, entrypoint);
+			} catch (CallGraphConstructionException e) {
+				failure = new AnalysisExecutionException("Unable to create an isolated call graph", e);
+			} catch (RuntimeException e) {
+				// this might be caused by reading outdated information: it
+				// will be raised only if the run turns out to be valid
+				failure = e;
+			}
+			return this;
+		}
+
+		private CFGResults<A> get(
+				CFG cfg) {
+			read.add(cfg);
+			CFGResults<A> res = localResults.get(cfg);
+			return res != null ? res : results.get(cfg);
+		}
+
+		private Pair<Boolean, AnalyzedCFG<A>> putResult(
+				CFG cfg,
+				ContextSensitivityToken token,
+				AnalyzedCFG<A> result)
+				throws SemanticException {
+			read.add(cfg);
+			CFGResults<A> res = localResults.get(cfg);
+			if (res == null) {
+				CFGResults<A> original = results.get(cfg);
+				res = original == null
+						? new CFGResults<>(result.top())
+						: original.mk(original.lattice, original.mkNewFunction(original.function, false));
+				localResults.put(cfg, res);
+			}
+
+			AnalyzedCFG<A> previous = res.get(token);
+			Pair<Boolean, AnalyzedCFG<A>> outcome = res.putResult(token, result);
+			if (previous != outcome.getRight())
+				written.add(cfg);
+			return outcome;
+		}
+
+		private boolean isValid(
+				List<EntrypointRun> committed) {
+			if (view == null)
+				// the run failed before reading anything
+				return true;
+
+			Set<CodeMember> graphRead = view.getRead();
+			for (EntrypointRun other : committed.subList(epoch, committed.size()))
+				if (!Collections.disjoint(read, other.written) || !Collections.disjoint(graphRead, other.modified))
+					return false;
+			return true;
+		}
+
+		private void commit() {
+			if (failure != null)
+				throw failure;
+
+			// this has to be computed before the global call graph is updated
+			modified = view.getModified();
+			try {
+				view.replay();
+			} catch (CallResolutionException e) {
+				throw new AnalysisExecutionException("Unable to replay call resolutions for " + entrypoint, e);
+			}
+
+			for (CFG cfg : written)
+				results.putResults(cfg, localResults.get(cfg));
+			triggers.addAll(analysis.triggers);
+			pendingRecursions |= analysis.pendingRecursions;
+
+			// the copy might still be used by the stored results
+			analysis.isolation = null;
+			analysis.callgraph = callgraph;
+		}
+	}
 }
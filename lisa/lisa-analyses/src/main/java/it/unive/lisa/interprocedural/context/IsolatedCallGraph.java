@@ -0,0 +1,340 @@
+package it.unive.lisa.interprocedural.context;
+
+import it.unive.lisa.analysis.symbols.SymbolAliasing;
+import it.unive.lisa.interprocedural.callgraph.CallGraph;
+import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
+import it.unive.lisa.interprocedural.callgraph.CallGraphEdge;
+import it.unive.lisa.interprocedural.callgraph.CallGraphNode;
+import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
+import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.program.cfg.statement.call.CFGCall;
+import it.unive.lisa.program.cfg.statement.call.Call;
+import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.datastructures.graph.AdjacencyMatrix;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A {@link CallGraph} that provides an isolated view over another (global)
+ * one. The global call graph is never modified by this view: all calls that
+ * are registered or resolved through it are instead tracked in a private
+ * (local) call graph of the same kind, and queries are answered by joining
+ * the information contained in both. The view keeps track of the
+ * {@link CodeMember}s whose information has been read, and of the ones that
+ * it modified w.r.t. the global call graph, so that the owner can decide
+ * whether or not the computation performed using this view is still valid
+ * after the global call graph has been updated. Operations can then be
+ * replayed on the global call graph through {@link #replay()}.<br>
+ * <br>
+ * All the structural queries inherited from the graph (nodes, edges,
+ * entrypoints, followers and predecessors) are answered by delegating to both
+ * graphs, while structural modifications are applied to the local one and
+ * recorded as replayable operations: the view is thus a complete
+ * {@link CallGraph} whose content is the union of the two graphs.
+ * Re-initializing the view through {@link #init(Application)} re-initializes
+ * the local call graph and discards all tracked information, leaving the
+ * global one untouched.<br>
+ * <br>
+ * Note that this view is meant to be used while the global call graph is not
+ * modified.
+ */
+public class IsolatedCallGraph extends CallGraph {
+
+	/**
+	 * An operation performed on the call graph, that can be replayed.
+	 */
+	@FunctionalInterface
+	private interface Operation {
+
+		void apply(
+				CallGraph target)
+				throws CallResolutionException;
+	}
+
+	private final CallGraph global;
+
+	private final CallGraph local;
+
+	private final Set<CodeMember> read;
+
+	private final List<Operation> operations;
+
+	/**
+	 * Builds the view.
+	 *
+	 * @param global the global call graph, that will only be read
+	 * @param app    the application under analysis
+	 *
+	 * @throws CallGraphConstructionException if the local call graph cannot be
+	 *                                            created, either since the
+	 *                                            class of {@code global} does
+	 *                                            not have a nullary constructor
+	 *                                            or since its initialization
+	 *                                            failed
+	 */
+	public IsolatedCallGraph(
+			CallGraph global,
+			Application app)
+			throws CallGraphConstructionException {
+		this.global = global;
+		try {
+			this.local = global.getClass().getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | SecurityException e) {
+			throw new CallGraphConstructionException(e);
+		}
+		this.read = new HashSet<>();
+		this.operations = new ArrayList<>();
+		initLocal(app);
+	}
+
+	@Override
+	public void init(
+			Application app)
+			throws CallGraphConstructionException {
+		super.init(app);
+		read.clear();
+		operations.clear();
+		initLocal(app);
+	}
+
+	private void initLocal(
+			Application app)
+			throws CallGraphConstructionException {
+		local.init(app);
+		if (global instanceof RTACallGraph)
+			// instantiated units have to be visible to all views
+			((RTACallGraph) local).shareInstantiations((RTACallGraph) global);
+	}
+
+	@Override
+	public Call resolve(
+			UnresolvedCall call,
+			Set<Type>[] types,
+			SymbolAliasing aliasing)
+			throws CallResolutionException {
+		Call resolved;
+		// resolution temporarily re-parents the parameters of the call
+		synchronized (global) {
+			resolved = local.resolve(call, types, aliasing);
+		}
+		operations.add(target -> target.resolve(call, types, aliasing));
+		return resolved;
+	}
+
+	@Override
+	public void registerCall(
+			CFGCall call) {
+		local.registerCall(call);
+		operations.add(target -> target.registerCall(call));
+	}
+
+	@Override
+	public Collection<Call> getCallSites(
+			CodeMember cm) {
+		read.add(cm);
+		return union(global.getCallSites(cm), local.getCallSites(cm));
+	}
+
+	@Override
+	public Collection<CodeMember> getCallees(
+			CodeMember cm) {
+		read.add(cm);
+		return query(new CallGraphNode(this, cm), g -> g.getCallees(cm));
+	}
+
+	@Override
+	public Collection<CodeMember> getCallers(
+			CodeMember cm) {
+		read.add(cm);
+		return query(new CallGraphNode(this, cm), g -> g.getCallers(cm));
+	}
+
+	@Override
+	public void addNode(
+			CallGraphNode node,
+			boolean entrypoint) {
+		local.addNode(node, entrypoint);
+		operations.add(target -> target.addNode(node, entrypoint));
+	}
+
+	@Override
+	public void addEdge(
+			CallGraphEdge edge) {
+		local.addEdge(edge);
+		operations.add(target -> target.addEdge(edge));
+	}
+
+	@Override
+	public AdjacencyMatrix<CallGraph, CallGraphNode, CallGraphEdge> getAdjacencyMatrix() {
+		// this is a copy: modifications to it are not reflected in the view
+		AdjacencyMatrix<CallGraph, CallGraphNode, CallGraphEdge> matrix = new AdjacencyMatrix<>(
+				global.getAdjacencyMatrix());
+		matrix.mergeWith(local.getAdjacencyMatrix());
+		return matrix;
+	}
+
+	@Override
+	public Collection<CallGraphNode> getEntrypoints() {
+		return union(global.getEntrypoints(), local.getEntrypoints());
+	}
+
+	@Override
+	public Collection<CallGraphNode> getNodes() {
+		return union(global.getNodes(), local.getNodes());
+	}
+
+	@Override
+	public Collection<CallGraphEdge> getEdges() {
+		return union(global.getEdges(), local.getEdges());
+	}
+
+	@Override
+	public boolean containsNode(
+			CallGraphNode node) {
+		return global.containsNode(node) || local.containsNode(node);
+	}
+
+	@Override
+	public boolean containsEdge(
+			CallGraphEdge edge) {
+		return global.containsEdge(edge) || local.containsEdge(edge);
+	}
+
+	@Override
+	public CallGraphEdge getEdgeConnecting(
+			CallGraphNode source,
+			CallGraphNode destination) {
+		CallGraphEdge edge = global.containsNode(source) ? global.getEdgeConnecting(source, destination) : null;
+		if (edge == null && local.containsNode(source))
+			edge = local.getEdgeConnecting(source, destination);
+		return edge;
+	}
+
+	@Override
+	public Collection<CallGraphEdge> getEdgesConnecting(
+			CallGraphNode source,
+			CallGraphNode destination) {
+		return query(source, g -> g.getEdgesConnecting(source, destination));
+	}
+
+	@Override
+	public Collection<CallGraphEdge> getIngoingEdges(
+			CallGraphNode node) {
+		return query(node, g -> g.getIngoingEdges(node));
+	}
+
+	@Override
+	public Collection<CallGraphEdge> getOutgoingEdges(
+			CallGraphNode node) {
+		return query(node, g -> g.getOutgoingEdges(node));
+	}
+
+	@Override
+	public Collection<CallGraphNode> followersOf(
+			CallGraphNode node) {
+		return query(node, g -> g.followersOf(node));
+	}
+
+	@Override
+	public Collection<CallGraphNode> predecessorsOf(
+			CallGraphNode node) {
+		return query(node, g -> g.predecessorsOf(node));
+	}
+
+	@Override
+	public boolean isEqualTo(
+			CallGraph graph) {
+		if (this == graph)
+			return true;
+		if (graph == null || getClass() != graph.getClass())
+			return false;
+		return getEntrypoints().equals(graph.getEntrypoints())
+				&& getAdjacencyMatrix().equals(graph.getAdjacencyMatrix());
+	}
+
+	@Override
+	public String toString() {
+		return getAdjacencyMatrix().toString();
+	}
+
+	private static <T> Collection<T> union(
+			Collection<T> g,
+			Collection<T> l) {
+		if (l.isEmpty())
+			return g;
+		if (g.isEmpty())
+			return l;
+		Set<T> result = new HashSet<>(g);
+		result.addAll(l);
+		return result;
+	}
+
+	private <T> Collection<T> query(
+			CallGraphNode node,
+			Function<CallGraph, Collection<T>> query) {
+		boolean inGlobal = global.containsNode(node);
+		boolean inLocal = local.containsNode(node);
+		if (!inGlobal)
+			// if the node is in neither graph, this raises the same
+			// exception as the global graph would
+			return query.apply(local);
+		if (!inLocal)
+			return query.apply(global);
+		return union(query.apply(global), query.apply(local));
+	}
+
+	/**
+	 * Yields the {@link CodeMember}s whose callers, callees or call sites have
+	 * been queried through this view.
+	 *
+	 * @return the members that have been read
+	 */
+	public Set<CodeMember> getRead() {
+		return Collections.unmodifiableSet(read);
+	}
+
+	/**
+	 * Yields the {@link CodeMember}s whose callers, callees or call sites
+	 * would change if the operations performed on this view were replayed on
+	 * the global call graph. This is computed by comparing the local call graph
+	 * against the global one.
+	 *
+	 * @return the members that have been modified
+	 */
+	public Set<CodeMember> getModified() {
+		Set<CodeMember> modified = new HashSet<>();
+		for (CallGraphNode node : local.getNodes()) {
+			CodeMember cm = node.getCodeMember();
+			boolean inGlobal = global.containsNode(new CallGraphNode(global, cm));
+			Collection<CodeMember> globalCallees = inGlobal ? global.getCallees(cm) : Collections.emptySet();
+			for (CodeMember callee : local.getCallees(cm))
+				if (!globalCallees.contains(callee)) {
+					modified.add(cm);
+					modified.add(callee);
+				}
+			if (!global.getCallSites(cm).containsAll(local.getCallSites(cm)))
+				modified.add(cm);
+		}
+		return modified;
+	}
+
+	/**
+	 * Replays all the operations performed on this view, in the same order,
+	 * on the global call graph.
+	 *
+	 * @throws CallResolutionException if one of the resolutions fails
+	 */
+	public void replay()
+			throws CallResolutionException {
+		for (Operation op : operations)
+			op.apply(global);
+	}
+}
@@ -0,0 +1,93 @@
+package it.unive.lisa.interprocedural.context;
+
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.AnalyzedCFG;
+import it.unive.lisa.program.cfg.CFG;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * A bounded cache of the summaries of {@link CFG}s, used by
+ * {@link ContextBasedAnalysis} to avoid re-analyzing the same cfg starting
+ * from the same entry state under different {@link ContextSensitivityToken}s.
+ * Each summary maps a cfg and an entry state (compared through
+ * {@link AnalysisState#equals(Object)}) to the result of a fixpoint execution
+ * over the cfg starting from that entry state. Entry states are expected not
+ * to contain the frames of the callers, so that calls from different contexts
+ * can share the same summary. When the cache is full, the least recently used
+ * summary is evicted. This class is <b>not</b> thread-safe.
+ *
+ * @param <A> the type of {@link AbstractState} contained into the analysis
+ *                state
+ */
+public class SummaryCache<A extends AbstractState<A>> {
+
+	private final Map<Pair<CFG, AnalysisState<A>>, AnalyzedCFG<A>> summaries;
+
+	/**
+	 * Builds the cache.
+	 *
+	 * @param maxSize the maximum number of summaries to keep
+	 */
+	public SummaryCache(
+			int maxSize) {
+		// access order makes the eldest entry the least recently used one
+		this.summaries = new LinkedHashMap<>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<Pair<CFG, AnalysisState<A>>, AnalyzedCFG<A>> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Yields the summary of the given cfg for the given entry state, if any.
+	 *
+	 * @param cfg        the cfg
+	 * @param entryState the entry state
+	 *
+	 * @return the summary, or {@code null} if no summary is cached
+	 */
+	public AnalyzedCFG<A> get(
+			CFG cfg,
+			AnalysisState<A> entryState) {
+		return summaries.get(Pair.of(cfg, entryState));
+	}
+
+	/**
+	 * Caches the summary of the given cfg for the given entry state, possibly
+	 * evicting the least recently used one.
+	 *
+	 * @param cfg        the cfg
+	 * @param entryState the entry state
+	 * @param summary    the result of the fixpoint execution over the cfg
+	 */
+	public void put(
+			CFG cfg,
+			AnalysisState<A> entryState,
+			AnalyzedCFG<A> summary) {
+		summaries.put(Pair.of(cfg, entryState), summary);
+	}
+
+	/**
+	 * Removes all summaries from this cache.
+	 */
+	public void clear() {
+		summaries.clear();
+	}
+
+	/**
+	 * Yields the number of summaries currently cached.
+	 *
+	 * @return the number of summaries
+	 */
+	public int size() {
+		return summaries.size();
+	}
+}
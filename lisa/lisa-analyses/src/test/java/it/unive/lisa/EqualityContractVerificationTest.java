@@ -13,13 +13,17 @@ import it.unive.lisa.analysis.ScopeToken;
 import it.unive.lisa.analysis.SemanticDomain;
 import it.unive.lisa.analysis.dataflow.DataflowElement;
 import it.unive.lisa.analysis.heap.HeapSemanticOperation.HeapReplacement;
+import it.unive.lisa.analysis.heap.pointbased.AllocationSiteBasedAnalysis;
 import it.unive.lisa.analysis.lattices.FunctionalLattice;
 import it.unive.lisa.analysis.lattices.InverseSetLattice;
 import it.unive.lisa.analysis.lattices.SetLattice;
 import it.unive.lisa.analysis.nonInterference.NonInterference;
 import it.unive.lisa.analysis.nonrelational.NonRelationalElement;
 import it.unive.lisa.analysis.nonrelational.value.BaseNonRelationalValueDomain;
+import it.unive.lisa.analysis.numeric.DifferenceBoundMatrix;
 import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.analysis.string.fsa.RangeAutomaton;
+import it.unive.lisa.analysis.string.fsa.RangeSymbol;
 import it.unive.lisa.analysis.string.fsa.SimpleAutomaton;
 import it.unive.lisa.analysis.string.fsa.StringSymbol;
 import it.unive.lisa.analysis.string.tarsis.RegexAutomaton;
@@ -33,6 +37,7 @@ import it.unive.lisa.imp.IMPFeatures;
 import it.unive.lisa.imp.types.IMPTypeSystem;
 import it.unive.lisa.interprocedural.CFGResults;
 import it.unive.lisa.interprocedural.FixpointResults;
+import it.unive.lisa.interprocedural.ResultStore;
 import it.unive.lisa.interprocedural.callgraph.CallGraphEdge;
 import it.unive.lisa.interprocedural.callgraph.CallGraphNode;
 import it.unive.lisa.interprocedural.context.ContextInsensitiveToken;
@@ -81,8 +86,19 @@ import it.unive.lisa.program.cfg.statement.call.Call.CallType;
 import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
 import it.unive.lisa.program.type.Int32Type;
 import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.heap.AccessChild;
+import it.unive.lisa.symbolic.heap.HeapDereference;
+import it.unive.lisa.symbolic.heap.HeapReference;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.Constant;
 import it.unive.lisa.symbolic.value.HeapLocation;
 import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.TernaryExpression;
+import it.unive.lisa.symbolic.value.UnaryExpression;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.symbolic.value.operator.binary.NumericNonOverflowingAdd;
+import it.unive.lisa.symbolic.value.operator.ternary.StringReplace;
+import it.unive.lisa.symbolic.value.operator.unary.NumericNegation;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.type.TypeTokenType;
 import it.unive.lisa.type.Untyped;
@@ -98,11 +114,13 @@ import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
 import it.unive.lisa.util.collections.workset.LIFOWorkingSet;
 import it.unive.lisa.util.collections.workset.VisitOnceFIFOWorkingSet;
 import it.unive.lisa.util.collections.workset.VisitOnceLIFOWorkingSet;
+import it.unive.lisa.util.collections.workset.WeakTopologicalOrderWorkingSet;
 import it.unive.lisa.util.datastructures.automaton.Automaton;
 import it.unive.lisa.util.datastructures.automaton.State;
 import it.unive.lisa.util.datastructures.automaton.Transition;
 import it.unive.lisa.util.datastructures.graph.AdjacencyMatrix;
 import it.unive.lisa.util.datastructures.graph.AdjacencyMatrix.NodeEdges;
+import it.unive.lisa.util.datastructures.graph.algorithms.FixpointStatistics;
 import it.unive.lisa.util.datastructures.graph.code.NodeList;
 import it.unive.lisa.util.datastructures.regex.Atom;
 import it.unive.lisa.util.datastructures.regex.Comp;
@@ -122,9 +140,11 @@ import it.unive.lisa.util.representation.StructuredRepresentation;
 import java.lang.reflect.Modifier;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import nl.jqno.equalsverifier.EqualsVerifier;
@@ -164,6 +184,8 @@ public class EqualityContractVerificationTest {
 
 	private static final RegularExpression re1 = new Atom("a");
 	private static final RegularExpression re2 = new Atom("b");
+	private static final RegexAutomaton ra1 = RegexAutomaton.string("a");
+	private static final RegexAutomaton ra2 = RegexAutomaton.string("b");
 
 	private static final Interval int1 = Interval.TOP;
 	private static final Interval int2 = Interval.BOTTOM;
@@ -271,11 +293,13 @@ public class EqualityContractVerificationTest {
 				.withPrefabValues(NodeList.class, adj1, adj2)
 				.withPrefabValues(StructuredRepresentation.class, dr1, dr2)
 				.withPrefabValues(RegularExpression.class, re1, re2)
+				.withPrefabValues(Automaton.class, ra1, ra2)
 				.withPrefabValues(Pair.class, Pair.of(1, 2), Pair.of(3, 4))
 				.withPrefabValues(NonInterference.class, new NonInterference().top(), new NonInterference().bottom())
 				.withPrefabValues(UnresolvedCall.class, uc1, uc2)
 				.withPrefabValues(Set.class, s1, s2)
 				.withPrefabValues(org.graphstream.graph.Graph.class, g1, g2)
+				.withPrefabValues(ResultStore.class, new ResultStore(), new ResultStore())
 				.withPrefabValues(BaseNonRelationalValueDomain.class, int1, int2);
 
 		if (getClass)
@@ -292,7 +316,10 @@ public class EqualityContractVerificationTest {
 	public void testConfiguration() {
 		verify(LiSAConfiguration.class, Warning.NONFINAL_FIELDS);
 		verify(DefaultConfiguration.class, Warning.NONFINAL_FIELDS);
-		verify(FixpointConfiguration.class);
+		// statistics are not part of the configuration
+		verify(FixpointConfiguration.class, verifier -> verifier
+				.withIgnoredFields("statistics")
+				.withPrefabValues(FixpointStatistics.class, new FixpointStatistics(), new FixpointStatistics()));
 		verify(ConfigurableComponent.class);
 		verify(CronConfiguration.class, Warning.NONFINAL_FIELDS);
 	}
@@ -314,7 +341,7 @@ public class EqualityContractVerificationTest {
 		verify(AdjacencyMatrix.class);
 		verify(NodeEdges.class);
 		verify(NodeList.class,
-				verifier -> verifier.withIgnoredFields("sequentialSingleton"));
+				verifier -> verifier.withIgnoredFields("sequentialSingleton", "frozen"));
 		verify(it.unive.lisa.util.datastructures.graph.code.NodeList.NodeEdges.class);
 
 		verify(ConcurrentFIFOWorkingSet.class);
@@ -325,6 +352,7 @@ public class EqualityContractVerificationTest {
 		verify(VisitOnceLIFOWorkingSet.class);
 		verify(DuplicateFreeFIFOWorkingSet.class);
 		verify(DuplicateFreeLIFOWorkingSet.class);
+		verify(WeakTopologicalOrderWorkingSet.class, false, Warning.NONFINAL_FIELDS, Warning.ALL_FIELDS_SHOULD_BE_USED);
 	}
 
 	@Test
@@ -348,12 +376,15 @@ public class EqualityContractVerificationTest {
 		verify(RegexAutomaton.class, Warning.ALL_FIELDS_SHOULD_BE_USED);
 		verify(SimpleAutomaton.class, Warning.ALL_FIELDS_SHOULD_BE_USED);
 		verify(StringSymbol.class);
+		verify(RangeAutomaton.class, Warning.ALL_FIELDS_SHOULD_BE_USED);
+		verify(RangeSymbol.class);
 	}
 
 	@Test
 	public void testIntervalStructure() {
 		verify(IntInterval.class);
-		verify(MathNumber.class);
+		verify(MathNumber.class, Warning.ALL_FIELDS_SHOULD_BE_USED);
+		verify(DifferenceBoundMatrix.class, verifier -> verifier.withIgnoredFields("closed", "index"));
 	}
 
 	@Test
@@ -365,6 +396,23 @@ public class EqualityContractVerificationTest {
 				verify(type, type == TypeTokenType.class, Warning.STRICT_INHERITANCE);
 	}
 
+	private static final Map<Class<?>, SymbolicExpression> CACHED_HASHES = new HashMap<>();
+
+	static {
+		SyntheticLocation loc = SyntheticLocation.INSTANCE;
+		Constant one = new Constant(Untyped.INSTANCE, 1, loc);
+		Variable x = new Variable(Untyped.INSTANCE, "x", loc);
+		CACHED_HASHES.put(UnaryExpression.class,
+				new UnaryExpression(Untyped.INSTANCE, x, NumericNegation.INSTANCE, loc));
+		CACHED_HASHES.put(BinaryExpression.class,
+				new BinaryExpression(Untyped.INSTANCE, x, one, NumericNonOverflowingAdd.INSTANCE, loc));
+		CACHED_HASHES.put(TernaryExpression.class,
+				new TernaryExpression(Untyped.INSTANCE, x, one, one, StringReplace.INSTANCE, loc));
+		CACHED_HASHES.put(AccessChild.class, new AccessChild(Untyped.INSTANCE, x, one, loc));
+		CACHED_HASHES.put(HeapReference.class, new HeapReference(Untyped.INSTANCE, x, loc));
+		CACHED_HASHES.put(HeapDereference.class, new HeapDereference(Untyped.INSTANCE, x, loc));
+	}
+
 	@Test
 	public void testSymbolicExpressions() {
 		Reflections scanner = mkReflections();
@@ -375,12 +423,23 @@ public class EqualityContractVerificationTest {
 			else if (Identifier.class.isAssignableFrom(expr))
 				// identifiers use only their name for equality
 				verify(expr, verifier -> verifier.withOnlyTheseFields("name"));
+			else if (CACHED_HASHES.containsKey(expr))
+				// these expressions compute their hash code at construction
+				verifyCachedHashCode(expr, CACHED_HASHES.get(expr));
 			else
 				// location is excluded on purpose: it only brings syntactic
 				// information
 				verify(expr, verifier -> verifier.withIgnoredFields("location"));
 	}
 
+	private static <T extends SymbolicExpression> void verifyCachedHashCode(
+			Class<T> clazz,
+			SymbolicExpression example) {
+		verify(clazz, verifier -> verifier
+				.withIgnoredFields("location")
+				.withCachedHashCode("hash", "computeHashCode", clazz.cast(example)));
+	}
+
 	@Test
 	public void testStatements() {
 		// suppress nullity: the verifier will try to pass in a code location
@@ -467,6 +526,9 @@ public class EqualityContractVerificationTest {
 				verify(subject, Warning.NONFINAL_FIELDS);
 			else if (subject == StaticTypes.class)
 				verify(subject, verifier -> verifier.withIgnoredFields("types"));
+			else if (AllocationSiteBasedAnalysis.class.isAssignableFrom(subject))
+				// the points-to graph is a cache of the heap environment
+				verify(subject, verifier -> verifier.withIgnoredFields("graph"));
 			else if (subject != AnalyzedCFG.class
 					&& subject != OptimizedAnalyzedCFG.class
 					&& subject != BackwardAnalyzedCFG.class
@@ -2,6 +2,7 @@ package it.unive.lisa.analysis.heap.pointbased;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import it.unive.lisa.TestParameterProvider;
@@ -9,6 +10,7 @@ import it.unive.lisa.analysis.ScopeToken;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.SemanticOracle;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.lattices.Satisfiability;
 import it.unive.lisa.analysis.nonrelational.heap.HeapEnvironment;
 import it.unive.lisa.program.CodeElement;
 import it.unive.lisa.program.SourceCodeLocation;
@@ -17,6 +19,7 @@ import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.CodeLocation;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.program.type.Int32Type;
+import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.heap.AccessChild;
 import it.unive.lisa.symbolic.heap.HeapDereference;
 import it.unive.lisa.symbolic.heap.HeapExpression;
@@ -33,6 +36,8 @@ import it.unive.lisa.type.Type;
 import it.unive.lisa.type.Untyped;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Test;
 
 public class PointBasedHeapTest {
@@ -459,4 +464,52 @@ public class PointBasedHeapTest {
 		expectedRewritten = new ExpressionSet(expectedUnknownAlloc);
 		assertEquals(expectedRewritten, xAssign.rewrite(deref, pp1, fakeOracle));
 	}
+
+	@Test
+	public void testReachability() throws SemanticException {
+		// x -> pp1, y -> pp2, pp1 -> pp2
+		HeapEnvironment<AllocationSites> env = emptyHeapEnv
+				.putState(x, new AllocationSites(Collections.singleton(alloc1), false))
+				.putState(y, new AllocationSites(Collections.singleton(alloc2), false))
+				.putState(alloc1, new AllocationSites(Collections.singleton(alloc2), false));
+		PointBasedHeap heap = new PointBasedHeap(env);
+
+		assertEquals(Satisfiability.SATISFIED, heap.isReachableFrom(x, y, pp1, fakeOracle));
+		assertEquals(Satisfiability.SATISFIED, heap.isReachableFrom(x, x, pp1, fakeOracle));
+		assertEquals(Satisfiability.NOT_SATISFIED, heap.isReachableFrom(y, x, pp1, fakeOracle));
+		assertEquals(Satisfiability.SATISFIED, heap.alias(x, x, pp1, fakeOracle));
+		assertEquals(Satisfiability.NOT_SATISFIED, heap.alias(x, y, pp1, fakeOracle));
+
+		// closures are cached in the graph of the environment
+		PointsToGraph graph = heap.getPointsToGraph();
+		assertSame(graph, heap.getPointsToGraph());
+		assertSame(env, graph.getEnvironment());
+		assertEquals(new HashSet<>(List.of(alloc1, alloc2)), graph.closure(alloc1));
+		assertEquals(2, graph.cachedClosures());
+
+		// pp2 -> pp1 closes a cycle
+		HeapEnvironment<AllocationSites> cyclic = env.putState(alloc2,
+				new AllocationSites(Collections.singleton(alloc1), false));
+		heap = new PointBasedHeap(cyclic);
+		assertEquals(Satisfiability.SATISFIED, heap.isReachableFrom(y, x, pp1, fakeOracle));
+		assertSame(heap.getPointsToGraph().closure(alloc1), heap.getPointsToGraph().closure(alloc2));
+
+		// batched queries yield the same results of single ones
+		heap = new PointBasedHeap(env);
+		List<Pair<SymbolicExpression, SymbolicExpression>> queries = List.of(
+				Pair.of(x, y),
+				Pair.of(y, x),
+				Pair.of(x, x),
+				Pair.of(y, y));
+		List<Satisfiability> reach = heap.isReachableFrom(queries, pp1, fakeOracle);
+		List<Satisfiability> alias = heap.alias(queries, pp1, fakeOracle);
+		for (int i = 0; i < queries.size(); i++) {
+			SymbolicExpression l = queries.get(i).getLeft(), r = queries.get(i).getRight();
+			assertEquals(heap.isReachableFrom(l, r, pp1, fakeOracle), reach.get(i));
+			assertEquals(heap.alias(l, r, pp1, fakeOracle), alias.get(i));
+		}
+
+		assertEquals(Collections.nCopies(4, Satisfiability.UNKNOWN), topHeap.isReachableFrom(queries, pp1, fakeOracle));
+		assertEquals(Collections.nCopies(4, Satisfiability.BOTTOM), bottomHeap.alias(queries, pp1, fakeOracle));
+	}
 }
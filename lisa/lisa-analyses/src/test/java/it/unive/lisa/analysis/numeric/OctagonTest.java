@@ -0,0 +1,288 @@
+package it.unive.lisa.analysis.numeric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.TestParameterProvider;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.SemanticOracle;
+import it.unive.lisa.analysis.lattices.Satisfiability;
+import it.unive.lisa.program.SyntheticLocation;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.program.type.BoolType;
+import it.unive.lisa.program.type.Float32Type;
+import it.unive.lisa.program.type.Int32Type;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.symbolic.value.operator.binary.BinaryOperator;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonEq;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonGe;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonGt;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonLe;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonLt;
+import it.unive.lisa.symbolic.value.operator.binary.LogicalAnd;
+import it.unive.lisa.symbolic.value.operator.binary.NumericNonOverflowingAdd;
+import it.unive.lisa.symbolic.value.operator.binary.NumericNonOverflowingMul;
+import it.unive.lisa.symbolic.value.operator.binary.NumericNonOverflowingSub;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class OctagonTest {
+
+	private static final int BOX = 4;
+
+	private final ProgramPoint pp = TestParameterProvider.provideParam(null, ProgramPoint.class);
+	private final SemanticOracle oracle = TestParameterProvider.provideParam(null, SemanticOracle.class);
+
+	private final Variable x = var("x");
+	private final Variable y = var("y");
+	private final Variable z = var("z");
+
+	private static Variable var(
+			String name) {
+		return new Variable(Int32Type.INSTANCE, name, SyntheticLocation.INSTANCE);
+	}
+
+	private static Constant cst(
+			int value) {
+		return new Constant(Int32Type.INSTANCE, value, SyntheticLocation.INSTANCE);
+	}
+
+	private static BinaryExpression bin(
+			ValueExpression left,
+			BinaryOperator op,
+			ValueExpression right) {
+		return new BinaryExpression(op instanceof ComparisonEq || op instanceof ComparisonLe
+				|| op instanceof ComparisonLt || op instanceof ComparisonGe || op instanceof ComparisonGt
+						? BoolType.INSTANCE
+						: Int32Type.INSTANCE,
+				left, right, op, SyntheticLocation.INSTANCE);
+	}
+
+	private Octagon assign(
+			Octagon o,
+			Identifier id,
+			ValueExpression e)
+			throws SemanticException {
+		return o.assign(id, e, pp, oracle);
+	}
+
+	private Octagon assume(
+			Octagon o,
+			ValueExpression e)
+			throws SemanticException {
+		return o.assume(e, pp, pp, oracle);
+	}
+
+	private Satisfiability sat(
+			Octagon o,
+			ValueExpression e)
+			throws SemanticException {
+		return o.satisfies(e, pp, oracle);
+	}
+
+	/**
+	 * Yields whether the given point of a 3-variables matrix satisfies
+	 * {@code V[j] - V[i] <= c}.
+	 */
+	private static boolean holds(
+			int[] point,
+			int i,
+			int j,
+			double c) {
+		int vi = (i & 1) == 0 ? point[i / 2] : -point[i / 2];
+		int vj = (j & 1) == 0 ? point[j / 2] : -point[j / 2];
+		return vj - vi <= c;
+	}
+
+	@Test
+	public void testClosureIsExactOnIntegers() {
+		Random random = new Random(42);
+		Identifier[] vars = { x, y, z };
+		for (int test = 0; test < 500; test++) {
+			// constraints are added to a matrix bounded by the box
+			DifferenceBoundMatrix incremental = new DifferenceBoundMatrix(vars);
+			DifferenceBoundMatrix pointwise = new DifferenceBoundMatrix(vars);
+			for (int k = 0; k < 3; k++) {
+				incremental = incremental.addConstraint(2 * k + 1, 2 * k, 2 * BOX).addConstraint(2 * k, 2 * k + 1,
+						2 * BOX);
+				pointwise = incremental;
+			}
+
+			int n = random.nextInt(6);
+			int[][] constraints = new int[n][3];
+			for (int c = 0; c < n; c++) {
+				constraints[c][0] = random.nextInt(6);
+				constraints[c][1] = random.nextInt(6);
+				constraints[c][2] = random.nextInt(2 * BOX + 1) - BOX;
+				if (incremental != null)
+					incremental = incremental.addConstraint(constraints[c][0], constraints[c][1], constraints[c][2]);
+				DifferenceBoundMatrix single = new DifferenceBoundMatrix(vars).addConstraint(constraints[c][0],
+						constraints[c][1], constraints[c][2]);
+				pointwise = pointwise == null || single == null ? null : pointwise.glb(single);
+			}
+
+			// the exact bounds over the integer points
+			double[][] exact = new double[6][6];
+			for (double[] row : exact)
+				Arrays.fill(row, Double.NEGATIVE_INFINITY);
+			boolean empty = true;
+			int[] point = new int[3];
+			for (point[0] = -BOX; point[0] <= BOX; point[0]++)
+				for (point[1] = -BOX; point[1] <= BOX; point[1]++)
+					for (point[2] = -BOX; point[2] <= BOX; point[2]++) {
+						boolean sat = true;
+						for (int[] c : constraints)
+							sat &= holds(point, c[0], c[1], c[2]);
+						if (!sat)
+							continue;
+						empty = false;
+						for (int i = 0; i < 6; i++)
+							for (int j = 0; j < 6; j++) {
+								int vi = (i & 1) == 0 ? point[i / 2] : -point[i / 2];
+								int vj = (j & 1) == 0 ? point[j / 2] : -point[j / 2];
+								exact[i][j] = Math.max(exact[i][j], vj - vi);
+							}
+					}
+
+			if (empty) {
+				assertNull(incremental);
+				assertNull(pointwise);
+				continue;
+			}
+
+			assertNotNull(incremental);
+			assertEquals(pointwise, incremental);
+			for (int i = 0; i < 6; i++)
+				for (int j = 0; j < 6; j++)
+					assertEquals("m[" + i + "][" + j + "]", exact[i][j], incremental.get(i, j), 0);
+		}
+	}
+
+	@Test
+	public void testInvertibleAssignments() throws SemanticException {
+		Octagon o = assign(new Octagon(), x, cst(2));
+		o = assign(o, y, bin(x, NumericNonOverflowingAdd.INSTANCE, cst(3)));
+		assertEquals(Satisfiability.SATISFIED, sat(o, bin(y, ComparisonEq.INSTANCE, cst(5))));
+
+		// the relation between x and y survives when they are shifted
+		o = assume(assign(new Octagon(), y, bin(x, NumericNonOverflowingAdd.INSTANCE, cst(3))),
+				bin(x, ComparisonGe.INSTANCE, cst(0)));
+		o = assign(o, x, bin(x, NumericNonOverflowingAdd.INSTANCE, cst(1)));
+		assertEquals(Satisfiability.SATISFIED,
+				sat(o, bin(bin(y, NumericNonOverflowingSub.INSTANCE, x), ComparisonEq.INSTANCE, cst(2))));
+		assertEquals(Satisfiability.SATISFIED, sat(o, bin(x, ComparisonGe.INSTANCE, cst(1))));
+		assertEquals(Satisfiability.UNKNOWN, sat(o, bin(x, ComparisonLe.INSTANCE, cst(100))));
+
+		o = assign(o, x, bin(cst(0), NumericNonOverflowingSub.INSTANCE, x));
+		assertEquals(Satisfiability.SATISFIED,
+				sat(o, bin(bin(y, NumericNonOverflowingAdd.INSTANCE, x), ComparisonEq.INSTANCE, cst(2))));
+		assertEquals(Satisfiability.SATISFIED, sat(o, bin(x, ComparisonLe.INSTANCE, cst(-1))));
+	}
+
+	@Test
+	public void testRelationalAssume() throws SemanticException {
+		// if (x >= 0 && y >= 0) if (x > y) { r = x - y; assert r >= 0; }
+		Octagon o = assume(new Octagon(), bin(x, ComparisonGe.INSTANCE, cst(0)));
+		o = assume(o, bin(y, ComparisonGe.INSTANCE, cst(0)));
+		o = assume(o, bin(x, ComparisonGt.INSTANCE, y));
+		o = assign(o, z, bin(x, NumericNonOverflowingSub.INSTANCE, y));
+		assertEquals(Satisfiability.SATISFIED, sat(o, bin(z, ComparisonGe.INSTANCE, cst(1))));
+		assertEquals(Satisfiability.SATISFIED, sat(o, bin(x, ComparisonGe.INSTANCE, cst(1))));
+		assertEquals(Satisfiability.NOT_SATISFIED, sat(o, bin(x, ComparisonLe.INSTANCE, y)));
+		assertTrue(assume(o, bin(x, ComparisonLt.INSTANCE, y)).isBottom());
+
+		// non-linear assignments fall back to intervals
+		o = assign(o, z, bin(x, NumericNonOverflowingMul.INSTANCE, cst(2)));
+		assertEquals(Satisfiability.SATISFIED, sat(o, bin(z, ComparisonGe.INSTANCE, cst(2))));
+		o = assign(o, z, bin(x, NumericNonOverflowingMul.INSTANCE, y));
+		assertEquals(Satisfiability.SATISFIED, sat(o, bin(z, ComparisonGe.INSTANCE, cst(0))));
+	}
+
+	@Test
+	public void testNonIntegralVariables() throws SemanticException {
+		Variable f = new Variable(Float32Type.INSTANCE, "f", SyntheticLocation.INSTANCE);
+		// 0 < f < 1 holds for some floats, and f > 0 does not imply f >= 1
+		Octagon o = assume(new Octagon(), bin(bin(f, ComparisonGt.INSTANCE, cst(0)), LogicalAnd.INSTANCE,
+				bin(f, ComparisonLt.INSTANCE, cst(1))));
+		assertFalse(o.isBottom());
+		o = assume(new Octagon(), bin(f, ComparisonGt.INSTANCE, cst(0)));
+		assertEquals(Satisfiability.UNKNOWN, sat(o, bin(f, ComparisonGe.INSTANCE, cst(1))));
+
+		// floats are never tracked, nor related with integers
+		assertFalse(assign(new Octagon(), f, cst(2)).knowsIdentifier(f));
+		o = assign(assign(new Octagon(), x, cst(2)), x, f);
+		assertFalse(o.knowsIdentifier(x));
+		assertEquals(Satisfiability.UNKNOWN, sat(o, bin(x, ComparisonEq.INSTANCE, cst(2))));
+	}
+
+	@Test
+	public void testLattice() throws SemanticException {
+		// non-strict abstraction example from the pentagons paper
+		Octagon left = assign(assign(new Octagon(), x, cst(0)), y, cst(3));
+		Octagon right = assign(assign(new Octagon(), x, cst(-2)), y, cst(1));
+		Octagon lub = left.lub(right);
+		assertTrue(left.lessOrEqual(lub));
+		assertTrue(right.lessOrEqual(lub));
+		assertFalse(lub.lessOrEqual(left));
+		assertEquals(Satisfiability.SATISFIED,
+				sat(lub, bin(bin(y, NumericNonOverflowingSub.INSTANCE, x), ComparisonEq.INSTANCE, cst(3))));
+		// packs might differ, but the constraints are the same
+		assertTrue(left.lessOrEqual(lub.glb(left)));
+		assertTrue(lub.glb(left).lessOrEqual(left));
+		assertTrue(left.glb(right).isBottom());
+
+		// x = 0; while (x < 10) x = x + 1;
+		Octagon entry = assign(new Octagon(), x, cst(0));
+		Octagon head = entry;
+		for (int i = 0; i < 5; i++) {
+			Octagon body = assign(assume(head, bin(x, ComparisonLt.INSTANCE, cst(10))), x,
+					bin(x, NumericNonOverflowingAdd.INSTANCE, cst(1)));
+			Octagon next = head.widening(entry.lub(body));
+			if (next.lessOrEqual(head))
+				break;
+			head = next;
+		}
+		assertEquals(Satisfiability.SATISFIED, sat(head, bin(x, ComparisonGe.INSTANCE, cst(0))));
+		Octagon exit = assume(head, bin(x, ComparisonGe.INSTANCE, cst(10)));
+		assertEquals(Satisfiability.SATISFIED, sat(exit, bin(x, ComparisonGe.INSTANCE, cst(10))));
+		Octagon narrowed = head.narrowing(entry.lub(
+				assign(assume(head, bin(x, ComparisonLt.INSTANCE, cst(10))), x,
+						bin(x, NumericNonOverflowingAdd.INSTANCE, cst(1)))));
+		assertEquals(Satisfiability.SATISFIED, sat(narrowed, bin(x, ComparisonLe.INSTANCE, cst(10))));
+	}
+
+	@Test
+	public void testPacksStayIndependent() throws SemanticException {
+		Octagon o = new Octagon();
+		Variable[] vars = new Variable[300];
+		for (int i = 0; i < vars.length; i++) {
+			vars[i] = var("v" + i);
+			// pairs of related variables
+			o = i % 2 == 0 ? assign(o, vars[i], cst(i))
+					: assign(o, vars[i], bin(vars[i - 1], NumericNonOverflowingAdd.INSTANCE, cst(1)));
+		}
+		assertEquals(Satisfiability.SATISFIED,
+				sat(o, bin(bin(vars[201], NumericNonOverflowingSub.INSTANCE, vars[200]), ComparisonEq.INSTANCE,
+						cst(1))));
+
+		Octagon other = assign(o, vars[0], cst(-1));
+		Octagon lub = o.lub(other);
+		assertEquals(Satisfiability.UNKNOWN, sat(lub, bin(vars[0], ComparisonEq.INSTANCE, cst(0))));
+		assertEquals(Satisfiability.SATISFIED, sat(lub, bin(vars[3], ComparisonEq.INSTANCE, cst(3))));
+		assertTrue(o.lessOrEqual(lub));
+		assertTrue(other.lessOrEqual(lub));
+
+		assertFalse(o.forgetIdentifier(vars[5]).knowsIdentifier(vars[5]));
+		assertTrue(o.forgetIdentifier(vars[5]).knowsIdentifier(vars[4]));
+		assertSame(o, o.forgetIdentifier(var("unknown")));
+	}
+}
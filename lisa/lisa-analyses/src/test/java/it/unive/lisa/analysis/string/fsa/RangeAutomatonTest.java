@@ -0,0 +1,165 @@
+package it.unive.lisa.analysis.string.fsa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.string.tarsis.RegexAutomaton;
+import it.unive.lisa.util.datastructures.automaton.State;
+import it.unive.lisa.util.datastructures.automaton.Transition;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import org.junit.Test;
+
+public class RangeAutomatonTest {
+
+	private static final RangeSymbol AM = RangeSymbol.range('a', 'm');
+
+	private static final RangeSymbol HZ = RangeSymbol.range('h', 'z');
+
+	@Test
+	public void testSymbolOperations() {
+		assertEquals(RangeSymbol.range('a', 'z'), AM.union(HZ));
+		assertEquals(RangeSymbol.range('h', 'm'), AM.intersection(HZ));
+		assertEquals(RangeSymbol.range('a', 'g'), AM.minus(HZ));
+		assertEquals(RangeSymbol.EPSILON, AM.minus(RangeSymbol.ANY));
+		assertEquals(RangeSymbol.ANY, AM.union(RangeSymbol.ANY.minus(AM)));
+
+		RangeSymbol holes = RangeSymbol.range('a', 'z').minus(RangeSymbol.of('c')).minus(RangeSymbol.of('x'));
+		assertEquals(3, holes.getRangesCount());
+		assertEquals(24, holes.size());
+		assertFalse(holes.contains('c'));
+		assertTrue(holes.contains('d'));
+		assertTrue(holes.includes(RangeSymbol.range('d', 'w')));
+		assertFalse(holes.intersects(RangeSymbol.of('x')));
+		assertEquals("[a-bd-wy-z]", holes.toString());
+
+		assertEquals(List.of(
+				RangeSymbol.range('a', 'g'),
+				RangeSymbol.range('h', 'm'),
+				RangeSymbol.range('n', 'z')),
+				RangeSymbol.partition(List.of(AM, HZ, RangeSymbol.EPSILON)));
+		// characters contained in the same symbols end up together
+		assertEquals(List.of(
+				RangeSymbol.range('a', 'b').union(RangeSymbol.range('y', 'z')),
+				RangeSymbol.range('c', 'x')),
+				RangeSymbol.partition(List.of(RangeSymbol.range('a', 'z'), RangeSymbol.range('c', 'x'))));
+	}
+
+	@Test
+	public void testUnknownStringsStaySmall() {
+		RangeAutomaton top = RangeAutomaton.of(new SimpleAutomaton("").unknownString());
+		assertEquals(1, top.getStates().size());
+		State init = top.getInitialState();
+		assertEquals(Set.of(new Transition<>(init, init, RangeSymbol.range('!', '~'))), top.getTransitions());
+
+		// input + "=" + input
+		RangeAutomaton input = RangeAutomaton.topString();
+		RangeAutomaton a = input.concat(RangeAutomaton.string("=")).concat(input).minimize();
+		assertEquals(2, a.getStates().size());
+		assertFalse(a.intersection(RangeAutomaton.string("key=value")).acceptsEmptyLanguage());
+		assertTrue(a.intersection(RangeAutomaton.string("key")).acceptsEmptyLanguage());
+		assertTrue(RangeAutomaton.string("a=b").isContained(a));
+		assertFalse(a.isContained(RangeAutomaton.string("a=b")));
+	}
+
+	@Test
+	public void testDeterminize() {
+		SortedSet<State> states = new TreeSet<>();
+		State[] st = new State[3];
+		st[0] = new State(0, true, false);
+		st[1] = new State(1, false, true);
+		st[2] = new State(2, false, false);
+		Collections.addAll(states, st);
+
+		SortedSet<Transition<RangeSymbol>> delta = new TreeSet<>();
+		delta.add(new Transition<>(st[0], st[1], AM));
+		delta.add(new Transition<>(st[0], st[2], HZ));
+		delta.add(new Transition<>(st[2], st[1], RangeSymbol.ANY));
+		RangeAutomaton a = new RangeAutomaton(states, delta);
+		assertFalse(a.isDeterministic());
+
+		RangeAutomaton det = a.determinize();
+		assertTrue(det.isDeterministic());
+		// [a-g] -> {1}, [h-m] -> {1, 2}, [n-z] -> {2}
+		assertEquals(4, det.getStates().size());
+		assertEquals(5, det.getTransitions().size());
+		assertTrue(det.isEqualTo(a));
+		assertTrue(det.minimize().isEqualTo(a));
+
+		RangeAutomaton complement = a.complement(Set.of(RangeSymbol.ANY));
+		assertTrue(complement.intersection(a).acceptsEmptyLanguage());
+		assertTrue(complement.union(a).isEqualTo(RangeAutomaton.topString()));
+		assertTrue(RangeAutomaton.topString().complement(Set.of(RangeSymbol.ANY)).acceptsEmptyLanguage());
+	}
+
+	private static SimpleAutomaton random(
+			Random random) {
+		SortedSet<State> states = new TreeSet<>();
+		State[] st = new State[5];
+		for (int i = 0; i < st.length; i++)
+			st[i] = new State(i, i == 0, random.nextInt(3) == 0);
+		Collections.addAll(states, st);
+
+		SortedSet<Transition<StringSymbol>> delta = new TreeSet<>();
+		for (int i = 0; i < 10; i++)
+			delta.add(new Transition<>(
+					st[random.nextInt(st.length)],
+					st[random.nextInt(st.length)],
+					new StringSymbol((char) ('a' + random.nextInt(3)))));
+		return new SimpleAutomaton(states, delta);
+	}
+
+	@Test
+	public void sameLanguagesAsSimpleAutomata() {
+		Random random = new Random(42);
+		Set<StringSymbol> sigma = Set.of(new StringSymbol('a'), new StringSymbol('b'), new StringSymbol('c'));
+		Set<RangeSymbol> rsigma = Set.of(RangeSymbol.range('a', 'c'));
+		for (int i = 0; i < 100; i++) {
+			SimpleAutomaton a = random(random);
+			SimpleAutomaton b = random(random);
+			RangeAutomaton ra = RangeAutomaton.of(a);
+			RangeAutomaton rb = RangeAutomaton.of(b);
+
+			// minimal automata have the same shape
+			assertEquals(a.minimize().getStates().size(), ra.getStates().size());
+			assertTrue(ra.isEqualTo(RangeAutomaton.of(a.determinize())));
+			assertTrue(ra.hasSameCanonicalForm(RangeAutomaton.of(a.minimize())));
+			assertEquals(ra, RangeAutomaton.of(a.minimize()));
+
+			assertEquals(RangeAutomaton.of(a.intersection(b)), ra.intersection(rb));
+			assertEquals(RangeAutomaton.of(a.union(b)), ra.union(rb).minimize());
+			assertEquals(RangeAutomaton.of(a.complement(sigma)), ra.complement(rsigma));
+			assertEquals(a.isContained(b), ra.isContained(rb));
+		}
+	}
+
+	@Test
+	public void unknownStringsAreContainedThroughRanges() throws SemanticException {
+		// abX and aX, with X being any string
+		SimpleAutomaton unknown = new SimpleAutomaton("").unknownString();
+		SimpleAutomaton ab = new SimpleAutomaton("ab").concat(unknown);
+		SimpleAutomaton a = new SimpleAutomaton("a").concat(unknown);
+		assertTrue(ab.isContained(a));
+		assertFalse(a.isContained(ab));
+		assertTrue(ab.isContained(unknown));
+		assertFalse(unknown.isContained(ab));
+		assertTrue(new SimpleAutomaton("abc").isContained(ab));
+		assertFalse(new SimpleAutomaton("b").isContained(ab));
+		assertTrue(new FSA(ab).lessOrEqual(new FSA(a)));
+
+		RegexAutomaton top = RegexAutomaton.topString();
+		RegexAutomaton rab = RegexAutomaton.string("ab").concat(top);
+		RegexAutomaton ra = RegexAutomaton.string("a").concat(top);
+		assertTrue(RegexAutomaton.string("ab").isContained(top));
+		assertTrue(rab.isContained(ra));
+		assertFalse(ra.isContained(rab));
+		assertTrue(RegexAutomaton.string("abc").isContained(rab));
+		assertFalse(RegexAutomaton.string("b").isContained(rab));
+	}
+}
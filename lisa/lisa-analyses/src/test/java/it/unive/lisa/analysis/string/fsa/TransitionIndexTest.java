@@ -0,0 +1,64 @@
+package it.unive.lisa.analysis.string.fsa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.util.datastructures.automaton.State;
+import it.unive.lisa.util.datastructures.automaton.Transition;
+import java.util.Collections;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import org.junit.Test;
+
+public class TransitionIndexTest {
+
+	@SafeVarargs
+	private static SortedSet<Transition<StringSymbol>> setOf(
+			Transition<StringSymbol>... ts) {
+		SortedSet<Transition<StringSymbol>> result = new TreeSet<>();
+		for (Transition<StringSymbol> t : ts)
+			result.add(t);
+		return result;
+	}
+
+	@Test
+	public void testIndexesFollowModifications() {
+		SortedSet<State> states = new TreeSet<>();
+		State[] st = new State[3];
+		st[0] = new State(0, true, false);
+		st[1] = new State(1, false, false);
+		st[2] = new State(2, false, true);
+		Collections.addAll(states, st);
+
+		Transition<StringSymbol> ab = new Transition<>(st[0], st[1], new StringSymbol("a"));
+		Transition<StringSymbol> bc = new Transition<>(st[1], st[2], new StringSymbol("b"));
+		SortedSet<Transition<StringSymbol>> transitions = setOf(ab, bc);
+		SimpleAutomaton a = new SimpleAutomaton(states, transitions);
+
+		SortedSet<Transition<StringSymbol>> before = a.getOutgoingTransitionsFrom(st[0]);
+		assertEquals(setOf(ab), before);
+		assertEquals(setOf(bc), a.getIngoingTransitionsFrom(st[2]));
+		assertTrue(a.getOutgoingTransitionsFrom(st[2]).isEmpty());
+		assertEquals(Set.of(st[1]), a.getNextStates(st[0], new StringSymbol("a")));
+
+		Transition<StringSymbol> ac = new Transition<>(st[0], st[2], new StringSymbol("a"));
+		a.addTransition(ac);
+		assertEquals(setOf(ab), before);
+		assertEquals(setOf(ab, ac), a.getOutgoingTransitionsFrom(st[0]));
+		assertEquals(setOf(bc, ac), a.getIngoingTransitionsFrom(st[2]));
+		assertEquals(Set.of(st[1], st[2]), a.getNextStates(st[0], new StringSymbol("a")));
+		assertTrue(a.getNextStates(st[0], new StringSymbol("b")).isEmpty());
+
+		a.removeTransitions(Set.of(ab));
+		assertEquals(setOf(ac), a.getOutgoingTransitionsFrom(st[0]));
+		assertTrue(a.getIngoingTransitionsFrom(st[1]).isEmpty());
+		assertEquals(Set.of(st[2]), a.getNextStates(st[0], new StringSymbol("a")));
+
+		// modifications not going through the automaton are detected as well
+		Transition<StringSymbol> cc = new Transition<>(st[2], st[2], new StringSymbol("c"));
+		a.getTransitions().add(cc);
+		assertEquals(setOf(cc), a.getOutgoingTransitionsFrom(st[2]));
+		assertEquals(setOf(bc, ac, cc), a.getIngoingTransitionsFrom(st[2]));
+	}
+}
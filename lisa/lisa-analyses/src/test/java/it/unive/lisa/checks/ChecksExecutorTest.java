@@ -24,6 +24,11 @@ public class ChecksExecutorTest extends AnalysisTestExecutor {
 				tool.warnOn(node, "Found variable i");
 			return true;
 		}
+
+		@Override
+		public boolean canRunConcurrently() {
+			return true;
+		}
 	}
 
 	@Test
@@ -34,4 +39,16 @@ public class ChecksExecutorTest extends AnalysisTestExecutor {
 		conf.programFile = "expressions.imp";
 		perform(conf);
 	}
+
+	@Test
+	public void testSyntacticChecksParallel() throws IOException, ParsingException {
+		CronConfiguration conf = new CronConfiguration();
+		conf.syntacticChecks.add(new VariableI());
+		conf.checkThreads = 4;
+		conf.testDir = "syntactic";
+		// same expected results of the sequential execution
+		conf.testSubDir = "parallel";
+		conf.programFile = "expressions.imp";
+		perform(conf);
+	}
 }
@@ -4,8 +4,10 @@ import it.unive.lisa.AnalysisTestExecutor;
 import it.unive.lisa.CronConfiguration;
 import it.unive.lisa.DefaultConfiguration;
 import it.unive.lisa.analysis.heap.MonolithicHeap;
+import it.unive.lisa.analysis.heap.pointbased.AllocationSites;
 import it.unive.lisa.analysis.heap.pointbased.FieldSensitivePointBasedHeap;
 import it.unive.lisa.analysis.heap.pointbased.PointBasedHeap;
+import it.unive.lisa.analysis.nonrelational.heap.HeapEnvironment;
 import org.junit.Test;
 
 public class ArraysTest extends AnalysisTestExecutor {
@@ -38,6 +40,21 @@ public class ArraysTest extends AnalysisTestExecutor {
 		perform(conf);
 	}
 
+	@Test
+	public void fieldInsensitiveBitsetTest() {
+		CronConfiguration conf = new CronConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = DefaultConfiguration.simpleState(
+				new PointBasedHeap(new HeapEnvironment<>(new AllocationSites(true))),
+				DefaultConfiguration.defaultValueDomain(),
+				DefaultConfiguration.defaultTypeDomain());
+		// same results of fieldInsensitiveTest
+		conf.testDir = "arrays";
+		conf.testSubDir = "allocations";
+		conf.programFile = "arrays.imp";
+		perform(conf);
+	}
+
 	@Test
 	public void fieldSensitiveTest() {
 		CronConfiguration conf = new CronConfiguration();
@@ -53,6 +53,20 @@ public class DataflowAnalysesTest extends AnalysisTestExecutor {
 		perform(conf);
 	}
 
+	@Test
+	public void testReachingDefinitionsWithHashSets() {
+		CronConfiguration conf = new CronConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = DefaultConfiguration.simpleState(
+				DefaultConfiguration.defaultHeapDomain(),
+				new PossibleDataflowDomain<>(new ReachingDefinitions(), false),
+				DefaultConfiguration.defaultTypeDomain());
+		// same results of testReachingDefinitions
+		conf.testDir = "dataflow/rd";
+		conf.programFile = "rd.imp";
+		perform(conf);
+	}
+
 	@Test
 	public void testLiveness() {
 		CronConfiguration conf = new CronConfiguration();
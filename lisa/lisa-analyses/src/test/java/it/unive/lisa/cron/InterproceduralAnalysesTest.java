@@ -7,6 +7,7 @@ import it.unive.lisa.analysis.heap.pointbased.PointBasedHeap;
 import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
 import it.unive.lisa.analysis.numeric.Interval;
 import it.unive.lisa.analysis.numeric.Sign;
+import it.unive.lisa.interprocedural.ModularSummaryAnalysis;
 import it.unive.lisa.interprocedural.ModularWorstCaseAnalysis;
 import it.unive.lisa.interprocedural.callgraph.CHACallGraph;
 import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
@@ -48,6 +49,45 @@ public class InterproceduralAnalysesTest extends AnalysisTestExecutor {
 		perform(conf);
 	}
 
+	@Test
+	public void testModularSummaryRTAHelper() {
+		CronConfiguration conf = new CronConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = DefaultConfiguration.simpleState(
+				DefaultConfiguration.defaultHeapDomain(),
+				new ValueEnvironment<>(new Sign()),
+				DefaultConfiguration.defaultTypeDomain());
+		conf.interproceduralAnalysis = new ModularSummaryAnalysis<>();
+		conf.callGraph = new RTACallGraph();
+		conf.testDir = "interprocedural";
+		conf.testSubDir = "modular-summary-helper";
+		conf.programFile = "context-helper.imp";
+		// unwinding optimized results evaluates calls through the stored
+		// results of the callees, that do not contain the caller's variables
+		conf.compareWithOptimization = false;
+		perform(conf);
+	}
+
+	@Test
+	public void testModularSummaryRTAHelperParallel() {
+		CronConfiguration conf = new CronConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = DefaultConfiguration.simpleState(
+				DefaultConfiguration.defaultHeapDomain(),
+				new ValueEnvironment<>(new Sign()),
+				DefaultConfiguration.defaultTypeDomain());
+		conf.interproceduralAnalysis = new ModularSummaryAnalysis<>();
+		conf.callGraph = new RTACallGraph();
+		conf.analysisThreads = 4;
+		conf.testDir = "interprocedural";
+		conf.testSubDir = "modular-summary-helper-parallel";
+		conf.programFile = "context-helper.imp";
+		// unwinding optimized results evaluates calls through the stored
+		// results of the callees, that do not contain the caller's variables
+		conf.compareWithOptimization = false;
+		perform(conf);
+	}
+
 	@Test
 	public void testContextSensitiveRTA() {
 		CronConfiguration conf = new CronConfiguration();
@@ -80,6 +120,40 @@ public class InterproceduralAnalysesTest extends AnalysisTestExecutor {
 		perform(conf);
 	}
 
+	@Test
+	public void testContextSensitiveRTAEntrypoints() {
+		CronConfiguration conf = new CronConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = DefaultConfiguration.simpleState(
+				DefaultConfiguration.defaultHeapDomain(),
+				new ValueEnvironment<>(new Sign()),
+				DefaultConfiguration.defaultTypeDomain());
+		conf.interproceduralAnalysis = new ContextBasedAnalysis<>();
+		conf.callGraph = new RTACallGraph();
+		conf.testDir = "interprocedural";
+		conf.testSubDir = "entrypoints";
+		conf.programFile = "entrypoints.imp";
+		perform(conf);
+	}
+
+	@Test
+	public void testContextSensitiveRTAEntrypointsParallel() {
+		CronConfiguration conf = new CronConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = DefaultConfiguration.simpleState(
+				DefaultConfiguration.defaultHeapDomain(),
+				new ValueEnvironment<>(new Sign()),
+				DefaultConfiguration.defaultTypeDomain());
+		conf.interproceduralAnalysis = new ContextBasedAnalysis<>();
+		conf.callGraph = new RTACallGraph();
+		conf.analysisThreads = 4;
+		conf.testDir = "interprocedural";
+		// same expected results of the sequential execution
+		conf.testSubDir = "entrypoints-parallel";
+		conf.programFile = "entrypoints.imp";
+		perform(conf);
+	}
+
 	@Test
 	public void testContextSensitiveRTAHelperFullStack() {
 		CronConfiguration conf = new CronConfiguration();
@@ -96,6 +170,26 @@ public class InterproceduralAnalysesTest extends AnalysisTestExecutor {
 		perform(conf);
 	}
 
+	@Test
+	public void testContextSensitiveRTAHelperFullStackSummaries() {
+		CronConfiguration conf = new CronConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = DefaultConfiguration.simpleState(
+				DefaultConfiguration.defaultHeapDomain(),
+				new ValueEnvironment<>(new Sign()),
+				DefaultConfiguration.defaultTypeDomain());
+		conf.interproceduralAnalysis = new ContextBasedAnalysis<>(FullStackToken.getSingleton());
+		conf.callGraph = new RTACallGraph();
+		conf.summaryCacheSize = 100;
+		conf.testDir = "interprocedural";
+		conf.testSubDir = "context-helper-full-summaries";
+		conf.programFile = "context-helper.imp";
+		// the cache is not used when results are optimized, and callees are
+		// then analyzed with the frames of their callers
+		conf.compareWithOptimization = false;
+		perform(conf);
+	}
+
 	@Test
 	public void testContextSensitiveRTAArrayOpPP() {
 		CronConfiguration conf = new CronConfiguration();
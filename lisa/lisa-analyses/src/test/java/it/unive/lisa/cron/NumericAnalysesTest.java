@@ -7,10 +7,12 @@ import it.unive.lisa.analysis.nonRedundantSet.NonRedundantPowersetOfInterval;
 import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
 import it.unive.lisa.analysis.numeric.IntegerConstantPropagation;
 import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.analysis.numeric.Octagon;
 import it.unive.lisa.analysis.numeric.Parity;
 import it.unive.lisa.analysis.numeric.Pentagon;
 import it.unive.lisa.analysis.numeric.Sign;
 import it.unive.lisa.conf.LiSAConfiguration.DescendingPhaseType;
+import it.unive.lisa.util.collections.workset.WeakTopologicalOrderWorkingSet;
 import org.junit.Test;
 
 public class NumericAnalysesTest extends AnalysisTestExecutor {
@@ -57,6 +59,37 @@ public class NumericAnalysesTest extends AnalysisTestExecutor {
 		perform(conf);
 	}
 
+	@Test
+	public void testIntervalWTO() {
+		CronConfiguration conf = new CronConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = DefaultConfiguration.simpleState(
+				DefaultConfiguration.defaultHeapDomain(),
+				new ValueEnvironment<>(new Interval()),
+				DefaultConfiguration.defaultTypeDomain());
+		conf.fixpointWorkingSet = WeakTopologicalOrderWorkingSet.class;
+		conf.testDir = "numeric";
+		conf.testSubDir = "interval-wto";
+		conf.programFile = "numeric.imp";
+		perform(conf);
+	}
+
+	@Test
+	public void testIntervalBlockUnwinding() {
+		CronConfiguration conf = new CronConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = DefaultConfiguration.simpleState(
+				DefaultConfiguration.defaultHeapDomain(),
+				new ValueEnvironment<>(new Interval()),
+				DefaultConfiguration.defaultTypeDomain());
+		// a single cached block forces re-analysis of evicted blocks
+		conf.unwindingCacheSize = 1;
+		conf.testDir = "numeric";
+		conf.testSubDir = "interval-block-unwinding";
+		conf.programFile = "numeric.imp";
+		perform(conf);
+	}
+
 	@Test
 	public void testIntegerConstantPropagation() {
 		CronConfiguration conf = new CronConfiguration();
@@ -105,4 +138,18 @@ public class NumericAnalysesTest extends AnalysisTestExecutor {
 		conf.programFile = "pentagons.imp";
 		perform(conf);
 	}
+
+	@Test
+	public void testOctagons() {
+		CronConfiguration conf = new CronConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = DefaultConfiguration.simpleState(
+				DefaultConfiguration.defaultHeapDomain(),
+				new Octagon(),
+				DefaultConfiguration.defaultTypeDomain());
+		conf.testDir = "numeric";
+		conf.testSubDir = "octagons";
+		conf.programFile = "pentagons.imp";
+		perform(conf);
+	}
 }
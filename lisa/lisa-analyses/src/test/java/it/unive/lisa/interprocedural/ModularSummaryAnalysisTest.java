@@ -0,0 +1,168 @@
+package it.unive.lisa.interprocedural;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import it.unive.lisa.DefaultConfiguration;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.AnalyzedCFG;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.heap.MonolithicHeap;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.nonrelational.value.TypeEnvironment;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.analysis.types.InferredTypes;
+import it.unive.lisa.conf.FixpointConfiguration;
+import it.unive.lisa.conf.LiSAConfiguration;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.SyntheticLocation;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.statement.Return;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.ReferenceType;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.type.TypeSystem;
+import it.unive.lisa.type.Untyped;
+import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
+import it.unive.lisa.util.collections.workset.WorkingSet;
+import org.junit.Test;
+
+public class ModularSummaryAnalysisTest {
+
+	private static final String PROGRAM = "class Summaries {"
+			+ "  f;"
+			+ "  one() { return 1; }"
+			+ "  inc(x) { return x + 1; }"
+			+ "  fact(n) { def r = 1; if (n > 0) { def m = n - 1; r = this.fact(m); r = n * r; } return r; }"
+			+ "  main() { def a = this.one(); def b = 5; def c = this.fact(b);"
+			+ "    def d = this.inc(b); def e = this.inc(a);"
+			+ "    this.f = 3; def g = this.one(); def h = this.f; return a + b; }"
+			+ "}";
+
+	private static CFG cfg(
+			Program p,
+			String name) {
+		return (CFG) ((CompilationUnit) p.getUnit("Summaries")).getInstanceCodeMembersByName(name, false).iterator()
+				.next();
+	}
+
+	private static String valueOf(
+			AnalysisState<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>,
+					TypeEnvironment<InferredTypes>>> state,
+			String variable) {
+		return state.getState()
+				.getValueState()
+				.getState(new Variable(Untyped.INSTANCE, variable, SyntheticLocation.INSTANCE))
+				.toString();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static AnalysisState<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>,
+			TypeEnvironment<InferredTypes>>> exitOfMain(
+					InterproceduralAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>,
+							TypeEnvironment<InferredTypes>>> analysis,
+					int threads)
+					throws Exception {
+		Program p = IMPFrontend.processText(PROGRAM, true);
+		TypeSystem types = p.getTypes();
+		for (Type t : types.getTypes())
+			if (types.canBeReferenced(t))
+				types.registerType(new ReferenceType(t));
+		p.getFeatures().getProgramValidationLogic().validateAndFinalize(p);
+		p.addEntryPoint(cfg(p, "main"));
+		Application app = new Application(p);
+		RTACallGraph cg = new RTACallGraph();
+		cg.init(app);
+		analysis.init(app, cg, WorstCasePolicy.INSTANCE);
+
+		SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>,
+				TypeEnvironment<InferredTypes>> state = DefaultConfiguration.simpleState(
+						DefaultConfiguration.defaultHeapDomain(),
+						DefaultConfiguration.defaultValueDomain(),
+						DefaultConfiguration.defaultTypeDomain()).top();
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.analysisThreads = threads;
+		analysis.fixpoint(
+				new AnalysisState<>(state, new ExpressionSet()),
+				(Class<? extends WorkingSet<Statement>>) (Class<?>) FIFOWorkingSet.class,
+				new FixpointConfiguration(conf));
+
+		// results are stored once for every cfg
+		for (String name : new String[] { "one", "inc", "fact", "main" })
+			assertEquals(1, analysis.getAnalysisResultsOf(cfg(p, name)).size());
+		assertFalse(analysis.getAnalysisResultsOf(cfg(p, "fact")).iterator().next().getExitState().isBottom());
+
+		CFG main = cfg(p, "main");
+		AnalyzedCFG<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>,
+				TypeEnvironment<InferredTypes>>> result = analysis.getAnalysisResultsOf(main).iterator().next();
+		Statement ret = main.getNodes().stream().filter(Return.class::isInstance).findFirst().get();
+		return result.getAnalysisStateBefore(ret);
+	}
+
+	@Test
+	public void testSummaries() throws Exception {
+		AnalysisState<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>,
+				TypeEnvironment<InferredTypes>>> exit = exitOfMain(new ModularSummaryAnalysis<>(), 1);
+
+		// the value returned by the callee is used, and the variables of the
+		// caller are preserved
+		assertEquals("[1, 1]", valueOf(exit, "a"));
+		assertEquals("[5, 5]", valueOf(exit, "b"));
+
+		// non-recursive callees are analyzed with the actual parameters
+		assertEquals("[6, 6]", valueOf(exit, "d"));
+		assertEquals("[2, 2]", valueOf(exit, "e"));
+
+		// the heap survives calls
+		assertEquals("[1, 1]", valueOf(exit, "g"));
+		assertEquals("[3, 3]", valueOf(exit, "h"));
+
+		// the recursive summary has been stabilized, but it does not depend
+		// on the actual parameters
+		assertEquals("[1, +Inf]", valueOf(exit, "c"));
+	}
+
+	@Test
+	public void testBoundedSpecializations() throws Exception {
+		// inc is specialized only for its first call, while the second one
+		// uses its summary
+		AnalysisState<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>,
+				TypeEnvironment<InferredTypes>>> exit = exitOfMain(new ModularSummaryAnalysis<>(1), 1);
+		assertEquals("[1, 1]", valueOf(exit, "a"));
+		assertEquals("[6, 6]", valueOf(exit, "d"));
+		assertEquals("[-Inf, +Inf]", valueOf(exit, "e"));
+
+		// without specializations, summaries are used at all calls: values
+		// that do not depend on the parameters are still precise
+		exit = exitOfMain(new ModularSummaryAnalysis<>(0), 1);
+		assertEquals("[1, 1]", valueOf(exit, "a"));
+		assertEquals("[1, 1]", valueOf(exit, "g"));
+		assertEquals("[-Inf, +Inf]", valueOf(exit, "d"));
+		assertEquals("[-Inf, +Inf]", valueOf(exit, "e"));
+	}
+
+	@Test
+	public void testParallel() throws Exception {
+		AnalysisState<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>,
+				TypeEnvironment<InferredTypes>>> sequential = exitOfMain(new ModularSummaryAnalysis<>(), 1);
+		// one, inc and fact are independent components of the same level
+		AnalysisState<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>,
+				TypeEnvironment<InferredTypes>>> parallel = exitOfMain(new ModularSummaryAnalysis<>(), 4);
+		// the two runs analyze different instances of the program
+		assertEquals(sequential.toString(), parallel.toString());
+	}
+
+	@Test
+	public void testMorePreciseThanWorstCase() throws Exception {
+		AnalysisState<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>,
+				TypeEnvironment<InferredTypes>>> exit = exitOfMain(new ModularWorstCaseAnalysis<>(), 1);
+		assertEquals("[-Inf, +Inf]", valueOf(exit, "a"));
+		assertEquals("[-Inf, +Inf]", valueOf(exit, "d"));
+	}
+}
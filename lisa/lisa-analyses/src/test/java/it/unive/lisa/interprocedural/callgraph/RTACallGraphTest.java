@@ -0,0 +1,143 @@
+package it.unive.lisa.interprocedural.callgraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.heap.MonolithicHeap;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.nonrelational.value.TypeEnvironment;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.numeric.Sign;
+import it.unive.lisa.analysis.types.InferredTypes;
+import it.unive.lisa.conf.FixpointConfiguration;
+import it.unive.lisa.conf.LiSAConfiguration;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.imp.types.ClassType;
+import it.unive.lisa.interprocedural.InterproceduralAnalysisException;
+import it.unive.lisa.interprocedural.ModularWorstCaseAnalysis;
+import it.unive.lisa.interprocedural.WorstCasePolicy;
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.ProgramValidationException;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.call.CFGCall;
+import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
+import it.unive.lisa.type.ReferenceType;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
+import it.unive.lisa.util.collections.workset.WorkingSet;
+import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class RTACallGraphTest {
+
+	private static final String PROGRAM = "class RtaBase { foo() { return 1; } }"
+			+ "class RtaLeft extends RtaBase { foo() { return 2; } }"
+			+ "class RtaRight extends RtaBase { foo() { return 3; } }"
+			+ "class RtaMain {"
+			+ "  main(x) { def b = new RtaBase(); x.foo(); this.helper(); }"
+			+ "  helper() { def l = new RtaLeft(); }"
+			+ "}";
+
+	private static CodeMember member(
+			Program p,
+			String unit,
+			String name) {
+		return ((CompilationUnit) p.getUnit(unit)).getInstanceCodeMembersByName(name, false).iterator().next();
+	}
+
+	private static UnresolvedCall call(
+			CFG cfg,
+			String name) {
+		return cfg.getNodes().stream()
+				.filter(UnresolvedCall.class::isInstance)
+				.map(UnresolvedCall.class::cast)
+				.filter(call -> call.getTargetName().equals(name))
+				.findFirst()
+				.get();
+	}
+
+	private static Type ref(
+			String unit) {
+		return new ReferenceType(ClassType.lookup(unit, null));
+	}
+
+	private static Set<String> units(
+			RTACallGraph cg) {
+		return cg.getInstantiatedUnits().stream().map(CompilationUnit::getName).collect(Collectors.toSet());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testInstantiatedReceivers()
+			throws ParsingException, ProgramValidationException, CallGraphConstructionException,
+			CallResolutionException {
+		Program p = IMPFrontend.processText(PROGRAM, true);
+		p.getFeatures().getProgramValidationLogic().validateAndFinalize(p);
+		CFG main = (CFG) member(p, "RtaMain", "main");
+		RTACallGraph cg = new RTACallGraph();
+		cg.init(new Application(p));
+		// the receiver might be any subtype of RtaBase
+		Set<Type>[] receivers = (Set<Type>[]) new Set<?>[] { Set.of(ref("RtaBase"), ref("RtaLeft"), ref("RtaRight")) };
+		Set<Type>[] self = (Set<Type>[]) new Set<?>[] { Set.of(ref("RtaMain")) };
+
+		// only units instantiated by reachable code are used as receivers
+		UnresolvedCall foo = call(main, "foo");
+		CFGCall resolved = (CFGCall) cg.resolve(foo, receivers, null);
+		assertEquals(Set.of(member(p, "RtaBase", "foo")), Set.copyOf(resolved.getTargets()));
+		assertEquals(Set.of("RtaMain", "RtaBase"), units(cg));
+		assertTrue(cg.pollInvalidatedCallers().isEmpty());
+
+		// reaching the helper makes RtaLeft instantiated
+		cg.resolve(call(main, "helper"), self, null);
+		assertEquals(Set.of("RtaMain", "RtaBase", "RtaLeft"), units(cg));
+		assertEquals(Set.of(main), Set.copyOf(cg.pollInvalidatedCallers()));
+		assertTrue(cg.pollInvalidatedCallers().isEmpty());
+
+		resolved = (CFGCall) cg.resolve(foo, receivers, null);
+		assertEquals(Set.of(member(p, "RtaBase", "foo"), member(p, "RtaLeft", "foo")),
+				Set.copyOf(resolved.getTargets()));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testInstantiationsOfWorstCaseAnalysis()
+			throws ParsingException, ProgramValidationException, CallGraphConstructionException,
+			CallResolutionException, InterproceduralAnalysisException, FixpointException {
+		// RtaRight is instantiated only by a cfg that is analyzed after main
+		Program p = IMPFrontend.processText(PROGRAM + "class RtaOther { make() { def r = new RtaRight(); } }", true);
+		p.getFeatures().getProgramValidationLogic().validateAndFinalize(p);
+		CFG main = (CFG) member(p, "RtaMain", "main");
+		Application app = new Application(p);
+		RTACallGraph cg = new RTACallGraph();
+		cg.init(app);
+		ModularWorstCaseAnalysis<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>,
+						TypeEnvironment<InferredTypes>>> analysis = new ModularWorstCaseAnalysis<>();
+		analysis.init(app, cg, WorstCasePolicy.INSTANCE);
+		analysis.fixpoint(new AnalysisState<>(
+				new SimpleAbstractState<>(
+						new MonolithicHeap(),
+						new ValueEnvironment<>(new Sign()),
+						new TypeEnvironment<>(new InferredTypes())),
+				new ExpressionSet()),
+				(Class<? extends WorkingSet<Statement>>) (Class<?>) FIFOWorkingSet.class,
+				new FixpointConfiguration(new LiSAConfiguration()));
+
+		// calls resolved after the analysis (e.g., by semantic checks) see
+		// the units instantiated by all the analyzed cfgs
+		assertEquals(Set.of("RtaMain", "RtaBase", "RtaLeft", "RtaRight"), units(cg));
+		Set<Type>[] receivers = (Set<Type>[]) new Set<?>[] { Set.of(ref("RtaBase"), ref("RtaLeft"), ref("RtaRight")) };
+		CFGCall resolved = (CFGCall) cg.resolve(call(main, "foo"), receivers, null);
+		assertEquals(Set.of(member(p, "RtaBase", "foo"), member(p, "RtaLeft", "foo"), member(p, "RtaRight", "foo")),
+				Set.copyOf(resolved.getTargets()));
+	}
+}
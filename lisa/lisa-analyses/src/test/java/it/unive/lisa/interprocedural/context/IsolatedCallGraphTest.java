@@ -0,0 +1,96 @@
+package it.unive.lisa.interprocedural.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.interprocedural.callgraph.CHACallGraph;
+import it.unive.lisa.interprocedural.callgraph.CallGraph;
+import it.unive.lisa.interprocedural.callgraph.CallGraphNode;
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.program.cfg.statement.Return;
+import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
+import it.unive.lisa.type.ReferenceType;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.type.TypeSystem;
+import java.util.Set;
+import org.junit.Test;
+
+public class IsolatedCallGraphTest {
+
+	private static final String PROGRAM = "class Iso {"
+			+ "  a() { return this.b(); }"
+			+ "  b() { return this.a(); }"
+			+ "  c() { return this.b(); }"
+			+ "}";
+
+	private static CFG cfg(
+			Program p,
+			String name) {
+		return (CFG) ((CompilationUnit) p.getUnit("Iso")).getInstanceCodeMembersByName(name, false).iterator()
+				.next();
+	}
+
+	private static void resolve(
+			CallGraph callgraph,
+			CFG cfg)
+			throws Exception {
+		Return ret = (Return) cfg.getNodes().stream().filter(Return.class::isInstance).findFirst().get();
+		UnresolvedCall call = (UnresolvedCall) ret.getSubExpression();
+		@SuppressWarnings("unchecked")
+		Set<Type>[] types = (Set<Type>[]) new Set<?>[call.getParameters().length];
+		for (int i = 0; i < types.length; i++)
+			types[i] = call.getParameters()[i].getStaticType().allInstances(call.getProgram().getTypes());
+		callgraph.resolve(call, types, null);
+	}
+
+	@Test
+	public void testView() throws Exception {
+		Program p = IMPFrontend.processText(PROGRAM, true);
+		TypeSystem types = p.getTypes();
+		for (Type t : types.getTypes())
+			if (types.canBeReferenced(t))
+				types.registerType(new ReferenceType(t));
+		p.getFeatures().getProgramValidationLogic().validateAndFinalize(p);
+		Application app = new Application(p);
+		CFG a = cfg(p, "a"), b = cfg(p, "b"), c = cfg(p, "c");
+
+		CHACallGraph global = new CHACallGraph();
+		global.init(app);
+		resolve(global, c);
+
+		IsolatedCallGraph view = new IsolatedCallGraph(global, app);
+		resolve(view, a);
+		resolve(view, b);
+
+		// the view contains both graphs, while the global one is untouched
+		assertEquals(Set.of(b), Set.copyOf(view.getCallees(a)));
+		assertEquals(Set.of(a, c), Set.copyOf(view.getCallers(b)));
+		assertEquals(3, view.getNodesCount());
+		assertEquals(3, view.getEdgesCount());
+		assertTrue(view.followersOf(new CallGraphNode(view, b)).contains(new CallGraphNode(view, a)));
+		assertEquals(Set.of(Set.of(a, b)), Set.copyOf(view.getRecursions()));
+		assertFalse(global.containsNode(new CallGraphNode(global, a)));
+		assertEquals(Set.of(a, b), view.getModified());
+		assertTrue(view.getRead().contains(b));
+
+		// re-initialization discards what has been done through the view
+		view.init(app);
+		assertEquals(2, view.getNodesCount());
+		assertTrue(view.getRead().isEmpty());
+		assertTrue(view.getModified().isEmpty());
+		view.replay();
+		assertTrue(global.getRecursions().isEmpty());
+
+		// replaying applies the operations on the global graph
+		resolve(view, a);
+		resolve(view, b);
+		view.replay();
+		assertEquals(Set.of(Set.<CodeMember>of(a, b)), Set.copyOf(global.getRecursions()));
+	}
+}
@@ -0,0 +1,432 @@
+package it.unive.lisa.interprocedural.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.DefaultConfiguration;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.LiSARunInfo;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.BaseLattice;
+import it.unive.lisa.analysis.ScopeToken;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.SemanticOracle;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.lattices.Satisfiability;
+import it.unive.lisa.conf.LiSAConfiguration;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.ResultStore;
+import it.unive.lisa.interprocedural.ScopeId;
+import it.unive.lisa.interprocedural.StateCodec;
+import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.SyntheticLocation;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.program.cfg.edge.SequentialEdge;
+import it.unive.lisa.program.cfg.statement.NoOp;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.type.Untyped;
+import it.unive.lisa.util.representation.StringRepresentation;
+import it.unive.lisa.util.representation.StructuredRepresentation;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.junit.Test;
+
+public class ResultReuseTest {
+
+	private static final String PROGRAM = "class Reuse {"
+			+ "  main() { def a = this.first(); def b = this.second(); return a + b; }"
+			+ "  first() { return this.inc(1); }"
+			+ "  inc(x) { return x + 1; }"
+			+ "  second() { return this.dbl(2); }"
+			+ "  dbl(x) { return x * 2; }"
+			+ "}";
+
+	private static final String PERSISTED = "class Reuse {"
+			+ "  main() { def a = this.first(); return this.second(); }"
+			+ "  first() { return this.id(1); }"
+			+ "  id(x) { return x; }"
+			+ "  second() { return this.copy(2); }"
+			+ "  copy(x) { def y = x; return y; }"
+			+ "}";
+
+	private static LiSARunInfo run(
+			ResultStore store,
+			Program program)
+			throws AnalysisException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.abstractState = DefaultConfiguration.simpleState(
+				DefaultConfiguration.defaultHeapDomain(),
+				DefaultConfiguration.defaultValueDomain(),
+				DefaultConfiguration.defaultTypeDomain());
+		conf.callGraph = new RTACallGraph();
+		conf.interproceduralAnalysis = new ContextBasedAnalysis<>();
+		conf.resultStore = store;
+		return new LiSA(conf).run(program).getInfo();
+	}
+
+	private static LiSARunInfo runReachability(
+			ResultStore store,
+			Program program)
+			throws AnalysisException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.abstractState = Reachability.REACHABLE;
+		conf.callGraph = new RTACallGraph();
+		conf.interproceduralAnalysis = new ContextBasedAnalysis<>(ContextInsensitiveToken.getSingleton());
+		conf.resultStore = store;
+		return new LiSA(conf).run(program).getInfo();
+	}
+
+	private static void modify(
+			Program program,
+			String name) {
+		CFG cfg = (CFG) ((CompilationUnit) program.getUnit("Reuse")).getInstanceCodeMembersByName(name, false)
+				.iterator().next();
+		Statement entry = cfg.getEntrypoints().iterator().next();
+		NoOp noop = new NoOp(cfg, SyntheticLocation.INSTANCE);
+		cfg.getEntrypoints().remove(entry);
+		cfg.addNode(noop, true);
+		cfg.addEdge(new SequentialEdge(noop, entry));
+	}
+
+	@Test
+	public void testReuse() throws ParsingException, AnalysisException {
+		ResultStore store = new ResultStore();
+		Program program = IMPFrontend.processText(PROGRAM, true);
+
+		LiSARunInfo info = run(store, program);
+		assertEquals(0, info.reusedResults);
+		assertEquals(5, info.computedResults);
+		assertEquals(5, store.size());
+
+		// nothing changed: everything is reused
+		info = run(store, program);
+		assertEquals(5, info.reusedResults);
+		assertEquals(0, info.computedResults);
+		assertEquals(1, info.reuseRatio, 0);
+
+		// dbl changed: its callers are analyzed again, while first and inc
+		// are not, even if they are called by main
+		modify(program, "dbl");
+		info = run(store, program);
+		assertEquals(2, info.reusedResults);
+		assertEquals(3, info.computedResults);
+		assertTrue(info.reuseRatio > 0 && info.reuseRatio < 1);
+		assertEquals(5, store.size());
+
+		// without a codec, results cannot be moved to an equal program
+		info = run(store, IMPFrontend.processText(PROGRAM, true));
+		assertEquals(0, info.reusedResults);
+
+		// a new store has nothing to reuse
+		info = run(new ResultStore(), program);
+		assertEquals(0, info.reusedResults);
+	}
+
+	@Test
+	public void testPersistentReuse() throws ParsingException, AnalysisException, IOException {
+		Path file = Files.createTempFile("results", ".json");
+		try {
+			Files.delete(file);
+			LiSARunInfo info = runReachability(new ResultStore(file, new ReachabilityCodec()),
+					IMPFrontend.processText(PERSISTED, true));
+			assertEquals(0, info.reusedResults);
+			assertEquals(5, info.computedResults);
+			assertTrue(Files.exists(file));
+
+			// a fresh store reads the results written by the previous one
+			info = runReachability(new ResultStore(file, new ReachabilityCodec()),
+					IMPFrontend.processText(PERSISTED, true));
+			assertEquals(5, info.reusedResults);
+			assertEquals(0, info.computedResults);
+			assertTrue(info.reuseRatio > 0);
+
+			Program program = IMPFrontend.processText(PERSISTED, true);
+			modify(program, "id");
+			info = runReachability(new ResultStore(file, new ReachabilityCodec()), program);
+			assertEquals(2, info.reusedResults);
+			assertEquals(3, info.computedResults);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * A state that only tracks whether program points are reachable, whose
+	 * results can be encoded by a {@link ReachabilityCodec}.
+	 */
+	private static final class Reachability implements BaseLattice<Reachability>, AbstractState<Reachability> {
+
+		private static final Reachability REACHABLE = new Reachability();
+
+		private static final Reachability UNREACHABLE = new Reachability();
+
+		@Override
+		public Reachability top() {
+			return REACHABLE;
+		}
+
+		@Override
+		public Reachability bottom() {
+			return UNREACHABLE;
+		}
+
+		@Override
+		public Reachability lubAux(
+				Reachability other)
+				throws SemanticException {
+			return REACHABLE;
+		}
+
+		@Override
+		public boolean lessOrEqualAux(
+				Reachability other)
+				throws SemanticException {
+			return other == REACHABLE;
+		}
+
+		@Override
+		public boolean equals(
+				Object obj) {
+			return obj == this;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this);
+		}
+
+		@Override
+		public StructuredRepresentation representation() {
+			return new StringRepresentation(this == REACHABLE ? "reachable" : "unreachable");
+		}
+
+		@Override
+		public Reachability assign(
+				Identifier id,
+				SymbolicExpression expression,
+				ProgramPoint pp,
+				SemanticOracle oracle)
+				throws SemanticException {
+			return this;
+		}
+
+		@Override
+		public Reachability smallStepSemantics(
+				SymbolicExpression expression,
+				ProgramPoint pp,
+				SemanticOracle oracle)
+				throws SemanticException {
+			return this;
+		}
+
+		@Override
+		public Reachability assume(
+				SymbolicExpression expression,
+				ProgramPoint src,
+				ProgramPoint dest,
+				SemanticOracle oracle)
+				throws SemanticException {
+			return this;
+		}
+
+		@Override
+		public boolean knowsIdentifier(
+				Identifier id) {
+			return false;
+		}
+
+		@Override
+		public Reachability forgetIdentifier(
+				Identifier id)
+				throws SemanticException {
+			return this;
+		}
+
+		@Override
+		public Reachability forgetIdentifiersIf(
+				Predicate<Identifier> test)
+				throws SemanticException {
+			return this;
+		}
+
+		@Override
+		public Satisfiability satisfies(
+				SymbolicExpression expression,
+				ProgramPoint pp,
+				SemanticOracle oracle)
+				throws SemanticException {
+			return this == REACHABLE ? Satisfiability.UNKNOWN : Satisfiability.BOTTOM;
+		}
+
+		@Override
+		public Reachability pushScope(
+				ScopeToken token)
+				throws SemanticException {
+			return this;
+		}
+
+		@Override
+		public Reachability popScope(
+				ScopeToken token)
+				throws SemanticException {
+			return this;
+		}
+
+		@Override
+		public ExpressionSet rewrite(
+				SymbolicExpression expression,
+				ProgramPoint pp,
+				SemanticOracle oracle)
+				throws SemanticException {
+			return new ExpressionSet(expression);
+		}
+
+		@Override
+		public ExpressionSet rewrite(
+				ExpressionSet expressions,
+				ProgramPoint pp,
+				SemanticOracle oracle)
+				throws SemanticException {
+			return expressions;
+		}
+
+		@Override
+		public Set<Type> getRuntimeTypesOf(
+				SymbolicExpression e,
+				ProgramPoint pp,
+				SemanticOracle oracle)
+				throws SemanticException {
+			Type type = e.getStaticType();
+			return type.isUntyped() ? pp.getProgram().getTypes().getTypes() : Collections.singleton(type);
+		}
+
+		@Override
+		public Type getDynamicTypeOf(
+				SymbolicExpression e,
+				ProgramPoint pp,
+				SemanticOracle oracle)
+				throws SemanticException {
+			return e.getStaticType();
+		}
+
+		@Override
+		public Satisfiability alias(
+				SymbolicExpression x,
+				SymbolicExpression y,
+				ProgramPoint pp,
+				SemanticOracle oracle)
+				throws SemanticException {
+			return Satisfiability.UNKNOWN;
+		}
+
+		@Override
+		public Satisfiability isReachableFrom(
+				SymbolicExpression x,
+				SymbolicExpression y,
+				ProgramPoint pp,
+				SemanticOracle oracle)
+				throws SemanticException {
+			return Satisfiability.UNKNOWN;
+		}
+
+		@Override
+		public Reachability withTopMemory() {
+			return this;
+		}
+
+		@Override
+		public Reachability withTopValues() {
+			return this;
+		}
+
+		@Override
+		public Reachability withTopTypes() {
+			return this;
+		}
+	}
+
+	/**
+	 * A codec for the results of context-insensitive analyses with
+	 * {@link Reachability}, where states compute variables and constants.
+	 * Each state is encoded as a line for the reachability, followed by a line
+	 * for each computed expression.
+	 */
+	private static final class ReachabilityCodec implements StateCodec {
+
+		@Override
+		public String encodeId(
+				ScopeId id)
+				throws IOException {
+			if (!(id instanceof ContextInsensitiveToken))
+				throw new IOException("Unsupported id: " + id);
+			return "insensitive";
+		}
+
+		@Override
+		public ScopeId decodeId(
+				CFG cfg,
+				String encoded)
+				throws IOException {
+			if (!encoded.equals("insensitive"))
+				throw new IOException("Unsupported id: " + encoded);
+			return ContextInsensitiveToken.getSingleton();
+		}
+
+		@Override
+		public String encodeState(
+				AnalysisState<?> state)
+				throws IOException {
+			if (!(state.getState() instanceof Reachability) || state.getFixpointInformation() != null)
+				throw new IOException("Unsupported state: " + state);
+			StringBuilder res = new StringBuilder(state.getState().representation().toString());
+			for (SymbolicExpression e : state.getComputedExpressions())
+				if (e instanceof Variable)
+					res.append("\nvar ").append(e.getStaticType()).append(" ").append(((Variable) e).getName());
+				else if (e instanceof Constant && ((Constant) e).getValue() instanceof Integer)
+					res.append("\nint ").append(e.getStaticType()).append(" ").append(((Constant) e).getValue());
+				else
+					throw new IOException("Unsupported expression: " + e);
+			return res.toString();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <A extends AbstractState<A>> AnalysisState<A> decodeState(
+				Statement st,
+				String encoded)
+				throws IOException {
+			String[] lines = encoded.split("\n");
+			Reachability state = lines[0].equals("reachable") ? Reachability.REACHABLE : Reachability.UNREACHABLE;
+			Set<SymbolicExpression> computed = new HashSet<>();
+			for (int i = 1; i < lines.length; i++) {
+				String[] parts = lines[i].split(" ", 3);
+				Type type = parts[1].equals(Untyped.INSTANCE.toString())
+						? Untyped.INSTANCE
+						: st.getProgram().getTypes().getType(parts[1]);
+				if (type == null)
+					throw new IOException("Unknown type: " + parts[1]);
+				if (parts[0].equals("var"))
+					computed.add(new Variable(type, parts[2], st.getLocation()));
+				else
+					computed.add(new Constant(type, Integer.valueOf(parts[2]), st.getLocation()));
+			}
+			return (AnalysisState<A>) (AnalysisState<?>) new AnalysisState<>(state, new ExpressionSet(computed));
+		}
+	}
+}
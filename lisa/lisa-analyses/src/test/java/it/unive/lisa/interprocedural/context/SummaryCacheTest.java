@@ -0,0 +1,49 @@
+package it.unive.lisa.interprocedural.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.DefaultConfiguration;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.LiSARunInfo;
+import it.unive.lisa.conf.LiSAConfiguration;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
+import org.junit.Test;
+
+public class SummaryCacheTest {
+
+	private static final String PROGRAM = "class Summaries {"
+			+ "  main() { def x = this.inc(1); def y = this.inc(1); def z = this.inc(2); return x + y + z; }"
+			+ "  inc(x) { return x + 1; }"
+			+ "}";
+
+	private static LiSARunInfo run(
+			int cacheSize)
+			throws ParsingException, AnalysisException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.abstractState = DefaultConfiguration.simpleState(
+				DefaultConfiguration.defaultHeapDomain(),
+				DefaultConfiguration.defaultValueDomain(),
+				DefaultConfiguration.defaultTypeDomain());
+		conf.callGraph = new RTACallGraph();
+		conf.interproceduralAnalysis = new ContextBasedAnalysis<>(FullStackToken.getSingleton());
+		conf.summaryCacheSize = cacheSize;
+		return new LiSA(conf).run(IMPFrontend.processText(PROGRAM, false)).getInfo();
+	}
+
+	@Test
+	public void testHits() throws ParsingException, AnalysisException {
+		// the second call to inc(1) has a different caller frame, that is
+		// not part of the summary
+		LiSARunInfo info = run(10);
+		assertEquals(1, info.summaryHits);
+		assertEquals(2, info.summaryMisses);
+
+		info = run(0);
+		assertEquals(0, info.summaryHits);
+		assertEquals(0, info.summaryMisses);
+	}
+}
@@ -0,0 +1,78 @@
+package it.unive.lisa.interprocedural.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.interprocedural.callgraph.CHACallGraph;
+import it.unive.lisa.interprocedural.callgraph.CallGraph;
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.program.cfg.statement.Return;
+import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
+import it.unive.lisa.type.ReferenceType;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.type.TypeSystem;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+
+public class TopologicalRanksTest {
+
+	private static final String PROGRAM = "class Ranks {"
+			+ "  y() { return this.x(); }"
+			+ "  x() { return this.a(); }"
+			+ "  a() { return this.b(); }"
+			+ "  b() { return this.a(); }"
+			+ "  c() { return this.c(); }"
+			+ "}";
+
+	private static CFG cfg(
+			Program p,
+			String name) {
+		return (CFG) ((CompilationUnit) p.getUnit("Ranks")).getInstanceCodeMembersByName(name, false).iterator()
+				.next();
+	}
+
+	private static void resolve(
+			CallGraph callgraph,
+			CFG cfg)
+			throws Exception {
+		Return ret = (Return) cfg.getNodes().stream().filter(Return.class::isInstance).findFirst().get();
+		UnresolvedCall call = (UnresolvedCall) ret.getSubExpression();
+		@SuppressWarnings("unchecked")
+		Set<Type>[] types = (Set<Type>[]) new Set<?>[call.getParameters().length];
+		for (int i = 0; i < types.length; i++)
+			types[i] = call.getParameters()[i].getStaticType().allInstances(call.getProgram().getTypes());
+		callgraph.resolve(call, types, null);
+	}
+
+	@Test
+	public void testRecursiveCallees() throws Exception {
+		Program p = IMPFrontend.processText(PROGRAM, true);
+		TypeSystem types = p.getTypes();
+		for (Type t : types.getTypes())
+			if (types.canBeReferenced(t))
+				types.registerType(new ReferenceType(t));
+		p.getFeatures().getProgramValidationLogic().validateAndFinalize(p);
+		Application app = new Application(p);
+		CFG y = cfg(p, "y"), x = cfg(p, "x"), a = cfg(p, "a"), b = cfg(p, "b"), c = cfg(p, "c");
+
+		CHACallGraph callgraph = new CHACallGraph();
+		callgraph.init(app);
+		for (CFG cfg : new CFG[] { y, x, a, b, c })
+			resolve(callgraph, cfg);
+
+		// a and b have the same transitive callees as x, but they form a
+		// component that x calls
+		Map<CodeMember, Integer> ranks = ContextBasedAnalysis.topologicalRanks(callgraph);
+		assertEquals(ranks.get(a), ranks.get(b));
+		assertTrue(ranks.get(a) < ranks.get(x));
+		assertTrue(ranks.get(x) < ranks.get(y));
+		assertEquals(5, Set.copyOf(ranks.keySet()).size());
+		assertEquals(4, Set.copyOf(ranks.values()).size());
+	}
+}
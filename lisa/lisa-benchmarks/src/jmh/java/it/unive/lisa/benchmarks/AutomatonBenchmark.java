@@ -0,0 +1,164 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.analysis.string.fsa.RangeAutomaton;
+import it.unive.lisa.analysis.string.fsa.SimpleAutomaton;
+import it.unive.lisa.analysis.string.tarsis.RegexAutomaton;
+import it.unive.lisa.util.datastructures.automaton.Automaton;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the determinization and minimization of {@link Automaton}s,
+ * namely {@link SimpleAutomaton}s, {@link RegexAutomaton}s and
+ * {@link RangeAutomaton}s. The automata recognize a given number of words
+ * sharing common prefixes, followed by the repetition of a suffix, and are
+ * built through unions (that introduce non-determinism). Since automata cache
+ * whether or not they are deterministic and minimal, fresh copies of them are
+ * built before each invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class AutomatonBenchmark {
+
+	/**
+	 * The number of words recognized by the automata.
+	 */
+	@Param({ "10", "50", "200" })
+	public int words;
+
+	private SimpleAutomaton fsa;
+
+	private RegexAutomaton tarsis;
+
+	private RangeAutomaton range;
+
+	private SimpleAutomaton fsaCopy;
+
+	private RegexAutomaton tarsisCopy;
+
+	private RangeAutomaton rangeCopy;
+
+	/**
+	 * Builds the automata.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		SimpleAutomaton suffix = new SimpleAutomaton("ab").star();
+		fsa = new SimpleAutomaton("").emptyLanguage();
+		RegexAutomaton rsuffix = RegexAutomaton.string("ab").star();
+		tarsis = RegexAutomaton.emptyLang();
+		RangeAutomaton rangeSuffix = RangeAutomaton.string("ab").star();
+		range = RangeAutomaton.emptyLang();
+		for (int i = 0; i < words; i++) {
+			String word = "w" + Integer.toBinaryString(i);
+			fsa = fsa.union(new SimpleAutomaton(word).concat(suffix));
+			tarsis = tarsis.union(RegexAutomaton.string(word).concat(rsuffix));
+			range = range.union(RangeAutomaton.string(word).concat(rangeSuffix));
+		}
+	}
+
+	/**
+	 * Builds fresh copies of the automata, forgetting cached information.
+	 */
+	@Setup(Level.Invocation)
+	public void copy() {
+		fsaCopy = new SimpleAutomaton(fsa.getStates(), fsa.getTransitions());
+		tarsisCopy = new RegexAutomaton(tarsis.getStates(), tarsis.getTransitions());
+		rangeCopy = new RangeAutomaton(range.getStates(), range.getTransitions());
+	}
+
+	/**
+	 * Determinizes the {@link SimpleAutomaton}.
+	 *
+	 * @return the deterministic automaton
+	 */
+	@Benchmark
+	public SimpleAutomaton determinizeFSA() {
+		return fsaCopy.determinize();
+	}
+
+	/**
+	 * Minimizes the {@link SimpleAutomaton}.
+	 *
+	 * @return the minimal automaton
+	 */
+	@Benchmark
+	public SimpleAutomaton minimizeFSA() {
+		return fsaCopy.minimize();
+	}
+
+	/**
+	 * Minimizes the {@link SimpleAutomaton} through Brzozowski's algorithm.
+	 *
+	 * @return the minimal automaton
+	 */
+	@Benchmark
+	public SimpleAutomaton minimizeBrzozowskiFSA() {
+		return fsaCopy.minimizeBrzozowski();
+	}
+
+	/**
+	 * Determinizes the {@link RegexAutomaton}.
+	 *
+	 * @return the deterministic automaton
+	 */
+	@Benchmark
+	public RegexAutomaton determinizeTarsis() {
+		return tarsisCopy.determinize();
+	}
+
+	/**
+	 * Minimizes the {@link RegexAutomaton}.
+	 *
+	 * @return the minimal automaton
+	 */
+	@Benchmark
+	public RegexAutomaton minimizeTarsis() {
+		return tarsisCopy.minimize();
+	}
+
+	/**
+	 * Minimizes the {@link RegexAutomaton} through Brzozowski's algorithm.
+	 *
+	 * @return the minimal automaton
+	 */
+	@Benchmark
+	public RegexAutomaton minimizeBrzozowskiTarsis() {
+		return tarsisCopy.minimizeBrzozowski();
+	}
+
+	/**
+	 * Determinizes the {@link RangeAutomaton}.
+	 *
+	 * @return the deterministic automaton
+	 */
+	@Benchmark
+	public RangeAutomaton determinizeRange() {
+		return rangeCopy.determinize();
+	}
+
+	/**
+	 * Minimizes the {@link RangeAutomaton}.
+	 *
+	 * @return the minimal automaton
+	 */
+	@Benchmark
+	public RangeAutomaton minimizeRange() {
+		return rangeCopy.minimize();
+	}
+}
@@ -0,0 +1,115 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.ProgramValidationException;
+import it.unive.lisa.type.ReferenceType;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.type.TypeSystem;
+import java.nio.file.Paths;
+
+/**
+ * Utility class to build the programs that benchmarks analyze. Programs are
+ * identified by a string that is either {@code synthetic:<n>}, denoting a
+ * synthetic program with {@code n} methods containing nested loops and
+ * branches, or the path of one of the imp files used by cron tests, relative
+ * to the folder specified through the {@code lisa.benchmarks.testcases} system
+ * property.
+ */
+public class BenchmarkPrograms {
+
+	private static final String SYNTHETIC = "synthetic:";
+
+	private BenchmarkPrograms() {
+	}
+
+	/**
+	 * Parses the program identified by the given string.
+	 *
+	 * @param id the identifier of the program
+	 *
+	 * @return the parsed program
+	 *
+	 * @throws ParsingException if the program cannot be parsed
+	 */
+	public static Program parse(
+			String id)
+			throws ParsingException {
+		if (id.startsWith(SYNTHETIC))
+			return IMPFrontend.processText(synthetic(Integer.parseInt(id.substring(SYNTHETIC.length()))));
+
+		String dir = System.getProperty("lisa.benchmarks.testcases", "../lisa-analyses/imp-testcases");
+		return IMPFrontend.processFile(Paths.get(dir, id).toString());
+	}
+
+	/**
+	 * Parses the program identified by the given string, and finalizes it as
+	 * done by LiSA before each analysis, registering the types that the
+	 * analysis would register.
+	 *
+	 * @param id the identifier of the program
+	 *
+	 * @return the parsed and finalized program
+	 *
+	 * @throws ParsingException           if the program cannot be parsed
+	 * @throws ProgramValidationException if the program cannot be finalized
+	 */
+	public static Program parseAndFinalize(
+			String id)
+			throws ParsingException,
+			ProgramValidationException {
+		Program p = parse(id);
+		TypeSystem ts = p.getTypes();
+		ts.registerType(ts.getBooleanType());
+		ts.registerType(ts.getStringType());
+		ts.registerType(ts.getIntegerType());
+		for (Type t : ts.getTypes())
+			if (ts.canBeReferenced(t))
+				ts.registerType(new ReferenceType(t));
+		p.getFeatures().getProgramValidationLogic().validateAndFinalize(p);
+		return p;
+	}
+
+	/**
+	 * Yields the source code of a synthetic imp program with the given number
+	 * of methods. Each method contains two nested loops with branches, and
+	 * invokes the previous method, while a {@code main} method invokes all of
+	 * them.
+	 *
+	 * @param methods the number of methods
+	 *
+	 * @return the source code of the program
+	 */
+	public static String synthetic(
+			int methods) {
+		StringBuilder sb = new StringBuilder("class synthetic {\n");
+		for (int m = 0; m < methods; m++) {
+			sb.append("\tm").append(m).append("(x) {\n");
+			sb.append("\t\tdef i = 0;\n");
+			sb.append("\t\tdef s = 0;\n");
+			sb.append("\t\twhile (i < 100) {\n");
+			sb.append("\t\t\tif (s > x)\n");
+			sb.append("\t\t\t\ts = s - i;\n");
+			sb.append("\t\t\telse\n");
+			sb.append("\t\t\t\ts = s + i;\n");
+			sb.append("\t\t\tdef j = 0;\n");
+			sb.append("\t\t\twhile (j < i) {\n");
+			sb.append("\t\t\t\tj = j + 1;\n");
+			sb.append("\t\t\t\ts = s + j;\n");
+			sb.append("\t\t\t}\n");
+			sb.append("\t\t\ti = i + 1;\n");
+			sb.append("\t\t}\n");
+			if (m > 0)
+				sb.append("\t\ts = this.m").append(m - 1).append("(s);\n");
+			sb.append("\t\treturn s;\n");
+			sb.append("\t}\n\n");
+		}
+
+		sb.append("\tmain() {\n");
+		for (int m = 0; m < methods; m++)
+			sb.append("\t\tdef r").append(m).append(" = this.m").append(m).append("(").append(m).append(");\n");
+		sb.append("\t}\n}\n");
+		return sb.toString();
+	}
+}
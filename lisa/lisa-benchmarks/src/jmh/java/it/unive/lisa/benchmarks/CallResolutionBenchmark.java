@@ -0,0 +1,142 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.analysis.symbols.SymbolAliasing;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
+import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
+import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.ProgramValidationException;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.statement.NaryExpression;
+import it.unive.lisa.program.cfg.statement.NaryStatement;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.call.Call;
+import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
+import it.unive.lisa.type.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the resolution of calls through an {@link RTACallGraph}. All
+ * the {@link UnresolvedCall}s of the program are resolved, assuming that each
+ * of their parameters can have any of the types of the program.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CallResolutionBenchmark {
+
+	/**
+	 * The program whose calls are resolved (see {@link BenchmarkPrograms}).
+	 */
+	@Param({ "synthetic:50", "interprocedural/context.imp", "interprocedural/twoRecursions.imp" })
+	public String program;
+
+	private Application app;
+
+	private List<UnresolvedCall> calls;
+
+	private Set<Type> types;
+
+	private RTACallGraph callgraph;
+
+	/**
+	 * Parses and finalizes the program (as done by LiSA before each analysis),
+	 * collecting its calls.
+	 *
+	 * @throws ParsingException           if the program cannot be parsed
+	 * @throws ProgramValidationException if the program cannot be finalized
+	 */
+	@Setup(Level.Trial)
+	public void setup()
+			throws ParsingException,
+			ProgramValidationException {
+		Program p = BenchmarkPrograms.parseAndFinalize(program);
+		app = new Application(p);
+		types = p.getTypes().getTypes();
+		calls = new ArrayList<>();
+		for (CFG cfg : app.getAllCFGs())
+			for (Statement st : cfg.getNodes())
+				collect(st, calls);
+	}
+
+	/**
+	 * Builds a fresh call graph, so that each invocation starts without cached
+	 * resolutions.
+	 *
+	 * @throws CallGraphConstructionException if the call graph cannot be
+	 *                                            built
+	 */
+	@Setup(Level.Invocation)
+	public void init()
+			throws CallGraphConstructionException {
+		callgraph = new RTACallGraph();
+		callgraph.init(app);
+	}
+
+	/**
+	 * Resolves all calls.
+	 *
+	 * @param bh the blackhole consuming the resolved calls
+	 *
+	 * @throws CallResolutionException if a call cannot be resolved
+	 */
+	@Benchmark
+	public void resolve(
+			Blackhole bh)
+			throws CallResolutionException {
+		for (UnresolvedCall call : calls) {
+			Set<Type>[] params = newTypes(call.getParameters().length);
+			for (int i = 0; i < params.length; i++)
+				params[i] = types;
+			Call resolved = callgraph.resolve(call, params, new SymbolAliasing());
+			bh.consume(resolved);
+		}
+	}
+
+	/**
+	 * Creates the array holding the runtime types of the parameters of a call.
+	 *
+	 * @param length the length of the array
+	 *
+	 * @return the array
+	 */
+	@SuppressWarnings("unchecked")
+	private static Set<Type>[] newTypes(
+			int length) {
+		return (Set<Type>[]) new Set<?>[length];
+	}
+
+	private static void collect(
+			Statement st,
+			List<UnresolvedCall> calls) {
+		if (st instanceof UnresolvedCall)
+			calls.add((UnresolvedCall) st);
+		if (st instanceof NaryStatement)
+			for (Statement sub : ((NaryStatement) st).getSubExpressions())
+				collect(sub, calls);
+		else if (st instanceof NaryExpression)
+			for (Statement sub : ((NaryExpression) st).getSubExpressions())
+				collect(sub, calls);
+	}
+}
@@ -0,0 +1,112 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.program.SyntheticLocation;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Untyped;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the lattice operations of functional lattices, through
+ * {@link ValueEnvironment}s of {@link Interval}s of varying sizes. The two
+ * environments share most of their variables, with different values for
+ * half of them, and each has a few variables that the other one does not
+ * have.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class EnvironmentBenchmark {
+
+	/**
+	 * The number of variables in each environment.
+	 */
+	@Param({ "10", "100", "1000" })
+	public int size;
+
+	private ValueEnvironment<Interval> left;
+
+	private ValueEnvironment<Interval> right;
+
+	/**
+	 * Builds the environments.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		Map<Identifier, Interval> l = new HashMap<>();
+		Map<Identifier, Interval> r = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			Variable v = new Variable(Untyped.INSTANCE, "x" + i, SyntheticLocation.INSTANCE);
+			l.put(v, new Interval(0, i));
+			r.put(v, i % 2 == 0 ? new Interval(0, i) : new Interval(-i, 2 * i));
+		}
+
+		int extra = Math.max(1, size / 10);
+		for (int i = 0; i < extra; i++) {
+			l.put(new Variable(Untyped.INSTANCE, "l" + i, SyntheticLocation.INSTANCE), new Interval(i, i));
+			r.put(new Variable(Untyped.INSTANCE, "r" + i, SyntheticLocation.INSTANCE), new Interval(i, i));
+		}
+
+		left = new ValueEnvironment<>(new Interval(), l);
+		right = new ValueEnvironment<>(new Interval(), r);
+	}
+
+	/**
+	 * Computes the lub of the environments.
+	 *
+	 * @return the lub
+	 *
+	 * @throws SemanticException if the operation fails
+	 */
+	@Benchmark
+	public ValueEnvironment<Interval> lub()
+			throws SemanticException {
+		return left.lub(right);
+	}
+
+	/**
+	 * Computes the widening of the environments.
+	 *
+	 * @return the widening
+	 *
+	 * @throws SemanticException if the operation fails
+	 */
+	@Benchmark
+	public ValueEnvironment<Interval> widening()
+			throws SemanticException {
+		return left.widening(right);
+	}
+
+	/**
+	 * Compares the environments.
+	 *
+	 * @return the result of the comparison
+	 *
+	 * @throws SemanticException if the operation fails
+	 */
+	@Benchmark
+	public boolean lessOrEqual()
+			throws SemanticException {
+		return left.lessOrEqual(right);
+	}
+}
@@ -0,0 +1,125 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the operations of {@link ExternalSet}s of varying sizes,
+ * built over the same {@link ExternalSetCache}. The two sets overlap on half
+ * of their elements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ExternalSetBenchmark {
+
+	/**
+	 * The number of elements in each set.
+	 */
+	@Param({ "10", "100", "1000" })
+	public int size;
+
+	private ExternalSetCache<String> cache;
+
+	private ExternalSet<String> left;
+
+	private ExternalSet<String> right;
+
+	private String missing;
+
+	/**
+	 * Builds the sets.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		cache = new ExternalSetCache<>();
+		List<String> l = new ArrayList<>(size);
+		List<String> r = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			l.add("e" + i);
+			r.add("e" + (i + size / 2));
+		}
+		left = cache.mkSet(l);
+		right = cache.mkSet(r);
+		missing = "e" + (2 * size);
+		cache.mkSingletonSet(missing);
+	}
+
+	/**
+	 * Computes the union of the sets.
+	 *
+	 * @return the union
+	 */
+	@Benchmark
+	public ExternalSet<String> union() {
+		return left.union(right);
+	}
+
+	/**
+	 * Computes the intersection of the sets.
+	 *
+	 * @return the intersection
+	 */
+	@Benchmark
+	public ExternalSet<String> intersection() {
+		return left.intersection(right);
+	}
+
+	/**
+	 * Computes the difference of the sets.
+	 *
+	 * @return the difference
+	 */
+	@Benchmark
+	public ExternalSet<String> difference() {
+		return left.difference(right);
+	}
+
+	/**
+	 * Checks if one set contains the other.
+	 *
+	 * @return the result of the check
+	 */
+	@Benchmark
+	public boolean containsAll() {
+		return left.contains(right);
+	}
+
+	/**
+	 * Checks if an element is part of a set.
+	 *
+	 * @return the result of the check
+	 */
+	@Benchmark
+	public boolean containsElement() {
+		return left.contains(missing);
+	}
+
+	/**
+	 * Builds a set from the elements of another one.
+	 *
+	 * @return the new set
+	 */
+	@Benchmark
+	public ExternalSet<String> copy() {
+		return left.copy();
+	}
+}
@@ -0,0 +1,128 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.DefaultConfiguration;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.LiSAReport;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
+import it.unive.lisa.interprocedural.context.ContextBasedAnalysis;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.util.file.FileManager;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for whole analyses, dominated by the cfg fixpoints, over both
+ * synthetic programs and the imp programs used by cron tests. Each program is
+ * analyzed with interval analysis and a context-sensitive interprocedural
+ * analysis, using each of the given working sets, both with and without
+ * optimized fixpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FixpointBenchmark {
+
+	/**
+	 * The program to analyze (see {@link BenchmarkPrograms}).
+	 */
+	@Param({ "synthetic:10", "synthetic:50", "numeric/numeric.imp", "interprocedural/context.imp",
+			"heap/heap-pp.imp" })
+	public String program;
+
+	/**
+	 * The simple name of the working set to use, from the
+	 * {@code it.unive.lisa.util.collections.workset} package.
+	 */
+	@Param({ "FIFOWorkingSet", "LIFOWorkingSet", "DuplicateFreeFIFOWorkingSet", "DuplicateFreeLIFOWorkingSet",
+			"WeakTopologicalOrderWorkingSet" })
+	public String workingSet;
+
+	/**
+	 * Whether or not fixpoints should be optimized.
+	 */
+	@Param({ "false", "true" })
+	public boolean optimize;
+
+	private String workdir;
+
+	private Class<?> ws;
+
+	private Program target;
+
+	/**
+	 * Prepares the working directory and resolves the working set.
+	 *
+	 * @throws IOException            if the working directory cannot be
+	 *                                    created
+	 * @throws ClassNotFoundException if the working set does not exist
+	 */
+	@Setup(Level.Trial)
+	public void setup()
+			throws IOException,
+			ClassNotFoundException {
+		workdir = Files.createTempDirectory("lisa-benchmarks").toString();
+		ws = Class.forName("it.unive.lisa.util.collections.workset." + workingSet);
+	}
+
+	/**
+	 * Parses the program to analyze. This happens before each invocation since
+	 * the analysis finalizes the program, modifying it.
+	 *
+	 * @throws ParsingException if the program cannot be parsed
+	 */
+	@Setup(Level.Invocation)
+	public void parse()
+			throws ParsingException {
+		target = BenchmarkPrograms.parse(program);
+	}
+
+	/**
+	 * Deletes the working directory.
+	 *
+	 * @throws IOException if the working directory cannot be deleted
+	 */
+	@TearDown(Level.Trial)
+	public void cleanup()
+			throws IOException {
+		FileManager.forceDeleteFolder(workdir);
+	}
+
+	/**
+	 * Analyzes the program.
+	 *
+	 * @return the report of the analysis
+	 *
+	 * @throws AnalysisException if the analysis fails
+	 */
+	@Benchmark
+	public LiSAReport analyze()
+			throws AnalysisException {
+		DefaultConfiguration conf = new DefaultConfiguration();
+		conf.workdir = workdir;
+		conf.abstractState = DefaultConfiguration.defaultAbstractState();
+		conf.callGraph = new RTACallGraph();
+		conf.interproceduralAnalysis = new ContextBasedAnalysis<>();
+		conf.fixpointWorkingSet = ws;
+		conf.optimize = optimize;
+		return new LiSA(conf).run(target);
+	}
+}
@@ -0,0 +1,143 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.DefaultConfiguration;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.LiSAReport;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.util.file.FileManager;
+import it.unive.lisa.util.numeric.IntInterval;
+import it.unive.lisa.util.numeric.MathNumber;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the arithmetic of {@link MathNumber}s, {@link IntInterval}s
+ * and {@link Interval}s, both in isolation (over intervals with small integer
+ * bounds, some of which are infinite) and through interval analyses of the imp
+ * programs used by numeric cron tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class NumericBenchmark {
+
+	private static final int INTERVALS = 256;
+
+	/**
+	 * The program to analyze (see {@link BenchmarkPrograms}).
+	 */
+	@Param({ "numeric/numeric.imp", "numeric/pentagons.imp", "synthetic:10" })
+	public String program;
+
+	private String workdir;
+
+	private Program target;
+
+	private Interval[] intervals;
+
+	/**
+	 * Prepares the working directory and the intervals.
+	 *
+	 * @throws IOException if the working directory cannot be created
+	 */
+	@Setup(Level.Trial)
+	public void setup()
+			throws IOException {
+		workdir = Files.createTempDirectory("lisa-benchmarks").toString();
+		Random random = new Random(42);
+		intervals = new Interval[INTERVALS];
+		for (int i = 0; i < INTERVALS; i++) {
+			MathNumber low = random.nextInt(8) == 0 ? MathNumber.MINUS_INFINITY
+					: new MathNumber(random.nextInt(2000) - 1000);
+			MathNumber high = random.nextInt(8) == 0 ? MathNumber.PLUS_INFINITY
+					: new MathNumber(random.nextInt(2000) - 1000);
+			intervals[i] = new Interval(low, high);
+		}
+	}
+
+	/**
+	 * Parses the program to analyze. This happens before each invocation since
+	 * the analysis finalizes the program, modifying it.
+	 *
+	 * @throws ParsingException if the program cannot be parsed
+	 */
+	@Setup(Level.Invocation)
+	public void parse()
+			throws ParsingException {
+		target = BenchmarkPrograms.parse(program);
+	}
+
+	/**
+	 * Deletes the working directory.
+	 *
+	 * @throws IOException if the working directory cannot be deleted
+	 */
+	@TearDown(Level.Trial)
+	public void cleanup()
+			throws IOException {
+		FileManager.forceDeleteFolder(workdir);
+	}
+
+	/**
+	 * Applies the arithmetic and lattice operations of intervals to each pair
+	 * of consecutive intervals.
+	 *
+	 * @param bh the blackhole consuming the results
+	 *
+	 * @throws SemanticException if a lattice operation fails
+	 */
+	@Benchmark
+	public void arithmetic(
+			Blackhole bh)
+			throws SemanticException {
+		for (int i = 0; i < INTERVALS; i++) {
+			Interval l = intervals[i], r = intervals[(i + 1) % INTERVALS];
+			bh.consume(l.interval.plus(r.interval));
+			bh.consume(l.interval.diff(r.interval));
+			bh.consume(l.interval.mul(r.interval));
+			bh.consume(l.lub(r));
+			bh.consume(l.glb(r));
+			bh.consume(l.widening(r));
+			bh.consume(l.lessOrEqual(r));
+		}
+	}
+
+	/**
+	 * Analyzes the program with the interval domain.
+	 *
+	 * @return the report of the analysis
+	 *
+	 * @throws AnalysisException if the analysis fails
+	 */
+	@Benchmark
+	public LiSAReport analyze()
+			throws AnalysisException {
+		DefaultConfiguration conf = new DefaultConfiguration();
+		conf.workdir = workdir;
+		conf.abstractState = DefaultConfiguration.defaultAbstractState();
+		return new LiSA(conf).run(target);
+	}
+}
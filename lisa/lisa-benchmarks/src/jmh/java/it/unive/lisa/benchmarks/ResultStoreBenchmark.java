@@ -0,0 +1,146 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.ProgramValidationException;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.collections.workset.DuplicateFreeFIFOWorkingSet;
+import it.unive.lisa.util.collections.workset.IndexedFIFOWorkingSet;
+import it.unive.lisa.util.collections.workset.WorkingSet;
+import it.unive.lisa.util.datastructures.graph.NodeIndex;
+import it.unive.lisa.util.datastructures.graph.algorithms.Fixpoint;
+import it.unive.lisa.util.datastructures.graph.algorithms.FixpointResults;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the data structures used by cfg fixpoints to store results
+ * and pending nodes, comparing the {@link HashMap}s and
+ * {@link DuplicateFreeFIFOWorkingSet}s keyed by {@link Statement}s with the
+ * {@link FixpointResults} and {@link IndexedFIFOWorkingSet}s keyed by the
+ * identifiers of a {@link NodeIndex}. Each benchmark runs a fixpoint-like
+ * visit of the largest cfg of the program, where the result of each node is
+ * the number of times it has been visited, that reads the results of all
+ * predecessors of a node, stores its new result, and pushes its followers
+ * until each node has been visited {@value #VISITS} times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ResultStoreBenchmark {
+
+	private static final int VISITS = 3;
+
+	/**
+	 * The program whose largest cfg is visited (see {@link BenchmarkPrograms}).
+	 */
+	@Param({ "synthetic:1", "numeric/numeric.imp", "taint/taint.imp", "dataflow/ae/ae.imp" })
+	public String program;
+
+	private CFG cfg;
+
+	private NodeIndex<Statement, Edge> index;
+
+	/**
+	 * Parses and finalizes the program, selecting its largest cfg.
+	 *
+	 * @throws ParsingException           if the program cannot be parsed
+	 * @throws ProgramValidationException if the program cannot be finalized
+	 */
+	@Setup(Level.Trial)
+	public void setup()
+			throws ParsingException,
+			ProgramValidationException {
+		Application app = new Application(BenchmarkPrograms.parseAndFinalize(program));
+		for (CFG c : app.getAllCFGs())
+			if (cfg == null || c.getNodesCount() > cfg.getNodesCount())
+				cfg = c;
+		index = Fixpoint.indexOf(cfg);
+	}
+
+	/**
+	 * Visits the cfg using a {@link HashMap} and a
+	 * {@link DuplicateFreeFIFOWorkingSet}.
+	 *
+	 * @param bh the blackhole consuming the results read from predecessors
+	 *
+	 * @return the results of the visit
+	 */
+	@Benchmark
+	public Map<Statement, Integer> hashMap(
+			Blackhole bh) {
+		Map<Statement, Integer> result = new HashMap<>(cfg.getNodesCount());
+		WorkingSet<Statement> ws = DuplicateFreeFIFOWorkingSet.mk();
+		cfg.getEntrypoints().forEach(ws::push);
+		while (!ws.isEmpty()) {
+			Statement current = ws.pop();
+			int sum = 0;
+			for (Statement pred : cfg.predecessorsOf(current)) {
+				Integer res = result.get(pred);
+				if (res != null)
+					sum += res;
+			}
+			Integer old = result.get(current);
+			int visits = old == null ? 1 : old + 1;
+			result.put(current, visits);
+			bh.consume(sum);
+			if (visits < VISITS)
+				for (Statement follow : cfg.followersOf(current))
+					ws.push(follow);
+		}
+		return result;
+	}
+
+	/**
+	 * Visits the cfg using a {@link FixpointResults} and an
+	 * {@link IndexedFIFOWorkingSet}.
+	 *
+	 * @param bh the blackhole consuming the results read from predecessors
+	 *
+	 * @return the results of the visit
+	 */
+	@Benchmark
+	public FixpointResults<Statement, Integer> indexed(
+			Blackhole bh) {
+		FixpointResults<Statement, Integer> result = new FixpointResults<>(index, null);
+		IndexedFIFOWorkingSet<Statement> ws = IndexedFIFOWorkingSet.mk();
+		ws.setIndexing(index::indexOf, index::getNode);
+		cfg.getEntrypoints().forEach(ws::push);
+		while (!ws.isEmpty()) {
+			int current = ws.popIndex();
+			int sum = 0;
+			for (int pos = index.predecessorsStart(current); pos < index.predecessorsEnd(current); pos++) {
+				Integer res = result.get(index.predecessorAt(pos));
+				if (res != null)
+					sum += res;
+			}
+			Integer old = result.get(current);
+			int visits = old == null ? 1 : old + 1;
+			result.put(current, visits);
+			bh.consume(sum);
+			if (visits < VISITS)
+				for (int pos = index.followersStart(current); pos < index.followersEnd(current); pos++)
+					ws.pushIndex(index.followerAt(pos));
+		}
+		return result;
+	}
+}
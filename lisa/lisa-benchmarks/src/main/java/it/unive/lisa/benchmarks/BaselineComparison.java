@@ -0,0 +1,288 @@
+package it.unive.lisa.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Compares the results of two executions of the benchmarks, as dumped by JMH
+ * in JSON format: a baseline (e.g., produced on the main branch) and the
+ * current one. Results are matched by benchmark name and parameters, and the
+ * relative change of each score is computed. A benchmark is considered a
+ * regression if its score got worse (that is, higher for time-based modes, and
+ * lower for throughput) by more than a given percentage.
+ */
+public class BaselineComparison {
+
+	private BaselineComparison() {
+	}
+
+	/**
+	 * The comparison between the baseline and the current score of a single
+	 * benchmark execution.
+	 */
+	public static class Comparison {
+
+		private final String benchmark;
+
+		private final String params;
+
+		private final String unit;
+
+		private final Double baseline;
+
+		private final Double current;
+
+		private final boolean higherIsBetter;
+
+		private Comparison(
+				String benchmark,
+				String params,
+				String unit,
+				Double baseline,
+				Double current,
+				boolean higherIsBetter) {
+			this.benchmark = benchmark;
+			this.params = params;
+			this.unit = unit;
+			this.baseline = baseline;
+			this.current = current;
+			this.higherIsBetter = higherIsBetter;
+		}
+
+		/**
+		 * Yields the name of the benchmark.
+		 *
+		 * @return the name
+		 */
+		public String getBenchmark() {
+			return benchmark;
+		}
+
+		/**
+		 * Yields the parameters of the benchmark, in the form
+		 * {@code name=value} separated by commas.
+		 *
+		 * @return the parameters
+		 */
+		public String getParams() {
+			return params;
+		}
+
+		/**
+		 * Yields the score of the baseline.
+		 *
+		 * @return the score, or {@code null} if the benchmark was not part of
+		 *             the baseline
+		 */
+		public Double getBaseline() {
+			return baseline;
+		}
+
+		/**
+		 * Yields the current score.
+		 *
+		 * @return the score, or {@code null} if the benchmark was not part of
+		 *             the current results
+		 */
+		public Double getCurrent() {
+			return current;
+		}
+
+		/**
+		 * Yields the relative change of the current score with respect to the
+		 * baseline, as a percentage. Positive values always denote
+		 * improvements, regardless of the benchmark mode.
+		 *
+		 * @return the change, or {@code null} if one of the scores is missing
+		 */
+		public Double getImprovement() {
+			if (baseline == null || current == null || baseline == 0)
+				return null;
+			double change = (current - baseline) / baseline * 100;
+			return higherIsBetter ? change : -change;
+		}
+
+		/**
+		 * Yields whether or not the current score is worse than the baseline
+		 * by more than the given percentage.
+		 *
+		 * @param threshold the percentage
+		 *
+		 * @return {@code true} if that condition holds
+		 */
+		public boolean isRegression(
+				double threshold) {
+			Double improvement = getImprovement();
+			return improvement != null && improvement < -threshold;
+		}
+
+		@Override
+		public String toString() {
+			return benchmark + (params.isEmpty() ? "" : "(" + params + ")") + ": "
+					+ format(baseline) + " -> " + format(current) + " " + unit;
+		}
+	}
+
+	/**
+	 * Compares the given JMH results. The returned list contains one element
+	 * for each benchmark execution (that is, benchmark and parameters) that
+	 * appears in at least one of the results, sorted by name and parameters.
+	 *
+	 * @param baseline the reader of the baseline results
+	 * @param current  the reader of the current results
+	 *
+	 * @return the comparisons
+	 *
+	 * @throws IOException if an error happens while reading the results
+	 */
+	public static List<Comparison> compare(
+			Reader baseline,
+			Reader current)
+			throws IOException {
+		SortedMap<String, JsonNode> base = read(baseline);
+		SortedMap<String, JsonNode> curr = read(current);
+		SortedMap<String, JsonNode> all = new TreeMap<>(base);
+		curr.forEach(all::putIfAbsent);
+
+		List<Comparison> result = new ArrayList<>(all.size());
+		for (Entry<String, JsonNode> entry : all.entrySet()) {
+			JsonNode b = base.get(entry.getKey());
+			JsonNode c = curr.get(entry.getKey());
+			JsonNode any = entry.getValue();
+			result.add(new Comparison(
+					any.get("benchmark").asText(),
+					params(any),
+					any.get("primaryMetric").get("scoreUnit").asText(),
+					b == null ? null : b.get("primaryMetric").get("score").asDouble(),
+					c == null ? null : c.get("primaryMetric").get("score").asDouble(),
+					"thrpt".equals(any.get("mode").asText())));
+		}
+		return result;
+	}
+
+	/**
+	 * Dumps the given comparisons as a markdown table.
+	 *
+	 * @param comparisons the comparisons to dump
+	 * @param threshold   the percentage over which a slowdown is considered a
+	 *                        regression
+	 * @param writer      the writer to dump to
+	 *
+	 * @throws IOException if an error happens while writing
+	 */
+	public static void report(
+			List<Comparison> comparisons,
+			double threshold,
+			Writer writer)
+			throws IOException {
+		writer.write("| Benchmark | Parameters | Unit | Baseline | Current | Improvement | |\n");
+		writer.write("|---|---|---|---:|---:|---:|---|\n");
+		for (Comparison c : comparisons) {
+			Double improvement = c.getImprovement();
+			String verdict;
+			if (improvement == null)
+				verdict = c.baseline == null ? "new" : "removed";
+			else if (c.isRegression(threshold))
+				verdict = "REGRESSION";
+			else if (improvement > threshold)
+				verdict = "faster";
+			else
+				verdict = "";
+			writer.write("| " + c.benchmark + " | " + c.params + " | " + c.unit + " | "
+					+ format(c.baseline) + " | " + format(c.current) + " | "
+					+ (improvement == null ? "-" : String.format(Locale.ROOT, "%+.2f%%", improvement)) + " | "
+					+ verdict + " |\n");
+		}
+	}
+
+	/**
+	 * Compares two JMH result files, printing a markdown report to the
+	 * standard output and (optionally) to a file. The process terminates with
+	 * exit code {@code 1} if at least one regression has been found. Arguments
+	 * are, in order: the baseline results file, the current results file, the
+	 * regression threshold as a percentage (optional, defaults to
+	 * {@code 10}), and the file where the report should be written
+	 * (optional).
+	 *
+	 * @param args the arguments
+	 *
+	 * @throws IOException if an error happens while reading or writing files
+	 */
+	public static void main(
+			String[] args)
+			throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: BaselineComparison <baseline.json> <current.json> [threshold] [report.md]");
+			System.exit(2);
+		}
+
+		List<Comparison> comparisons;
+		try (Reader b = Files.newBufferedReader(new File(args[0]).toPath(), StandardCharsets.UTF_8);
+				Reader c = Files.newBufferedReader(new File(args[1]).toPath(), StandardCharsets.UTF_8)) {
+			comparisons = compare(b, c);
+		}
+
+		double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+		Writer out = new StringWriter();
+		report(comparisons, threshold, out);
+		System.out.print(out);
+		if (args.length > 3)
+			try (Writer w = Files.newBufferedWriter(new File(args[3]).toPath(), StandardCharsets.UTF_8)) {
+				w.write(out.toString());
+			}
+
+		long regressions = comparisons.stream().filter(c -> c.isRegression(threshold)).count();
+		if (regressions > 0) {
+			System.err.println(regressions + " benchmark(s) regressed by more than " + threshold + "%");
+			System.exit(1);
+		}
+	}
+
+	private static SortedMap<String, JsonNode> read(
+			Reader reader)
+			throws IOException {
+		SortedMap<String, JsonNode> result = new TreeMap<>();
+		for (JsonNode run : new ObjectMapper().readTree(reader))
+			result.put(run.get("benchmark").asText() + "(" + params(run) + ")", run);
+		return result;
+	}
+
+	private static String params(
+			JsonNode run) {
+		JsonNode params = run.get("params");
+		if (params == null)
+			return "";
+		SortedMap<String, String> sorted = new TreeMap<>();
+		for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext();) {
+			Map.Entry<String, JsonNode> param = it.next();
+			sorted.put(param.getKey(), param.getValue().asText());
+		}
+		StringBuilder sb = new StringBuilder();
+		for (Entry<String, String> param : sorted.entrySet()) {
+			if (sb.length() > 0)
+				sb.append(",");
+			sb.append(param.getKey()).append("=").append(param.getValue());
+		}
+		return sb.toString();
+	}
+
+	private static String format(
+			Double score) {
+		return score == null ? "-" : String.format(Locale.ROOT, "%.3f", score);
+	}
+}
@@ -0,0 +1,80 @@
+package it.unive.lisa.benchmarks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.benchmarks.BaselineComparison.Comparison;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import org.junit.Test;
+
+public class BaselineComparisonTest {
+
+	private static String run(
+			String benchmark,
+			String mode,
+			String params,
+			double score) {
+		return "{\"benchmark\":\"" + benchmark + "\",\"mode\":\"" + mode + "\","
+				+ (params == null ? "" : "\"params\":{" + params + "},")
+				+ "\"primaryMetric\":{\"score\":" + score + ",\"scoreUnit\":\"ms/op\"}}";
+	}
+
+	@Test
+	public void testComparison() throws IOException {
+		String baseline = "[" + run("a.Fix.analyze", "avgt", "\"program\":\"p\",\"optimize\":\"true\"", 100) + ","
+				+ run("a.Env.lub", "avgt", null, 10) + ","
+				+ run("a.Set.union", "thrpt", null, 50) + ","
+				+ run("a.Old.gone", "avgt", null, 1) + "]";
+		String current = "[" + run("a.Fix.analyze", "avgt", "\"optimize\":\"true\",\"program\":\"p\"", 80) + ","
+				+ run("a.Env.lub", "avgt", null, 12) + ","
+				+ run("a.Set.union", "thrpt", null, 40) + ","
+				+ run("a.New.added", "avgt", null, 1) + "]";
+
+		List<Comparison> result = BaselineComparison.compare(new StringReader(baseline), new StringReader(current));
+		assertEquals(5, result.size());
+
+		Comparison env = result.get(0);
+		assertEquals("a.Env.lub", env.getBenchmark());
+		assertEquals(-20, env.getImprovement(), 1e-9);
+		assertTrue(env.isRegression(10));
+		assertFalse(env.isRegression(25));
+
+		Comparison fix = result.get(1);
+		assertEquals("optimize=true,program=p", fix.getParams());
+		assertEquals(20, fix.getImprovement(), 1e-9);
+		assertFalse(fix.isRegression(10));
+
+		Comparison added = result.get(2);
+		assertNull(added.getBaseline());
+		assertNull(added.getImprovement());
+		assertFalse(added.isRegression(0));
+
+		Comparison gone = result.get(3);
+		assertNull(gone.getCurrent());
+		assertFalse(gone.isRegression(0));
+
+		Comparison union = result.get(4);
+		assertEquals(-20, union.getImprovement(), 1e-9);
+		assertTrue(union.isRegression(10));
+	}
+
+	@Test
+	public void testReport() throws IOException {
+		String baseline = "[" + run("a.Env.lub", "avgt", null, 10) + "," + run("a.Env.widening", "avgt", null, 10) + "]";
+		String current = "[" + run("a.Env.lub", "avgt", null, 12) + "," + run("a.Env.widening", "avgt", null, 5) + "]";
+		StringWriter writer = new StringWriter();
+		BaselineComparison.report(
+				BaselineComparison.compare(new StringReader(baseline), new StringReader(current)),
+				10,
+				writer);
+		String[] lines = writer.toString().split("\n");
+		assertEquals(4, lines.length);
+		assertEquals("| a.Env.lub |  | ms/op | 10.000 | 12.000 | -20.00% | REGRESSION |", lines[2]);
+		assertEquals("| a.Env.widening |  | ms/op | 10.000 | 5.000 | +50.00% | faster |", lines[3]);
+	}
+}
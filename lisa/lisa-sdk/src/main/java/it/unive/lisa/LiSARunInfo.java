@@ -13,6 +13,7 @@ import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.statement.Expression;
 import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import it.unive.lisa.util.datastructures.graph.algorithms.FixpointStatistics;
 import it.unive.lisa.util.file.FileManager;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
@@ -144,6 +145,55 @@ public class LiSARunInfo {
 	 */
 	public final String duration;
 
+	/**
+	 * The number of edge traversals computed by the fixpoints, as counted by
+	 * {@link FixpointStatistics#getTraversals()}.
+	 */
+	public final long traversals;
+
+	/**
+	 * The number of edge traversals reused by the fixpoints, as counted by
+	 * {@link FixpointStatistics#getCachedTraversals()}.
+	 */
+	public final long cachedTraversals;
+
+	/**
+	 * The number of entry and exit states reused by the fixpoints, as counted
+	 * by {@link FixpointStatistics#getCachedStates()}.
+	 */
+	public final long cachedStates;
+
+	/**
+	 * The number of fixpoint executions avoided by reusing cached summaries,
+	 * as counted by {@link FixpointStatistics#getSummaryHits()}.
+	 */
+	public final long summaryHits;
+
+	/**
+	 * The number of summary lookups that did not find a cached summary, as
+	 * counted by {@link FixpointStatistics#getSummaryMisses()}.
+	 */
+	public final long summaryMisses;
+
+	/**
+	 * The number of cfg results reused from previous analyses, as counted by
+	 * {@link FixpointStatistics#getReusedResults()}.
+	 */
+	public final long reusedResults;
+
+	/**
+	 * The number of cfg results computed since they could not be reused from
+	 * previous analyses, as counted by
+	 * {@link FixpointStatistics#getComputedResults()}.
+	 */
+	public final long computedResults;
+
+	/**
+	 * The ratio of cfg results reused from previous analyses, as computed by
+	 * {@link FixpointStatistics#getReuseRatio()}.
+	 */
+	public final double reuseRatio;
+
 	/**
 	 * Builds the run info.
 	 * 
@@ -159,6 +209,27 @@ public class LiSARunInfo {
 			Application app,
 			DateTime start,
 			DateTime end) {
+		this(warnings, files, app, start, end, null);
+	}
+
+	/**
+	 * Builds the run info.
+	 * 
+	 * @param warnings   the warnings generated by the analysis
+	 * @param files      the files generated by the analysis
+	 * @param app        the {@link Application} under analysis
+	 * @param start      the start time
+	 * @param end        the end time
+	 * @param statistics the statistics collected by the fixpoints executed
+	 *                       during the analysis (can be {@code null})
+	 */
+	public LiSARunInfo(
+			Collection<Warning> warnings,
+			Collection<String> files,
+			Application app,
+			DateTime start,
+			DateTime end,
+			FixpointStatistics statistics) {
 		this.version = VersionInfo.VERSION;
 		this.warnings = warnings.size();
 		this.files = files.size();
@@ -180,6 +251,17 @@ public class LiSARunInfo {
 		app.getAllCFGs().forEach(c -> c.accept(counter, null));
 		this.statements = counter.statements;
 		this.expressions = counter.expressions;
+
+		if (statistics == null)
+			statistics = new FixpointStatistics();
+		this.traversals = statistics.getTraversals();
+		this.cachedTraversals = statistics.getCachedTraversals();
+		this.cachedStates = statistics.getCachedStates();
+		this.summaryHits = statistics.getSummaryHits();
+		this.summaryMisses = statistics.getSummaryMisses();
+		this.reusedResults = statistics.getReusedResults();
+		this.computedResults = statistics.getComputedResults();
+		this.reuseRatio = statistics.getReuseRatio();
 	}
 
 	@Override
@@ -270,7 +352,12 @@ public class LiSARunInfo {
 				"\nStatements: " + statements +
 				"\nExpressions: " + expressions +
 				"\nGenerated Warnings: " + warnings +
-				"\nGenerated Files: " + files;
+				"\nGenerated Files: " + files +
+				"\nEdge Traversals: " + traversals + " (" + cachedTraversals + " reused)" +
+				"\nReused Fixpoint States: " + cachedStates +
+				"\nSummary Cache: " + summaryHits + " hits, " + summaryMisses + " misses" +
+				"\nReused Results: " + reusedResults + " (" + computedResults + " computed, reuse ratio "
+				+ String.format("%.2f", reuseRatio) + ")";
 	}
 
 	/**
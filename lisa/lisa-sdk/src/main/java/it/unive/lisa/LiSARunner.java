@@ -18,6 +18,8 @@ import it.unive.lisa.interprocedural.callgraph.CallGraph;
 import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
 import it.unive.lisa.logging.IterationLogger;
 import it.unive.lisa.logging.TimerLogger;
+import it.unive.lisa.outputs.OutputPipeline;
+import it.unive.lisa.outputs.serializableGraph.SerializableCFG;
 import it.unive.lisa.outputs.serializableGraph.SerializableGraph;
 import it.unive.lisa.outputs.serializableGraph.SerializableValue;
 import it.unive.lisa.program.Application;
@@ -32,6 +34,7 @@ import it.unive.lisa.type.Type;
 import it.unive.lisa.type.TypeSystem;
 import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import it.unive.lisa.util.datastructures.graph.algorithms.FixpointStatistics;
 import it.unive.lisa.util.file.FileManager;
 import java.io.IOException;
 import java.util.Collection;
@@ -63,6 +66,8 @@ public class LiSARunner<A extends AbstractState<A>> {
 
 	private final A state;
 
+	private FixpointStatistics statistics;
+
 	/**
 	 * Builds the runner.
 	 * 
@@ -98,6 +103,7 @@ public class LiSARunner<A extends AbstractState<A>> {
 
 		Collection<CFG> allCFGs = app.getAllCFGs();
 		FixpointConfiguration fixconf = new FixpointConfiguration(conf);
+		statistics = fixconf.getStatistics();
 		CheckTool tool = new CheckTool(conf, fileManager);
 
 		if (conf.optimize)
@@ -107,7 +113,7 @@ public class LiSARunner<A extends AbstractState<A>> {
 			dumpInputs(allCFGs);
 
 		if (!conf.syntacticChecks.isEmpty())
-			ChecksExecutor.executeAll(tool, app, conf.syntacticChecks);
+			ChecksExecutor.executeAll(tool, app, conf.syntacticChecks, conf.checkThreads);
 		else
 			LOG.warn("Skipping syntactic checks execution since none have been provided");
 
@@ -132,6 +138,17 @@ public class LiSARunner<A extends AbstractState<A>> {
 		return tool.getWarnings();
 	}
 
+	/**
+	 * Yields the statistics collected by the fixpoints executed during the
+	 * last invocation of {@link #run(Application)}.
+	 * 
+	 * @return the statistics, or {@code null} if the runner has not been
+	 *             executed yet
+	 */
+	FixpointStatistics getStatistics() {
+		return statistics;
+	}
+
 	private void finalize(
 			Application app) {
 		for (Program p : app.getPrograms()) {
@@ -156,19 +173,9 @@ public class LiSARunner<A extends AbstractState<A>> {
 
 	private void dumpInputs(
 			Collection<CFG> allCFGs) {
-		for (CFG cfg : IterationLogger.iterate(LOG, allCFGs, "Dumping input cfgs", "cfgs")) {
-			SerializableGraph graph = cfg.toSerializableGraph();
-			String filename = cfg.getDescriptor().getFullSignatureWithParNames() + "_cfg";
-
-			try {
-				fileManager.mkJsonFile(filename, writer -> graph.dump(writer));
-
-				dumpSingleGraph(filename, graph);
-			} catch (IOException e) {
-				LOG.error("Exception while dumping the analysis results on {}",
-						cfg.getDescriptor().getFullSignature());
-				LOG.error(e);
-			}
+		try (OutputPipeline pipeline = new OutputPipeline(conf.dumpThreads)) {
+			for (CFG cfg : IterationLogger.iterate(LOG, allCFGs, "Dumping input cfgs", "cfgs"))
+				dump(pipeline, cfg, cfg.getDescriptor().getFullSignatureWithParNames() + "_cfg", true, null);
 		}
 	}
 
@@ -246,23 +253,51 @@ public class LiSARunner<A extends AbstractState<A>> {
 								.representation()
 								.toSerializableValue();
 
-		for (CFG cfg : IterationLogger.iterate(LOG, allCFGs, "Dumping analysis results", "cfgs"))
-			for (AnalyzedCFG<A> result : interproc.getAnalysisResultsOf(cfg)) {
-				SerializableGraph graph = result.toSerializableGraph(labeler);
-				String filename = cfg.getDescriptor().getFullSignatureWithParNames();
-				if (!result.getId().isStartingId())
-					filename += "_" + result.getId().hashCode();
-
-				try {
-					if (conf.serializeResults)
-						fileManager.mkJsonFile(filename, writer -> graph.dump(writer));
-					dumpSingleGraph(filename, graph);
-				} catch (IOException e) {
-					LOG.error("Exception while dumping the analysis results on {}",
-							cfg.getDescriptor().getFullSignature());
-					LOG.error(e);
+		try (OutputPipeline pipeline = new OutputPipeline(conf.dumpThreads)) {
+			for (CFG cfg : IterationLogger.iterate(LOG, allCFGs, "Dumping analysis results", "cfgs"))
+				for (AnalyzedCFG<A> result : interproc.getAnalysisResultsOf(cfg)) {
+					String filename = cfg.getDescriptor().getFullSignatureWithParNames();
+					if (!result.getId().isStartingId())
+						filename += "_" + result.getId().hashCode();
+					dump(pipeline, result, filename, conf.serializeResults, labeler);
 				}
-			}
+		}
+	}
+
+	private void dump(
+			OutputPipeline pipeline,
+			CFG cfg,
+			String filename,
+			boolean json,
+			BiFunction<CFG, Statement, SerializableValue> labeler) {
+		if (conf.analysisGraphs == GraphType.NONE)
+			// no need to build the whole graph: the json file (if any) is
+			// streamed directly from the cfg by the writer
+			pipeline.submit(() -> write(cfg, filename, json, null, labeler));
+		else {
+			SerializableGraph graph = cfg.toSerializableGraph(labeler);
+			pipeline.submit(() -> write(cfg, filename, json, graph, labeler));
+		}
+	}
+
+	private void write(
+			CFG cfg,
+			String filename,
+			boolean json,
+			SerializableGraph graph,
+			BiFunction<CFG, Statement, SerializableValue> labeler) {
+		try {
+			if (json && graph == null)
+				fileManager.mkJsonFile(filename, writer -> SerializableCFG.dump(cfg, labeler, writer));
+			else if (json)
+				fileManager.mkJsonFile(filename, writer -> graph.dump(writer));
+			if (graph != null)
+				dumpSingleGraph(filename, graph);
+		} catch (IOException e) {
+			LOG.error("Exception while dumping the analysis results on {}",
+					cfg.getDescriptor().getFullSignature());
+			LOG.error(e);
+		}
 	}
 
 	private void dumpSingleGraph(
@@ -306,7 +341,7 @@ public class LiSARunner<A extends AbstractState<A>> {
 				tool,
 				results,
 				callGraph);
-		ChecksExecutor.executeAll(tool2, app, semanticChecks);
+		ChecksExecutor.executeAll(tool2, app, semanticChecks, conf.checkThreads);
 		return tool2;
 	}
 
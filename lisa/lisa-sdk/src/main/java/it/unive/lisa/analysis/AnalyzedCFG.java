@@ -145,6 +145,19 @@ public class AnalyzedCFG<A extends AbstractState<A>>
 		return id;
 	}
 
+	/**
+	 * Yields a copy of this result that is identified by the given id,
+	 * sharing the states of this one.
+	 * 
+	 * @param id the id of the copy
+	 * 
+	 * @return the copy
+	 */
+	public AnalyzedCFG<A> withId(
+			ScopeId id) {
+		return new AnalyzedCFG<>(this, id, entryStates, results);
+	}
+
 	/**
 	 * Yields the computed result before a given statement (entry state).
 	 *
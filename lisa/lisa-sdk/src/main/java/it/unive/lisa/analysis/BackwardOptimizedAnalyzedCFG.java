@@ -227,6 +227,7 @@ public class BackwardOptimizedAnalyzedCFG<A extends AbstractState<A>> extends Ba
 				LOG.error("Unable to unwind optimized results of " + this, e);
 			}
 		});
+		conf.getStatistics().merge(fix.getStatistics());
 	}
 
 	/**
@@ -1,12 +1,12 @@
 package it.unive.lisa.analysis;
 
 import it.unive.lisa.analysis.lattices.FunctionalLattice;
+import it.unive.lisa.util.collections.HashTrieMap;
 import it.unive.lisa.util.representation.MapRepresentation;
 import it.unive.lisa.util.representation.StringRepresentation;
 import it.unive.lisa.util.representation.StructuredRepresentation;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -64,8 +64,9 @@ public class FixpointInfo implements BaseLattice<FixpointInfo>, Iterable<Map.Ent
 			Map<String, Lattice<?>> other,
 			boolean preserveNull) {
 		if (other == null)
-			return preserveNull ? null : new HashMap<>();
-		return new HashMap<>(other);
+			return preserveNull ? null : new HashTrieMap<>();
+		// copies share the structure of other, making them cheap
+		return new HashTrieMap<>(other);
 	}
 
 	/**
@@ -31,6 +31,9 @@ import it.unive.lisa.util.datastructures.graph.algorithms.Fixpoint;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -47,7 +50,9 @@ import org.apache.logging.log4j.Logger;
  * Approximations for other statements can be retrieved through
  * {@link #getUnwindedAnalysisStateAfter(Statement, FixpointConfiguration)},
  * that will first expand the results using
- * {@link #unwind(FixpointConfiguration)}.
+ * {@link #unwind(FixpointConfiguration)}, or that will re-analyze only the
+ * basic block containing the queried statement if
+ * {@link FixpointConfiguration#unwindingCacheSize} is positive.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -60,7 +65,20 @@ public class OptimizedAnalyzedCFG<A extends AbstractState<A>> extends AnalyzedCF
 
 	private final InterproceduralAnalysis<A> interprocedural;
 
-	private StatementStore<A> expanded;
+	private volatile StatementStore<A> expanded;
+
+	/**
+	 * Mapping from each statement to the leader of the basic block containing
+	 * it, lazily computed. Guarded by {@code this}.
+	 */
+	private Map<Statement, Statement> leaders;
+
+	/**
+	 * The states computed for the basic blocks that have been unwinded, keyed
+	 * by their leader and kept in access order for lru eviction. Guarded by
+	 * {@code this}.
+	 */
+	private Map<Statement, StatementStore<A>> blocks;
 
 	/**
 	 * Builds the control flow graph, storing the given mapping between nodes
@@ -149,11 +167,21 @@ public class OptimizedAnalyzedCFG<A extends AbstractState<A>> extends AnalyzedCF
 		this.expanded = expanded;
 	}
 
+	@Override
+	public OptimizedAnalyzedCFG<A> withId(
+			ScopeId id) {
+		return new OptimizedAnalyzedCFG<>(this, id, entryStates, results, interprocedural);
+	}
+
 	/**
 	 * Yields the computed result at a given statement (exit state). If such a
 	 * state is not available as it was discarded due to optimization, and
 	 * fixpoint's results have not been unwinded yet, a fixpoint iteration is
-	 * executed in-place through {@link #unwind(FixpointConfiguration)}.
+	 * executed in-place through {@link #unwind(FixpointConfiguration)}. If
+	 * {@link FixpointConfiguration#unwindingCacheSize} is positive, only the
+	 * basic block containing {@code st} (and the ones preceding it, up to the
+	 * first stored states) is re-analyzed instead, caching its states in a
+	 * bounded cache.
 	 *
 	 * @param st   the statement
 	 * @param conf the {@link FixpointConfiguration} to use for running the fast
@@ -167,12 +195,124 @@ public class OptimizedAnalyzedCFG<A extends AbstractState<A>> extends AnalyzedCF
 		if (results.getKeys().contains(st))
 			return results.getState(st);
 
-		if (expanded != null)
-			return expanded.getState(st);
+		StatementStore<A> exp = expanded;
+		if (exp == null)
+			// semantic checks might query the same result concurrently
+			synchronized (this) {
+				if (expanded == null && conf.unwindingCacheSize > 0) {
+					StatementStore<A> block = unwindBlockOf(st, conf);
+					if (block != null)
+						return block.getState(st);
+				}
+				if (expanded == null)
+					unwind(conf);
+				exp = expanded;
+			}
+
+		return exp.getState(st);
+	}
+
+	private StatementStore<A> unwindBlockOf(
+			Statement st,
+			FixpointConfiguration conf) {
+		Map<Statement, Statement[]> bbs = getBasicBlocks();
+		if (leaders == null) {
+			leaders = new IdentityHashMap<>(getNodesCount());
+			for (Entry<Statement, Statement[]> bb : bbs.entrySet())
+				for (Statement node : bb.getValue())
+					leaders.put(node, bb.getKey());
+		}
+
+		if (blocks == null) {
+			int maxSize = conf.unwindingCacheSize;
+			// access order makes the eldest entry the least recently used one
+			blocks = new LinkedHashMap<>(16, 0.75f, true) {
+
+				private static final long serialVersionUID = 1L;
 
-		unwind(conf);
+				@Override
+				protected boolean removeEldestEntry(
+						Map.Entry<Statement, StatementStore<A>> eldest) {
+					return size() > maxSize;
+				}
+			};
+		}
+
+		Statement root = st instanceof Expression ? ((Expression) st).getRootStatement() : st;
+		Statement leader = leaders.get(root);
+		if (leader == null)
+			// not part of any block: we let the full unwinding handle it
+			return null;
+
+		AscendingFixpoint<A> asc = new AscendingFixpoint<>(this, new PrecomputedAnalysis(), conf);
+		try {
+			return unwindBlock(leader, bbs, asc, new HashSet<>(), conf);
+		} catch (SemanticException e) {
+			LOG.error("Unable to unwind the block of " + st + " in optimized results of " + this, e);
+			return null;
+		}
+	}
+
+	private StatementStore<A> unwindBlock(
+			Statement leader,
+			Map<Statement, Statement[]> bbs,
+			AscendingFixpoint<A> asc,
+			Set<Statement> visiting,
+			FixpointConfiguration conf)
+			throws SemanticException {
+		StatementStore<A> block = blocks.get(leader);
+		if (block != null)
+			return block;
+		if (!visiting.add(leader))
+			// we found a cycle that does not contain any stored state
+			return null;
+
+		AnalysisState<A> bottom = results.lattice.bottom();
+		StatementStore<A> bot = new StatementStore<>(bottom);
+		CompoundState<A> entry = entryStates.getKeys().contains(leader)
+				? CompoundState.of(entryStates.getState(leader), bot)
+				: null;
+		for (Statement pred : predecessorsOf(leader)) {
+			AnalysisState<A> post;
+			if (results.getKeys().contains(pred))
+				post = results.getState(pred);
+			else {
+				Statement predLeader = leaders.get(pred);
+				if (predLeader == null)
+					// unreachable predecessor
+					continue;
+				StatementStore<A> predBlock = unwindBlock(predLeader, bbs, asc, visiting, conf);
+				if (predBlock == null)
+					return null;
+				if (!predBlock.getKeys().contains(pred))
+					// unreachable predecessor
+					continue;
+				post = predBlock.getState(pred);
+			}
+
+			CompoundState<A> traversed = asc.traverse(getEdgeConnecting(pred, leader), CompoundState.of(post, bot));
+			conf.getStatistics().traversal();
+			entry = entry == null ? traversed : asc.union(leader, entry, traversed);
+		}
+
+		block = new StatementStore<>(bottom);
+		if (entry != null)
+			for (Statement cursor : bbs.get(leader)) {
+				CompoundState<A> approx = asc.semantics(cursor, entry);
+				for (Entry<Statement, AnalysisState<A>> intermediate : approx.intermediateStates)
+					block.put(intermediate.getKey(), intermediate.getValue());
+				// stored states are the ones that are returned when queried,
+				// so we propagate them instead of the recomputed ones
+				AnalysisState<A> post = results.getKeys().contains(cursor)
+						? results.getState(cursor)
+						: approx.postState;
+				block.put(cursor, post);
+				entry = CompoundState.of(post, bot);
+			}
 
-		return expanded.getState(st);
+		visiting.remove(leader);
+		blocks.put(leader, block);
+		return block;
 	}
 
 	/**
@@ -227,6 +367,7 @@ public class OptimizedAnalyzedCFG<A extends AbstractState<A>> extends AnalyzedCF
 				LOG.error("Unable to unwind optimized results of " + this, e);
 			}
 		});
+		conf.getStatistics().merge(fix.getStatistics());
 	}
 
 	/**
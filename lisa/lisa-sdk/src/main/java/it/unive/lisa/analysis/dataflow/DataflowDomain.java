@@ -9,9 +9,12 @@ import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
 import it.unive.lisa.util.representation.SetRepresentation;
 import it.unive.lisa.util.representation.StructuredRepresentation;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Set;
@@ -21,7 +24,12 @@ import java.util.function.Predicate;
 /**
  * A dataflow domain that collects instances of {@link DataflowElement}. A
  * dataflow domain is a value domain that is represented as a set of elements,
- * that can be retrieved through {@link #getDataflowElements()}.
+ * that can be retrieved through {@link #getDataflowElements()}. If the
+ * elements are stored in an {@link ExternalSet}, all the sets built by this
+ * domain will be bitsets over the same {@link ExternalSetCache}, so that
+ * lattice operations between them are performed word by word. Sets are never
+ * modified after being used to build a domain instance: a modified copy is
+ * created instead.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -85,6 +93,28 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 			boolean isTop,
 			boolean isBottom);
 
+	/**
+	 * Yields a new, modifiable set containing the given elements. The new set
+	 * is a bitset over the same {@link ExternalSetCache} if the elements of
+	 * this domain are stored in an {@link ExternalSet}, and a {@link HashSet}
+	 * otherwise.
+	 * 
+	 * @param content the elements to add to the new set
+	 * 
+	 * @return the new set
+	 */
+	@SuppressWarnings("unchecked")
+	protected Set<E> newSet(
+			Collection<E> content) {
+		if (!(elements instanceof ExternalSet))
+			return new HashSet<>(content);
+
+		ExternalSet<E> result = ((ExternalSet<E>) elements).getCache().mkEmptySet();
+		// this is performed word by word if content is a compatible bitset
+		result.addAll(content);
+		return result;
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	public D assign(
@@ -129,7 +159,7 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 		if (guard.getAsBoolean())
 			return (D) this;
 
-		Set<E> updated = new HashSet<>(getDataflowElements());
+		Set<E> updated = newSet(getDataflowElements());
 		for (E killed : kill.get())
 			updated.remove(killed);
 		for (E generated : gen.get())
@@ -165,7 +195,7 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 		if (toRemove.isEmpty())
 			return (D) this;
 
-		Set<E> updated = new HashSet<>(elements);
+		Set<E> updated = newSet(elements);
 		updated.removeAll(toRemove);
 		return mk(domain, updated, false, false);
 	}
@@ -186,7 +216,7 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 		if (toRemove.isEmpty())
 			return (D) this;
 
-		Set<E> updated = new HashSet<>(elements);
+		Set<E> updated = newSet(elements);
 		updated.removeAll(toRemove);
 		return mk(domain, updated, false, false);
 	}
@@ -245,7 +275,7 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 
 	@Override
 	public D top() {
-		return mk(domain, new HashSet<>(), true, false);
+		return mk(domain, newSet(Collections.emptySet()), true, false);
 	}
 
 	@Override
@@ -255,7 +285,7 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 
 	@Override
 	public D bottom() {
-		return mk(domain, new HashSet<>(), false, true);
+		return mk(domain, newSet(Collections.emptySet()), false, true);
 	}
 
 	@Override
@@ -280,7 +310,7 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 		if (isTop() || isBottom())
 			return (D) this;
 
-		Set<E> result = new HashSet<>();
+		Set<E> result = newSet(Collections.emptySet());
 		E pushed;
 		for (E element : this.elements)
 			if ((pushed = element.pushScope(scope)) != null)
@@ -297,7 +327,7 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 		if (isTop() || isBottom())
 			return (D) this;
 
-		Set<E> result = new HashSet<>();
+		Set<E> result = newSet(Collections.emptySet());
 		E popped;
 		for (E element : this.elements)
 			if ((popped = element.popScope(scope)) != null)
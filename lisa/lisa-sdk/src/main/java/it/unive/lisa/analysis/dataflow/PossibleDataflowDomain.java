@@ -2,9 +2,9 @@ package it.unive.lisa.analysis.dataflow;
 
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.lattices.SetLattice;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
 import java.util.HashSet;
 import java.util.Set;
-import org.apache.commons.collections4.SetUtils;
 
 /**
  * A {@link DataflowDomain} for <b>possible</b> dataflow analysis. Being
@@ -20,14 +20,31 @@ public class PossibleDataflowDomain<E extends DataflowElement<PossibleDataflowDo
 		DataflowDomain<PossibleDataflowDomain<E>, E> {
 
 	/**
-	 * Builds an empty domain.
+	 * Builds an empty domain, whose elements are stored in bitsets.
 	 * 
 	 * @param domain a singleton instance to be used during semantic operations
 	 *                   to perform <i>kill</i> and <i>gen</i> operations
 	 */
 	public PossibleDataflowDomain(
 			E domain) {
-		super(domain, new HashSet<>(), true, false);
+		this(domain, true);
+	}
+
+	/**
+	 * Builds an empty domain.
+	 * 
+	 * @param domain     a singleton instance to be used during semantic
+	 *                       operations to perform <i>kill</i> and <i>gen</i>
+	 *                       operations
+	 * @param useBitsets whether the elements of this domain (and of all the
+	 *                       ones derived from it) should be stored in bitsets
+	 *                       over a common {@link ExternalSetCache}, instead of
+	 *                       {@link HashSet}s
+	 */
+	public PossibleDataflowDomain(
+			E domain,
+			boolean useBitsets) {
+		super(domain, useBitsets ? new ExternalSetCache<E>().mkEmptySet() : new HashSet<>(), true, false);
 	}
 
 	private PossibleDataflowDomain(
@@ -51,7 +68,8 @@ public class PossibleDataflowDomain<E extends DataflowElement<PossibleDataflowDo
 	public PossibleDataflowDomain<E> lubAux(
 			PossibleDataflowDomain<E> other)
 			throws SemanticException {
-		Set<E> union = SetUtils.union(this.getDataflowElements(), other.getDataflowElements());
+		Set<E> union = newSet(this.getDataflowElements());
+		union.addAll(other.getDataflowElements());
 		return new PossibleDataflowDomain<>(domain, union, false, false);
 	}
 
@@ -66,7 +84,8 @@ public class PossibleDataflowDomain<E extends DataflowElement<PossibleDataflowDo
 	public PossibleDataflowDomain<E> glbAux(
 			PossibleDataflowDomain<E> other)
 			throws SemanticException {
-		Set<E> intersection = SetUtils.intersection(this.getDataflowElements(), other.getDataflowElements());
+		Set<E> intersection = newSet(this.getDataflowElements());
+		intersection.retainAll(other.getDataflowElements());
 		return new PossibleDataflowDomain<>(domain, intersection, false, false);
 	}
 }
@@ -6,6 +6,7 @@ import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.SemanticOracle;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.symbolic.ExpressionInterner;
 import it.unive.lisa.symbolic.ExpressionVisitor;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.heap.HeapExpression;
@@ -158,7 +159,7 @@ public interface BaseHeapDomain<H extends BaseHeapDomain<H>> extends BaseLattice
 			for (SymbolicExpression expr : arg) {
 				UnaryExpression e = new UnaryExpression(expression.getStaticType(), expr, expression.getOperator(),
 						expression.getCodeLocation());
-				result.add(e);
+				result.add(ExpressionInterner.intern(e));
 			}
 			return new ExpressionSet(result);
 		}
@@ -176,7 +177,7 @@ public interface BaseHeapDomain<H extends BaseHeapDomain<H>> extends BaseLattice
 					BinaryExpression e = new BinaryExpression(expression.getStaticType(), l, r,
 							expression.getOperator(),
 							expression.getCodeLocation());
-					result.add(e);
+					result.add(ExpressionInterner.intern(e));
 				}
 			return new ExpressionSet(result);
 		}
@@ -196,7 +197,7 @@ public interface BaseHeapDomain<H extends BaseHeapDomain<H>> extends BaseLattice
 						TernaryExpression e = new TernaryExpression(expression.getStaticType(), l, m, r,
 								expression.getOperator(),
 								expression.getCodeLocation());
-						result.add(e);
+						result.add(ExpressionInterner.intern(e));
 					}
 			return new ExpressionSet(result);
 		}
@@ -11,8 +11,11 @@ import it.unive.lisa.symbolic.value.HeapLocation;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.MemoryPointer;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import org.apache.commons.lang3.tuple.Pair;
 
 /**
  * An oracle that can be queried for information about the static and dynamic
@@ -92,6 +95,33 @@ public interface MemoryOracle {
 			SemanticOracle oracle)
 			throws SemanticException;
 
+	/**
+	 * Batched version of
+	 * {@link #alias(SymbolicExpression, SymbolicExpression, ProgramPoint, SemanticOracle)},
+	 * that answers all the given queries at once. Implementers can override
+	 * this method to share work (e.g., rewriting) between queries: the default
+	 * implementation answers each query independently.
+	 * 
+	 * @param queries the pairs of expressions to test
+	 * @param pp      the {@link ProgramPoint} where the computation happens
+	 * @param oracle  the oracle for inter-domain communication
+	 * 
+	 * @return whether or not the expressions of each pair are aliases, in the
+	 *             same order of {@code queries}
+	 * 
+	 * @throws SemanticException if something goes wrong during the computation
+	 */
+	default List<Satisfiability> alias(
+			List<Pair<SymbolicExpression, SymbolicExpression>> queries,
+			ProgramPoint pp,
+			SemanticOracle oracle)
+			throws SemanticException {
+		List<Satisfiability> result = new ArrayList<>(queries.size());
+		for (Pair<SymbolicExpression, SymbolicExpression> query : queries)
+			result.add(alias(query.getLeft(), query.getRight(), pp, oracle));
+		return result;
+	}
+
 	/**
 	 * Yields all the {@link Identifier}s that are reachable starting from the
 	 * {@link Identifier} represented (directly or after rewriting) by the given
@@ -167,6 +197,36 @@ public interface MemoryOracle {
 			SemanticOracle oracle)
 			throws SemanticException;
 
+	/**
+	 * Batched version of
+	 * {@link #isReachableFrom(SymbolicExpression, SymbolicExpression, ProgramPoint, SemanticOracle)},
+	 * that answers all the given queries at once. Implementers can override
+	 * this method to explore the memory once for all queries: the default
+	 * implementation answers each query independently.
+	 * 
+	 * @param queries the pairs of expressions to test, where the second
+	 *                    element of each pair is the one to reach starting
+	 *                    from the first one
+	 * @param pp      the {@link ProgramPoint} where the computation happens
+	 * @param oracle  the oracle for inter-domain communication
+	 * 
+	 * @return whether or not the second expression of each pair can be
+	 *             reached from the first one, in the same order of
+	 *             {@code queries}
+	 * 
+	 * @throws SemanticException if something goes wrong during the computation
+	 */
+	default List<Satisfiability> isReachableFrom(
+			List<Pair<SymbolicExpression, SymbolicExpression>> queries,
+			ProgramPoint pp,
+			SemanticOracle oracle)
+			throws SemanticException {
+		List<Satisfiability> result = new ArrayList<>(queries.size());
+		for (Pair<SymbolicExpression, SymbolicExpression> query : queries)
+			result.add(isReachableFrom(query.getLeft(), query.getRight(), pp, oracle));
+		return result;
+	}
+
 	/**
 	 * Yields whether or not the {@link Identifier} represented (directly or
 	 * after rewriting) by the second expression is reachable starting from the
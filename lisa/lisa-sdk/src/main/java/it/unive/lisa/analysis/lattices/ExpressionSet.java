@@ -4,6 +4,7 @@ import it.unive.lisa.analysis.ScopeToken;
 import it.unive.lisa.analysis.ScopedObject;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.SemanticExceptionWrapper;
+import it.unive.lisa.symbolic.ExpressionInterner;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.util.collections.CollectionUtilities;
@@ -31,13 +32,14 @@ public class ExpressionSet extends SetLattice<ExpressionSet, SymbolicExpression>
 	}
 
 	/**
-	 * Builds a singleton set lattice element.
+	 * Builds a singleton set lattice element. The expression is interned
+	 * through {@link ExpressionInterner}.
 	 * 
 	 * @param exp the expression
 	 */
 	public ExpressionSet(
 			SymbolicExpression exp) {
-		this(Collections.singleton(exp), false);
+		this(Collections.singleton(ExpressionInterner.intern(exp)), false);
 	}
 
 	/**
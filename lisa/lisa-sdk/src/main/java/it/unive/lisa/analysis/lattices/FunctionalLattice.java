@@ -3,6 +3,7 @@ package it.unive.lisa.analysis.lattices;
 import it.unive.lisa.analysis.BaseLattice;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.util.collections.HashTrieMap;
 import it.unive.lisa.util.representation.MapRepresentation;
 import it.unive.lisa.util.representation.StringRepresentation;
 import it.unive.lisa.util.representation.StructuredRepresentation;
@@ -66,7 +67,10 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	/**
 	 * Creates a new instance of the underlying function. The purpose of this
 	 * method is to provide a common function implementation to every subclass
-	 * that does not have implementation-specific requirements.
+	 * that does not have implementation-specific requirements. The returned
+	 * function is a {@link HashTrieMap}: copying it is a constant time
+	 * operation, and the copy shares its structure with {@code other} until
+	 * either of the two is modified.
 	 * 
 	 * @param other        an optional function to copy, can be {@code null}
 	 * @param preserveNull whether a null {@code other} should cause a
@@ -78,8 +82,8 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 			Map<K, V> other,
 			boolean preserveNull) {
 		if (other == null)
-			return preserveNull ? null : new HashMap<>();
-		return new HashMap<>(other);
+			return preserveNull ? null : new HashTrieMap<>();
+		return new HashTrieMap<>(other);
 	}
 
 	/**
@@ -191,7 +195,7 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 			throws SemanticException {
 		return functionalLift(other, lattice.bottom(), this::lubKeys, (
 				o1,
-				o2) -> o1 == null ? o2 : o1.lub(o2));
+				o2) -> o1 == null ? o2 : o1.lub(o2), true);
 	}
 
 	@Override
@@ -200,7 +204,7 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 			throws SemanticException {
 		return functionalLift(other, lattice.top(), this::glbKeys, (
 				o1,
-				o2) -> o1 == null ? o2 : o1.glb(o2));
+				o2) -> o1 == null ? o2 : o1.glb(o2), true);
 	}
 
 	@Override
@@ -209,7 +213,7 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 			throws SemanticException {
 		return functionalLift(other, lattice.bottom(), this::lubKeys, (
 				o1,
-				o2) -> o1 == null ? o2 : o1.widening(o2));
+				o2) -> o1 == null ? o2 : o1.widening(o2), true);
 	}
 
 	@Override
@@ -218,7 +222,7 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 			throws SemanticException {
 		return functionalLift(other, lattice.top(), this::glbKeys, (
 				o1,
-				o2) -> o1 == null ? o2 : o1.narrowing(o2));
+				o2) -> o1 == null ? o2 : o1.narrowing(o2), true);
 	}
 
 	/**
@@ -310,6 +314,68 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 		return mk(lattice.lub(other.lattice), function);
 	}
 
+	/**
+	 * Yields the functional lift between {@code this} and {@code other}. If
+	 * {@code idempotent} is {@code true} and both functions are
+	 * {@link HashTrieMap}s, the entries shared between the two functions (that
+	 * is, the ones where the same key instance is mapped to the same value
+	 * instance) are copied in the result as-is, without invoking
+	 * {@code valueLifter} on them. Moreover, the subtrees shared by the two
+	 * functions are skipped entirely, and only the entries that differ are
+	 * passed to {@code keyLifter}. This is sound only if lifting a key (resp.
+	 * value) with itself yields the key (resp. value) itself, and if the
+	 * lifting of shared keys is independent from the other keys: this holds
+	 * for {@link #lubKeys(Set, Set)}, {@link #glbKeys(Set, Set)}, and for the
+	 * standard lattice operations. If these conditions do not hold,
+	 * {@code idempotent} should be {@code false}, and the result will be the
+	 * same of {@link #functionalLift(FunctionalLattice, Lattice,
+	 * KeyFunctionalLift, FunctionalLift)}.
+	 * 
+	 * @param other       the other functional lattice
+	 * @param missing     the lattice element to use for the lift when a key has
+	 *                        no mapping in one of the two functions (e.g., for
+	 *                        lub, missing should be bottom, while for glb it
+	 *                        should be top)
+	 * @param keyLifter   the key lifter
+	 * @param valueLifter the value lifter
+	 * @param idempotent  whether or not the lifters are idempotent
+	 * 
+	 * @return the result of the lift
+	 * 
+	 * @throws SemanticException if something goes wrong while lifting the
+	 *                               lattice elements
+	 */
+	public F functionalLift(
+			F other,
+			V missing,
+			KeyFunctionalLift<K> keyLifter,
+			FunctionalLift<V> valueLifter,
+			boolean idempotent)
+			throws SemanticException {
+		if (!idempotent || !(function instanceof HashTrieMap) || !(other.function instanceof HashTrieMap))
+			return functionalLift(other, missing, keyLifter, valueLifter);
+
+		Map<K, V> onlyThis = new HashMap<>();
+		Map<K, V> onlyOther = new HashMap<>();
+		((HashTrieMap<K, V>) function).collectDifferences((HashTrieMap<K, V>) other.function, onlyThis, onlyOther);
+		// shared entries are kept, the others are recomputed
+		Map<K, V> function = mkNewFunction(this.function, false);
+		if (onlyThis.isEmpty() && onlyOther.isEmpty())
+			return mk(lattice.lub(other.lattice), function);
+
+		onlyThis.keySet().forEach(function::remove);
+		Set<K> keys = keyLifter.keyLift(onlyThis.keySet(), onlyOther.keySet());
+		for (K key : keys)
+			try {
+				V s1 = getOtDefault(key, missing);
+				V s2 = other.getOtDefault(key, missing);
+				function.put(key, valueLifter.lift(s1, s2));
+			} catch (SemanticException e) {
+				throw new SemanticException("Exception during functional lifting of key '" + key + "'", e);
+			}
+		return mk(lattice.lub(other.lattice), function);
+	}
+
 	/**
 	 * Yields the union of the keys between {@code k1} and {@code k2}.
 	 * 
@@ -353,8 +419,16 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	public boolean lessOrEqualAux(
 			F other)
 			throws SemanticException {
-		if (function != null)
-			for (K key : function.keySet()) {
+		Set<K> toCheck = function == null ? null : function.keySet();
+		if (function instanceof HashTrieMap && other.function instanceof HashTrieMap) {
+			// shared entries are trivially in relation
+			Map<K, V> onlyThis = new HashMap<>();
+			((HashTrieMap<K, V>) function).collectDifferences((HashTrieMap<K, V>) other.function, onlyThis, null);
+			toCheck = onlyThis.keySet();
+		}
+
+		if (toCheck != null)
+			for (K key : toCheck) {
 				V state = getState(key);
 				if (state != null && !state.lessOrEqual(other.getState(key)))
 					return false;
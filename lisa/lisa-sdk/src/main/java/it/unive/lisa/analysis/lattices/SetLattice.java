@@ -3,9 +3,12 @@ package it.unive.lisa.analysis.lattices;
 import it.unive.lisa.analysis.BaseLattice;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
 import it.unive.lisa.util.representation.SetRepresentation;
 import it.unive.lisa.util.representation.StringRepresentation;
 import it.unive.lisa.util.representation.StructuredRepresentation;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
@@ -21,7 +24,11 @@ import java.util.Set;
  * Widening on instances of this lattice depends on the cardinality of the
  * domain of the underlying elements. The provided implementation behave as the
  * domain is <b>finite</b>, thus invoking the lub. Set lattices defined on
- * infinite domains must implement a coherent widening logic.
+ * infinite domains must implement a coherent widening logic.<br>
+ * <br>
+ * If the elements of an instance are stored in an {@link ExternalSet}, the
+ * sets built by the lattice operations are bitsets over the same
+ * {@link ExternalSetCache}, and the operations are performed word by word.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -70,11 +77,33 @@ public abstract class SetLattice<S extends SetLattice<S, E>, E> implements BaseL
 	public abstract S mk(
 			Set<E> set);
 
+	/**
+	 * Yields a new, modifiable set containing the given elements. The new set
+	 * is a bitset over the same {@link ExternalSetCache} if the elements of
+	 * this lattice are stored in an {@link ExternalSet}, and a {@link HashSet}
+	 * otherwise.
+	 * 
+	 * @param content the elements to add to the new set
+	 * 
+	 * @return the new set
+	 */
+	@SuppressWarnings("unchecked")
+	protected Set<E> newSet(
+			Collection<E> content) {
+		if (!(elements instanceof ExternalSet))
+			return new HashSet<>(content);
+
+		ExternalSet<E> result = ((ExternalSet<E>) elements).getCache().mkEmptySet();
+		// this is performed word by word if content is a compatible bitset
+		result.addAll(content);
+		return result;
+	}
+
 	@Override
 	public S lubAux(
 			S other)
 			throws SemanticException {
-		Set<E> lub = new HashSet<>(elements);
+		Set<E> lub = newSet(elements);
 		lub.addAll(other.elements);
 		return mk(lub);
 	}
@@ -83,7 +112,7 @@ public abstract class SetLattice<S extends SetLattice<S, E>, E> implements BaseL
 	public S glbAux(
 			S other)
 			throws SemanticException {
-		Set<E> glb = new HashSet<>(elements);
+		Set<E> glb = newSet(elements);
 		glb.retainAll(other.elements);
 		return mk(glb);
 	}
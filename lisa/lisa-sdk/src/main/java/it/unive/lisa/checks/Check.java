@@ -1,5 +1,6 @@
 package it.unive.lisa.checks;
 
+import it.unive.lisa.conf.LiSAConfiguration;
 import it.unive.lisa.program.Global;
 import it.unive.lisa.program.Unit;
 import it.unive.lisa.program.cfg.CFG;
@@ -49,6 +50,21 @@ public interface Check<T> extends GraphVisitor<CFG, Statement, Edge, T> {
 			T tool) {
 	}
 
+	/**
+	 * Yields whether or not this check can be executed concurrently on
+	 * different elements of the program, that is, if its callbacks can be
+	 * invoked by multiple threads at the same time. This is honored only when
+	 * {@link LiSAConfiguration#checkThreads} is greater than 1, and it never
+	 * affects {@link #beforeExecution(Object)} and
+	 * {@link #afterExecution(Object)}, that are always invoked by a single
+	 * thread. The default implementation returns {@code false}.
+	 * 
+	 * @return {@code true} if that condition holds
+	 */
+	default boolean canRunConcurrently() {
+		return false;
+	}
+
 	/**
 	 * Visits the given unit. The default implementation does nothing and
 	 * returns {@code true}.
@@ -2,6 +2,7 @@ package it.unive.lisa.checks;
 
 import static it.unive.lisa.logging.IterationLogger.iterate;
 
+import it.unive.lisa.AnalysisExecutionException;
 import it.unive.lisa.program.Application;
 import it.unive.lisa.program.CompilationUnit;
 import it.unive.lisa.program.Global;
@@ -9,6 +10,12 @@ import it.unive.lisa.program.Program;
 import it.unive.lisa.program.Unit;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.CodeMember;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -38,14 +45,91 @@ public final class ChecksExecutor {
 			T tool,
 			Application app,
 			Iterable<C> checks) {
+		executeAll(tool, app, checks, 1);
+	}
+
+	/**
+	 * Executes all the given checks on the given inputs cfgs. If
+	 * {@code threads} is greater than 1, the checks that can run concurrently
+	 * (see {@link Check#canRunConcurrently()}) are executed in parallel over
+	 * the globals, cfgs and units of the application, using a
+	 * {@link ForkJoinPool} with the given parallelism. All other checks are
+	 * executed sequentially, before the parallel ones.
+	 * 
+	 * @param <C>     the type of the checks to execute
+	 * @param <T>     the type of the auxiliary tool used by the check
+	 * @param tool    the auxiliary tool to be used during the checks execution
+	 * @param app     the application to analyze
+	 * @param checks  the checks to execute
+	 * @param threads the number of threads to use
+	 */
+	public static <C extends Check<T>, T> void executeAll(
+			T tool,
+			Application app,
+			Iterable<C> checks,
+			int threads) {
+		List<C> sequential = new ArrayList<>();
+		List<C> concurrent = new ArrayList<>();
+		for (C check : checks)
+			if (threads > 1 && check.canRunConcurrently())
+				concurrent.add(check);
+			else
+				sequential.add(check);
+
 		checks.forEach(c -> c.beforeExecution(tool));
 
-		for (Program p : app.getPrograms())
-			visitProgram(tool, p, checks);
+		if (!sequential.isEmpty())
+			for (Program p : app.getPrograms())
+				visitProgram(tool, p, sequential);
+
+		if (!concurrent.isEmpty())
+			visitInParallel(tool, app, concurrent, threads);
 
 		checks.forEach(c -> c.afterExecution(tool));
 	}
 
+	private static <T, C extends Check<T>> void visitInParallel(
+			T tool,
+			Application app,
+			List<C> checks,
+			int threads) {
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (Program program : app.getPrograms()) {
+			tasks.add(() -> {
+				for (Global global : program.getGlobals())
+					checks.forEach(c -> c.visitGlobal(tool, program, global, false));
+				return null;
+			});
+
+			for (CodeMember cm : program.getCodeMembers())
+				if (cm instanceof CFG)
+					tasks.add(() -> {
+						checks.forEach(c -> ((CFG) cm).accept(c, tool));
+						return null;
+					});
+
+			for (Unit unit : program.getUnits())
+				tasks.add(() -> {
+					checks.forEach(c -> visitUnit(tool, unit, c));
+					return null;
+				});
+		}
+
+		LOG.info("Running {} checks in parallel over {} program elements", checks.size(), tasks.size());
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			for (Future<Void> future : pool.invokeAll(tasks))
+				future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AnalysisExecutionException("Interrupted while executing checks", e);
+		} catch (ExecutionException e) {
+			throw new AnalysisExecutionException("Error while executing checks", e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
 	private static <T, C extends Check<T>> void visitProgram(
 			T tool,
 			Program program,
@@ -14,12 +14,15 @@ import it.unive.lisa.program.cfg.statement.Expression;
 import it.unive.lisa.program.cfg.statement.call.Call;
 import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
 import it.unive.lisa.util.file.FileManager;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
 
 /**
  * An extension of {@link CheckTool} that also contains the results of the
- * fixpoint computation.
+ * fixpoint computation. Accesses to the {@link CallGraph} performed through
+ * this tool are synchronized on the call graph itself, so that checks running
+ * concurrently can safely query it and resolve calls.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -80,7 +83,9 @@ public class CheckToolWithAnalysisResults<A extends AbstractState<A>> extends Ch
 	}
 
 	/**
-	 * Yields the {@link CallGraph} constructed during the analysis.
+	 * Yields the {@link CallGraph} constructed during the analysis. Checks
+	 * that can run concurrently should synchronize on the returned object
+	 * when using it directly.
 	 * 
 	 * @return the callgraph
 	 */
@@ -98,7 +103,9 @@ public class CheckToolWithAnalysisResults<A extends AbstractState<A>> extends Ch
 	 */
 	public Collection<CodeMember> getCallers(
 			CodeMember cm) {
-		return callgraph.getCallers(cm);
+		synchronized (callgraph) {
+			return callgraph.getCallers(cm);
+		}
 	}
 
 	/**
@@ -112,7 +119,9 @@ public class CheckToolWithAnalysisResults<A extends AbstractState<A>> extends Ch
 	 */
 	public Collection<CodeMember> getCallees(
 			CodeMember cm) {
-		return callgraph.getCallees(cm);
+		synchronized (callgraph) {
+			return callgraph.getCallees(cm);
+		}
 	}
 
 	/**
@@ -126,7 +135,9 @@ public class CheckToolWithAnalysisResults<A extends AbstractState<A>> extends Ch
 	 */
 	public Collection<Call> getCallSites(
 			CodeMember cm) {
-		return callgraph.getCallSites(cm);
+		synchronized (callgraph) {
+			return new ArrayList<>(callgraph.getCallSites(cm));
+		}
 	}
 
 	/**
@@ -150,7 +161,9 @@ public class CheckToolWithAnalysisResults<A extends AbstractState<A>> extends Ch
 			store.put(e, result.getAnalysisStateAfter(e));
 
 		try {
-			return callgraph.resolve(call, call.parameterTypes(store), null);
+			synchronized (callgraph) {
+				return callgraph.resolve(call, call.parameterTypes(store), null);
+			}
 		} catch (CallResolutionException e) {
 			return null;
 		}
@@ -15,8 +15,12 @@ import it.unive.lisa.program.cfg.CodeMemberDescriptor;
 import it.unive.lisa.program.cfg.statement.Expression;
 import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.util.file.FileManager;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -29,7 +33,8 @@ import java.util.concurrent.ConcurrentHashMap;
 public class CheckTool {
 
 	/**
-	 * The collection of generated warnings
+	 * The collection of generated warnings, that can be safely updated by
+	 * multiple threads
 	 */
 	private final Collection<Warning> warnings;
 
@@ -183,12 +188,18 @@ public class CheckTool {
 	}
 
 	/**
-	 * Returns an <b>unmodifiable</b> view of the warnings that have been
-	 * generated up to now using this tool.
+	 * Returns an <b>unmodifiable</b> snapshot of the warnings that have been
+	 * generated up to now using this tool. Since warnings can be reported
+	 * concurrently by checks running in parallel, the snapshot is sorted
+	 * following the natural ordering of {@link Warning}s (falling back to
+	 * their textual representation), so that its iteration order does not
+	 * depend on the order in which warnings have been reported.
 	 * 
-	 * @return a view of the warnings
+	 * @return a snapshot of the warnings
 	 */
 	public Collection<Warning> getWarnings() {
-		return Collections.unmodifiableCollection(warnings);
+		List<Warning> sorted = new ArrayList<>(warnings);
+		sorted.sort(Comparator.<Warning>naturalOrder().thenComparing(Warning::toString));
+		return Collections.unmodifiableSet(new LinkedHashSet<>(sorted));
 	}
 }
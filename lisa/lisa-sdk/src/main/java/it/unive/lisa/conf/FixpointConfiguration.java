@@ -1,7 +1,9 @@
 package it.unive.lisa.conf;
 
 import it.unive.lisa.conf.LiSAConfiguration.DescendingPhaseType;
+import it.unive.lisa.interprocedural.ResultStore;
 import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.datastructures.graph.algorithms.FixpointStatistics;
 import java.util.function.Predicate;
 
 /**
@@ -46,6 +48,33 @@ public class FixpointConfiguration extends BaseConfiguration {
 	 */
 	public final Predicate<Statement> hotspots;
 
+	/**
+	 * Holder of {@link LiSAConfiguration#analysisThreads}.
+	 */
+	public final int analysisThreads;
+
+	/**
+	 * Holder of {@link LiSAConfiguration#summaryCacheSize}.
+	 */
+	public final int summaryCacheSize;
+
+	/**
+	 * Holder of {@link LiSAConfiguration#unwindingCacheSize}.
+	 */
+	public final int unwindingCacheSize;
+
+	/**
+	 * Holder of {@link LiSAConfiguration#resultStore}.
+	 */
+	public final ResultStore resultStore;
+
+	/**
+	 * The statistics collected by all the fixpoints executed with this
+	 * configuration. This is not part of the configuration itself, and it is
+	 * thus excluded from {@link #equals(Object)} and {@link #hashCode()}.
+	 */
+	private final FixpointStatistics statistics;
+
 	/**
 	 * Builds the configuration.
 	 * 
@@ -60,5 +89,37 @@ public class FixpointConfiguration extends BaseConfiguration {
 		this.optimize = parent.optimize;
 		this.hotspots = parent.hotspots;
 		this.useWideningPoints = parent.useWideningPoints;
+		this.analysisThreads = parent.analysisThreads;
+		this.summaryCacheSize = parent.summaryCacheSize;
+		this.unwindingCacheSize = parent.unwindingCacheSize;
+		this.resultStore = parent.resultStore;
+		this.statistics = new FixpointStatistics();
+	}
+
+	/**
+	 * Yields the statistics collected by all the fixpoints executed with this
+	 * configuration. Note that, differently from the configuration itself, the
+	 * returned object is mutable (and thread-safe), as it is updated by each
+	 * fixpoint.
+	 * 
+	 * @return the statistics
+	 */
+	public FixpointStatistics getStatistics() {
+		return statistics;
+	}
+
+	@Override
+	public String toString() {
+		// the result store is excluded, as it does not affect the fixpoint
+		return "wideningThreshold: " + wideningThreshold
+				+ ", recursionWideningThreshold: " + recursionWideningThreshold
+				+ ", glbThreshold: " + glbThreshold
+				+ ", descendingPhaseType: " + descendingPhaseType
+				+ ", optimize: " + optimize
+				+ ", useWideningPoints: " + useWideningPoints
+				+ ", hotspots: " + hotspots
+				+ ", analysisThreads: " + analysisThreads
+				+ ", summaryCacheSize: " + summaryCacheSize
+				+ ", unwindingCacheSize: " + unwindingCacheSize;
 	}
 }
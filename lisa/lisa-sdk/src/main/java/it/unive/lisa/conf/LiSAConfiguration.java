@@ -3,11 +3,13 @@ package it.unive.lisa.conf;
 import it.unive.lisa.LiSA;
 import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.checks.Check;
 import it.unive.lisa.checks.semantic.SemanticCheck;
 import it.unive.lisa.checks.syntactic.SyntacticCheck;
 import it.unive.lisa.checks.warnings.Warning;
 import it.unive.lisa.interprocedural.InterproceduralAnalysis;
 import it.unive.lisa.interprocedural.OpenCallPolicy;
+import it.unive.lisa.interprocedural.ResultStore;
 import it.unive.lisa.interprocedural.WorstCasePolicy;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
 import it.unive.lisa.program.cfg.CFG;
@@ -17,6 +19,8 @@ import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.call.OpenCall;
 import it.unive.lisa.util.collections.CollectionUtilities;
 import it.unive.lisa.util.collections.workset.DuplicateFreeFIFOWorkingSet;
+import it.unive.lisa.util.collections.workset.IndexedFIFOWorkingSet;
+import it.unive.lisa.util.collections.workset.WeakTopologicalOrderWorkingSet;
 import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.file.FileManager;
 import java.lang.reflect.Field;
@@ -246,7 +250,14 @@ public class LiSAConfiguration extends BaseConfiguration {
 
 	/**
 	 * The concrete class of {@link WorkingSet} to be used in fixpoints.
-	 * Defaults to {@link DuplicateFreeFIFOWorkingSet}.
+	 * Defaults to {@link DuplicateFreeFIFOWorkingSet}. Use
+	 * {@link WeakTopologicalOrderWorkingSet} to process statements following
+	 * the weak topological order of each cfg, that usually reduces the number
+	 * of fixpoint iterations for programs containing loops (backward analyses
+	 * will process statements in FIFO order instead). Use
+	 * {@link IndexedFIFOWorkingSet} to process statements in the same order of
+	 * {@link DuplicateFreeFIFOWorkingSet} while identifying them through the
+	 * dense identifiers assigned by the fixpoint, avoiding hashing.
 	 */
 	public Class<?> fixpointWorkingSet = DuplicateFreeFIFOWorkingSet.class;
 
@@ -306,6 +317,90 @@ public class LiSAConfiguration extends BaseConfiguration {
 	 */
 	public boolean dumpForcesUnwinding = false;
 
+	/**
+	 * When {@link #optimize} is {@code true}, this field controls how missing
+	 * states are computed when they are queried (e.g., when dumping results
+	 * with {@link #dumpForcesUnwinding} or by {@link SemanticCheck}s). If this
+	 * is positive, only the basic block containing the queried statement is
+	 * re-analyzed, starting from the states stored for the blocks preceding
+	 * it, and the states computed for at most this many blocks are cached for
+	 * each cfg, evicting the least recently used ones. This keeps the memory
+	 * needed for unwinding bounded, at the price of re-analyzing blocks that
+	 * have been evicted if they are queried again. Use {@code 0} or a negative
+	 * number to unwind the results of the whole cfg at once, keeping them for
+	 * the rest of the analysis. Defaults to {@code 0}.
+	 */
+	public int unwindingCacheSize = 0;
+
+	/**
+	 * The number of threads that interprocedural analyses can use to process
+	 * independent parts of the program (e.g., different entrypoints) in
+	 * parallel. Analyses that support this option guarantee that results are
+	 * the same as the ones of a sequential execution. Note that, when this is
+	 * greater than 1, the abstract domains (and any other component invoked
+	 * during the fixpoint) will be used from multiple threads at the same
+	 * time, and must thus be thread-safe. Use 1 or a non-positive number to run
+	 * the analysis sequentially. Defaults to {@code 1}.
+	 */
+	public int analysisThreads = 1;
+
+	/**
+	 * The maximum number of summaries that context-sensitive interprocedural
+	 * analyses can cache for reuse. A summary maps a cfg and the entry state
+	 * of one of its fixpoint executions, without the frames of the callers, to
+	 * the corresponding result: when the same cfg is invoked again with an
+	 * equal entry state under a different context, the cached result is
+	 * stored for that context instead of running a new fixpoint. When the
+	 * cache is full, the least recently used summary is evicted. Note that the
+	 * callees of a cfg whose result comes from a summary are not analyzed
+	 * under the new context, and their results will thus not appear in the
+	 * analysis results (nor in the dumped files) for that context. Analyses
+	 * that process parts of the program in parallel (see
+	 * {@link #analysisThreads}) or that optimize their results (see
+	 * {@link #optimize}) might ignore this option. Use {@code 0} or a negative
+	 * number to disable the cache. Defaults to {@code 0}.
+	 */
+	public int summaryCacheSize = 0;
+
+	/**
+	 * The store used by interprocedural analyses to reuse the results computed
+	 * by previous executions of LiSA on the same programs. Executions sharing
+	 * the same store only analyze the cfgs that have been modified since the
+	 * previous one, together with their callers and with the callees invoked
+	 * with different entry states, while the results of all other cfgs are
+	 * taken from the store. Results are reused only if the entry state, the
+	 * configuration and the structure of the programs did not change. Stores
+	 * backed by a file (see
+	 * {@link ResultStore#ResultStore(java.nio.file.Path, it.unive.lisa.interprocedural.StateCodec)})
+	 * can be shared by executions in different JVMs. Interprocedural analyses
+	 * that do not support result reuse, and executions where {@link #optimize}
+	 * is {@code true}, ignore the store. Use {@code null} to disable result
+	 * reuse. Defaults to {@code null}.
+	 */
+	public ResultStore resultStore = null;
+
+	/**
+	 * The number of threads that can be used to execute {@link #syntacticChecks}
+	 * and {@link #semanticChecks}. When this is greater than 1, checks that
+	 * declare to be safe to run concurrently (see
+	 * {@link Check#canRunConcurrently()}) are executed on different cfgs and
+	 * units in parallel, while all other checks are still executed
+	 * sequentially. Use 1 or a non-positive number to run all checks
+	 * sequentially. Defaults to {@code 1}.
+	 */
+	public int checkThreads = 1;
+
+	/**
+	 * The number of threads used to write the files produced when
+	 * {@link #serializeInputs}, {@link #serializeResults} or
+	 * {@link #analysisGraphs} are set. Files are written asynchronously with
+	 * respect to the conversion of the analysis results, that proceeds while
+	 * previous files are being written, and at most twice as many files as
+	 * threads can be pending at any time. Use 0 or a negative number to write
+	 * files synchronously. Defaults to {@code 1}.
+	 */
+	public int dumpThreads = 1;
+
 	@Override
 	public String toString() {
 		StringBuilder res = new StringBuilder();
@@ -65,6 +65,23 @@ public class FixpointResults<A extends AbstractState<A>>
 		return res.putResult(token, result);
 	}
 
+	/**
+	 * Stores the given {@link CFGResults} as the results of {@code cfg},
+	 * overwriting the ones already present (if any). Differently from
+	 * {@link #putResult(CFG, ScopeId, AnalyzedCFG)}, no lub is computed with
+	 * the existing results.
+	 * 
+	 * @param cfg     the {@link CFG} whose results are to be stored
+	 * @param results the results to store
+	 */
+	public void putResults(
+			CFG cfg,
+			CFGResults<A> results) {
+		if (function == null)
+			function = mkNewFunction(null, false);
+		function.put(cfg, results);
+	}
+
 	/**
 	 * Yields {@code true} if a result exists for the given {@code cfg}.
 	 * 
@@ -0,0 +1,618 @@
+package it.unive.lisa.interprocedural;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.AnalyzedCFG;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.interprocedural.callgraph.CallGraph;
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.Global;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.Unit;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Expression;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.VariableRef;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.workset.VisitOnceFIFOWorkingSet;
+import it.unive.lisa.util.collections.workset.VisitOnceWorkingSet;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A store of the results computed by interprocedural analyses, that can be
+ * shared among different executions of LiSA on the same programs to avoid
+ * analyzing again the parts of the programs that have not been modified in the
+ * meantime. Each {@link CFG} is identified by its signature, and it is
+ * associated with a fingerprint, that is, a structural hash of its descriptor,
+ * statements and edges, and with the members it called when its results were
+ * stored.<br>
+ * <br>
+ * When a new analysis starts, the cfgs whose fingerprint changed are
+ * identified, and all the cfgs that call them (directly or transitively) are
+ * considered as affected by the change, since they might observe different
+ * results. All other cfgs can instead reuse their results, including the
+ * callees of the affected ones: it is up to the analysis to compute again the
+ * results of the callees that are invoked with entry states different from the
+ * ones stored, and to propagate the changes to the callers that reused their
+ * results. Results are reused only if the analysis is executed in the same
+ * environment, that is, with the same entry state, configuration and program
+ * structure (units, hierarchy, signatures of the code members, and unit types
+ * that are instantiated), since changes to these might affect the results of
+ * all cfgs, or the targets of calls in cfgs that did not change. The
+ * environment is identified by a hash of the textual representation of the
+ * objects composing it.<br>
+ * <br>
+ * Cfgs are matched through their signature and fingerprint, regardless of the
+ * {@link Program} instances they belong to. Results computed on the same cfg
+ * instances that are being analyzed are reused as they are, while results
+ * computed on other instances (e.g., on programs obtained by parsing the same
+ * files again, possibly in a different execution of the JVM) are moved to the
+ * analyzed cfgs through a {@link StateCodec}, associating the decoded states to
+ * the statements equal to the ones they have been computed on. Stores built
+ * with {@link #ResultStore()} have no codec, and can thus reuse results only on
+ * the same instances. Stores built with {@link #ResultStore(Path, StateCodec)}
+ * instead encode results as they are stored and persist them to a json file,
+ * that is read back by new stores created on the same file. Results that the
+ * codec cannot encode or decode are treated as if their cfgs had changed. This
+ * class is thread-safe.
+ */
+public class ResultStore {
+
+	private final Path file;
+
+	private final StateCodec codec;
+
+	private final Map<String, StoredMember> members;
+
+	private String environment;
+
+	/**
+	 * Builds an empty store that keeps results in memory.
+	 */
+	public ResultStore() {
+		this.file = null;
+		this.codec = null;
+		this.members = new HashMap<>();
+		this.environment = null;
+	}
+
+	/**
+	 * Builds a store that persists results to the given file, loading the
+	 * ones already contained in it if the file exists.
+	 *
+	 * @param file  the file where results are persisted
+	 * @param codec the codec used to encode and decode states and result ids
+	 *
+	 * @throws IOException if the file exists and it cannot be read
+	 */
+	public ResultStore(
+			Path file,
+			StateCodec codec)
+			throws IOException {
+		this.file = file;
+		this.codec = codec;
+		this.members = new HashMap<>();
+		this.environment = null;
+		if (Files.exists(file))
+			load();
+	}
+
+	/**
+	 * Yields the stored results that can be reused for analyzing the given
+	 * application, indexed by the cfg (of {@code app}) they refer to. The
+	 * returned {@link Reusable} instances refer to cfgs of {@code app} as well.
+	 * If the given environment differs from the one used when results were
+	 * stored, the store is cleared and no result is returned.
+	 *
+	 * @param app         the application to analyze
+	 * @param environment the objects (e.g., entry state and configuration)
+	 *                        that, together with the structure of
+	 *                        {@code app}, influence the results of all cfgs
+	 *
+	 * @return the reusable results
+	 */
+	public synchronized Map<CFG, Reusable> reusable(
+			Application app,
+			List<Object> environment) {
+		String env = environment(app, environment);
+		if (!env.equals(this.environment)) {
+			members.clear();
+			this.environment = env;
+			return Collections.emptyMap();
+		}
+
+		Map<String, CFG> current = new HashMap<>();
+		Set<String> clashing = new HashSet<>();
+		for (CFG cfg : app.getAllCFGs())
+			if (current.put(signature(cfg), cfg) != null)
+				clashing.add(signature(cfg));
+
+		// callers of each stored member
+		Map<String, Set<String>> callers = new HashMap<>();
+		for (Entry<String, StoredMember> entry : members.entrySet())
+			for (String callee : entry.getValue().callees)
+				callers.computeIfAbsent(callee, k -> new HashSet<>()).add(entry.getKey());
+
+		VisitOnceWorkingSet<String> affected = VisitOnceFIFOWorkingSet.mk();
+		for (Entry<String, StoredMember> entry : members.entrySet()) {
+			CFG cfg = current.get(entry.getKey());
+			if (cfg == null || clashing.contains(entry.getKey())
+					|| !entry.getValue().fingerprint.equals(fingerprint(cfg)))
+				affected.push(entry.getKey());
+			// callees without results cannot be checked for changes
+			for (String callee : entry.getValue().callees)
+				if (!members.containsKey(callee))
+					affected.push(callee);
+		}
+
+		Map<String, Collection<AnalyzedCFG<?>>> available = new HashMap<>();
+		do {
+			// callees of the affected members are not affected: they will be
+			// analyzed again only if invoked with different entry states
+			while (!affected.isEmpty())
+				callers.getOrDefault(affected.pop(), Collections.emptySet()).forEach(affected::push);
+
+			// members whose results cannot be moved to the current cfgs are
+			// treated as changed, affecting their callers as well
+			for (Entry<String, StoredMember> entry : members.entrySet())
+				if (!affected.getSeen().contains(entry.getKey()) && !available.containsKey(entry.getKey())) {
+					Collection<AnalyzedCFG<?>> results = entry.getValue().resultsFor(current.get(entry.getKey()));
+					if (results == null)
+						affected.push(entry.getKey());
+					else
+						available.put(entry.getKey(), results);
+				}
+		} while (!affected.isEmpty());
+
+		Map<CFG, Reusable> result = new HashMap<>();
+		for (Entry<String, StoredMember> entry : members.entrySet())
+			if (!affected.getSeen().contains(entry.getKey())) {
+				Collection<CFG> callees = new HashSet<>();
+				for (String callee : entry.getValue().callees)
+					callees.add(current.get(callee));
+				result.put(current.get(entry.getKey()), new Reusable(available.get(entry.getKey()), callees));
+			}
+		return result;
+	}
+
+	/**
+	 * Stores the results of an analysis of the given application, replacing
+	 * the ones that were previously stored, and persists them if this store
+	 * is backed by a file. The environment of the analysis must have been
+	 * registered through {@link #reusable(Application, List)} before the
+	 * analysis started.
+	 *
+	 * @param <A>       the type of {@link AbstractState} contained in the
+	 *                      results
+	 * @param app       the analyzed application
+	 * @param callgraph the call graph built during the analysis
+	 * @param results   the results of the analysis
+	 *
+	 * @throws IOException if the results cannot be written to the file backing
+	 *                         this store
+	 */
+	public synchronized <A extends AbstractState<A>> void store(
+			Application app,
+			CallGraph callgraph,
+			FixpointResults<A> results)
+			throws IOException {
+		members.clear();
+		if (results != null)
+			for (CFG cfg : app.getAllCFGs())
+				if (results.contains(cfg)) {
+					Collection<String> callees = new HashSet<>();
+					for (CodeMember callee : callgraph.getCallees(cfg))
+						if (callee instanceof CFG)
+							callees.add(signature((CFG) callee));
+					Collection<AnalyzedCFG<?>> res = new ArrayList<>(results.get(cfg).getAll());
+					members.put(signature(cfg),
+							new StoredMember(fingerprint(cfg), callees, cfg, res, codec == null ? null : encode(res)));
+				}
+
+		if (file != null)
+			write();
+	}
+
+	/**
+	 * Yields the number of cfgs whose results are currently stored.
+	 *
+	 * @return the number of cfgs
+	 */
+	public synchronized int size() {
+		return members.size();
+	}
+
+	/**
+	 * Removes all stored results. If this store is backed by a file, the file
+	 * is left untouched until results are stored again.
+	 */
+	public synchronized void clear() {
+		members.clear();
+		environment = null;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "stored results for " + members.size() + " cfgs";
+	}
+
+	private void load() throws IOException {
+		JsonNode root;
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			root = new ObjectMapper().readTree(reader);
+		}
+
+		environment = root.path("environment").asText(null);
+		for (JsonNode member : root.path("members")) {
+			Collection<String> callees = new HashSet<>();
+			member.path("callees").forEach(callee -> callees.add(callee.asText()));
+			List<JsonNode> encoded = new ArrayList<>();
+			member.path("results").forEach(encoded::add);
+			members.put(member.path("signature").asText(),
+					new StoredMember(member.path("fingerprint").asText(), callees, null, null, encoded));
+		}
+	}
+
+	private void write() throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		ObjectNode root = mapper.createObjectNode();
+		root.put("environment", environment);
+		ArrayNode array = root.putArray("members");
+		// members whose results could not be encoded are not persisted, and
+		// their callers will be treated as affected when loaded
+		for (Entry<String, StoredMember> entry : new TreeMap<>(members).entrySet())
+			if (entry.getValue().encoded != null) {
+				ObjectNode member = array.addObject();
+				member.put("signature", entry.getKey());
+				member.put("fingerprint", entry.getValue().fingerprint);
+				ArrayNode callees = member.putArray("callees");
+				entry.getValue().callees.stream().sorted().forEach(callees::add);
+				member.putArray("results").addAll(entry.getValue().encoded);
+			}
+
+		Path parent = file.toAbsolutePath().getParent();
+		if (parent != null)
+			Files.createDirectories(parent);
+		try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			mapper.writeValue(writer, root);
+		}
+	}
+
+	private List<JsonNode> encode(
+			Collection<AnalyzedCFG<?>> results) {
+		List<JsonNode> encoded = new ArrayList<>(results.size());
+		try {
+			for (AnalyzedCFG<?> result : results) {
+				ObjectNode node = JsonNodeFactory.instance.objectNode();
+				node.put("id", codec.encodeId(result.getId()));
+				encode(node.putObject("entryStates"), entryStates(result));
+				encode(node.putObject("states"), states(result));
+				encoded.add(node);
+			}
+		} catch (IOException | SemanticException e) {
+			return null;
+		}
+		return encoded;
+	}
+
+	private void encode(
+			ObjectNode node,
+			Map<Statement, AnalysisState<?>> states)
+			throws IOException {
+		// sorting the statements makes the file stable between executions
+		Map<String, AnalysisState<?>> sorted = new TreeMap<>();
+		states.forEach((st, state) -> sorted.put(key(st), state));
+		for (Entry<String, AnalysisState<?>> entry : sorted.entrySet())
+			node.put(entry.getKey(), codec.encodeState(entry.getValue()));
+	}
+
+	private AnalyzedCFG<?> decode(
+			CFG cfg,
+			JsonNode node)
+			throws IOException {
+		Map<String, Statement> statements = statements(cfg);
+		Map<Statement, AnalysisState<?>> entries = new HashMap<>();
+		for (Iterator<Entry<String, JsonNode>> it = node.path("entryStates").fields(); it.hasNext();) {
+			Entry<String, JsonNode> entry = it.next();
+			Statement st = statement(statements, entry.getKey());
+			entries.put(st, codec.decodeState(st, entry.getValue().asText()));
+		}
+		Map<Statement, AnalysisState<?>> states = new HashMap<>();
+		for (Iterator<Entry<String, JsonNode>> it = node.path("states").fields(); it.hasNext();) {
+			Entry<String, JsonNode> entry = it.next();
+			Statement st = statement(statements, entry.getKey());
+			states.put(st, codec.decodeState(st, entry.getValue().asText()));
+		}
+		return rebuild(cfg, codec.decodeId(cfg, node.path("id").asText()), entries, states);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static AnalyzedCFG<?> rebuild(
+			CFG cfg,
+			ScopeId id,
+			Map<Statement, AnalysisState<?>> entries,
+			Map<Statement, AnalysisState<?>> states)
+			throws IOException {
+		if (entries.isEmpty())
+			throw new IOException("No entry state for a result of " + cfg);
+		AnalysisState singleton = entries.values().iterator().next();
+		return new AnalyzedCFG(cfg, id, singleton, (Map) entries, (Map) states);
+	}
+
+	private static Map<Statement, AnalysisState<?>> entryStates(
+			AnalyzedCFG<?> result)
+			throws SemanticException {
+		Map<Statement, AnalysisState<?>> entries = new HashMap<>();
+		for (Statement st : result.getEntrypoints())
+			entries.put(st, result.getAnalysisStateBefore(st));
+		return entries;
+	}
+
+	private static Map<Statement, AnalysisState<?>> states(
+			AnalyzedCFG<?> result) {
+		// statements without a state are mapped to bottom by results, and
+		// are thus not recorded
+		Map<Statement, AnalysisState<?>> states = new HashMap<>();
+		for (Statement st : statements(result).values()) {
+			AnalysisState<?> state = result.getAnalysisStateAfter(st);
+			if (!state.isBottom())
+				states.put(st, state);
+		}
+		return states;
+	}
+
+	private static Map<String, Statement> statements(
+			CFG cfg) {
+		GraphVisitor<CFG, Statement, Edge, Map<String, Statement>> visitor = new GraphVisitor<>() {
+
+			@Override
+			public boolean visit(
+					Map<String, Statement> tool,
+					CFG graph,
+					Statement node) {
+				tool.put(key(node), node);
+				return true;
+			}
+		};
+
+		// this includes the inner expressions of each statement
+		Map<String, Statement> statements = new HashMap<>();
+		for (Statement st : cfg.getNodes())
+			st.accept(visitor, statements);
+		return statements;
+	}
+
+	private static Statement statement(
+			Map<String, Statement> statements,
+			String key)
+			throws IOException {
+		Statement st = statements.get(key);
+		if (st == null)
+			throw new IOException("No statement matches " + key);
+		return st;
+	}
+
+	private static String key(
+			Statement st) {
+		// statements are equal if they have the same class and location
+		return st.getClass().getName() + " " + st.getLocation();
+	}
+
+	private static String signature(
+			CFG cfg) {
+		return cfg.getDescriptor().getFullSignatureWithParNames();
+	}
+
+	/**
+	 * Yields the fingerprint of the given cfg, that is, a hash of its
+	 * descriptor and of the location and textual representation of its
+	 * statements and edges. Two cfgs with the same fingerprint are
+	 * structurally equal, and thus produce the same results when they are
+	 * analyzed with the same entry state and callees.
+	 *
+	 * @param cfg the cfg
+	 *
+	 * @return the fingerprint
+	 */
+	public static String fingerprint(
+			CFG cfg) {
+		List<String> parts = new ArrayList<>();
+		for (Statement st : cfg.getNodes())
+			parts.add((cfg.getEntrypoints().contains(st) ? "entry " : "") + st.getClass().getName() + " "
+					+ st.getLocation() + " " + st);
+		for (Edge edge : cfg.getEdges())
+			parts.add(edge.getClass().getName() + " " + edge.getSource().getLocation() + " -> "
+					+ edge.getDestination().getLocation());
+		Collections.sort(parts);
+		parts.add(0, cfg.getDescriptor().toString());
+		return hash(parts);
+	}
+
+	private static String environment(
+			Application app,
+			List<Object> environment) {
+		List<String> parts = new ArrayList<>();
+		for (Object obj : environment)
+			if (obj instanceof Class)
+				parts.add(((Class<?>) obj).getName());
+			else
+				parts.add(obj == null ? "null" : obj.getClass().getName() + " " + obj);
+		parts.add(structure(app));
+		return hash(parts);
+	}
+
+	private static String structure(
+			Application app) {
+		List<String> parts = new ArrayList<>();
+		for (Program program : app.getPrograms()) {
+			addUnit(parts, program);
+			program.getUnits().forEach(unit -> addUnit(parts, unit));
+		}
+		for (CFG cfg : app.getEntryPoints())
+			parts.add("entrypoint " + signature(cfg));
+		Set<String> instantiated = new HashSet<>();
+		for (CFG cfg : app.getAllCFGs())
+			for (Statement st : cfg.getNodes())
+				if (st instanceof Expression && !(st instanceof VariableRef)) {
+					Type type = ((Expression) st).getStaticType();
+					if (type.isUnitType() || type.isPointerType())
+						instantiated.add("type " + type);
+				}
+		parts.addAll(instantiated);
+		Collections.sort(parts);
+		return hash(parts);
+	}
+
+	private static void addUnit(
+			List<String> parts,
+			Unit unit) {
+		String name = unit.getClass().getName() + " " + unit.getName();
+		parts.add(name);
+		for (Global global : unit.getGlobals())
+			parts.add(name + " global " + global);
+		for (CodeMember cm : unit.getCodeMembers())
+			parts.add(name + " member " + cm.getDescriptor());
+		if (unit instanceof CompilationUnit) {
+			CompilationUnit cu = (CompilationUnit) unit;
+			for (CompilationUnit ancestor : cu.getImmediateAncestors())
+				parts.add(name + " ancestor " + ancestor.getName());
+			for (Global global : cu.getInstanceGlobals(false))
+				parts.add(name + " instance global " + global);
+			for (CodeMember cm : cu.getInstanceCodeMembers(false))
+				parts.add(name + " instance member " + cm.getDescriptor());
+		}
+	}
+
+	private static String hash(
+			List<String> parts) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (String part : parts) {
+				digest.update(part.getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) '\n');
+			}
+			StringBuilder res = new StringBuilder();
+			for (byte b : digest.digest())
+				res.append(String.format("%02x", b));
+			return res.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	private final class StoredMember {
+
+		private final String fingerprint;
+
+		private final Collection<String> callees;
+
+		/**
+		 * The cfg the results have been computed on, if computed by this JVM.
+		 */
+		private final CFG cfg;
+
+		private final Collection<AnalyzedCFG<?>> results;
+
+		/**
+		 * The encoded results, if they have been encoded.
+		 */
+		private final List<JsonNode> encoded;
+
+		private StoredMember(
+				String fingerprint,
+				Collection<String> callees,
+				CFG cfg,
+				Collection<AnalyzedCFG<?>> results,
+				List<JsonNode> encoded) {
+			this.fingerprint = fingerprint;
+			this.callees = callees;
+			this.cfg = cfg;
+			this.results = results == null ? null : Collections.unmodifiableCollection(results);
+			this.encoded = encoded;
+		}
+
+		private Collection<AnalyzedCFG<?>> resultsFor(
+				CFG current) {
+			if (results != null && current == cfg)
+				return results;
+			// ids of results computed on other cfgs might refer to elements
+			// of other programs (e.g., to calls), and must be moved through
+			// the codec as well
+			if (encoded == null || codec == null)
+				return null;
+
+			try {
+				Collection<AnalyzedCFG<?>> decoded = new ArrayList<>(encoded.size());
+				for (JsonNode node : encoded)
+					decoded.add(decode(current, node));
+				return decoded;
+			} catch (IOException e) {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * The results stored for a cfg that can be reused, together with the cfgs
+	 * that it called when the results were computed.
+	 */
+	public static final class Reusable {
+
+		private final Collection<AnalyzedCFG<?>> results;
+
+		private final Collection<CFG> callees;
+
+		private Reusable(
+				Collection<AnalyzedCFG<?>> results,
+				Collection<CFG> callees) {
+			this.results = results;
+			this.callees = callees;
+		}
+
+		/**
+		 * Yields the stored results, one for each {@link ScopeId} the cfg was
+		 * analyzed with (see {@link AnalyzedCFG#getId()}).
+		 *
+		 * @return the results
+		 */
+		public Collection<AnalyzedCFG<?>> getResults() {
+			return results;
+		}
+
+		/**
+		 * Yields the cfgs that were called when the results were computed.
+		 *
+		 * @return the callees
+		 */
+		public Collection<CFG> getCallees() {
+			return callees;
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package it.unive.lisa.interprocedural;
+
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.AnalyzedCFG;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.statement.Statement;
+import java.io.IOException;
+
+/**
+ * A codec converting the {@link AnalysisState}s and {@link ScopeId}s of
+ * {@link AnalyzedCFG}s to and from strings, used by a {@link ResultStore} to
+ * persist results on disk. The store takes care of the structure of the
+ * results (that is, of associating states to the statements of the cfgs), and
+ * delegates to codecs the encoding of the information that is specific to the
+ * {@link AbstractState} and to the interprocedural analysis in use. Decoding
+ * an encoded object must yield an object that is equal to the original one:
+ * codecs that cannot guarantee this for some object must refuse to encode or
+ * to decode it by throwing an {@link IOException}, causing the results
+ * containing it to not be reused.
+ */
+public interface StateCodec {
+
+	/**
+	 * Encodes the given id of a result.
+	 *
+	 * @param id the id to encode
+	 *
+	 * @return the encoded id
+	 *
+	 * @throws IOException if the id cannot be encoded
+	 */
+	String encodeId(
+			ScopeId id)
+			throws IOException;
+
+	/**
+	 * Decodes the id of a result of the given cfg.
+	 *
+	 * @param cfg     the cfg whose result is identified by the id
+	 * @param encoded the encoded id, as returned by
+	 *                    {@link #encodeId(ScopeId)}
+	 *
+	 * @return the decoded id
+	 *
+	 * @throws IOException if the id cannot be decoded
+	 */
+	ScopeId decodeId(
+			CFG cfg,
+			String encoded)
+			throws IOException;
+
+	/**
+	 * Encodes the given state.
+	 *
+	 * @param state the state to encode
+	 *
+	 * @return the encoded state
+	 *
+	 * @throws IOException if the state cannot be encoded
+	 */
+	String encodeState(
+			AnalysisState<?> state)
+			throws IOException;
+
+	/**
+	 * Decodes a state computed on the given statement.
+	 *
+	 * @param <A>     the type of {@link AbstractState} contained in the state
+	 * @param st      the statement the state has been computed on
+	 * @param encoded the encoded state, as returned by
+	 *                    {@link #encodeState(AnalysisState)}
+	 *
+	 * @return the decoded state
+	 *
+	 * @throws IOException if the state cannot be decoded
+	 */
+	<A extends AbstractState<A>> AnalysisState<A> decodeState(
+			Statement st,
+			String encoded)
+			throws IOException;
+}
@@ -45,7 +45,16 @@ import org.apache.logging.log4j.Logger;
  * <br>
  * The graph underlying this call graph is built lazily through each call to
  * resolve: querying for information about the graph before the completion of
- * the analysis might lead to wrong results.
+ * the analysis might lead to wrong results. Transitive queries and recursions
+ * are answered through a reachability index that is updated incrementally as
+ * edges are added to the graph, instead of traversing the graph at each query.
+ * <br>
+ * <br>
+ * Instance calls are resolved through {@link DispatchTable}s, built once for
+ * each unit that is used as receiver and that flatten the members inherited
+ * through the hierarchy. Resolved calls are cached and reused while the graph
+ * is initialized with the same {@link Application}, since both the program and
+ * the result of the resolution do not change between different runs.
  *
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a> and
  *             <a href="mailto:pietro.ferrara@unive.it">Pietro Ferrara</a>
@@ -58,16 +67,89 @@ public abstract class BaseCallGraph extends CallGraph {
 
 	private final Map<CodeMember, Collection<Call>> callsites = new HashMap<>();
 
-	private final Map<UnresolvedCall, Map<List<Set<Type>>, Call>> resolvedCache = new IdentityHashMap<>();
+	private final Map<UnresolvedCall, Map<List<Set<Type>>, Resolution>> resolvedCache = new IdentityHashMap<>();
+
+	private final Map<HierarcyTraversalStrategy, Map<CompilationUnit, DispatchTable>> tables = new IdentityHashMap<>();
+
+	private final Set<Resolution> registered = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	private final CallGraphReachability reachability = new CallGraphReachability();
 
 	@Override
 	public void init(
 			Application app)
 			throws CallGraphConstructionException {
 		super.init(app);
+		if (this.app != app) {
+			// cached resolutions can be reused only with the same application
+			this.resolvedCache.clear();
+			this.tables.clear();
+		}
 		this.app = app;
 		this.callsites.clear();
-		this.resolvedCache.clear();
+		this.registered.clear();
+		this.reachability.clear();
+	}
+
+	@Override
+	public void addNode(
+			CallGraphNode node,
+			boolean entrypoint) {
+		super.addNode(node, entrypoint);
+		reachability.add(node.getCodeMember());
+	}
+
+	@Override
+	public void addEdge(
+			CallGraphEdge edge) {
+		super.addEdge(edge);
+		reachability.addEdge(edge.getSource().getCodeMember(), edge.getDestination().getCodeMember());
+	}
+
+	@Override
+	public Collection<CodeMember> getCallersTransitively(
+			CodeMember cm) {
+		return reachability.ancestorsOf(Collections.singleton(cm));
+	}
+
+	@Override
+	public Collection<CodeMember> getCallersTransitively(
+			Collection<? extends CodeMember> cms) {
+		return reachability.ancestorsOf(cms);
+	}
+
+	@Override
+	public Collection<CodeMember> getCalleesTransitively(
+			CodeMember cm) {
+		return reachability.descendantsOf(Collections.singleton(cm));
+	}
+
+	@Override
+	public Collection<CodeMember> getCalleesTransitively(
+			Collection<? extends CodeMember> cms) {
+		return reachability.descendantsOf(cms);
+	}
+
+	@Override
+	public boolean callsTransitively(
+			Collection<? extends CodeMember> callers,
+			CodeMember callee) {
+		return reachability.reaches(callers, callee);
+	}
+
+	@Override
+	public Collection<Collection<CodeMember>> getRecursions() {
+		return reachability.getRecursions();
+	}
+
+	@Override
+	public Collection<Collection<CodeMember>> getRecursionsContaining(
+			CodeMember cm) {
+		Collection<Collection<CodeMember>> result = new HashSet<>();
+		for (Collection<CodeMember> rec : reachability.getRecursions())
+			if (rec.contains(cm))
+				result.add(rec);
+		return result;
 	}
 
 	@Override
@@ -100,9 +182,13 @@ public abstract class BaseCallGraph extends CallGraph {
 			SymbolAliasing aliasing)
 			throws CallResolutionException {
 		List<Set<Type>> typeList = Arrays.asList(types);
-		Call cached = resolvedCache.getOrDefault(call, Map.of()).get(typeList);
-		if (cached != null)
-			return cached;
+		Resolution cached = resolvedCache.getOrDefault(call, Map.of()).get(typeList);
+		if (cached != null) {
+			if (registered.add(cached))
+				// resolved during a previous run: the edges are missing
+				addEdges(call, cached);
+			return cached.call;
+		}
 
 		Expression[] params = call.getParameters();
 		if (types == null || types.length != params.length)
@@ -191,13 +277,39 @@ public abstract class BaseCallGraph extends CallGraph {
 			resolved = new MultiCall(call, cfgcall, cfgcallnorec, nativecall, nativecallnorec);
 
 		resolved.setSource(call);
-		resolvedCache.computeIfAbsent(call, c -> new HashMap<>()).put(typeList, resolved);
+		Resolution resolution = new Resolution(resolved, targets, nativeTargets);
+		resolvedCache.computeIfAbsent(call, c -> new HashMap<>()).put(typeList, resolution);
+		registered.add(resolution);
+		addEdges(call, resolution);
+
+		LOG.trace(
+				call + " [" + call.getLocation() + "] has been resolved to: " + ((ResolvedCall) resolved).getTargets());
+		return resolved;
+	}
+
+	/**
+	 * Discards all the cached resolutions of the given call, so that the next
+	 * invocation of {@link #resolve(UnresolvedCall, Set[], SymbolAliasing)}
+	 * will compute its targets again. Edges that have already been added to
+	 * the graph because of the call are not removed.
+	 *
+	 * @param call the call whose resolutions have to be discarded
+	 */
+	protected void forgetResolutions(
+			UnresolvedCall call) {
+		Map<List<Set<Type>>, Resolution> forgotten = resolvedCache.remove(call);
+		if (forgotten != null)
+			registered.removeAll(forgotten.values());
+	}
 
+	private void addEdges(
+			UnresolvedCall call,
+			Resolution resolution) {
 		CallGraphNode source = new CallGraphNode(this, call.getCFG());
 		if (!adjacencyMatrix.containsNode(source))
 			addNode(source, app.getEntryPoints().contains(call.getCFG()));
 
-		for (CFG target : targets) {
+		for (CFG target : resolution.targets) {
 			CallGraphNode t = new CallGraphNode(this, target);
 			if (!adjacencyMatrix.containsNode(t))
 				addNode(t, app.getEntryPoints().contains(call.getCFG()));
@@ -205,17 +317,13 @@ public abstract class BaseCallGraph extends CallGraph {
 			callsites.computeIfAbsent(target, cm -> new HashSet<>()).add(call);
 		}
 
-		for (NativeCFG target : nativeTargets) {
+		for (NativeCFG target : resolution.nativeTargets) {
 			CallGraphNode t = new CallGraphNode(this, target);
 			if (!adjacencyMatrix.containsNode(t))
 				addNode(t, false);
 			addEdge(new CallGraphEdge(source, t));
 			callsites.computeIfAbsent(target, cm -> new HashSet<>()).add(call);
 		}
-
-		LOG.trace(
-				call + " [" + call.getLocation() + "] has been resolved to: " + ((ResolvedCall) resolved).getTargets());
-		return resolved;
 	}
 
 	private boolean onlyNativeCFGTargets(
@@ -345,7 +453,15 @@ public abstract class BaseCallGraph extends CallGraph {
 	}
 
 	/**
-	 * Resolves the given call as an instance call.
+	 * Resolves the given call as an instance call. For each possible type of
+	 * the receiver, all members of the {@link DispatchTable} of its unit are
+	 * checked against the call through
+	 * {@link #checkMember(UnresolvedCall, Set[], Collection, Collection, SymbolAliasing, CodeMember, boolean)}.
+	 * Dispatch tables are built once per unit and reused for all calls only if
+	 * the {@link HierarcyTraversalStrategy} of the program declares that its
+	 * traversals do not depend on the statement they are computed for (see
+	 * {@link HierarcyTraversalStrategy#isStatementIndependent()}), and are
+	 * built for each resolution otherwise.
 	 * 
 	 * @param call     the call to resolve
 	 * @param types    the runtime types of the parameters of the call
@@ -371,6 +487,7 @@ public abstract class BaseCallGraph extends CallGraph {
 			throw new CallResolutionException(
 					"An instance call should have at least one parameter to be used as the receiver of the call");
 		Expression receiver = call.getParameters()[0];
+		HierarcyTraversalStrategy strategy = call.getProgram().getFeatures().getTraversalStrategy();
 		for (Type recType : getPossibleTypesOfReceiver(receiver, types[0])) {
 			CompilationUnit unit;
 			if (recType.isUnitType())
@@ -380,13 +497,15 @@ public abstract class BaseCallGraph extends CallGraph {
 			else
 				continue;
 
-			Set<CompilationUnit> seen = new HashSet<>();
-			HierarcyTraversalStrategy strategy = call.getProgram().getFeatures().getTraversalStrategy();
-			for (CompilationUnit cu : strategy.traverse(call, unit))
-				if (seen.add(cu))
-					// we inspect only the ones of the current unit
-					for (CodeMember cm : cu.getInstanceCodeMembers(false))
-						checkMember(call, types, targets, natives, aliasing, cm, true);
+			DispatchTable table;
+			if (strategy.isStatementIndependent())
+				table = tables.computeIfAbsent(strategy, s -> new IdentityHashMap<>())
+						.computeIfAbsent(unit, u -> new DispatchTable(strategy.traverse(call, u)));
+			else
+				table = new DispatchTable(strategy.traverse(call, unit));
+
+			for (CodeMember cm : table.getMembers())
+				checkMember(call, types, targets, natives, aliasing, cm, true);
 		}
 	}
 
@@ -515,4 +634,26 @@ public abstract class BaseCallGraph extends CallGraph {
 			CodeMember cm) {
 		return callsites.getOrDefault(cm, Collections.emptyList());
 	}
+
+	/**
+	 * The result of the resolution of an {@link UnresolvedCall}, together with
+	 * the targets that have been added to the graph because of it.
+	 */
+	private static final class Resolution {
+
+		private final Call call;
+
+		private final Collection<CFG> targets;
+
+		private final Collection<NativeCFG> nativeTargets;
+
+		private Resolution(
+				Call call,
+				Collection<CFG> targets,
+				Collection<NativeCFG> nativeTargets) {
+			this.call = call;
+			this.targets = targets;
+			this.nativeTargets = nativeTargets;
+		}
+	}
 }
\ No newline at end of file
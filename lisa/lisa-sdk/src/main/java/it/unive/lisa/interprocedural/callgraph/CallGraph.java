@@ -12,6 +12,7 @@ import it.unive.lisa.util.collections.workset.VisitOnceWorkingSet;
 import it.unive.lisa.util.datastructures.graph.BaseGraph;
 import it.unive.lisa.util.datastructures.graph.algorithms.SCCs;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -68,6 +69,20 @@ public abstract class CallGraph extends BaseGraph<CallGraph, CallGraphNode, Call
 	public abstract void registerCall(
 			CFGCall call);
 
+	/**
+	 * Yields the {@link CodeMember}s containing calls whose resolution has
+	 * been invalidated since the last invocation of this method, e.g., since
+	 * new information about the program makes them target more code members.
+	 * Results computed for such members should be discarded, and the calls
+	 * should be resolved again. The default implementation never invalidates
+	 * resolutions, and thus always returns an empty collection.
+	 *
+	 * @return the code members whose calls must be resolved again
+	 */
+	public Collection<CodeMember> pollInvalidatedCallers() {
+		return Collections.emptySet();
+	}
+
 	/**
 	 * Yields all the {@link Call}s that target the given {@link CodeMember}.
 	 * The returned collection might contain partial results if this call graph
@@ -200,6 +215,23 @@ public abstract class CallGraph extends BaseGraph<CallGraph, CallGraphNode, Call
 		return ws.getSeen();
 	}
 
+	/**
+	 * Yields whether or not {@code callee} belongs to the transitive closure of
+	 * {@link #getCallees(CodeMember)} of at least one of the given code
+	 * members. The returned value might be imprecise if this call graph is not
+	 * fully built.
+	 * 
+	 * @param callers the code members to start from
+	 * @param callee  the code member to search
+	 * 
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean callsTransitively(
+			Collection<? extends CodeMember> callers,
+			CodeMember callee) {
+		return getCalleesTransitively(callers).contains(callee);
+	}
+
 	/**
 	 * Yields all the {@link CodeMember}s that are called by the given one. The
 	 * returned collection might contain partial results if this call graph is
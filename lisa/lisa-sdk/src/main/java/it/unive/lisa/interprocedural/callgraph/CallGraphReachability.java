@@ -0,0 +1,521 @@
+package it.unive.lisa.interprocedural.callgraph;
+
+import it.unive.lisa.program.cfg.CodeMember;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A reachability index over the {@link CodeMember}s of a {@link CallGraph}.
+ * The index stores the calls between members as adjacency sets over dense
+ * identifiers assigned to members when they are first added, and answers
+ * queries through labels that are computed lazily, the first time they are
+ * needed after a modification. Labels are built by condensing the strongly
+ * connected components of the graph (i.e., the recursions) into single nodes,
+ * and by assigning to each node of the resulting acyclic graph the post-order
+ * number of a depth-first visit together with the set of intervals of such
+ * numbers that covers all nodes reachable from it (following the compressed
+ * transitive closure of Agrawal, Borgida and Jagadish). The same is done on
+ * the reversed graph to answer queries about callers. Reachability queries
+ * are answered with a binary search over the intervals of the caller, while
+ * edges between members that already reach each other do not invalidate the
+ * labels.<br>
+ * <br>
+ * The graph occupies memory proportional to the number of members and calls.
+ * Each component needs one interval for the sub-tree of the visit rooted in
+ * it, plus one interval for each group of reachable components that are not
+ * in that sub-tree and whose numbers are not contiguous: labels are thus
+ * linear in the number of components when call graphs are (close to) trees,
+ * and quadratic in the number of components (but not of members) in the
+ * worst case. This class is <b>not</b> thread-safe: it can be queried
+ * concurrently, but not while it is being modified.
+ */
+class CallGraphReachability {
+
+	private final Map<CodeMember, Integer> ids;
+
+	private final List<CodeMember> members;
+
+	private final List<Set<Integer>> callees;
+
+	private volatile Index index;
+
+	/**
+	 * Builds an empty index.
+	 */
+	CallGraphReachability() {
+		ids = new HashMap<>();
+		members = new ArrayList<>();
+		callees = new ArrayList<>();
+	}
+
+	/**
+	 * Removes all members and edges from this index.
+	 */
+	void clear() {
+		ids.clear();
+		members.clear();
+		callees.clear();
+		index = null;
+	}
+
+	/**
+	 * Adds the given member to this index, if it is not already part of it.
+	 *
+	 * @param cm the member to add
+	 */
+	void add(
+			CodeMember cm) {
+		id(cm);
+	}
+
+	/**
+	 * Records that {@code source} calls {@code destination}, adding both
+	 * members if needed.
+	 *
+	 * @param source      the caller
+	 * @param destination the callee
+	 *
+	 * @return {@code false} if the reachability information is known to be
+	 *             unchanged by this edge
+	 */
+	boolean addEdge(
+			CodeMember source,
+			CodeMember destination) {
+		int src = id(source);
+		int dest = id(destination);
+		if (!callees.get(src).add(dest))
+			return false;
+
+		Index current = index;
+		if (current != null && current.reaches(src, dest))
+			// the closure, and thus the components, are unchanged
+			return false;
+
+		index = null;
+		return true;
+	}
+
+	/**
+	 * Yields whether or not {@code target} is transitively called by at least
+	 * one of the given members.
+	 *
+	 * @param sources the callers
+	 * @param target  the callee
+	 *
+	 * @return {@code true} if that condition holds
+	 *
+	 * @throws IllegalArgumentException if one of the members is not part of
+	 *                                      this index
+	 */
+	boolean reaches(
+			Collection<? extends CodeMember> sources,
+			CodeMember target) {
+		Index idx = index();
+		int dest = existing(target);
+		for (CodeMember cm : sources)
+			if (idx.reaches(existing(cm), dest))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Yields all the members that are transitively called by at least one of
+	 * the given ones. The given members are part of the result only if they
+	 * are part of a recursion.
+	 *
+	 * @param cms the callers
+	 *
+	 * @return the (modifiable) set of callees
+	 *
+	 * @throws IllegalArgumentException if one of the members is not part of
+	 *                                      this index
+	 */
+	Set<CodeMember> descendantsOf(
+			Collection<? extends CodeMember> cms) {
+		Index idx = index();
+		return collect(idx, idx.forward, cms);
+	}
+
+	/**
+	 * Yields all the members that transitively call at least one of the given
+	 * ones. The given members are part of the result only if they are part of
+	 * a recursion.
+	 *
+	 * @param cms the callees
+	 *
+	 * @return the (modifiable) set of callers
+	 *
+	 * @throws IllegalArgumentException if one of the members is not part of
+	 *                                      this index
+	 */
+	Set<CodeMember> ancestorsOf(
+			Collection<? extends CodeMember> cms) {
+		Index idx = index();
+		return collect(idx, idx.backward, cms);
+	}
+
+	/**
+	 * Yields the non-trivial strongly connected components of the indexed
+	 * graph, that is, the recursions, each in the form of the collection of the
+	 * members composing it. A single member is a recursion only if it calls
+	 * itself. The returned value is cached until an edge that changes the
+	 * reachability information is added.
+	 *
+	 * @return the (unmodifiable) recursions
+	 */
+	Collection<Collection<CodeMember>> getRecursions() {
+		return index().recursions;
+	}
+
+	private Set<CodeMember> collect(
+			Index idx,
+			Labels labels,
+			Collection<? extends CodeMember> cms) {
+		BitSet found = new BitSet(idx.components.length);
+		for (CodeMember cm : cms) {
+			int c = idx.component[existing(cm)];
+			labels.collect(c, idx.recursive.get(c), found);
+		}
+		Set<CodeMember> result = new HashSet<>();
+		for (int c = found.nextSetBit(0); c >= 0; c = found.nextSetBit(c + 1))
+			for (int member : idx.components[c])
+				result.add(members.get(member));
+		return result;
+	}
+
+	private Index index() {
+		Index result = index;
+		if (result != null)
+			return result;
+
+		synchronized (this) {
+			if (index == null) {
+				int[][] graph = new int[members.size()][];
+				for (int i = 0; i < graph.length; i++)
+					graph[i] = callees.get(i).stream().mapToInt(Integer::intValue).toArray();
+				index = new Index(graph, members);
+			}
+			return index;
+		}
+	}
+
+	private int existing(
+			CodeMember cm) {
+		Integer id = ids.get(cm);
+		if (id == null)
+			throw new IllegalArgumentException("'" + cm + "' is not in the graph");
+		return id;
+	}
+
+	private int id(
+			CodeMember cm) {
+		Integer id = ids.get(cm);
+		if (id != null)
+			return id;
+		int fresh = members.size();
+		ids.put(cm, fresh);
+		members.add(cm);
+		callees.add(new LinkedHashSet<>());
+		index = null;
+		return fresh;
+	}
+
+	/**
+	 * The labels of a graph at a given point in time: the strongly connected
+	 * components of the graph, and the labels of the graph obtained by
+	 * condensing them in both directions.
+	 */
+	private static final class Index {
+
+		/**
+		 * The component of each member.
+		 */
+		private final int[] component;
+
+		/**
+		 * The members of each component.
+		 */
+		private final int[][] components;
+
+		/**
+		 * The components that are recursions.
+		 */
+		private final BitSet recursive;
+
+		/**
+		 * The labels for following calls.
+		 */
+		private final Labels forward;
+
+		/**
+		 * The labels for following calls backwards.
+		 */
+		private final Labels backward;
+
+		/**
+		 * The recursions, in the form of the members composing them.
+		 */
+		private final Collection<Collection<CodeMember>> recursions;
+
+		private Index(
+				int[][] graph,
+				List<CodeMember> members) {
+			int n = graph.length;
+			component = new int[n];
+			int count = components(graph, component);
+
+			List<List<Integer>> grouped = new ArrayList<>(count);
+			List<Set<Integer>> succ = new ArrayList<>(count);
+			List<Set<Integer>> pred = new ArrayList<>(count);
+			for (int c = 0; c < count; c++) {
+				grouped.add(new ArrayList<>());
+				succ.add(new LinkedHashSet<>());
+				pred.add(new LinkedHashSet<>());
+			}
+
+			recursive = new BitSet(count);
+			for (int u = 0; u < n; u++) {
+				int cu = component[u];
+				grouped.get(cu).add(u);
+				for (int w : graph[u]) {
+					int cw = component[w];
+					if (cu == cw)
+						// either a self-loop or an edge inside a cycle
+						recursive.set(cu);
+					else {
+						succ.get(cu).add(cw);
+						pred.get(cw).add(cu);
+					}
+				}
+			}
+
+			components = new int[count][];
+			Set<Collection<CodeMember>> sccs = new HashSet<>();
+			for (int c = 0; c < count; c++) {
+				components[c] = grouped.get(c).stream().mapToInt(Integer::intValue).toArray();
+				if (recursive.get(c)) {
+					Set<CodeMember> rec = new HashSet<>();
+					for (int member : components[c])
+						rec.add(members.get(member));
+					sccs.add(Collections.unmodifiableSet(rec));
+				}
+			}
+			recursions = Collections.unmodifiableSet(sccs);
+			forward = new Labels(toArray(succ));
+			backward = new Labels(toArray(pred));
+		}
+
+		private boolean reaches(
+				int source,
+				int target) {
+			int cs = component[source];
+			int ct = component[target];
+			if (cs == ct)
+				return recursive.get(cs);
+			return forward.reaches(cs, ct);
+		}
+
+		private static int[][] toArray(
+				List<Set<Integer>> adjacency) {
+			int[][] result = new int[adjacency.size()][];
+			for (int i = 0; i < result.length; i++)
+				result[i] = adjacency.get(i).stream().mapToInt(Integer::intValue).toArray();
+			return result;
+		}
+
+		/**
+		 * Computes the strongly connected components of the given graph
+		 * through an iterative version of Tarjan's algorithm.
+		 *
+		 * @param graph     the successors of each node
+		 * @param component where the component of each node is stored
+		 *
+		 * @return the number of components
+		 */
+		private static int components(
+				int[][] graph,
+				int[] component) {
+			int n = graph.length;
+			int[] order = new int[n];
+			int[] low = new int[n];
+			int[] next = new int[n];
+			int[] visit = new int[n];
+			int[] open = new int[n];
+			boolean[] onStack = new boolean[n];
+			Arrays.fill(order, -1);
+
+			int counter = 0, count = 0;
+			for (int root = 0; root < n; root++) {
+				if (order[root] != -1)
+					continue;
+
+				int vsp = 0, osp = 0;
+				order[root] = low[root] = counter++;
+				visit[vsp++] = root;
+				open[osp++] = root;
+				onStack[root] = true;
+				while (vsp > 0) {
+					int u = visit[vsp - 1];
+					if (next[u] < graph[u].length) {
+						int w = graph[u][next[u]++];
+						if (order[w] == -1) {
+							order[w] = low[w] = counter++;
+							visit[vsp++] = w;
+							open[osp++] = w;
+							onStack[w] = true;
+						} else if (onStack[w])
+							low[u] = Math.min(low[u], order[w]);
+						continue;
+					}
+
+					vsp--;
+					if (vsp > 0)
+						low[visit[vsp - 1]] = Math.min(low[visit[vsp - 1]], low[u]);
+					if (low[u] == order[u]) {
+						int w;
+						do {
+							w = open[--osp];
+							onStack[w] = false;
+							component[w] = count;
+						} while (w != u);
+						count++;
+					}
+				}
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * Interval labels of an acyclic graph. Each node is identified by the
+	 * post-order number of a depth-first visit of the graph, and it is
+	 * labelled with the sorted and disjoint intervals of post-order numbers
+	 * of the nodes it reaches, including itself.
+	 */
+	private static final class Labels {
+
+		/**
+		 * The post-order number of each node.
+		 */
+		private final int[] post;
+
+		/**
+		 * The node with each post-order number.
+		 */
+		private final int[] node;
+
+		/**
+		 * The bounds of the intervals of each node, stored as
+		 * {@code [low0, high0, low1, high1, ...]}.
+		 */
+		private final int[][] intervals;
+
+		private Labels(
+				int[][] dag) {
+			int n = dag.length;
+			post = new int[n];
+			node = new int[n];
+			intervals = new int[n][];
+
+			int[] next = new int[n];
+			int[] visit = new int[n];
+			boolean[] visited = new boolean[n];
+			int counter = 0;
+			for (int root = 0; root < n; root++) {
+				if (visited[root])
+					continue;
+
+				int sp = 0;
+				visited[root] = true;
+				visit[sp++] = root;
+				while (sp > 0) {
+					int u = visit[sp - 1];
+					if (next[u] < dag[u].length) {
+						int w = dag[u][next[u]++];
+						if (!visited[w]) {
+							visited[w] = true;
+							visit[sp++] = w;
+						}
+						continue;
+					}
+
+					// the graph is acyclic: all successors have been labelled
+					sp--;
+					post[u] = counter;
+					node[counter] = u;
+					counter++;
+					intervals[u] = merge(post[u], dag[u]);
+				}
+			}
+		}
+
+		private int[] merge(
+				int self,
+				int[] successors) {
+			int size = 1;
+			for (int s : successors)
+				size += intervals[s].length / 2;
+
+			// intervals are sorted by lower bound through their encoding
+			long[] all = new long[size];
+			all[0] = ((long) self << 32) | self;
+			int i = 1;
+			for (int s : successors)
+				for (int j = 0; j < intervals[s].length; j += 2)
+					all[i++] = ((long) intervals[s][j] << 32) | intervals[s][j + 1];
+			Arrays.sort(all);
+
+			int[] result = new int[2 * size];
+			int count = 0;
+			for (long interval : all) {
+				int lo = (int) (interval >>> 32);
+				int hi = (int) interval;
+				if (count > 0 && lo <= result[count - 1] + 1)
+					result[count - 1] = Math.max(result[count - 1], hi);
+				else {
+					result[count++] = lo;
+					result[count++] = hi;
+				}
+			}
+			return Arrays.copyOf(result, count);
+		}
+
+		private boolean reaches(
+				int source,
+				int target) {
+			int[] label = intervals[source];
+			int number = post[target];
+			int lo = 0, hi = label.length / 2 - 1;
+			while (lo <= hi) {
+				int mid = (lo + hi) >>> 1;
+				if (label[2 * mid] > number)
+					hi = mid - 1;
+				else if (label[2 * mid + 1] < number)
+					lo = mid + 1;
+				else
+					return true;
+			}
+			return false;
+		}
+
+		private void collect(
+				int source,
+				boolean includeSelf,
+				BitSet result) {
+			int[] label = intervals[source];
+			for (int i = 0; i < label.length; i += 2)
+				for (int number = label[i]; number <= label[i + 1]; number++)
+					if (includeSelf || node[number] != source)
+						result.set(node[number]);
+		}
+	}
+}
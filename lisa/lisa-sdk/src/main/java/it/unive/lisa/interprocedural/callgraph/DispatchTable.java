@@ -0,0 +1,59 @@
+package it.unive.lisa.interprocedural.callgraph;
+
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.cfg.AbstractCodeMember;
+import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.program.language.hierarchytraversal.HierarcyTraversalStrategy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A dispatch table for instance calls whose receiver is an instance of a
+ * given {@link CompilationUnit}. The table holds the instance
+ * {@link CodeMember}s that are either defined in the unit or inherited from
+ * one of its ancestors, that is, all the ones that a
+ * {@link HierarcyTraversalStrategy} would visit when starting from the unit.
+ * {@link AbstractCodeMember}s are never part of the table, as they cannot be
+ * targeted by calls. Since units cannot change after the program has been
+ * finalized, tables can be built once and used to avoid traversing the
+ * hierarchy of a unit each time it is used as receiver. The table does not
+ * filter members by name: whether or not a member can be targeted by a call
+ * is left to the call graph.
+ */
+class DispatchTable {
+
+	private final List<CodeMember> members;
+
+	/**
+	 * Builds the table by flattening the instance members of the given units.
+	 * Units that are yielded more than once are inspected only the first
+	 * time.
+	 *
+	 * @param hierarchy the units to flatten, in the order in which they have
+	 *                      to be visited
+	 */
+	DispatchTable(
+			Iterable<CompilationUnit> hierarchy) {
+		members = new ArrayList<>();
+		Set<CompilationUnit> seen = new HashSet<>();
+		for (CompilationUnit cu : hierarchy)
+			if (seen.add(cu))
+				// we inspect only the ones of the current unit
+				for (CodeMember cm : cu.getInstanceCodeMembers(false))
+					if (cm.getDescriptor().isInstance() && !(cm instanceof AbstractCodeMember))
+						members.add(cm);
+	}
+
+	/**
+	 * Yields the members of this table.
+	 *
+	 * @return the members, in the order in which their units have been
+	 *             visited
+	 */
+	Collection<CodeMember> getMembers() {
+		return members;
+	}
+}
@@ -0,0 +1,114 @@
+package it.unive.lisa.outputs;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A pipeline for dumping outputs of the analysis asynchronously. The thread
+ * that produces the outputs (e.g., by converting analysis results to
+ * serializable graphs) submits them to this pipeline through
+ * {@link #submit(Runnable)}, and a pool of writer threads will then write them
+ * to the file system. At most twice as many outputs as writer threads can be
+ * pending at any time: when this limit is reached, {@link #submit(Runnable)}
+ * blocks until one of the pending outputs has been written, so that the
+ * memory needed to hold them stays bounded. If the pipeline is built with no
+ * writer threads, outputs are instead written synchronously by the thread
+ * submitting them. Errors raised while writing are reported when submitting
+ * further outputs or when closing the pipeline, that waits for all pending
+ * outputs to be written.
+ */
+public class OutputPipeline implements AutoCloseable {
+
+	private final ExecutorService writers;
+
+	private final Semaphore slots;
+
+	private final AtomicReference<Throwable> failure;
+
+	/**
+	 * Builds the pipeline.
+	 *
+	 * @param threads the number of writer threads to use; if this is not
+	 *                    positive, outputs will be written synchronously
+	 */
+	public OutputPipeline(
+			int threads) {
+		if (threads <= 0) {
+			writers = null;
+			slots = null;
+		} else {
+			writers = Executors.newFixedThreadPool(threads);
+			slots = new Semaphore(2 * threads);
+		}
+		failure = new AtomicReference<>();
+	}
+
+	/**
+	 * Submits the given writing task to this pipeline, blocking if too many
+	 * tasks are still pending.
+	 *
+	 * @param task the task that writes an output
+	 *
+	 * @throws OutputDumpingException if a previously submitted task failed, or
+	 *                                    if the current thread is interrupted
+	 *                                    while waiting
+	 */
+	public void submit(
+			Runnable task) {
+		checkFailure();
+		if (writers == null) {
+			task.run();
+			return;
+		}
+
+		try {
+			slots.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OutputDumpingException("Interrupted while waiting to dump outputs", e);
+		}
+
+		writers.execute(() -> {
+			try {
+				task.run();
+			} catch (Throwable t) {
+				failure.compareAndSet(null, t);
+			} finally {
+				slots.release();
+			}
+		});
+	}
+
+	/**
+	 * Waits for all pending tasks to complete, and then shuts down the writer
+	 * threads.
+	 *
+	 * @throws OutputDumpingException if one of the submitted tasks failed, or
+	 *                                    if the current thread is interrupted
+	 *                                    while waiting
+	 */
+	@Override
+	public void close() {
+		if (writers != null) {
+			writers.shutdown();
+			try {
+				writers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OutputDumpingException("Interrupted while dumping outputs", e);
+			} finally {
+				writers.shutdownNow();
+			}
+		}
+		checkFailure();
+	}
+
+	private void checkFailure() {
+		Throwable t = failure.get();
+		if (t != null)
+			throw new OutputDumpingException("Error while dumping outputs", t);
+	}
+}
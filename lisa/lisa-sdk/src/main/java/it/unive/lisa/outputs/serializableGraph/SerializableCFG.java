@@ -1,5 +1,8 @@
 package it.unive.lisa.outputs.serializableGraph;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import it.unive.lisa.analysis.AnalyzedCFG;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.edge.Edge;
@@ -7,6 +10,8 @@ import it.unive.lisa.program.cfg.statement.NaryExpression;
 import it.unive.lisa.program.cfg.statement.NaryStatement;
 import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Arrays;
 import java.util.IdentityHashMap;
 import java.util.LinkedList;
@@ -56,11 +61,7 @@ public class SerializableCFG {
 			CFG source,
 			BiFunction<CFG, Statement, SerializableValue> descriptionGenerator) {
 		String name = source.getDescriptor().getFullSignatureWithParNames();
-		String desc;
-		if (source instanceof AnalyzedCFG<?> && !((AnalyzedCFG<?>) source).getId().isStartingId())
-			desc = ((AnalyzedCFG<?>) source).getId().toString();
-		else
-			desc = null;
+		String desc = descriptionOf(source);
 
 		SortedSet<SerializableNode> nodes = new TreeSet<>();
 		SortedSet<SerializableNodeDescription> descrs = new TreeSet<>();
@@ -81,6 +82,107 @@ public class SerializableCFG {
 		return new SerializableGraph(name, desc, nodes, edges, descrs);
 	}
 
+	/**
+	 * Dumps the given {@link CFG}, in JSON format through the given
+	 * {@link Writer}, using the given function to generate extra descriptions
+	 * for each statement. The produced JSON is the same as the one produced by
+	 * {@link SerializableGraph#dump(Writer)} on the result of
+	 * {@link #fromCFG(CFG, BiFunction)}, but nodes and descriptions are
+	 * streamed to the writer one at a time instead of being materialized in
+	 * memory (only edges are collected beforehand, to sort them). If the system
+	 * property {@code lisa.json.indent} is set to any value, the json will be
+	 * formatted.
+	 * 
+	 * @param source               the source cfg
+	 * @param descriptionGenerator the function that can generate descriptions
+	 *                                 from statements, or {@code null}
+	 * @param writer               the writer to use for dumping the cfg
+	 * 
+	 * @throws IOException if an I/O error occurs while writing
+	 */
+	public static void dump(
+			CFG source,
+			BiFunction<CFG, Statement, SerializableValue> descriptionGenerator,
+			Writer writer)
+			throws IOException {
+		OffsetGenerator gen = new OffsetGenerator();
+		source.accept(gen, null);
+
+		// offsets are assigned in visiting order, and are exactly the ids
+		// that will be used to sort nodes and descriptions
+		Statement[] byId = new Statement[gen.offset];
+		for (Map.Entry<Statement, Pair<Integer, List<Statement>>> entry : gen.result.entrySet())
+			byId[entry.getValue().getLeft()] = entry.getKey();
+
+		ObjectMapper mapper = new ObjectMapper();
+		// descriptions are written one at a time: flushing after each of them
+		// would hit the file system once per node
+		mapper.configure(SerializationFeature.FLUSH_AFTER_WRITE_VALUE, false);
+		try (JsonGenerator json = mapper.getFactory().createGenerator(writer)) {
+			if (System.getProperty("lisa.json.indent") != null)
+				json.useDefaultPrettyPrinter();
+
+			json.writeStartObject();
+			json.writeStringField("name", source.getDescriptor().getFullSignatureWithParNames());
+			json.writeStringField("description", descriptionOf(source));
+
+			json.writeArrayFieldStart("nodes");
+			for (Statement node : byId) {
+				json.writeStartObject();
+				json.writeNumberField("id", gen.result.get(node).getLeft());
+				List<Statement> inners = gen.result.get(node).getRight();
+				if (!inners.isEmpty()) {
+					json.writeArrayFieldStart("subNodes");
+					for (Statement inner : inners)
+						json.writeNumber(gen.result.get(inner).getLeft());
+					json.writeEndArray();
+				}
+				json.writeStringField("text", node.toString());
+				json.writeEndObject();
+			}
+			json.writeEndArray();
+
+			SortedSet<SerializableEdge> edges = new TreeSet<>();
+			for (Edge edge : source.getEdges())
+				edges.add(new SerializableEdge(
+						gen.result.get(edge.getSource()).getLeft(),
+						gen.result.get(edge.getDestination()).getLeft(),
+						edge.getClass().getSimpleName()));
+			json.writeArrayFieldStart("edges");
+			for (SerializableEdge edge : edges) {
+				json.writeStartObject();
+				json.writeNumberField("sourceId", edge.getSourceId());
+				json.writeNumberField("destId", edge.getDestId());
+				json.writeStringField("kind", edge.getKind());
+				json.writeEndObject();
+			}
+			json.writeEndArray();
+
+			json.writeArrayFieldStart("descriptions");
+			if (descriptionGenerator != null)
+				for (int i = 0; i < byId.length; i++) {
+					SerializableValue value = descriptionGenerator.apply(source, byId[i]);
+					if (value == null)
+						continue;
+					json.writeStartObject();
+					json.writeNumberField("nodeId", i);
+					json.writeFieldName("description");
+					mapper.writeValue(json, value);
+					json.writeEndObject();
+				}
+			json.writeEndArray();
+
+			json.writeEndObject();
+		}
+	}
+
+	private static String descriptionOf(
+			CFG source) {
+		if (source instanceof AnalyzedCFG<?> && !((AnalyzedCFG<?>) source).getId().isStartingId())
+			return ((AnalyzedCFG<?>) source).getId().toString();
+		return null;
+	}
+
 	private static void process(
 			CFG source,
 			SortedSet<SerializableNode> nodes,
@@ -34,11 +34,13 @@ import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.call.Call;
 import it.unive.lisa.util.collections.workset.VisitOnceFIFOWorkingSet;
 import it.unive.lisa.util.collections.workset.VisitOnceWorkingSet;
+import it.unive.lisa.util.collections.workset.WeakTopologicalOrderWorkingSet;
 import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.AdjacencyMatrix;
 import it.unive.lisa.util.datastructures.graph.algorithms.BackwardFixpoint;
 import it.unive.lisa.util.datastructures.graph.algorithms.Fixpoint;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder;
 import it.unive.lisa.util.datastructures.graph.code.CodeGraph;
 import it.unive.lisa.util.datastructures.graph.code.NodeList;
 import java.util.Collection;
@@ -85,6 +87,13 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 	 */
 	private Map<Statement, Statement[]> basicBlocks;
 
+	/**
+	 * The lazily computed positions of the statements of this cfg in its weak
+	 * topological order, available only after
+	 * {@link #getWeakTopologicalOrder()} has been invoked.
+	 */
+	private volatile Map<Statement, Integer> wto;
+
 	/**
 	 * Builds the control flow graph.
 	 * 
@@ -126,6 +135,7 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 		this.descriptor = other.descriptor;
 		this.cfStructs = other.cfStructs;
 		this.basicBlocks = other.basicBlocks;
+		this.wto = other.wto;
 	}
 
 	/**
@@ -378,6 +388,8 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 		// descending one: the latter will need full results to start applying
 		// glbs/narrowings from a post-fixpoint
 		boolean isOptimized = conf.optimize && conf.descendingPhaseType == DescendingPhaseType.NONE;
+		if (ws instanceof WeakTopologicalOrderWorkingSet)
+			((WeakTopologicalOrderWorkingSet<Statement>) ws).setPositions(getWeakTopologicalOrder());
 		Fixpoint<CFG, Statement, Edge, CompoundState<A>> fix = isOptimized
 				? new OptimizedFixpoint<>(this, false, conf.hotspots)
 				: new Fixpoint<>(this, false);
@@ -389,6 +401,7 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 				st,
 				state) -> starting.put(st, CompoundState.of(state, bot)));
 		Map<Statement, CompoundState<A>> ascending = fix.fixpoint(starting, ws, asc);
+		conf.getStatistics().merge(fix.getStatistics());
 
 		if (conf.descendingPhaseType == DescendingPhaseType.NONE)
 			return flatten(isOptimized, singleton, startingPoints, interprocedural, id, ascending);
@@ -410,6 +423,7 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 			descending = ascending;
 			break;
 		}
+		conf.getStatistics().merge(fix.getStatistics());
 
 		return flatten(conf.optimize, singleton, startingPoints, interprocedural, id, descending);
 	}
@@ -600,6 +614,7 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 				st,
 				state) -> starting.put(st, CompoundState.of(state, bot)));
 		Map<Statement, CompoundState<A>> ascending = fix.fixpoint(starting, ws, asc);
+		conf.getStatistics().merge(fix.getStatistics());
 
 		if (conf.descendingPhaseType == DescendingPhaseType.NONE)
 			return flatten(isOptimized, singleton, startingPoints, interprocedural, id, ascending);
@@ -622,6 +637,7 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 			descending = ascending;
 			break;
 		}
+		conf.getStatistics().merge(fix.getStatistics());
 
 		return flatten(conf.optimize, singleton, startingPoints, interprocedural, id, descending);
 	}
@@ -1129,4 +1145,27 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 			throw new IllegalStateException("Cannot retrieve basic blocks before computing them");
 		return basicBlocks;
 	}
+
+	/**
+	 * Yields the positions of the statements of this cfg in its weak
+	 * topological order, computed through {@link WeakTopologicalOrder}. The
+	 * order is computed at the first invocation of this method, and it is then
+	 * cached for later ones: the cfg should thus not be modified after this
+	 * method has been invoked. Note that an outdated order does not affect the
+	 * soundness of fixpoints using it, as it is only used to sort the
+	 * statements to process.
+	 * 
+	 * @return a map from each statement of this cfg to its position in the
+	 *             weak topological order
+	 */
+	public Map<Statement, Integer> getWeakTopologicalOrder() {
+		Map<Statement, Integer> order = wto;
+		if (order == null) {
+			// concurrent invocations might compute the order more than once,
+			// but they will all yield the same result
+			order = Collections.unmodifiableMap(new WeakTopologicalOrder<CFG, Statement, Edge>().build(this));
+			wto = order;
+		}
+		return order;
+	}
 }
@@ -9,17 +9,18 @@ import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.fixpoints.CFGFixpoint.CompoundState;
 import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.collections.workset.IndexedFIFOWorkingSet;
 import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.Graph;
 import it.unive.lisa.util.datastructures.graph.algorithms.BackwardFixpoint;
 import it.unive.lisa.util.datastructures.graph.algorithms.Fixpoint;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import it.unive.lisa.util.datastructures.graph.algorithms.FixpointResults;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 import java.util.function.Predicate;
 
 /**
@@ -67,47 +68,47 @@ public class OptimizedBackwardFixpoint<A extends AbstractState<A>>
 			Fixpoint.FixpointImplementation<Statement, Edge, CompoundState<A>> implementation,
 			Map<Statement, CompoundState<A>> initialResult)
 			throws FixpointException {
-		Map<Statement, CompoundState<A>> result = initialResult == null
-				? new HashMap<>(graph.getNodesCount())
-				: new HashMap<>(initialResult);
-
-		Map<Statement, Statement[]> bbs = new HashMap<>();
-		for (Entry<Statement, Statement[]> bb : graph.getBasicBlocks().entrySet()) {
-			// we store the basic blocks as <closing statement, block>
-			Statement[] block = bb.getValue();
-			bbs.put(block[block.length - 1], block);
+		prepare(ws);
+		FixpointResults<Statement, CompoundState<A>> result = new FixpointResults<>(index, initialResult);
+		Object[] starts = startingStates(startingPoints, ws);
+		IndexedFIFOWorkingSet<Statement> iws = ws instanceof IndexedFIFOWorkingSet
+				? (IndexedFIFOWorkingSet<Statement>) ws
+				: null;
+
+		// we store the basic blocks indexed by their closing statement
+		Statement[][] blocks = new Statement[index.size()][];
+		for (Statement[] block : graph.getBasicBlocks().values()) {
+			int id = index.indexOf(block[block.length - 1]);
+			if (id != -1)
+				blocks[id] = block;
 		}
-		startingPoints.keySet().forEach(ws::push);
 
-		Set<Statement> toProcess = null;
-		if (forceFullEvaluation)
-			toProcess = new HashSet<>(bbs.keySet());
+		BitSet toProcess = null;
+		if (forceFullEvaluation) {
+			toProcess = new BitSet(index.size());
+			for (int id = 0; id < blocks.length; id++)
+				if (blocks[id] != null)
+					toProcess.set(id);
+		}
 
 		CompoundState<A> newApprox;
 		while (!ws.isEmpty()) {
-			Statement current = ws.pop();
-
-			if (current == null)
-				throw new FixpointException("null node encountered during fixpoint in '" + graph + "'");
-			if (!graph.containsNode(current))
-				throw new FixpointException("'" + current + "' is not part of '" + graph + "'");
+			int id = pop(ws, iws);
+			Statement current = index.getNode(id);
 
-			Statement[] bb = bbs.get(current);
+			Statement[] bb = blocks[id];
 			if (bb == null)
 				throw new FixpointException("'" + current + "' is not the leader of a basic block of '" + graph + "'");
 
-			CompoundState<A> exitstate = getExitState(
-					current,
-					startingPoints.get(current),
-					implementation,
-					result);
+			CompoundState<A> exitstate = getExitState(id, cast(starts[id]), implementation, result);
 			if (exitstate == null)
 				throw new FixpointException("'" + current + "' does not have an entry state");
 
 			newApprox = analyze(result, implementation, exitstate, bb);
 
 			Statement leader = bb[0];
-			CompoundState<A> oldApprox = result.get(leader);
+			int leaderId = index.indexOf(leader);
+			CompoundState<A> oldApprox = result.get(leaderId);
 			if (oldApprox != null)
 				try {
 					newApprox = implementation.operation(leader, newApprox, oldApprox);
@@ -117,15 +118,14 @@ public class OptimizedBackwardFixpoint<A extends AbstractState<A>>
 
 			try {
 				// we go on if we were asked to analyze all nodes at least once
-				if ((forceFullEvaluation && toProcess.remove(current))
+				if ((forceFullEvaluation && Fixpoint.firstVisit(toProcess, id))
 						// or if this is the first time we analyze this node
 						|| oldApprox == null
 						// or if we got a result that should not be considered
 						// equal
 						|| !implementation.equality(leader, newApprox, oldApprox)) {
-					result.put(leader, newApprox);
-					for (Statement instr : graph.predecessorsOf(leader))
-						ws.push(instr);
+					result.put(leaderId, newApprox);
+					pushPredecessors(leaderId, ws, iws);
 				}
 			} catch (Exception e) {
 				throw new FixpointException(format(ERROR, "updating result", leader, graph), e);
@@ -138,18 +138,19 @@ public class OptimizedBackwardFixpoint<A extends AbstractState<A>>
 		// stopping statements as those will be frequently queried by
 		// interprocedural analyses during the fixpoint, so that we
 		// can delay unwinding. we also store hotspots
+		Map<Statement, CompoundState<A>> results = result.toMap();
 		Collection<Statement> cleanup = new HashSet<>();
 		Collection<Statement> wideningPoints = graph.getCycleEntries();
-		for (Statement st : result.keySet())
+		for (Statement st : results.keySet())
 			if (!wideningPoints.contains(st) && !st.stopsExecution() && (hotspots == null || !hotspots.test(st)))
 				cleanup.add(st);
-		cleanup.forEach(result::remove);
+		cleanup.forEach(results::remove);
 
-		return result;
+		return results;
 	}
 
 	private CompoundState<A> analyze(
-			Map<Statement, CompoundState<A>> result,
+			FixpointResults<Statement, CompoundState<A>> result,
 			Fixpoint.FixpointImplementation<Statement, Edge, CompoundState<A>> implementation,
 			CompoundState<A> exitstate,
 			Statement[] bb)
@@ -9,16 +9,17 @@ import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.fixpoints.CFGFixpoint.CompoundState;
 import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.collections.workset.IndexedFIFOWorkingSet;
 import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.Graph;
 import it.unive.lisa.util.datastructures.graph.algorithms.Fixpoint;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import it.unive.lisa.util.datastructures.graph.algorithms.FixpointResults;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 import java.util.function.Predicate;
 
 /**
@@ -66,42 +67,47 @@ public class OptimizedFixpoint<A extends AbstractState<A>>
 			FixpointImplementation<Statement, Edge, CompoundState<A>> implementation,
 			Map<Statement, CompoundState<A>> initialResult)
 			throws FixpointException {
-		Map<Statement, CompoundState<A>> result = initialResult == null
-				? new HashMap<>(graph.getNodesCount())
-				: new HashMap<>(initialResult);
-
 		Map<Statement, Statement[]> bbs = graph.getBasicBlocks();
-		startingPoints.keySet().forEach(ws::push);
+		prepare(ws);
+		FixpointResults<Statement, CompoundState<A>> result = new FixpointResults<>(index, initialResult);
+		Object[] starts = startingStates(startingPoints, ws);
+		IndexedFIFOWorkingSet<Statement> iws = ws instanceof IndexedFIFOWorkingSet
+				? (IndexedFIFOWorkingSet<Statement>) ws
+				: null;
+
+		Statement[][] blocks = new Statement[index.size()][];
+		for (Entry<Statement, Statement[]> bb : bbs.entrySet()) {
+			int id = index.indexOf(bb.getKey());
+			if (id != -1)
+				blocks[id] = bb.getValue();
+		}
 
-		Set<Statement> toProcess = null;
-		if (forceFullEvaluation)
-			toProcess = new HashSet<>(bbs.keySet());
+		BitSet toProcess = null;
+		if (forceFullEvaluation) {
+			toProcess = new BitSet(index.size());
+			for (int id = 0; id < blocks.length; id++)
+				if (blocks[id] != null)
+					toProcess.set(id);
+		}
 
 		CompoundState<A> newApprox;
 		while (!ws.isEmpty()) {
-			Statement current = ws.pop();
-
-			if (current == null)
-				throw new FixpointException("null node encountered during fixpoint in '" + graph + "'");
-			if (!graph.containsNode(current))
-				throw new FixpointException("'" + current + "' is not part of '" + graph + "'");
+			int id = pop(ws, iws);
+			Statement current = index.getNode(id);
 
-			Statement[] bb = bbs.get(current);
+			Statement[] bb = blocks[id];
 			if (bb == null)
 				throw new FixpointException("'" + current + "' is not the leader of a basic block of '" + graph + "'");
 
-			CompoundState<A> entrystate = getEntryState(
-					current,
-					startingPoints.get(current),
-					implementation,
-					result);
+			CompoundState<A> entrystate = getEntryState(id, cast(starts[id]), implementation, result);
 			if (entrystate == null)
 				throw new FixpointException("'" + current + "' does not have an entry state");
 
 			newApprox = analyze(result, implementation, entrystate, bb);
 
 			Statement closing = bb[bb.length - 1];
-			CompoundState<A> oldApprox = result.get(closing);
+			int closingId = index.indexOf(closing);
+			CompoundState<A> oldApprox = result.get(closingId);
 			if (oldApprox != null)
 				try {
 					newApprox = implementation.operation(closing, newApprox, oldApprox);
@@ -111,15 +117,14 @@ public class OptimizedFixpoint<A extends AbstractState<A>>
 
 			try {
 				// we go on if we were asked to analyze all nodes at least once
-				if ((forceFullEvaluation && toProcess.remove(current))
+				if ((forceFullEvaluation && firstVisit(toProcess, id))
 						// or if this is the first time we analyze this node
 						|| oldApprox == null
 						// or if we got a result that should not be considered
 						// equal
 						|| !implementation.equality(closing, newApprox, oldApprox)) {
-					result.put(closing, newApprox);
-					for (Statement instr : graph.followersOf(closing))
-						ws.push(instr);
+					result.put(closingId, newApprox);
+					pushFollowers(closingId, ws, iws);
 				}
 			} catch (Exception e) {
 				throw new FixpointException(format(ERROR, "updating result", closing, graph), e);
@@ -132,18 +137,19 @@ public class OptimizedFixpoint<A extends AbstractState<A>>
 		// stopping statements as those will be frequently queried by
 		// interprocedural analyses during the fixpoint, so that we
 		// can delay unwinding. we also store hotspots
+		Map<Statement, CompoundState<A>> results = result.toMap();
 		Collection<Statement> cleanup = new HashSet<>();
 		Collection<Statement> wideningPoints = graph.getCycleEntries();
-		for (Statement st : result.keySet())
+		for (Statement st : results.keySet())
 			if (!wideningPoints.contains(st) && !st.stopsExecution() && (hotspots == null || !hotspots.test(st)))
 				cleanup.add(st);
-		cleanup.forEach(result::remove);
+		cleanup.forEach(results::remove);
 
-		return result;
+		return results;
 	}
 
 	private CompoundState<A> analyze(
-			Map<Statement, CompoundState<A>> result,
+			FixpointResults<Statement, CompoundState<A>> result,
 			FixpointImplementation<Statement, Edge, CompoundState<A>> implementation,
 			CompoundState<A> entrystate,
 			Statement[] bb)
@@ -11,6 +11,7 @@ import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.CodeLocation;
 import it.unive.lisa.program.cfg.VariableTableEntry;
 import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.symbolic.ExpressionInterner;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Variable;
 import it.unive.lisa.type.Type;
@@ -120,7 +121,7 @@ public class VariableRef extends Expression {
 		Variable v = new Variable(getStaticType(), getName(), getLocation());
 		for (Annotation ann : getAnnotations())
 			v.addAnnotation(ann);
-		return v;
+		return ExpressionInterner.intern(v);
 	}
 
 	@Override
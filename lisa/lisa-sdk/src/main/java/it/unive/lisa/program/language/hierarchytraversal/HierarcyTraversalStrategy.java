@@ -31,4 +31,19 @@ public interface HierarcyTraversalStrategy {
 	Iterable<CompilationUnit> traverse(
 			Statement st,
 			CompilationUnit start);
+
+	/**
+	 * Yields whether or not the units returned by
+	 * {@link #traverse(Statement, CompilationUnit)} depend only on the unit
+	 * where the traversal starts, and not on the statement for which it is
+	 * requested. Traversals of statement-independent strategies can be
+	 * computed once per unit and shared among all statements. The default
+	 * implementation returns {@code false}.
+	 * 
+	 * @return {@code true} if and only if traversals do not depend on the
+	 *             statement
+	 */
+	default boolean isStatementIndependent() {
+		return false;
+	}
 }
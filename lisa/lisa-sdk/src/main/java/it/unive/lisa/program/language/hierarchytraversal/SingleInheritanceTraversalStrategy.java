@@ -38,6 +38,11 @@ public class SingleInheritanceTraversalStrategy implements HierarcyTraversalStra
 		};
 	}
 
+	@Override
+	public boolean isStatementIndependent() {
+		return true;
+	}
+
 	private class SingleInheritanceIterator implements Iterator<CompilationUnit> {
 
 		private CompilationUnit current;
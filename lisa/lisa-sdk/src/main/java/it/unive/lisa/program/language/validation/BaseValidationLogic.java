@@ -398,7 +398,8 @@ public class BaseValidationLogic implements ProgramValidationLogic {
 	 * according to
 	 * {@link CodeMemberDescriptor#matchesSignature(CodeMemberDescriptor)}. This
 	 * avoids ambiguous call resolution. Moreover, this ensures that all
-	 * {@link CFG}s are valid, according to {@link CFG#validate()}.
+	 * {@link CFG}s are valid, according to {@link CFG#validate()}, freezing
+	 * them (see {@link CFG#freeze()}) once validated.
 	 * 
 	 * @param member   the code member to validate
 	 * @param instance if {@code true}, duplicates will be searched in instance
@@ -424,5 +425,7 @@ public class BaseValidationLogic implements ProgramValidationLogic {
 					format(DUPLICATE_MEMBER, member.getDescriptor().getSignature(), container));
 
 		member.validate();
+		if (member instanceof CFG)
+			((CFG) member).freeze();
 	}
 }
\ No newline at end of file
@@ -0,0 +1,265 @@
+package it.unive.lisa.symbolic;
+
+import it.unive.lisa.symbolic.heap.AccessChild;
+import it.unive.lisa.symbolic.heap.HeapDereference;
+import it.unive.lisa.symbolic.heap.HeapReference;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.MemoryPointer;
+import it.unive.lisa.symbolic.value.OutOfScopeIdentifier;
+import it.unive.lisa.symbolic.value.TernaryExpression;
+import it.unive.lisa.symbolic.value.UnaryExpression;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * A hash-consing factory for {@link SymbolicExpression}s. Interning an
+ * expression yields a canonical instance that is indistinguishable from it,
+ * so that expressions built over and over during the analysis (e.g., by heap
+ * rewriting) end up being the same object, and their comparison becomes a
+ * reference check in the common case.<br>
+ * <br>
+ * Since equality of symbolic expressions is coarser than their structure
+ * (e.g., {@link Identifier}s are compared only through their name, and code
+ * locations are never used), two expressions are interned to the same
+ * instance only if they are equal, have the same class, static type and code
+ * location, the same annotations and weakness (for {@link Identifier}s), and
+ * if their sub-expressions satisfy the same conditions.
+ * {@link OutOfScopeIdentifier}s are never interned, as the identifier they
+ * hide is not observable. Note that expressions must not be modified (e.g.,
+ * by adding annotations) after they have been interned.<br>
+ * <br>
+ * Canonical instances are only weakly referenced by this factory: they are
+ * released as soon as no other object refers to them, so that long-running
+ * analyses of several programs do not accumulate expressions. The table is
+ * split in independently synchronized segments to support concurrent
+ * analyses.
+ */
+public final class ExpressionInterner {
+
+	private static final int SEGMENTS = 16;
+
+	private static final Segment[] TABLE = new Segment[SEGMENTS];
+
+	static {
+		for (int i = 0; i < SEGMENTS; i++)
+			TABLE[i] = new Segment();
+	}
+
+	private ExpressionInterner() {
+		// this class is just a static holder
+	}
+
+	/**
+	 * Yields the canonical instance of the given expression. If no expression
+	 * indistinguishable from the given one has been interned (or if all of
+	 * them have been garbage collected), {@code expression} itself becomes
+	 * the canonical instance.
+	 *
+	 * @param <T>        the type of the expression
+	 * @param expression the expression to intern, can be {@code null}
+	 *
+	 * @return the canonical instance (or {@code null} if {@code expression}
+	 *             is {@code null})
+	 */
+	public static <T extends SymbolicExpression> T intern(
+			T expression) {
+		if (expression == null || expression instanceof OutOfScopeIdentifier)
+			return expression;
+		int hash = expression.hashCode();
+		hash ^= (hash >>> 16);
+		return TABLE[hash & (SEGMENTS - 1)].intern(expression, hash);
+	}
+
+	/**
+	 * Yields the number of canonical instances that are currently stored by
+	 * this factory. Entries whose expression has been garbage collected but
+	 * that have not been purged yet are counted as well.
+	 *
+	 * @return the number of interned expressions
+	 */
+	public static int size() {
+		int size = 0;
+		for (Segment segment : TABLE)
+			size += segment.size();
+		return size;
+	}
+
+	/**
+	 * Forgets all canonical instances. Expressions interned before this call
+	 * will not be returned by {@link #intern(SymbolicExpression)} anymore.
+	 */
+	public static void clear() {
+		for (Segment segment : TABLE)
+			segment.clear();
+	}
+
+	/**
+	 * Yields whether the two expressions are indistinguishable, that is, if
+	 * one can be used in place of the other.
+	 *
+	 * @param first  the first expression
+	 * @param second the second expression
+	 *
+	 * @return whether the two expressions are indistinguishable
+	 */
+	static boolean indistinguishable(
+			SymbolicExpression first,
+			SymbolicExpression second) {
+		if (first == second)
+			return true;
+		if (first == null || second == null
+				|| first.getClass() != second.getClass()
+				|| first instanceof OutOfScopeIdentifier
+				|| !first.equals(second)
+				|| !first.getStaticType().equals(second.getStaticType())
+				|| !first.getCodeLocation().equals(second.getCodeLocation()))
+			return false;
+
+		if (first instanceof Identifier) {
+			Identifier f = (Identifier) first, s = (Identifier) second;
+			if (f.isWeak() != s.isWeak() || !f.getAnnotations().equals(s.getAnnotations()))
+				return false;
+			if (first instanceof MemoryPointer)
+				return indistinguishable(
+						((MemoryPointer) first).getReferencedLocation(),
+						((MemoryPointer) second).getReferencedLocation());
+			return true;
+		}
+
+		// equality already covers operators and the remaining fields: we only
+		// have to check the sub-expressions
+		if (first instanceof UnaryExpression)
+			return indistinguishable(
+					((UnaryExpression) first).getExpression(),
+					((UnaryExpression) second).getExpression());
+		if (first instanceof BinaryExpression) {
+			BinaryExpression f = (BinaryExpression) first, s = (BinaryExpression) second;
+			return indistinguishable(f.getLeft(), s.getLeft())
+					&& indistinguishable(f.getRight(), s.getRight());
+		}
+		if (first instanceof TernaryExpression) {
+			TernaryExpression f = (TernaryExpression) first, s = (TernaryExpression) second;
+			return indistinguishable(f.getLeft(), s.getLeft())
+					&& indistinguishable(f.getMiddle(), s.getMiddle())
+					&& indistinguishable(f.getRight(), s.getRight());
+		}
+		if (first instanceof AccessChild) {
+			AccessChild f = (AccessChild) first, s = (AccessChild) second;
+			return indistinguishable(f.getContainer(), s.getContainer())
+					&& indistinguishable(f.getChild(), s.getChild());
+		}
+		if (first instanceof HeapReference)
+			return indistinguishable(
+					((HeapReference) first).getExpression(),
+					((HeapReference) second).getExpression());
+		if (first instanceof HeapDereference)
+			return indistinguishable(
+					((HeapDereference) first).getExpression(),
+					((HeapDereference) second).getExpression());
+		return true;
+	}
+
+	/**
+	 * An entry of the table, weakly referring to a canonical instance.
+	 */
+	private static final class Entry extends WeakReference<SymbolicExpression> {
+
+		private final int hash;
+
+		private Entry next;
+
+		private Entry(
+				SymbolicExpression referent,
+				int hash,
+				ReferenceQueue<SymbolicExpression> queue,
+				Entry next) {
+			super(referent, queue);
+			this.hash = hash;
+			this.next = next;
+		}
+	}
+
+	/**
+	 * A segment of the table, that is, a chained hash table of {@link Entry}s
+	 * that purges the ones whose expression has been garbage collected.
+	 */
+	private static final class Segment {
+
+		private final ReferenceQueue<SymbolicExpression> queue = new ReferenceQueue<>();
+
+		private Entry[] buckets = new Entry[64];
+
+		private int count;
+
+		@SuppressWarnings("unchecked")
+		private synchronized <T extends SymbolicExpression> T intern(
+				T expression,
+				int hash) {
+			purge();
+			// the lowest bits select the segment, so they are all equal here
+			int bucket = (hash >>> 4) & (buckets.length - 1);
+			for (Entry e = buckets[bucket]; e != null; e = e.next)
+				if (e.hash == hash) {
+					SymbolicExpression canonical = e.get();
+					if (canonical != null && indistinguishable(canonical, expression))
+						// same class as expression
+						return (T) canonical;
+				}
+
+			buckets[bucket] = new Entry(expression, hash, queue, buckets[bucket]);
+			if (++count > buckets.length - (buckets.length >>> 2))
+				resize();
+			return expression;
+		}
+
+		private synchronized int size() {
+			purge();
+			return count;
+		}
+
+		private synchronized void clear() {
+			while (queue.poll() != null)
+				// discard the stale entries
+				;
+			buckets = new Entry[64];
+			count = 0;
+		}
+
+		private void purge() {
+			for (Reference<? extends SymbolicExpression> ref; (ref = queue.poll()) != null;) {
+				Entry stale = (Entry) ref;
+				int bucket = (stale.hash >>> 4) & (buckets.length - 1);
+				Entry prev = null;
+				for (Entry e = buckets[bucket]; e != null; prev = e, e = e.next)
+					if (e == stale) {
+						if (prev == null)
+							buckets[bucket] = e.next;
+						else
+							prev.next = e.next;
+						count--;
+						break;
+					}
+			}
+		}
+
+		private void resize() {
+			Entry[] old = buckets;
+			Entry[] resized = new Entry[old.length << 1];
+			for (Entry head : old)
+				for (Entry e = head, next; e != null; e = next) {
+					next = e.next;
+					if (e.get() == null) {
+						// will never be found again: the queue will skip it
+						count--;
+						continue;
+					}
+					int bucket = (e.hash >>> 4) & (resized.length - 1);
+					e.next = resized[bucket];
+					resized[bucket] = e;
+				}
+			buckets = resized;
+		}
+	}
+}
@@ -24,6 +24,11 @@ public class AccessChild extends HeapExpression {
 	 */
 	private final SymbolicExpression child;
 
+	/**
+	 * The hash code of this expression, computed once at construction
+	 */
+	private final int hash;
+
 	/**
 	 * Builds the child access.
 	 * 
@@ -41,6 +46,7 @@ public class AccessChild extends HeapExpression {
 		super(staticType, location);
 		this.container = container;
 		this.child = child;
+		this.hash = computeHashCode();
 	}
 
 	/**
@@ -63,6 +69,10 @@ public class AccessChild extends HeapExpression {
 
 	@Override
 	public int hashCode() {
+		return hash;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((container == null) ? 0 : container.hashCode());
@@ -18,6 +18,11 @@ public class HeapDereference extends HeapExpression {
 	 */
 	private final SymbolicExpression toDeref;
 
+	/**
+	 * The hash code of this expression, computed once at construction
+	 */
+	private final int hash;
+
 	/**
 	 * Builds the heap dereference.
 	 * 
@@ -32,10 +37,15 @@ public class HeapDereference extends HeapExpression {
 			CodeLocation location) {
 		super(staticType, location);
 		this.toDeref = toDeref;
+		this.hash = computeHashCode();
 	}
 
 	@Override
 	public int hashCode() {
+		return hash;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((toDeref == null) ? 0 : toDeref.hashCode());
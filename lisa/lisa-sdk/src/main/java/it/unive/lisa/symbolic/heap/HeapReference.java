@@ -18,6 +18,11 @@ public class HeapReference extends HeapExpression {
 	 */
 	private final SymbolicExpression expression;
 
+	/**
+	 * The hash code of this expression, computed once at construction
+	 */
+	private final int hash;
+
 	/**
 	 * Builds the heap reference.
 	 * 
@@ -32,6 +37,7 @@ public class HeapReference extends HeapExpression {
 			CodeLocation location) {
 		super(staticType, location);
 		this.expression = expression;
+		this.hash = computeHashCode();
 	}
 
 	@Override
@@ -41,6 +47,10 @@ public class HeapReference extends HeapExpression {
 
 	@Override
 	public int hashCode() {
+		return hash;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((expression == null) ? 0 : expression.hashCode());
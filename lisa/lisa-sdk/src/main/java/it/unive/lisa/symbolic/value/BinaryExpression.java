@@ -31,6 +31,11 @@ public class BinaryExpression extends ValueExpression {
 	 */
 	private final BinaryOperator operator;
 
+	/**
+	 * The hash code of this expression, computed once at construction
+	 */
+	private final int hash;
+
 	/**
 	 * Builds the binary expression.
 	 * 
@@ -51,6 +56,7 @@ public class BinaryExpression extends ValueExpression {
 		this.left = left;
 		this.right = right;
 		this.operator = operator;
+		this.hash = computeHashCode();
 	}
 
 	/**
@@ -101,6 +107,10 @@ public class BinaryExpression extends ValueExpression {
 
 	@Override
 	public int hashCode() {
+		return hash;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((left == null) ? 0 : left.hashCode());
@@ -36,6 +36,11 @@ public class TernaryExpression extends ValueExpression {
 	 */
 	private final TernaryOperator operator;
 
+	/**
+	 * The hash code of this expression, computed once at construction
+	 */
+	private final int hash;
+
 	/**
 	 * Builds the binary expression.
 	 * 
@@ -59,6 +64,7 @@ public class TernaryExpression extends ValueExpression {
 		this.middle = middle;
 		this.right = right;
 		this.operator = operator;
+		this.hash = computeHashCode();
 	}
 
 	/**
@@ -118,6 +124,10 @@ public class TernaryExpression extends ValueExpression {
 
 	@Override
 	public int hashCode() {
+		return hash;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((left == null) ? 0 : left.hashCode());
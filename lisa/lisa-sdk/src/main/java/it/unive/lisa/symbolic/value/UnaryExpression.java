@@ -29,6 +29,11 @@ public class UnaryExpression extends ValueExpression {
 	 */
 	private final UnaryOperator operator;
 
+	/**
+	 * The hash code of this expression, computed once at construction
+	 */
+	private final int hash;
+
 	/**
 	 * Builds the unary expression.
 	 * 
@@ -46,6 +51,7 @@ public class UnaryExpression extends ValueExpression {
 		super(staticType, location);
 		this.expression = expression;
 		this.operator = operator;
+		this.hash = computeHashCode();
 	}
 
 	/**
@@ -106,6 +112,10 @@ public class UnaryExpression extends ValueExpression {
 
 	@Override
 	public int hashCode() {
+		return hash;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((expression == null) ? 0 : expression.hashCode());
@@ -0,0 +1,692 @@
+package it.unive.lisa.util.collections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@link Map} backed by a persistent hash array mapped trie (HAMT). The
+ * nodes of the trie are immutable: updates only copy the path from the root to
+ * the modified entry (that is, O(log n) nodes), sharing everything else with
+ * the previous version. This makes copying a map (through
+ * {@link #HashTrieMap(Map)}) a constant time operation, as the copy shares the
+ * whole trie with the original one until one of the two is modified.<br>
+ * <br>
+ * Instances of this class can be modified through the standard {@link Map}
+ * interface: modifications replace the root of the trie of the receiver, and
+ * never affect other maps sharing (parts of) the same trie. Iterators work on
+ * the trie that was in place when they were created, and thus never raise
+ * {@link java.util.ConcurrentModificationException}s. Entries yielded by
+ * iterators do not support {@link java.util.Map.Entry#setValue(Object)}.<br>
+ * <br>
+ * Since two maps derived from the same one share all the untouched subtrees,
+ * {@link #collectDifferences(HashTrieMap, Map, Map)} can be used to retrieve
+ * the entries that differ between them skipping all the shared ones.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class HashTrieMap<K, V> extends AbstractMap<K, V> {
+
+	private static final int BITS = 5;
+
+	private static final int MASK = (1 << BITS) - 1;
+
+	/**
+	 * The root of the trie, {@code null} if the map is empty.
+	 */
+	private Node<K, V> root;
+
+	/**
+	 * The number of entries in the map.
+	 */
+	private int size;
+
+	/**
+	 * Builds an empty map.
+	 */
+	public HashTrieMap() {
+		this.root = null;
+		this.size = 0;
+	}
+
+	/**
+	 * Builds a map containing the same entries of the given one. If
+	 * {@code other} is also a {@link HashTrieMap}, this is a constant time
+	 * operation.
+	 *
+	 * @param other the map to copy
+	 */
+	@SuppressWarnings("unchecked")
+	public HashTrieMap(
+			Map<? extends K, ? extends V> other) {
+		if (other instanceof HashTrieMap) {
+			HashTrieMap<? extends K, ? extends V> trie = (HashTrieMap<? extends K, ? extends V>) other;
+			// nodes are immutable, so sharing them is safe
+			this.root = (Node<K, V>) trie.root;
+			this.size = trie.size;
+		} else {
+			this.root = null;
+			this.size = 0;
+			putAll(other);
+		}
+	}
+
+	private static int hash(
+			Object key) {
+		int h = Objects.hashCode(key);
+		// spread higher bits downwards, as the lowest ones are used first
+		return h ^ (h >>> 16);
+	}
+
+	private static int fragment(
+			int hash,
+			int shift) {
+		return (hash >>> shift) & MASK;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(
+			Object key) {
+		return root != null && root.find(key, hash(key), 0) != null;
+	}
+
+	@Override
+	public V get(
+			Object key) {
+		if (root == null)
+			return null;
+		Leaf<K, V> leaf = root.find(key, hash(key), 0);
+		return leaf == null ? null : leaf.getValue();
+	}
+
+	@Override
+	public V put(
+			K key,
+			V value) {
+		Change<V> change = new Change<>();
+		int hash = hash(key);
+		root = root == null ? new Leaf<>(hash, key, value) : root.put(key, value, hash, 0, change);
+		if (!change.replaced)
+			size++;
+		return change.previous;
+	}
+
+	@Override
+	public V remove(
+			Object key) {
+		if (root == null)
+			return null;
+		Change<V> change = new Change<>();
+		root = root.remove(key, hash(key), 0, change);
+		if (change.replaced)
+			size--;
+		return change.previous;
+	}
+
+	@Override
+	public void clear() {
+		root = null;
+		size = 0;
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return new AbstractSet<>() {
+
+			@Override
+			public Iterator<Entry<K, V>> iterator() {
+				return new LeafIterator();
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+
+			@Override
+			public boolean contains(
+					Object o) {
+				if (!(o instanceof Entry) || root == null)
+					return false;
+				Entry<?, ?> e = (Entry<?, ?>) o;
+				Leaf<K, V> leaf = root.find(e.getKey(), hash(e.getKey()), 0);
+				return leaf != null && Objects.equals(leaf.getValue(), e.getValue());
+			}
+		};
+	}
+
+	/**
+	 * Yields {@code true} if this map and the given one share the whole trie,
+	 * meaning that they are surely equal without the need of comparing their
+	 * entries.
+	 *
+	 * @param other the other map
+	 *
+	 * @return whether or not the two maps share the whole trie
+	 */
+	public boolean sharesStructureWith(
+			Map<?, ?> other) {
+		return other instanceof HashTrieMap && ((HashTrieMap<?, ?>) other).root == root;
+	}
+
+	@Override
+	public boolean equals(
+			Object o) {
+		if (this == o || (o instanceof Map && sharesStructureWith((Map<?, ?>) o)))
+			return true;
+		return super.equals(o);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+	/**
+	 * Collects the entries that are not shared between this map and the given
+	 * one. An entry is shared if both maps contain it with the very same key
+	 * and value instances: all other entries of this map are added to
+	 * {@code onlyThis}, while the ones of {@code other} are added to
+	 * {@code onlyOther}. Note that a key can end up in both maps if the two
+	 * values (or keys) it is mapped to are not the same instance. Subtrees that
+	 * are shared between the two tries are skipped without visiting them,
+	 * making the cost of this operation proportional to the number of entries
+	 * that have been modified since the two maps diverged.
+	 *
+	 * @param other     the other map
+	 * @param onlyThis  the map where to store the entries of this map that are
+	 *                      not shared, or {@code null} if those are not needed
+	 * @param onlyOther the map where to store the entries of {@code other} that
+	 *                      are not shared, or {@code null} if those are not
+	 *                      needed
+	 */
+	public void collectDifferences(
+			HashTrieMap<K, V> other,
+			Map<K, V> onlyThis,
+			Map<K, V> onlyOther) {
+		diff(root, other.root, 0, onlyThis, onlyOther);
+	}
+
+	private static <K, V> void diff(
+			Node<K, V> first,
+			Node<K, V> second,
+			int shift,
+			Map<K, V> onlyFirst,
+			Map<K, V> onlySecond) {
+		if (first == second)
+			return;
+
+		if (first instanceof BitmapNode && second instanceof BitmapNode) {
+			BitmapNode<K, V> f = (BitmapNode<K, V>) first;
+			BitmapNode<K, V> s = (BitmapNode<K, V>) second;
+			int all = f.bitmap | s.bitmap;
+			while (all != 0) {
+				int bit = Integer.lowestOneBit(all);
+				all &= ~bit;
+				diff(f.child(bit), s.child(bit), shift + BITS, onlyFirst, onlySecond);
+			}
+			return;
+		}
+
+		// at least one of the two is small, or missing: compare leaves
+		Deque<Leaf<K, V>> firsts = leaves(first);
+		Deque<Leaf<K, V>> seconds = leaves(second);
+		if (onlyFirst != null)
+			for (Leaf<K, V> leaf : firsts)
+				if (!containsSame(seconds, leaf))
+					onlyFirst.put(leaf.getKey(), leaf.getValue());
+		if (onlySecond != null)
+			for (Leaf<K, V> leaf : seconds)
+				if (!containsSame(firsts, leaf))
+					onlySecond.put(leaf.getKey(), leaf.getValue());
+	}
+
+	private static <K, V> boolean containsSame(
+			Deque<Leaf<K, V>> leaves,
+			Leaf<K, V> leaf) {
+		for (Leaf<K, V> other : leaves)
+			if (other == leaf || (other.getKey() == leaf.getKey() && other.getValue() == leaf.getValue()))
+				return true;
+		return false;
+	}
+
+	private static <K, V> Deque<Leaf<K, V>> leaves(
+			Node<K, V> node) {
+		Deque<Leaf<K, V>> result = new ArrayDeque<>();
+		if (node == null)
+			return result;
+		Deque<Node<K, V>> stack = new ArrayDeque<>();
+		stack.push(node);
+		while (!stack.isEmpty())
+			stack.pop().expand(stack, result);
+		return result;
+	}
+
+	/**
+	 * The outcome of an update operation.
+	 *
+	 * @param <V> the type of the values
+	 */
+	private static class Change<V> {
+
+		private boolean replaced;
+
+		private V previous;
+	}
+
+	/**
+	 * A node of the trie.
+	 *
+	 * @param <K> the type of the keys
+	 * @param <V> the type of the values
+	 */
+	private interface Node<K, V> {
+
+		Leaf<K, V> find(
+				Object key,
+				int hash,
+				int shift);
+
+		Node<K, V> put(
+				K key,
+				V value,
+				int hash,
+				int shift,
+				Change<V> change);
+
+		Node<K, V> remove(
+				Object key,
+				int hash,
+				int shift,
+				Change<V> change);
+
+		/**
+		 * Pushes the sub-nodes of this node on {@code stack} (in reverse
+		 * order), or adds the leaves it contains to {@code leaves}.
+		 */
+		void expand(
+				Deque<Node<K, V>> stack,
+				Deque<Leaf<K, V>> leaves);
+	}
+
+	/**
+	 * A node holding a single entry.
+	 *
+	 * @param <K> the type of the keys
+	 * @param <V> the type of the values
+	 */
+	private static final class Leaf<K, V> extends SimpleImmutableEntry<K, V> implements Node<K, V> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int hash;
+
+		private Leaf(
+				int hash,
+				K key,
+				V value) {
+			super(key, value);
+			this.hash = hash;
+		}
+
+		@Override
+		public Leaf<K, V> find(
+				Object key,
+				int hash,
+				int shift) {
+			return this.hash == hash && Objects.equals(this.getKey(), key) ? this : null;
+		}
+
+		@Override
+		public Node<K, V> put(
+				K key,
+				V value,
+				int hash,
+				int shift,
+				Change<V> change) {
+			if (this.hash == hash && Objects.equals(this.getKey(), key)) {
+				change.replaced = true;
+				change.previous = this.getValue();
+				// as for HashMap, the original key instance is kept
+				return this.getValue() == value ? this : new Leaf<>(hash, this.getKey(), value);
+			}
+
+			return merge(this, this.hash, new Leaf<>(hash, key, value), hash, shift);
+		}
+
+		@Override
+		public Node<K, V> remove(
+				Object key,
+				int hash,
+				int shift,
+				Change<V> change) {
+			if (this.hash == hash && Objects.equals(this.getKey(), key)) {
+				change.replaced = true;
+				change.previous = this.getValue();
+				return null;
+			}
+			return this;
+		}
+
+		@Override
+		public void expand(
+				Deque<Node<K, V>> stack,
+				Deque<Leaf<K, V>> leaves) {
+			leaves.add(this);
+		}
+	}
+
+	/**
+	 * A node holding entries whose keys have the same hash.
+	 *
+	 * @param <K> the type of the keys
+	 * @param <V> the type of the values
+	 */
+	private static final class CollisionNode<K, V> implements Node<K, V> {
+
+		private final int hash;
+
+		private final Leaf<K, V>[] leaves;
+
+		private CollisionNode(
+				int hash,
+				Leaf<K, V>[] leaves) {
+			this.hash = hash;
+			this.leaves = leaves;
+		}
+
+		@Override
+		public Leaf<K, V> find(
+				Object key,
+				int hash,
+				int shift) {
+			if (this.hash != hash)
+				return null;
+			for (Leaf<K, V> leaf : leaves)
+				if (Objects.equals(leaf.getKey(), key))
+					return leaf;
+			return null;
+		}
+
+		@Override
+		public Node<K, V> put(
+				K key,
+				V value,
+				int hash,
+				int shift,
+				Change<V> change) {
+			if (this.hash != hash)
+				return merge(this, this.hash, new Leaf<>(hash, key, value), hash, shift);
+
+			for (int i = 0; i < leaves.length; i++)
+				if (Objects.equals(leaves[i].getKey(), key)) {
+					Node<K, V> updated = leaves[i].put(key, value, hash, shift, change);
+					if (updated == leaves[i])
+						return this;
+					Leaf<K, V>[] copy = leaves.clone();
+					copy[i] = (Leaf<K, V>) updated;
+					return new CollisionNode<>(hash, copy);
+				}
+
+			Leaf<K, V>[] copy = Arrays.copyOf(leaves, leaves.length + 1);
+			copy[leaves.length] = new Leaf<>(hash, key, value);
+			return new CollisionNode<>(hash, copy);
+		}
+
+		@Override
+		public Node<K, V> remove(
+				Object key,
+				int hash,
+				int shift,
+				Change<V> change) {
+			if (this.hash != hash)
+				return this;
+
+			for (int i = 0; i < leaves.length; i++)
+				if (Objects.equals(leaves[i].getKey(), key)) {
+					change.replaced = true;
+					change.previous = leaves[i].getValue();
+					if (leaves.length == 2)
+						return leaves[1 - i];
+					Leaf<K, V>[] copy = newLeaves(leaves.length - 1);
+					System.arraycopy(leaves, 0, copy, 0, i);
+					System.arraycopy(leaves, i + 1, copy, i, leaves.length - i - 1);
+					return new CollisionNode<>(hash, copy);
+				}
+			return this;
+		}
+
+		@Override
+		public void expand(
+				Deque<Node<K, V>> stack,
+				Deque<Leaf<K, V>> leaves) {
+			for (Leaf<K, V> leaf : this.leaves)
+				leaves.add(leaf);
+		}
+	}
+
+	/**
+	 * An internal node of the trie, whose children are indexed by a fragment
+	 * of the hash of the keys.
+	 *
+	 * @param <K> the type of the keys
+	 * @param <V> the type of the values
+	 */
+	private static final class BitmapNode<K, V> implements Node<K, V> {
+
+		private final int bitmap;
+
+		private final Node<K, V>[] children;
+
+		private BitmapNode(
+				int bitmap,
+				Node<K, V>[] children) {
+			this.bitmap = bitmap;
+			this.children = children;
+		}
+
+		private int index(
+				int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+
+		private Node<K, V> child(
+				int bit) {
+			return (bitmap & bit) == 0 ? null : children[index(bit)];
+		}
+
+		@Override
+		public Leaf<K, V> find(
+				Object key,
+				int hash,
+				int shift) {
+			Node<K, V> child = child(1 << fragment(hash, shift));
+			return child == null ? null : child.find(key, hash, shift + BITS);
+		}
+
+		@Override
+		public Node<K, V> put(
+				K key,
+				V value,
+				int hash,
+				int shift,
+				Change<V> change) {
+			int bit = 1 << fragment(hash, shift);
+			int idx = index(bit);
+			if ((bitmap & bit) == 0) {
+				Node<K, V>[] copy = newNodes(children.length + 1);
+				System.arraycopy(children, 0, copy, 0, idx);
+				copy[idx] = new Leaf<>(hash, key, value);
+				System.arraycopy(children, idx, copy, idx + 1, children.length - idx);
+				return new BitmapNode<>(bitmap | bit, copy);
+			}
+
+			Node<K, V> updated = children[idx].put(key, value, hash, shift + BITS, change);
+			if (updated == children[idx])
+				return this;
+			Node<K, V>[] copy = children.clone();
+			copy[idx] = updated;
+			return new BitmapNode<>(bitmap, copy);
+		}
+
+		@Override
+		public Node<K, V> remove(
+				Object key,
+				int hash,
+				int shift,
+				Change<V> change) {
+			int bit = 1 << fragment(hash, shift);
+			if ((bitmap & bit) == 0)
+				return this;
+
+			int idx = index(bit);
+			Node<K, V> updated = children[idx].remove(key, hash, shift + BITS, change);
+			if (updated == children[idx])
+				return this;
+
+			if (updated != null) {
+				if (children.length == 1 && !(updated instanceof BitmapNode))
+					// collapse single-entry paths
+					return updated;
+				Node<K, V>[] copy = children.clone();
+				copy[idx] = updated;
+				return new BitmapNode<>(bitmap, copy);
+			}
+
+			if (children.length == 1)
+				return null;
+			if (children.length == 2 && !(children[1 - idx] instanceof BitmapNode))
+				return children[1 - idx];
+			Node<K, V>[] copy = newNodes(children.length - 1);
+			System.arraycopy(children, 0, copy, 0, idx);
+			System.arraycopy(children, idx + 1, copy, idx, children.length - idx - 1);
+			return new BitmapNode<>(bitmap & ~bit, copy);
+		}
+
+		@Override
+		public void expand(
+				Deque<Node<K, V>> stack,
+				Deque<Leaf<K, V>> leaves) {
+			for (int i = children.length - 1; i >= 0; i--)
+				stack.push(children[i]);
+		}
+	}
+
+	/**
+	 * Builds a node containing both {@code first} and {@code second}, that must
+	 * be either {@link Leaf}s or {@link CollisionNode}s.
+	 */
+	private static <K, V> Node<K, V> merge(
+			Node<K, V> first,
+			int firstHash,
+			Leaf<K, V> second,
+			int secondHash,
+			int shift) {
+		if (firstHash == secondHash) {
+			if (first instanceof Leaf) {
+				Leaf<K, V>[] pair = newLeaves(2);
+				pair[0] = (Leaf<K, V>) first;
+				pair[1] = second;
+				return new CollisionNode<>(firstHash, pair);
+			}
+			CollisionNode<K, V> coll = (CollisionNode<K, V>) first;
+			Leaf<K, V>[] copy = Arrays.copyOf(coll.leaves, coll.leaves.length + 1);
+			copy[coll.leaves.length] = second;
+			return new CollisionNode<>(firstHash, copy);
+		}
+
+		int f1 = fragment(firstHash, shift);
+		int f2 = fragment(secondHash, shift);
+		if (f1 == f2) {
+			Node<K, V>[] single = newNodes(1);
+			single[0] = merge(first, firstHash, second, secondHash, shift + BITS);
+			return new BitmapNode<>(1 << f1, single);
+		}
+
+		Node<K, V>[] pair = newNodes(2);
+		pair[f1 < f2 ? 0 : 1] = first;
+		pair[f1 < f2 ? 1 : 0] = second;
+		return new BitmapNode<>((1 << f1) | (1 << f2), pair);
+	}
+
+	/**
+	 * Creates an array of nodes with the given length. Generic arrays cannot
+	 * be instantiated, but the cast is safe since the array is private to a
+	 * single trie and only ever contains nodes of that trie.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <K, V> Node<K, V>[] newNodes(
+			int length) {
+		return (Node<K, V>[]) new Node<?, ?>[length];
+	}
+
+	/**
+	 * Creates an array of leaves with the given length. Generic arrays cannot
+	 * be instantiated, but the cast is safe since the array is private to a
+	 * single trie and only ever contains leaves of that trie.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <K, V> Leaf<K, V>[] newLeaves(
+			int length) {
+		return (Leaf<K, V>[]) new Leaf<?, ?>[length];
+	}
+
+	/**
+	 * An iterator over the entries of the trie that was the root of the map
+	 * when the iterator was created.
+	 */
+	private class LeafIterator implements Iterator<Entry<K, V>> {
+
+		private final Deque<Node<K, V>> stack = new ArrayDeque<>();
+
+		private final Deque<Leaf<K, V>> pending = new ArrayDeque<>();
+
+		private Leaf<K, V> last;
+
+		private LeafIterator() {
+			if (root != null)
+				stack.push(root);
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (pending.isEmpty() && !stack.isEmpty())
+				stack.pop().expand(stack, pending);
+			return !pending.isEmpty();
+		}
+
+		@Override
+		public Entry<K, V> next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			last = pending.poll();
+			return last;
+		}
+
+		@Override
+		public void remove() {
+			if (last == null)
+				throw new IllegalStateException();
+			HashTrieMap.this.remove(last.getKey());
+			last = null;
+		}
+	}
+}
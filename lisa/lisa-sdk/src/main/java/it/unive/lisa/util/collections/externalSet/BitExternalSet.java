@@ -176,7 +176,7 @@ public final class BitExternalSet<T> implements ExternalSet<T> {
 			return false;
 
 		long[] localbits = this.bits;
-		if (pos >> 6 >= localbits.length)
+		if (pos >> 6 >= localbits.length || (localbits[pos >> 6] & 1L << (pos % 64)) == 0L)
 			return false;
 
 		localbits[pos >> 6] &= ~(1L << (pos % 64));
@@ -186,20 +186,9 @@ public final class BitExternalSet<T> implements ExternalSet<T> {
 
 	@Override
 	public int size() {
-		long bitvector;
 		int count = 0;
-		long[] localbits = this.bits;
-
-		for (int pos = localbits.length - 1; pos >= 0; pos--) {
-			bitvector = localbits[pos];
-			if (bitvector != 0L)
-				for (int i = 0; i < 64; i++) {
-					int n = 64 * pos + i;
-					if ((localbits[n >> 6] & 1L << (n % 64)) != 0L)
-						count++;
-				}
-		}
-
+		for (long bitvector : bits)
+			count += Long.bitCount(bitvector);
 		return count;
 	}
 
@@ -373,7 +362,7 @@ public final class BitExternalSet<T> implements ExternalSet<T> {
 	public ExternalSet<T> difference(
 			ExternalSet<T> other) {
 		if (this == other)
-			return this;
+			return new BitExternalSet<>(cache);
 		if (other == null)
 			return this;
 		if (cache != other.getCache())
@@ -559,9 +548,33 @@ public final class BitExternalSet<T> implements ExternalSet<T> {
 		return new ArrayList<>(this).toArray(a);
 	}
 
+	/**
+	 * Yields the bits of the given collection if it is a bitset defined over
+	 * the same cache of this one, {@code null} otherwise.
+	 * 
+	 * @param c the collection
+	 * 
+	 * @return the bits of {@code c}, if they are compatible with this set
+	 */
+	private long[] compatibleBits(
+			Collection<?> c) {
+		if (c instanceof BitExternalSet && ((BitExternalSet<?>) c).cache == cache)
+			return ((BitExternalSet<?>) c).bits;
+		return null;
+	}
+
 	@Override
 	public boolean containsAll(
 			Collection<?> c) {
+		long[] otherbits = compatibleBits(c);
+		if (otherbits != null) {
+			long[] localbits = bits;
+			for (int i = otherbits.length - 1; i >= 0; i--)
+				if ((otherbits[i] & ~(i < localbits.length ? localbits[i] : 0L)) != 0L)
+					return false;
+			return true;
+		}
+
 		for (Object o : c)
 			if (!contains(o))
 				return false;
@@ -571,6 +584,20 @@ public final class BitExternalSet<T> implements ExternalSet<T> {
 	@Override
 	public boolean addAll(
 			Collection<? extends T> c) {
+		long[] otherbits = compatibleBits(c);
+		if (otherbits != null) {
+			if (bits.length < otherbits.length)
+				expand(otherbits.length);
+			long[] localbits = bits;
+			boolean changed = false;
+			for (int i = otherbits.length - 1; i >= 0; i--) {
+				long old = localbits[i];
+				localbits[i] |= otherbits[i];
+				changed |= old != localbits[i];
+			}
+			return changed;
+		}
+
 		boolean result = false;
 		for (T o : c)
 			result |= add(o);
@@ -580,6 +607,19 @@ public final class BitExternalSet<T> implements ExternalSet<T> {
 	@Override
 	public boolean retainAll(
 			Collection<?> c) {
+		long[] otherbits = compatibleBits(c);
+		if (otherbits != null) {
+			long[] localbits = bits;
+			boolean changed = false;
+			for (int i = localbits.length - 1; i >= 0; i--) {
+				long old = localbits[i];
+				localbits[i] &= i < otherbits.length ? otherbits[i] : 0L;
+				changed |= old != localbits[i];
+			}
+			removeTrailingZeros();
+			return changed;
+		}
+
 		Collection<T> toRemove = new ArrayList<>();
 		for (T o : this)
 			if (!c.contains(o))
@@ -593,6 +633,19 @@ public final class BitExternalSet<T> implements ExternalSet<T> {
 	@Override
 	public boolean removeAll(
 			Collection<?> c) {
+		long[] otherbits = compatibleBits(c);
+		if (otherbits != null) {
+			long[] localbits = bits;
+			boolean changed = false;
+			for (int i = Math.min(localbits.length, otherbits.length) - 1; i >= 0; i--) {
+				long old = localbits[i];
+				localbits[i] &= ~otherbits[i];
+				changed |= old != localbits[i];
+			}
+			removeTrailingZeros();
+			return changed;
+		}
+
 		Collection<T> toRemove = new ArrayList<>();
 		for (T o : this)
 			if (c.contains(o))
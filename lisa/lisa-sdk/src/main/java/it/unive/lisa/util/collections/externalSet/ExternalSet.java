@@ -157,7 +157,7 @@ public interface ExternalSet<T> extends Set<T> {
 	default ExternalSet<T> difference(
 			ExternalSet<T> other) {
 		if (this == other)
-			return this;
+			return getCache().mkEmptySet();
 		if (other == null)
 			return this;
 		if (getCache() != other.getCache())
@@ -0,0 +1,176 @@
+package it.unive.lisa.util.collections.workset;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * A FIFO working set that guarantees that, at any time, the same element cannot
+ * appear more than once in it, yielding elements in the same order as
+ * {@link DuplicateFreeFIFOWorkingSet}. Elements are stored through dense
+ * integer identifiers: the contents of the working set are a queue of
+ * identifiers, backed by a circular array, and membership is tracked by a
+ * {@link BitSet}, so that no operation needs to hash or compare elements. The
+ * mapping between elements and identifiers can be provided through
+ * {@link #setIndexing(ToIntFunction, IntFunction)} (fixpoint algorithms using
+ * this working set will provide the identifiers of the nodes of the graph they
+ * are iterating over), and identifiers can be directly pushed and popped
+ * through {@link #pushIndex(int)} and {@link #popIndex()}. If no mapping is
+ * provided, identifiers are assigned by the working set itself the first time
+ * an element is pushed. This implementation is <b>not</b> thread-safe.
+ *
+ * @param <E> the type of the elements that this working set contains
+ */
+public final class IndexedFIFOWorkingSet<E> implements WorkingSet<E> {
+
+	private final BitSet members;
+
+	private int[] queue;
+
+	private int head;
+
+	private int size;
+
+	private ToIntFunction<E> indexer;
+
+	private IntFunction<E> elements;
+
+	private IndexedFIFOWorkingSet() {
+		members = new BitSet();
+		queue = new int[16];
+		selfIndexing();
+	}
+
+	/**
+	 * Yields a new, empty working set.
+	 *
+	 * @param <E> the type of the elements that the returned working set
+	 *                contains
+	 *
+	 * @return the new working set
+	 */
+	public static <E> IndexedFIFOWorkingSet<E> mk() {
+		return new IndexedFIFOWorkingSet<>();
+	}
+
+	private void selfIndexing() {
+		Map<E, Integer> ids = new HashMap<>();
+		List<E> elems = new ArrayList<>();
+		indexer = e -> ids.computeIfAbsent(e, k -> {
+			elems.add(k);
+			return elems.size() - 1;
+		});
+		elements = elems::get;
+	}
+
+	/**
+	 * Sets the mapping between elements and their identifiers. Identifiers
+	 * should be dense, that is, close to {@code 0}, as they are used as indexes
+	 * in arrays and bitsets.
+	 *
+	 * @param indexer  the function yielding the identifier of an element, or
+	 *                     a negative number if the element cannot be part of
+	 *                     this working set
+	 * @param elements the function yielding the element with a given
+	 *                     identifier
+	 *
+	 * @throws IllegalStateException if this working set is not empty
+	 */
+	public void setIndexing(
+			ToIntFunction<E> indexer,
+			IntFunction<E> elements) {
+		if (size != 0)
+			throw new IllegalStateException("Cannot change the indexing of a non-empty working set");
+		this.indexer = indexer;
+		this.elements = elements;
+	}
+
+	/**
+	 * Pushes the element with the given identifier into this working set, if
+	 * it is not already contained in it.
+	 *
+	 * @param id the identifier of the element
+	 */
+	public void pushIndex(
+			int id) {
+		if (members.get(id))
+			return;
+
+		members.set(id);
+		if (size == queue.length) {
+			int[] grown = new int[queue.length * 2];
+			int tail = queue.length - head;
+			System.arraycopy(queue, head, grown, 0, tail);
+			System.arraycopy(queue, 0, grown, tail, head);
+			queue = grown;
+			head = 0;
+		}
+		queue[(head + size++) % queue.length] = id;
+	}
+
+	/**
+	 * Removes the first element of this working set, yielding its identifier.
+	 *
+	 * @return the identifier of the removed element
+	 *
+	 * @throws NoSuchElementException if this working set is empty
+	 */
+	public int popIndex() {
+		if (size == 0)
+			throw new NoSuchElementException();
+
+		int id = queue[head];
+		head = (head + 1) % queue.length;
+		size--;
+		members.clear(id);
+		return id;
+	}
+
+	@Override
+	public void push(
+			E e) {
+		int id = indexer.applyAsInt(e);
+		if (id < 0)
+			throw new IllegalArgumentException("'" + e + "' cannot be part of this working set");
+		pushIndex(id);
+	}
+
+	@Override
+	public E pop() {
+		return elements.apply(popIndex());
+	}
+
+	@Override
+	public E peek() {
+		return size == 0 ? null : elements.apply(queue[head]);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public Collection<E> getContents() {
+		List<E> contents = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			contents.add(elements.apply(queue[(head + i) % queue.length]));
+		return contents;
+	}
+
+	@Override
+	public String toString() {
+		return getContents().toString();
+	}
+}
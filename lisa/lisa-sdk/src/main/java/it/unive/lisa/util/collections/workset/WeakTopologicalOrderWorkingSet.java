@@ -0,0 +1,147 @@
+package it.unive.lisa.util.collections.workset;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A working set that yields elements following their position in a weak
+ * topological order, that is, the element with the lowest position is always
+ * the next one to be processed. Positions are provided through
+ * {@link #setPositions(Map)}: fixpoint algorithms using this working set will
+ * provide positions corresponding to the weak topological order of the graph
+ * they are iterating over, thus evaluating the heads of loops before their
+ * bodies and the nodes following a loop only when the loop itself has been
+ * stabilized. Elements that do not have a position are yielded after all other
+ * ones, in FIFO order. The working set guarantees that, at any time, the same
+ * element cannot appear more than once in it. This implementation is
+ * <b>not</b> thread-safe.
+ *
+ * @param <E> the type of the elements that this working set contains
+ */
+public final class WeakTopologicalOrderWorkingSet<E> implements WorkingSet<E> {
+
+	private final TreeMap<Long, E> ws;
+
+	private final Set<E> contents;
+
+	private Map<E, Integer> positions;
+
+	private int pushed;
+
+	private WeakTopologicalOrderWorkingSet() {
+		ws = new TreeMap<>();
+		contents = new HashSet<>();
+	}
+
+	/**
+	 * Yields a new, empty working set.
+	 *
+	 * @param <E> the type of the elements that the returned working set
+	 *                contains
+	 *
+	 * @return the new working set
+	 */
+	public static <E> WeakTopologicalOrderWorkingSet<E> mk() {
+		return new WeakTopologicalOrderWorkingSet<>();
+	}
+
+	/**
+	 * Yields whether or not the positions of the elements have been set
+	 * through {@link #setPositions(Map)}.
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean hasPositions() {
+		return positions != null;
+	}
+
+	/**
+	 * Sets the positions of the elements that will be pushed into this working
+	 * set. Elements already contained in this working set are not reordered.
+	 *
+	 * @param positions a map from each element to its position in the weak
+	 *                      topological order
+	 */
+	public void setPositions(
+			Map<E, Integer> positions) {
+		this.positions = positions;
+	}
+
+	@Override
+	public void push(
+			E e) {
+		if (contents.add(e)) {
+			Integer pos = positions == null ? null : positions.get(e);
+			long key = pos == null ? Integer.MAX_VALUE : pos;
+			// ties are broken by insertion order
+			ws.put((key << 32) | (pushed++ & 0xFFFFFFFFL), e);
+		}
+	}
+
+	@Override
+	public E pop() {
+		E e = ws.remove(ws.firstKey());
+		contents.remove(e);
+		return e;
+	}
+
+	@Override
+	public E peek() {
+		return ws.isEmpty() ? null : ws.firstEntry().getValue();
+	}
+
+	@Override
+	public int size() {
+		return ws.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return ws.isEmpty();
+	}
+
+	@Override
+	public Collection<E> getContents() {
+		return ws.values();
+	}
+
+	@Override
+	public String toString() {
+		return ws.values().toString();
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((ws == null) ? 0 : ws.hashCode());
+		result = prime * result + ((positions == null) ? 0 : positions.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(
+			Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		WeakTopologicalOrderWorkingSet<?> other = (WeakTopologicalOrderWorkingSet<?>) obj;
+		if (ws == null) {
+			if (other.ws != null)
+				return false;
+		} else if (!ws.equals(other.ws))
+			return false;
+		if (positions == null) {
+			if (other.positions != null)
+				return false;
+		} else if (!positions.equals(other.positions))
+			return false;
+		return true;
+	}
+}
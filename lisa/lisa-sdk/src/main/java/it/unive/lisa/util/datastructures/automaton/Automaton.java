@@ -7,6 +7,7 @@ import it.unive.lisa.util.datastructures.regex.EmptySet;
 import it.unive.lisa.util.datastructures.regex.RegularExpression;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -21,7 +22,9 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.Stack;
+import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
@@ -64,6 +67,48 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	 */
 	protected Optional<Boolean> minimized;
 
+	/**
+	 * The outgoing transitions of each state, lazily built from
+	 * {@link #transitions} (this is {@code null} if it has not been built
+	 * yet). Sets in this map are never modified: changes to the transitions of
+	 * a state replace its set with a new one, so that the sets returned by
+	 * {@link #getOutgoingTransitionsFrom(State)} are never affected by later
+	 * modifications of this automaton.
+	 */
+	private volatile Map<State, SortedSet<Transition<T>>> outgoing;
+
+	/**
+	 * The ingoing transitions of each state, built and maintained together
+	 * with {@link #outgoing}.
+	 */
+	private Map<State, SortedSet<Transition<T>>> ingoing;
+
+	/**
+	 * The states reachable from each state by reading each symbol, lazily
+	 * computed from {@link #outgoing} one state at a time and discarded when
+	 * the outgoing transitions of that state change. This is a concurrent map
+	 * since it can be populated while the automaton is only being read.
+	 */
+	private Map<State, Map<T, SortedSet<State>>> successors;
+
+	/**
+	 * The number of transitions in {@link #outgoing}, used to detect
+	 * modifications of {@link #transitions} that did not happen through
+	 * {@link #addTransition(Transition)} or {@link #removeTransitions(Set)}.
+	 */
+	private int indexed;
+
+	/**
+	 * The cached {@link #canonicalForm()} of this automaton, or {@code null}
+	 * if it has not been computed yet.
+	 */
+	private A canonical;
+
+	/**
+	 * The structural hash of {@link #canonical}, computed together with it.
+	 */
+	private int canonicalHash;
+
 	/**
 	 * Builds an empty automaton.
 	 */
@@ -127,6 +172,7 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 		states.add(s);
 		this.deterministic = Optional.empty();
 		this.minimized = Optional.empty();
+		this.canonical = null;
 	}
 
 	/**
@@ -152,9 +198,15 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	 */
 	public void addTransition(
 			Transition<T> t) {
-		transitions.add(t);
+		if (transitions.add(t) && outgoing != null) {
+			outgoing.put(t.getSource(), with(outgoing.get(t.getSource()), t));
+			ingoing.put(t.getDestination(), with(ingoing.get(t.getDestination()), t));
+			successors.remove(t.getSource());
+			indexed++;
+		}
 		this.deterministic = Optional.empty();
 		this.minimized = Optional.empty();
+		this.canonical = null;
 	}
 
 	/**
@@ -165,9 +217,60 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	 */
 	public void removeTransitions(
 			Set<Transition<T>> ts) {
-		transitions.removeAll(ts);
+		for (Transition<T> t : ts)
+			if (transitions.remove(t) && outgoing != null) {
+				outgoing.put(t.getSource(), without(outgoing.get(t.getSource()), t));
+				ingoing.put(t.getDestination(), without(ingoing.get(t.getDestination()), t));
+				successors.remove(t.getSource());
+				indexed--;
+			}
 		this.deterministic = Optional.empty();
 		this.minimized = Optional.empty();
+		this.canonical = null;
+	}
+
+	private static <T extends TransitionSymbol<T>> SortedSet<Transition<T>> with(
+			SortedSet<Transition<T>> set,
+			Transition<T> t) {
+		SortedSet<Transition<T>> result = set == null ? new TreeSet<>() : new TreeSet<>(set);
+		result.add(t);
+		return Collections.unmodifiableSortedSet(result);
+	}
+
+	private static <T extends TransitionSymbol<T>> SortedSet<Transition<T>> without(
+			SortedSet<Transition<T>> set,
+			Transition<T> t) {
+		SortedSet<Transition<T>> result = new TreeSet<>(set);
+		result.remove(t);
+		return Collections.unmodifiableSortedSet(result);
+	}
+
+	/**
+	 * Builds the adjacency indexes of this automaton, if they have not been
+	 * built yet or if {@link #transitions} has been modified without using
+	 * {@link #addTransition(Transition)} or {@link #removeTransitions(Set)}.
+	 */
+	private void index() {
+		if (outgoing != null && indexed == transitions.size())
+			return;
+
+		Map<State, SortedSet<Transition<T>>> out = new HashMap<>();
+		Map<State, SortedSet<Transition<T>>> in = new HashMap<>();
+		for (Transition<T> t : transitions) {
+			out.computeIfAbsent(t.getSource(), k -> new TreeSet<>()).add(t);
+			in.computeIfAbsent(t.getDestination(), k -> new TreeSet<>()).add(t);
+		}
+		out.replaceAll((
+				k,
+				v) -> Collections.unmodifiableSortedSet(v));
+		in.replaceAll((
+				k,
+				v) -> Collections.unmodifiableSortedSet(v));
+		// outgoing is assigned last as it publishes the other indexes
+		successors = new ConcurrentHashMap<>();
+		ingoing = in;
+		indexed = transitions.size();
+		outgoing = out;
 	}
 
 	/**
@@ -180,11 +283,13 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 		states.removeAll(ts);
 		this.deterministic = Optional.empty();
 		this.minimized = Optional.empty();
+		this.canonical = null;
 	}
 
 	/**
-	 * Yields a minimal automaton equivalent to this one through Brzozowski's
-	 * minimization algorithm. <br>
+	 * Yields a minimal automaton equivalent to this one. If this automaton is
+	 * known to be minimal, it is returned as-is, otherwise its
+	 * {@link #canonicalForm()} is returned. <br>
 	 * <br>
 	 * This automaton is never modified.
 	 * 
@@ -194,6 +299,21 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	public A minimize() {
 		if (minimized.isPresent() && minimized.get())
 			return (A) this;
+		return canonicalForm();
+	}
+
+	/**
+	 * Yields a minimal automaton equivalent to this one through Brzozowski's
+	 * minimization algorithm, that is, by determinizing the reverse of the
+	 * reverse of this automaton. This can take exponential time, and it is
+	 * kept only as a reference for {@link #minimize()}. <br>
+	 * <br>
+	 * This automaton is never modified.
+	 * 
+	 * @return a minimal automaton equivalent to this one
+	 */
+	@SuppressWarnings("unchecked")
+	public A minimizeBrzozowski() {
 		A a = (A) this;
 		if (!isDeterministic())
 			a = determinize();
@@ -208,16 +328,297 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 		return a;
 	}
 
+	/**
+	 * Yields the canonical form of this automaton, that is, the minimal
+	 * deterministic automaton recognizing the same language where states are
+	 * numbered in breadth-first order from the initial state, visiting
+	 * transitions in the order of their symbols (the same numbering produced
+	 * by {@link #determinize()}). Two automata have the same canonical form if
+	 * and only if they recognize the same language over the same symbols. The
+	 * canonical form is computed through Hopcroft's partition refinement
+	 * algorithm, and it is cached until this automaton is modified through its
+	 * methods. <br>
+	 * <br>
+	 * This automaton is never modified.
+	 * 
+	 * @return the canonical form of this automaton
+	 */
+	@SuppressWarnings("unchecked")
+	public A canonicalForm() {
+		A c = canonical;
+		// the canonical form might have been modified after being returned
+		if (c != null && c.minimized.isPresent() && c.minimized.get())
+			return c;
+
+		A a = partitionSymbols();
+		c = ((Automaton<A, T>) a).hopcroft();
+		c = ((Automaton<A, T>) c).mergeSymbols();
+		c.deterministic = Optional.of(true);
+		c.minimized = Optional.of(true);
+		int h = c.hashCode();
+		((Automaton<A, T>) c).canonical = c;
+		((Automaton<A, T>) c).canonicalHash = h;
+		canonicalHash = h;
+		canonical = c;
+		return c;
+	}
+
+	/**
+	 * Yields a deterministic automaton equivalent to this one where the symbols
+	 * of any two transitions either are equal or do not share any string, as
+	 * required by the minimization performed in {@link #canonicalForm()}. This
+	 * implementation, that suits automata whose distinct symbols never
+	 * overlap, yields {@link #determinize()}. Automata whose symbols represent
+	 * sets of strings should override this method together with
+	 * {@link #mergeSymbols()}.
+	 * 
+	 * @return the deterministic automaton with partitioned symbols
+	 */
+	protected A partitionSymbols() {
+		return determinize();
+	}
+
+	/**
+	 * Yields an automaton equivalent to this one, that is the minimal
+	 * automaton computed by {@link #canonicalForm()} from the result of
+	 * {@link #partitionSymbols()}, where the symbols split by the latter are
+	 * merged back. This implementation yields this automaton.
+	 * 
+	 * @return the automaton with merged symbols
+	 */
+	@SuppressWarnings("unchecked")
+	protected A mergeSymbols() {
+		return (A) this;
+	}
+
+	/**
+	 * Yields {@code true} if and only if this automaton and the given one have
+	 * the same {@link #canonicalForm()}, implying that they recognize the same
+	 * language. Canonical forms are first compared through their structural
+	 * hashes, that are cached together with them.
+	 * 
+	 * @param other the other automaton
+	 * 
+	 * @return whether or not the two automata have the same canonical form
+	 */
+	public boolean hasSameCanonicalForm(
+			A other) {
+		if (this == other)
+			return true;
+		A a = canonicalForm();
+		A b = other.canonicalForm();
+		return canonicalHash == ((Automaton<A, T>) other).canonicalHash && a.equals(b);
+	}
+
+	/**
+	 * Minimizes this automaton, that must be deterministic, through Hopcroft's
+	 * partition refinement algorithm. States that are not reachable from the
+	 * initial state or that cannot reach a final state are discarded (thus
+	 * yielding an automaton with a single, non-final state if the language is
+	 * empty), and the ones of the resulting automaton are numbered as
+	 * described in {@link #canonicalForm()}.
+	 * 
+	 * @return the minimal automaton
+	 */
+	private A hopcroft() {
+		State init = getInitialState();
+		SortedSet<State> newStates = new TreeSet<>();
+		SortedSet<Transition<T>> newDelta = new TreeSet<>();
+
+		// we only keep states that are both reachable and co-reachable
+		Set<State> reachable = new HashSet<>();
+		if (init != null)
+			visit(init, reachable, true);
+		Set<State> live = new HashSet<>();
+		for (State s : states)
+			if (s.isFinal() && reachable.contains(s))
+				visit(s, live, false);
+		live.retainAll(reachable);
+
+		if (!live.contains(init)) {
+			// the language is empty
+			newStates.add(new State(0, true, false));
+			return from(newStates, newDelta);
+		}
+
+		List<State> ids = new ArrayList<>(live);
+		Map<State, Integer> stateIds = new HashMap<>();
+		for (State s : ids)
+			stateIds.put(s, stateIds.size());
+		Map<T, Integer> symbolIds = new TreeMap<>();
+		for (State s : ids)
+			for (Transition<T> t : getOutgoingTransitionsFrom(s))
+				symbolIds.putIfAbsent(t.getSymbol(), 0);
+		List<T> symbols = new ArrayList<>(symbolIds.keySet());
+		for (int i = 0; i < symbols.size(); i++)
+			symbolIds.put(symbols.get(i), i);
+
+		// missing transitions lead to an additional sink state
+		int n = ids.size() + 1, k = symbols.size(), sink = n - 1;
+		int[][] delta = new int[n][k];
+		for (int q = 0; q < n; q++) {
+			Arrays.fill(delta[q], sink);
+			if (q != sink)
+				for (Transition<T> t : getOutgoingTransitionsFrom(ids.get(q))) {
+					Integer dest = stateIds.get(t.getDestination());
+					if (dest != null)
+						delta[q][symbolIds.get(t.getSymbol())] = dest;
+				}
+		}
+
+		int[][][] inverse = new int[k][n][];
+		for (int a = 0; a < k; a++) {
+			int[] count = new int[n];
+			for (int q = 0; q < n; q++)
+				count[delta[q][a]]++;
+			for (int q = 0; q < n; q++)
+				inverse[a][q] = new int[count[q]];
+			for (int q = n - 1; q >= 0; q--)
+				inverse[a][delta[q][a]][--count[delta[q][a]]] = q;
+		}
+
+		// refinable partition: the elements of each block are stored
+		// contiguously in elems, between first (inclusive) and end
+		// (exclusive), with marked elements moved before mid
+		int[] elems = new int[n], loc = new int[n], blockOf = new int[n];
+		int[] first = new int[n], end = new int[n], mid = new int[n];
+		int blocks = 0, pos = 0;
+		for (boolean fin : new boolean[] { true, false }) {
+			int start = pos;
+			for (int q = 0; q < n; q++)
+				if ((q != sink && ids.get(q).isFinal()) == fin) {
+					elems[pos] = q;
+					loc[q] = pos++;
+					blockOf[q] = blocks;
+				}
+			if (pos > start) {
+				first[blocks] = mid[blocks] = start;
+				end[blocks++] = pos;
+			}
+		}
+
+		// the worklist of splitters, as pairs (block, symbol)
+		BitSet pending = new BitSet();
+		WorkingSet<Integer> splitters = FIFOWorkingSet.mk();
+		int smallest = blocks == 1 || end[0] - first[0] <= end[1] - first[1] ? 0 : 1;
+		for (int a = 0; a < k; a++) {
+			pending.set(smallest * k + a);
+			splitters.push(smallest * k + a);
+		}
+
+		int[] touched = new int[n];
+		while (!splitters.isEmpty()) {
+			int splitter = splitters.pop();
+			pending.clear(splitter);
+			int b = splitter / k, a = splitter % k;
+
+			// marking moves elements inside their block, so we copy the
+			// splitter before iterating over it
+			int[] members = Arrays.copyOfRange(elems, first[b], end[b]);
+			int ntouched = 0;
+			for (int p : members)
+				for (int q : inverse[a][p]) {
+					int y = blockOf[q], i = loc[q], j = mid[y];
+					if (i < j)
+						continue;
+					if (j == first[y])
+						touched[ntouched++] = y;
+					elems[i] = elems[j];
+					loc[elems[i]] = i;
+					elems[j] = q;
+					loc[q] = j;
+					mid[y]++;
+				}
+
+			for (int t = 0; t < ntouched; t++) {
+				int y = touched[t];
+				if (mid[y] == end[y]) {
+					// the whole block is marked: no split
+					mid[y] = first[y];
+					continue;
+				}
+
+				// the marked elements become a new block
+				int nb = blocks++;
+				first[nb] = mid[nb] = first[y];
+				end[nb] = mid[y];
+				first[y] = mid[y];
+				for (int i = first[nb]; i < end[nb]; i++)
+					blockOf[elems[i]] = nb;
+
+				int small = end[nb] - first[nb] <= end[y] - first[y] ? nb : y;
+				for (int c = 0; c < k; c++)
+					if (pending.get(y * k + c)) {
+						pending.set(nb * k + c);
+						splitters.push(nb * k + c);
+					} else {
+						pending.set(small * k + c);
+						splitters.push(small * k + c);
+					}
+			}
+		}
+
+		// we number the blocks in breadth-first order, ignoring the sink
+		int[] numbers = new int[blocks];
+		Arrays.fill(numbers, -1);
+		int[] order = new int[blocks];
+		int start = stateIds.get(init), count = 0;
+		numbers[blockOf[start]] = count;
+		order[count++] = start;
+		for (int i = 0; i < count; i++) {
+			int q = order[i];
+			for (int a = 0; a < k; a++) {
+				int dest = delta[q][a];
+				if (dest != sink && numbers[blockOf[dest]] == -1) {
+					numbers[blockOf[dest]] = count;
+					order[count++] = dest;
+				}
+			}
+		}
+
+		State[] result = new State[count];
+		for (int i = 0; i < count; i++) {
+			result[i] = new State(i, i == 0, ids.get(order[i]).isFinal());
+			newStates.add(result[i]);
+		}
+		for (int i = 0; i < count; i++)
+			for (int a = 0; a < k; a++) {
+				int dest = delta[order[i]][a];
+				if (dest != sink)
+					newDelta.add(new Transition<>(result[i], result[numbers[blockOf[dest]]], symbols.get(a)));
+			}
+
+		return from(newStates, newDelta);
+	}
+
+	private void visit(
+			State start,
+			Set<State> visited,
+			boolean forward) {
+		WorkingSet<State> ws = FIFOWorkingSet.mk();
+		visited.add(start);
+		ws.push(start);
+		while (!ws.isEmpty()) {
+			State current = ws.pop();
+			for (Transition<T> t : forward ? getOutgoingTransitionsFrom(current) : getIngoingTransitionsFrom(current)) {
+				State next = forward ? t.getDestination() : t.getSource();
+				if (visited.add(next))
+					ws.push(next);
+			}
+		}
+	}
+
 	/**
 	 * Yields the set of all outgoing transitions from the given state.
 	 * 
 	 * @param s the state
 	 * 
-	 * @return the set of outgoing transitions
+	 * @return the (unmodifiable) set of outgoing transitions
 	 */
 	public SortedSet<Transition<T>> getOutgoingTransitionsFrom(
 			State s) {
-		return new TreeSet<>(transitions.stream().filter(t -> t.getSource().equals(s)).collect(Collectors.toSet()));
+		index();
+		return outgoing.getOrDefault(s, Collections.emptySortedSet());
 	}
 
 	/**
@@ -225,12 +626,38 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	 * 
 	 * @param s the state
 	 * 
-	 * @return the set of ingoing transitions
+	 * @return the (unmodifiable) set of ingoing transitions
 	 */
 	public SortedSet<Transition<T>> getIngoingTransitionsFrom(
 			State s) {
-		return new TreeSet<>(
-				transitions.stream().filter(t -> t.getDestination().equals(s)).collect(Collectors.toSet()));
+		index();
+		return ingoing.getOrDefault(s, Collections.emptySortedSet());
+	}
+
+	/**
+	 * Yields the set of states that can be reached from the given state by
+	 * reading the given symbol.
+	 * 
+	 * @param s   the state
+	 * @param sym the symbol
+	 * 
+	 * @return the (unmodifiable) set of reachable states
+	 */
+	public SortedSet<State> getNextStates(
+			State s,
+			T sym) {
+		index();
+		Map<T, SortedSet<State>> next = successors.get(s);
+		if (next == null) {
+			next = new HashMap<>();
+			for (Transition<T> t : getOutgoingTransitionsFrom(s))
+				next.computeIfAbsent(t.getSymbol(), k -> new TreeSet<>()).add(t.getDestination());
+			next.replaceAll((
+					k,
+					v) -> Collections.unmodifiableSortedSet(v));
+			successors.put(s, next);
+		}
+		return next.getOrDefault(sym, Collections.emptySortedSet());
 	}
 
 	/**
@@ -355,21 +782,14 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	public SortedSet<State> epsilonClosure(
 			State s) {
 		SortedSet<State> paths = new TreeSet<>();
-		SortedSet<State> previous = new TreeSet<>();
-		SortedSet<State> partial;
+		WorkingSet<State> ws = FIFOWorkingSet.mk();
 		paths.add(s);
+		ws.push(s);
 
-		while (!paths.equals(previous)) {
-			previous = new TreeSet<>(paths);
-			partial = new TreeSet<>();
-
-			for (State reached : paths)
-				for (Transition<T> t : getOutgoingTransitionsFrom(reached))
-					if (t.isEpsilonTransition())
-						partial.add(t.getDestination());
-
-			paths.addAll(partial);
-		}
+		while (!ws.isEmpty())
+			for (Transition<T> t : getOutgoingTransitionsFrom(ws.pop()))
+				if (t.isEpsilonTransition() && paths.add(t.getDestination()))
+					ws.push(t.getDestination());
 
 		return paths;
 	}
@@ -408,9 +828,7 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 			T sym) {
 		SortedSet<State> solution = new TreeSet<>();
 		for (State s : set)
-			for (Transition<T> t : getOutgoingTransitionsFrom(s))
-				if (t.getSymbol().equals(sym))
-					solution.add(t.getDestination());
+			solution.addAll(getNextStates(s, sym));
 
 		return solution;
 	}
@@ -787,26 +1205,28 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 			return (A) this;
 
 		int code = 0;
-		Map<State, Pair<State, State>> stateMapping = new HashMap<>();
+		Map<Pair<State, State>, State> stateMapping = new HashMap<>();
 		SortedSet<State> newStates = new TreeSet<>();
 		SortedSet<Transition<T>> newDelta = new TreeSet<Transition<T>>();
 
 		for (State s1 : states)
 			for (State s2 : other.states) {
 				State s = new State(code++, s1.isInitial() && s2.isInitial(), s1.isFinal() && s2.isFinal());
-				stateMapping.put(s, Pair.of(s1, s2));
+				stateMapping.put(Pair.of(s1, s2), s);
 				newStates.add(s);
 			}
 
-		for (Transition<T> t1 : transitions) {
-			for (Transition<T> t2 : other.transitions) {
-				if (t1.getSymbol().equals(t2.getSymbol())) {
-					State from = getStateFromPair(stateMapping, Pair.of(t1.getSource(), t2.getSource()));
-					State to = getStateFromPair(stateMapping, Pair.of(t1.getDestination(), t2.getDestination()));
-					newDelta.add(new Transition<T>(from, to, t1.getSymbol()));
-				}
+		// we only pair transitions recognizing the same symbol
+		Map<T, List<Transition<T>>> otherBySymbol = new HashMap<>();
+		for (Transition<T> t2 : other.transitions)
+			otherBySymbol.computeIfAbsent(t2.getSymbol(), k -> new ArrayList<>()).add(t2);
+
+		for (Transition<T> t1 : transitions)
+			for (Transition<T> t2 : otherBySymbol.getOrDefault(t1.getSymbol(), Collections.emptyList())) {
+				State from = stateMapping.get(Pair.of(t1.getSource(), t2.getSource()));
+				State to = stateMapping.get(Pair.of(t1.getDestination(), t2.getDestination()));
+				newDelta.add(new Transition<T>(from, to, t1.getSymbol()));
 			}
-		}
 
 		return from(newStates, newDelta).minimize();
 	}
@@ -853,6 +1273,8 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	 */
 	public boolean isContained(
 			A other) {
+		if (hasSameCanonicalForm(other))
+			return true;
 		SortedSet<T> commonAlphabet = commonAlphabet(other);
 		A complement = other.complement(commonAlphabet);
 		A intersection = intersection(complement);
@@ -873,6 +1295,8 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	public boolean isEqualTo(
 			A other) {
 		A o = (A) other;
+		if (hasSameCanonicalForm(o))
+			return true;
 		if (!hasCycle() && !o.hasCycle())
 			try {
 				return getLanguage().equals(o.getLanguage());
@@ -1000,11 +1424,7 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 				lang.add(newString);
 
 				if (top.getRight() - 1 > 0) {
-					for (State q : getOutgoingTransitionsFrom(top.getMiddle())
-							.stream()
-							.filter(t -> t.getSymbol().equals(c))
-							.map(Transition::getDestination)
-							.collect(Collectors.toSet()))
+					for (State q : getNextStates(top.getMiddle(), c))
 						stack.push(Triple.of(newString, q, top.getRight() - 1));
 				}
 			}
@@ -1318,8 +1738,8 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 			State s2) {
 		SortedSet<Transition<T>> result = new TreeSet<>();
 
-		for (Transition<T> t : this.transitions)
-			if (t.getSource().equals(s1) && t.getDestination().equals(s2))
+		for (Transition<T> t : getOutgoingTransitionsFrom(s1))
+			if (t.getDestination().equals(s2))
 				result.add(t);
 
 		return result;
@@ -0,0 +1,353 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, index-based view of the structure of a {@link Graph}. Each
+ * node of the graph is assigned a dense integer identifier, from {@code 0} to
+ * {@link #size()} (exclusive), and followers, predecessors and the edges
+ * connecting them are stored in compressed sparse row layout: the followers of
+ * the node with identifier {@code i} are the ones at positions from
+ * {@link #followersStart(int) followersStart(i)} (inclusive) to
+ * {@link #followersEnd(int) followersEnd(i)} (exclusive) of a single array,
+ * and similarly for predecessors. Neighbour queries thus take constant time
+ * and allocate no memory. Neighbours are stored in the same order in which the
+ * graph yielded them when the index was built.<br>
+ * <br>
+ * Identifiers are retrieved through {@link #indexOf(Object)}, that first looks
+ * for the given node by identity and only falls back to
+ * {@link Object#equals(Object)} if no such object is part of the graph.
+ *
+ * @param <N> the type of the nodes in the graph
+ * @param <E> the type of the edges in the graph
+ */
+public class NodeIndex<N, E> {
+
+	/**
+	 * A function yielding the edge connecting two nodes.
+	 *
+	 * @param <N> the type of the nodes
+	 * @param <E> the type of the edges
+	 */
+	@FunctionalInterface
+	public interface EdgeConnector<N, E> {
+
+		/**
+		 * Yields the edge connecting the given nodes.
+		 *
+		 * @param src         the identifier of the source node
+		 * @param source      the source node
+		 * @param dest        the identifier of the destination node
+		 * @param destination the destination node
+		 *
+		 * @return the edge
+		 */
+		E connect(
+				int src,
+				N source,
+				int dest,
+				N destination);
+	}
+
+	/**
+	 * The nodes, indexed by their identifier.
+	 */
+	private final Object[] nodes;
+
+	/**
+	 * The identifier of each node, by identity.
+	 */
+	private final Map<N, Integer> identities;
+
+	/**
+	 * The identifier of each node, by equality.
+	 */
+	private final Map<N, Integer> ids;
+
+	/**
+	 * The offsets of the followers of each node in {@link #succ}.
+	 */
+	private final int[] succOffsets;
+
+	/**
+	 * The identifiers of the followers of each node.
+	 */
+	private final int[] succ;
+
+	/**
+	 * The edges connecting each node to the followers in {@link #succ}.
+	 */
+	private final Object[] succEdges;
+
+	/**
+	 * The offsets of the predecessors of each node in {@link #pred}.
+	 */
+	private final int[] predOffsets;
+
+	/**
+	 * The identifiers of the predecessors of each node.
+	 */
+	private final int[] pred;
+
+	/**
+	 * The edges connecting the predecessors in {@link #pred} to each node.
+	 */
+	private final Object[] predEdges;
+
+	/**
+	 * Builds the index.
+	 *
+	 * @param nodes        the nodes to index, in the order that determines
+	 *                         their identifiers
+	 * @param followers    the followers of each node, in the same order of
+	 *                         {@code nodes}
+	 * @param predecessors the predecessors of each node, in the same order of
+	 *                         {@code nodes}
+	 * @param connector    the function yielding the edge connecting two nodes
+	 */
+	protected NodeIndex(
+			List<N> nodes,
+			List<? extends Collection<N>> followers,
+			List<? extends Collection<N>> predecessors,
+			EdgeConnector<N, E> connector) {
+		int size = nodes.size();
+		this.nodes = nodes.toArray();
+		identities = new IdentityHashMap<>(size);
+		ids = new HashMap<>(size * 2);
+		for (int i = 0; i < size; i++) {
+			identities.put(nodes.get(i), i);
+			ids.putIfAbsent(nodes.get(i), i);
+		}
+
+		int succCount = 0, predCount = 0;
+		for (int i = 0; i < size; i++) {
+			succCount += followers.get(i).size();
+			predCount += predecessors.get(i).size();
+		}
+
+		succOffsets = new int[size + 1];
+		succ = new int[succCount];
+		succEdges = new Object[succCount];
+		predOffsets = new int[size + 1];
+		pred = new int[predCount];
+		predEdges = new Object[predCount];
+		int s = 0, p = 0;
+		for (int i = 0; i < size; i++) {
+			N node = nodes.get(i);
+			succOffsets[i] = s;
+			for (N follower : followers.get(i)) {
+				int dest = indexOf(follower);
+				succ[s] = dest;
+				succEdges[s++] = connector.connect(i, node, dest, follower);
+			}
+			predOffsets[i] = p;
+			for (N predecessor : predecessors.get(i)) {
+				int src = indexOf(predecessor);
+				pred[p] = src;
+				predEdges[p++] = connector.connect(src, predecessor, i, node);
+			}
+		}
+		succOffsets[size] = s;
+		predOffsets[size] = p;
+	}
+
+	/**
+	 * Builds the index of the given graph, querying its structure through
+	 * {@link Graph#getNodes()}, {@link Graph#followersOf(Node)},
+	 * {@link Graph#predecessorsOf(Node)} and
+	 * {@link Graph#getEdgeConnecting(Node, Node)}.
+	 *
+	 * @param <G>   the type of the graph
+	 * @param <N>   the type of the nodes in the graph
+	 * @param <E>   the type of the edges in the graph
+	 * @param graph the graph to index
+	 *
+	 * @return the index
+	 */
+	public static <G extends Graph<G, N, E>,
+			N extends Node<G, N, E>,
+			E extends Edge<G, N, E>> NodeIndex<N, E> of(
+					Graph<G, N, E> graph) {
+		List<N> nodes = new ArrayList<>(graph.getNodes());
+		List<Collection<N>> followers = new ArrayList<>(nodes.size());
+		List<Collection<N>> predecessors = new ArrayList<>(nodes.size());
+		for (N node : nodes) {
+			followers.add(graph.followersOf(node));
+			predecessors.add(graph.predecessorsOf(node));
+		}
+		return new NodeIndex<>(nodes, followers, predecessors, (
+				src,
+				source,
+				dest,
+				destination) -> graph.getEdgeConnecting(source, destination));
+	}
+
+	/**
+	 * Yields the number of nodes in this index.
+	 *
+	 * @return the number of nodes
+	 */
+	public int size() {
+		return nodes.length;
+	}
+
+	/**
+	 * Yields the identifier of the given node.
+	 *
+	 * @param node the node
+	 *
+	 * @return the identifier, or {@code -1} if the node is not indexed
+	 */
+	public int indexOf(
+			Object node) {
+		Integer id = identities.get(node);
+		if (id == null)
+			id = ids.get(node);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Yields the node with the given identifier.
+	 *
+	 * @param id the identifier
+	 *
+	 * @return the node
+	 */
+	@SuppressWarnings("unchecked")
+	public N getNode(
+			int id) {
+		return (N) nodes[id];
+	}
+
+	/**
+	 * Yields the position of the first follower of the given node, to be used
+	 * with {@link #followerAt(int)} and {@link #outgoingEdgeAt(int)}.
+	 *
+	 * @param id the identifier of the node
+	 *
+	 * @return the position (inclusive)
+	 */
+	public int followersStart(
+			int id) {
+		return succOffsets[id];
+	}
+
+	/**
+	 * Yields the position after the last follower of the given node, to be
+	 * used with {@link #followerAt(int)} and {@link #outgoingEdgeAt(int)}.
+	 *
+	 * @param id the identifier of the node
+	 *
+	 * @return the position (exclusive)
+	 */
+	public int followersEnd(
+			int id) {
+		return succOffsets[id + 1];
+	}
+
+	/**
+	 * Yields the identifier of the follower at the given position.
+	 *
+	 * @param pos the position, between {@link #followersStart(int)} and
+	 *                {@link #followersEnd(int)} of some node
+	 *
+	 * @return the identifier of the follower
+	 */
+	public int followerAt(
+			int pos) {
+		return succ[pos];
+	}
+
+	/**
+	 * Yields the edge connecting a node to the follower at the given position.
+	 *
+	 * @param pos the position, between {@link #followersStart(int)} and
+	 *                {@link #followersEnd(int)} of some node
+	 *
+	 * @return the edge
+	 */
+	@SuppressWarnings("unchecked")
+	public E outgoingEdgeAt(
+			int pos) {
+		return (E) succEdges[pos];
+	}
+
+	/**
+	 * Yields the position of the first predecessor of the given node, to be
+	 * used with {@link #predecessorAt(int)} and {@link #ingoingEdgeAt(int)}.
+	 *
+	 * @param id the identifier of the node
+	 *
+	 * @return the position (inclusive)
+	 */
+	public int predecessorsStart(
+			int id) {
+		return predOffsets[id];
+	}
+
+	/**
+	 * Yields the position after the last predecessor of the given node, to be
+	 * used with {@link #predecessorAt(int)} and {@link #ingoingEdgeAt(int)}.
+	 *
+	 * @param id the identifier of the node
+	 *
+	 * @return the position (exclusive)
+	 */
+	public int predecessorsEnd(
+			int id) {
+		return predOffsets[id + 1];
+	}
+
+	/**
+	 * Yields the identifier of the predecessor at the given position.
+	 *
+	 * @param pos the position, between {@link #predecessorsStart(int)} and
+	 *                {@link #predecessorsEnd(int)} of some node
+	 *
+	 * @return the identifier of the predecessor
+	 */
+	public int predecessorAt(
+			int pos) {
+		return pred[pos];
+	}
+
+	/**
+	 * Yields the edge connecting the predecessor at the given position to its
+	 * node.
+	 *
+	 * @param pos the position, between {@link #predecessorsStart(int)} and
+	 *                {@link #predecessorsEnd(int)} of some node
+	 *
+	 * @return the edge
+	 */
+	@SuppressWarnings("unchecked")
+	public E ingoingEdgeAt(
+			int pos) {
+		return (E) predEdges[pos];
+	}
+
+	/**
+	 * Yields the edge connecting the two given nodes, if any.
+	 *
+	 * @param src  the identifier of the source node, or {@code -1}
+	 * @param dest the identifier of the destination node, or {@code -1}
+	 *
+	 * @return the edge connecting the two nodes, or {@code null} if no such
+	 *             edge exists or one of the identifiers is {@code -1}
+	 */
+	public E getEdgeConnecting(
+			int src,
+			int dest) {
+		if (src == -1 || dest == -1)
+			return null;
+		for (int pos = succOffsets[src]; pos < succOffsets[src + 1]; pos++)
+			if (succ[pos] == dest)
+				return outgoingEdgeAt(pos);
+		return null;
+	}
+}
@@ -2,17 +2,15 @@ package it.unive.lisa.util.datastructures.graph.algorithms;
 
 import static java.lang.String.format;
 
+import it.unive.lisa.util.collections.workset.IndexedFIFOWorkingSet;
 import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.Edge;
 import it.unive.lisa.util.datastructures.graph.Graph;
 import it.unive.lisa.util.datastructures.graph.Node;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
+import it.unive.lisa.util.datastructures.graph.NodeIndex;
+import java.util.BitSet;
 import java.util.Map;
-import java.util.Set;
+import java.util.Map.Entry;
 
 /**
  * A backward fixpoint algorithm for a {@link Graph}, parametric to the
@@ -43,6 +41,23 @@ public class BackwardFixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>,
 	 */
 	protected final boolean forceFullEvaluation;
 
+	/**
+	 * The statistics about the work performed by this fixpoint.
+	 */
+	protected final FixpointStatistics statistics;
+
+	/**
+	 * The index of {@link #graph} used by the current fixpoint execution.
+	 */
+	protected NodeIndex<N, E> index;
+
+	/**
+	 * The exit states of each node computed during the current fixpoint
+	 * execution, together with the information used to compute them, indexed
+	 * by the nodes' identifiers in {@link #index}.
+	 */
+	private CachedState<T>[] cache;
+
 	/**
 	 * Builds a fixpoint for the given {@link Graph}.
 	 * 
@@ -56,6 +71,64 @@ public class BackwardFixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>,
 			boolean forceFullEvaluation) {
 		this.graph = graph;
 		this.forceFullEvaluation = forceFullEvaluation;
+		this.statistics = new FixpointStatistics();
+	}
+
+	/**
+	 * Yields the statistics about the work performed by all the executions of
+	 * this fixpoint.
+	 * 
+	 * @return the statistics
+	 */
+	public FixpointStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * A cached exit state for a node, together with the states of the node's
+	 * followers that were used to compute it. Each follower's state is stored
+	 * alongside the result of traversing the edge connecting the node to it:
+	 * since states are immutable and fixpoint results are replaced only when
+	 * they change, the traversal is reused as long as the follower's state is
+	 * the same object. Followers are the ones of the node in the
+	 * {@link NodeIndex} of the graph, in the same order.
+	 * 
+	 * @param <T> the type of data computed by the fixpoint
+	 */
+	private static class CachedState<T> {
+
+		private final Object[] states;
+
+		private final Object[] traversed;
+
+		private T start;
+
+		private T state;
+
+		private boolean computed;
+
+		private CachedState(
+				int followers) {
+			this.states = new Object[followers];
+			this.traversed = new Object[followers];
+		}
+	}
+
+	/**
+	 * Creates an array of {@link CachedState}s with the given length. Generic
+	 * arrays cannot be instantiated, but the cast is safe since the array is
+	 * private to a single fixpoint execution, and only contains states of the
+	 * type computed by it.
+	 * 
+	 * @param <T>  the type of data computed by the fixpoint
+	 * @param size the length of the array
+	 * 
+	 * @return the array
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> CachedState<T>[] newCache(
+			int size) {
+		return (CachedState<T>[]) new CachedState<?>[size];
 	}
 
 	/**
@@ -109,23 +182,23 @@ public class BackwardFixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>,
 			Fixpoint.FixpointImplementation<N, E, T> implementation,
 			Map<N, T> initialResult)
 			throws FixpointException {
-		Map<N, T> result = initialResult == null ? new HashMap<>(graph.getNodesCount()) : new HashMap<>(initialResult);
-		startingPoints.keySet().forEach(ws::push);
+		prepare(ws);
+		FixpointResults<N, T> result = new FixpointResults<>(index, initialResult);
+		Object[] starts = startingStates(startingPoints, ws);
+		IndexedFIFOWorkingSet<N> iws = ws instanceof IndexedFIFOWorkingSet ? (IndexedFIFOWorkingSet<N>) ws : null;
 
-		Set<N> toProcess = null;
-		if (forceFullEvaluation)
-			toProcess = new HashSet<>(graph.getNodes());
+		BitSet toProcess = null;
+		if (forceFullEvaluation) {
+			toProcess = new BitSet(index.size());
+			toProcess.set(0, index.size());
+		}
 
 		T newApprox;
 		while (!ws.isEmpty()) {
-			N current = ws.pop();
-
-			if (current == null)
-				throw new FixpointException("null node encountered during fixpoint in '" + graph + "'");
-			if (!graph.containsNode(current))
-				throw new FixpointException("'" + current + "' is not part of '" + graph + "'");
+			int id = pop(ws, iws);
+			N current = index.getNode(id);
 
-			T exitstate = getExitState(current, startingPoints.get(current), implementation, result);
+			T exitstate = getExitState(id, cast(starts[id]), implementation, result);
 			if (exitstate == null)
 				throw new FixpointException("'" + current + "' does not have an entry state");
 
@@ -135,7 +208,7 @@ public class BackwardFixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>,
 				throw new FixpointException(format(ERROR, "computing semantics", current, graph), e);
 			}
 
-			T oldApprox = result.get(current);
+			T oldApprox = result.get(id);
 			if (oldApprox != null)
 				try {
 					newApprox = implementation.operation(current, newApprox, oldApprox);
@@ -144,28 +217,104 @@ public class BackwardFixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>,
 				}
 			try {
 				// we go on if we were asked to analyze all nodes at least once
-				if ((forceFullEvaluation && toProcess.remove(current))
+				if ((forceFullEvaluation && Fixpoint.firstVisit(toProcess, id))
 						// or if this is the first time we analyze this node
 						|| oldApprox == null
 						// or if we got a result that should not be considered
 						// equal
 						|| !implementation.equality(current, newApprox, oldApprox)) {
-					result.put(current, newApprox);
-					for (N instr : graph.predecessorsOf(current))
-						ws.push(instr);
+					result.put(id, newApprox);
+					pushPredecessors(id, ws, iws);
 				}
 			} catch (Exception e) {
 				throw new FixpointException(format(ERROR, "updating result", current, graph), e);
 			}
 		}
 
-		return result;
+		return result.toMap();
+	}
+
+	/**
+	 * Pushes the starting points of a fixpoint execution into the given working
+	 * set, yielding their starting states indexed by their identifiers.
+	 * 
+	 * @param startingPoints the starting points, each mapped to its exit state
+	 * @param ws             the working set
+	 * 
+	 * @return the starting states, indexed by node identifiers
+	 * 
+	 * @throws FixpointException if one of the starting points is not part of
+	 *                               the graph
+	 */
+	protected Object[] startingStates(
+			Map<N, T> startingPoints,
+			WorkingSet<N> ws)
+			throws FixpointException {
+		Object[] starts = new Object[index.size()];
+		for (Entry<N, T> entry : startingPoints.entrySet()) {
+			int id = index.indexOf(entry.getKey());
+			if (id == -1)
+				throw new FixpointException("'" + entry.getKey() + "' is not part of '" + graph + "'");
+			starts[id] = entry.getValue();
+			ws.push(entry.getKey());
+		}
+		return starts;
+	}
+
+	/**
+	 * Pops the next node from the given working set, yielding its identifier.
+	 * 
+	 * @param ws  the working set
+	 * @param iws {@code ws} if it is an {@link IndexedFIFOWorkingSet},
+	 *                {@code null} otherwise
+	 * 
+	 * @return the identifier of the popped node
+	 * 
+	 * @throws FixpointException if the popped node is not part of the graph
+	 */
+	protected int pop(
+			WorkingSet<N> ws,
+			IndexedFIFOWorkingSet<N> iws)
+			throws FixpointException {
+		if (iws != null)
+			return iws.popIndex();
+
+		N current = ws.pop();
+		if (current == null)
+			throw new FixpointException("null node encountered during fixpoint in '" + graph + "'");
+		int id = index.indexOf(current);
+		if (id == -1)
+			throw new FixpointException("'" + current + "' is not part of '" + graph + "'");
+		return id;
+	}
+
+	/**
+	 * Pushes the predecessors of the given node into the given working set.
+	 * 
+	 * @param id  the identifier of the node
+	 * @param ws  the working set
+	 * @param iws {@code ws} if it is an {@link IndexedFIFOWorkingSet},
+	 *                {@code null} otherwise
+	 */
+	protected void pushPredecessors(
+			int id,
+			WorkingSet<N> ws,
+			IndexedFIFOWorkingSet<N> iws) {
+		int end = index.predecessorsEnd(id);
+		for (int pos = index.predecessorsStart(id); pos < end; pos++)
+			if (iws != null)
+				iws.pushIndex(index.predecessorAt(pos));
+			else
+				ws.push(index.getNode(index.predecessorAt(pos)));
 	}
 
 	/**
-	 * Yields the exit state for the given node.
+	 * Yields the exit state for the given node. Edges are traversed only if
+	 * the state of their destination changed since the last time that this
+	 * method was invoked on {@code node}, and the exit state is recomputed only
+	 * if at least one of the traversals or {@code startstate} changed.
 	 * 
-	 * @param node           the node under evaluation
+	 * @param node           the identifier of the node under evaluation
 	 * @param startstate     a predefined ending state that must be taken into
 	 *                           account for the computation
 	 * @param implementation the fixpoint implementation that knows how to
@@ -177,36 +326,96 @@ public class BackwardFixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>,
 	 * @throws FixpointException if something goes wrong during the computation
 	 */
 	protected T getExitState(
-			N node,
+			int node,
 			T startstate,
 			Fixpoint.FixpointImplementation<N, E, T> implementation,
-			Map<N, T> result)
+			FixpointResults<N, T> result)
 			throws FixpointException {
-		Collection<N> follows = graph.followersOf(node);
-		List<T> states = new ArrayList<>(follows.size());
+		int first = index.followersStart(node);
+		CachedState<T> cached = cache[node];
+		if (cached == null)
+			cached = cache[node] = new CachedState<>(index.followersEnd(node) - first);
+
+		boolean changed = !cached.computed || cached.start != startstate;
+		for (int i = 0; i < cached.states.length; i++) {
+			// this might not have been computed yet
+			T state = result.get(index.followerAt(first + i));
+			if (state == cached.states[i]) {
+				if (state != null)
+					statistics.cachedTraversal();
+				continue;
+			}
 
-		for (N follow : follows)
-			if (result.containsKey(follow)) {
-				// this might not have been computed yet
-				E edge = graph.getEdgeConnecting(node, follow);
+			changed = true;
+			cached.states[i] = state;
+			if (state == null)
+				cached.traversed[i] = null;
+			else {
+				E edge = index.outgoingEdgeAt(first + i);
 				try {
-					states.add(implementation.traverse(edge, result.get(follow)));
+					cached.traversed[i] = implementation.traverse(edge, state);
 				} catch (Exception e) {
 					throw new FixpointException(format(ERROR, "computing edge semantics", edge, graph), e);
 				}
+				statistics.traversal();
 			}
+		}
+
+		if (!changed) {
+			statistics.cachedState();
+			return cached.state;
+		}
 
+		N n = index.getNode(node);
 		T exitstate = startstate;
 		try {
-			for (T s : states)
-				if (exitstate == null)
-					exitstate = s;
+			for (Object s : cached.traversed)
+				if (s == null)
+					continue;
+				else if (exitstate == null)
+					exitstate = cast(s);
 				else
-					exitstate = implementation.union(node, exitstate, s);
+					exitstate = implementation.union(n, exitstate, cast(s));
 		} catch (Exception e) {
-			throw new FixpointException(format(ERROR, "creating entry state", node, graph), e);
+			throw new FixpointException(format(ERROR, "creating entry state", n, graph), e);
 		}
 
+		cached.start = startstate;
+		cached.state = exitstate;
+		cached.computed = true;
 		return exitstate;
 	}
+
+	/**
+	 * Casts the given object, stored in an untyped array, to the type of data
+	 * computed by this fixpoint.
+	 * 
+	 * @param state the object
+	 * 
+	 * @return the casted object
+	 */
+	@SuppressWarnings("unchecked")
+	protected T cast(
+			Object state) {
+		return (T) state;
+	}
+
+	/**
+	 * Prepares this fixpoint and the given working set for a new execution,
+	 * discarding the exit states cached by previous ones. This computes the
+	 * {@link NodeIndex} of the graph used by the execution through
+	 * {@link Fixpoint#indexOf(Graph)}. If {@code ws} is an
+	 * {@link IndexedFIFOWorkingSet}, it is set to use the identifiers of the
+	 * index.
+	 * 
+	 * @param ws the working set to prepare
+	 */
+	@SuppressWarnings("unchecked")
+	protected void prepare(
+			WorkingSet<N> ws) {
+		index = Fixpoint.indexOf(graph);
+		cache = newCache(index.size());
+		if (ws instanceof IndexedFIFOWorkingSet)
+			((IndexedFIFOWorkingSet<N>) ws).setIndexing(index::indexOf, index::getNode);
+	}
 }
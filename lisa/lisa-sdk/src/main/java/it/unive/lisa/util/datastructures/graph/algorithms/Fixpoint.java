@@ -2,17 +2,17 @@ package it.unive.lisa.util.datastructures.graph.algorithms;
 
 import static java.lang.String.format;
 
+import it.unive.lisa.util.collections.workset.IndexedFIFOWorkingSet;
+import it.unive.lisa.util.collections.workset.WeakTopologicalOrderWorkingSet;
 import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.Edge;
 import it.unive.lisa.util.datastructures.graph.Graph;
 import it.unive.lisa.util.datastructures.graph.Node;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
+import it.unive.lisa.util.datastructures.graph.NodeIndex;
+import it.unive.lisa.util.datastructures.graph.code.CodeGraph;
+import java.util.BitSet;
 import java.util.Map;
-import java.util.Set;
+import java.util.Map.Entry;
 
 /**
  * A fixpoint algorithm for a {@link Graph}, parametric to the
@@ -42,6 +42,23 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 	 */
 	protected final boolean forceFullEvaluation;
 
+	/**
+	 * The statistics about the work performed by this fixpoint.
+	 */
+	protected final FixpointStatistics statistics;
+
+	/**
+	 * The index of {@link #graph} used by the current fixpoint execution.
+	 */
+	protected NodeIndex<N, E> index;
+
+	/**
+	 * The entry states of each node computed during the current fixpoint
+	 * execution, together with the information used to compute them, indexed
+	 * by the nodes' identifiers in {@link #index}.
+	 */
+	private CachedState<T>[] cache;
+
 	/**
 	 * Builds a fixpoint for the given {@link Graph}.
 	 * 
@@ -55,6 +72,64 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 			boolean forceFullEvaluation) {
 		this.graph = graph;
 		this.forceFullEvaluation = forceFullEvaluation;
+		this.statistics = new FixpointStatistics();
+	}
+
+	/**
+	 * Yields the statistics about the work performed by all the executions of
+	 * this fixpoint.
+	 * 
+	 * @return the statistics
+	 */
+	public FixpointStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * A cached entry state for a node, together with the states of the node's
+	 * predecessors that were used to compute it. Each predecessor's state is
+	 * stored alongside the result of traversing the edge connecting it to the
+	 * node: since states are immutable and fixpoint results are replaced only
+	 * when they change, the traversal is reused as long as the predecessor's
+	 * state is the same object. Predecessors are the ones of the node in the
+	 * {@link NodeIndex} of the graph, in the same order.
+	 * 
+	 * @param <T> the type of data computed by the fixpoint
+	 */
+	private static class CachedState<T> {
+
+		private final Object[] states;
+
+		private final Object[] traversed;
+
+		private T start;
+
+		private T state;
+
+		private boolean computed;
+
+		private CachedState(
+				int predecessors) {
+			this.states = new Object[predecessors];
+			this.traversed = new Object[predecessors];
+		}
+	}
+
+	/**
+	 * Creates an array of {@link CachedState}s with the given length. Generic
+	 * arrays cannot be instantiated, but the cast is safe since the array is
+	 * private to a single fixpoint execution, and only contains states of the
+	 * type computed by it.
+	 * 
+	 * @param <T>  the type of data computed by the fixpoint
+	 * @param size the length of the array
+	 * 
+	 * @return the array
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> CachedState<T>[] newCache(
+			int size) {
+		return (CachedState<T>[]) new CachedState<?>[size];
 	}
 
 	/**
@@ -233,23 +308,23 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 			FixpointImplementation<N, E, T> implementation,
 			Map<N, T> initialResult)
 			throws FixpointException {
-		Map<N, T> result = initialResult == null ? new HashMap<>(graph.getNodesCount()) : new HashMap<>(initialResult);
-		startingPoints.keySet().forEach(ws::push);
+		prepare(ws);
+		FixpointResults<N, T> result = new FixpointResults<>(index, initialResult);
+		Object[] starts = startingStates(startingPoints, ws);
+		IndexedFIFOWorkingSet<N> iws = ws instanceof IndexedFIFOWorkingSet ? (IndexedFIFOWorkingSet<N>) ws : null;
 
-		Set<N> toProcess = null;
-		if (forceFullEvaluation)
-			toProcess = new HashSet<>(graph.getNodes());
+		BitSet toProcess = null;
+		if (forceFullEvaluation) {
+			toProcess = new BitSet(index.size());
+			toProcess.set(0, index.size());
+		}
 
 		T newApprox;
 		while (!ws.isEmpty()) {
-			N current = ws.pop();
+			int id = pop(ws, iws);
+			N current = index.getNode(id);
 
-			if (current == null)
-				throw new FixpointException("null node encountered during fixpoint in '" + graph + "'");
-			if (!graph.containsNode(current))
-				throw new FixpointException("'" + current + "' is not part of '" + graph + "'");
-
-			T entrystate = getEntryState(current, startingPoints.get(current), implementation, result);
+			T entrystate = getEntryState(id, cast(starts[id]), implementation, result);
 			if (entrystate == null)
 				throw new FixpointException("'" + current + "' does not have an entry state");
 
@@ -259,7 +334,7 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 				throw new FixpointException(format(ERROR, "computing semantics", current, graph), e);
 			}
 
-			T oldApprox = result.get(current);
+			T oldApprox = result.get(id);
 			if (oldApprox != null)
 				try {
 					newApprox = implementation.operation(current, newApprox, oldApprox);
@@ -268,28 +343,122 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 				}
 			try {
 				// we go on if we were asked to analyze all nodes at least once
-				if ((forceFullEvaluation && toProcess.remove(current))
+				if ((forceFullEvaluation && firstVisit(toProcess, id))
 						// or if this is the first time we analyze this node
 						|| oldApprox == null
 						// or if we got a result that should not be considered
 						// equal
 						|| !implementation.equality(current, newApprox, oldApprox)) {
-					result.put(current, newApprox);
-					for (N instr : graph.followersOf(current))
-						ws.push(instr);
+					result.put(id, newApprox);
+					pushFollowers(id, ws, iws);
 				}
 			} catch (Exception e) {
 				throw new FixpointException(format(ERROR, "updating result", current, graph), e);
 			}
 		}
 
-		return result;
+		return result.toMap();
+	}
+
+	/**
+	 * Pushes the starting points of a fixpoint execution into the given working
+	 * set, yielding their starting states indexed by their identifiers.
+	 * 
+	 * @param startingPoints the starting points, each mapped to its entry state
+	 * @param ws             the working set
+	 * 
+	 * @return the starting states, indexed by node identifiers
+	 * 
+	 * @throws FixpointException if one of the starting points is not part of
+	 *                               the graph
+	 */
+	protected Object[] startingStates(
+			Map<N, T> startingPoints,
+			WorkingSet<N> ws)
+			throws FixpointException {
+		Object[] starts = new Object[index.size()];
+		for (Entry<N, T> entry : startingPoints.entrySet()) {
+			int id = index.indexOf(entry.getKey());
+			if (id == -1)
+				throw new FixpointException("'" + entry.getKey() + "' is not part of '" + graph + "'");
+			starts[id] = entry.getValue();
+			ws.push(entry.getKey());
+		}
+		return starts;
+	}
+
+	/**
+	 * Pops the next node from the given working set, yielding its identifier.
+	 * 
+	 * @param ws  the working set
+	 * @param iws {@code ws} if it is an {@link IndexedFIFOWorkingSet},
+	 *                {@code null} otherwise
+	 * 
+	 * @return the identifier of the popped node
+	 * 
+	 * @throws FixpointException if the popped node is not part of the graph
+	 */
+	protected int pop(
+			WorkingSet<N> ws,
+			IndexedFIFOWorkingSet<N> iws)
+			throws FixpointException {
+		if (iws != null)
+			return iws.popIndex();
+
+		N current = ws.pop();
+		if (current == null)
+			throw new FixpointException("null node encountered during fixpoint in '" + graph + "'");
+		int id = index.indexOf(current);
+		if (id == -1)
+			throw new FixpointException("'" + current + "' is not part of '" + graph + "'");
+		return id;
 	}
 
 	/**
-	 * Yields the entry state for the given node.
+	 * Pushes the followers of the given node into the given working set.
 	 * 
-	 * @param node           the node under evaluation
+	 * @param id  the identifier of the node
+	 * @param ws  the working set
+	 * @param iws {@code ws} if it is an {@link IndexedFIFOWorkingSet},
+	 *                {@code null} otherwise
+	 */
+	protected void pushFollowers(
+			int id,
+			WorkingSet<N> ws,
+			IndexedFIFOWorkingSet<N> iws) {
+		int end = index.followersEnd(id);
+		for (int pos = index.followersStart(id); pos < end; pos++)
+			if (iws != null)
+				iws.pushIndex(index.followerAt(pos));
+			else
+				ws.push(index.getNode(index.followerAt(pos)));
+	}
+
+	/**
+	 * Yields whether or not the given node has not been visited yet, marking
+	 * it as visited.
+	 * 
+	 * @param toProcess the nodes still to be visited
+	 * @param id        the identifier of the node
+	 * 
+	 * @return {@code true} if the node had not been visited yet
+	 */
+	public static boolean firstVisit(
+			BitSet toProcess,
+			int id) {
+		if (!toProcess.get(id))
+			return false;
+		toProcess.clear(id);
+		return true;
+	}
+
+	/**
+	 * Yields the entry state for the given node. Edges are traversed only if
+	 * the state of their source changed since the last time that this method
+	 * was invoked on {@code node}, and the entry state is recomputed only if at
+	 * least one of the traversals or {@code startstate} changed.
+	 * 
+	 * @param node           the identifier of the node under evaluation
 	 * @param startstate     a predefined starting state that must be taken into
 	 *                           account for the computation
 	 * @param implementation the fixpoint implementation that knows how to
@@ -301,36 +470,128 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 	 * @throws FixpointException if something goes wrong during the computation
 	 */
 	protected T getEntryState(
-			N node,
+			int node,
 			T startstate,
 			FixpointImplementation<N, E, T> implementation,
-			Map<N, T> result)
+			FixpointResults<N, T> result)
 			throws FixpointException {
-		Collection<N> preds = graph.predecessorsOf(node);
-		List<T> states = new ArrayList<>(preds.size());
+		int first = index.predecessorsStart(node);
+		CachedState<T> cached = cache[node];
+		if (cached == null)
+			cached = cache[node] = new CachedState<>(index.predecessorsEnd(node) - first);
 
-		for (N pred : preds)
-			if (result.containsKey(pred)) {
-				// this might not have been computed yet
-				E edge = graph.getEdgeConnecting(pred, node);
+		boolean changed = !cached.computed || cached.start != startstate;
+		for (int i = 0; i < cached.states.length; i++) {
+			// this might not have been computed yet
+			T state = result.get(index.predecessorAt(first + i));
+			if (state == cached.states[i]) {
+				if (state != null)
+					statistics.cachedTraversal();
+				continue;
+			}
+
+			changed = true;
+			cached.states[i] = state;
+			if (state == null)
+				cached.traversed[i] = null;
+			else {
+				E edge = index.ingoingEdgeAt(first + i);
 				try {
-					states.add(implementation.traverse(edge, result.get(pred)));
+					cached.traversed[i] = implementation.traverse(edge, state);
 				} catch (Exception e) {
 					throw new FixpointException(format(ERROR, "computing edge semantics", edge, graph), e);
 				}
+				statistics.traversal();
 			}
+		}
+
+		if (!changed) {
+			statistics.cachedState();
+			return cached.state;
+		}
 
+		N n = index.getNode(node);
 		T entrystate = startstate;
 		try {
-			for (T s : states)
-				if (entrystate == null)
-					entrystate = s;
+			for (Object s : cached.traversed)
+				if (s == null)
+					continue;
+				else if (entrystate == null)
+					entrystate = cast(s);
 				else
-					entrystate = implementation.union(node, entrystate, s);
+					entrystate = implementation.union(n, entrystate, cast(s));
 		} catch (Exception e) {
-			throw new FixpointException(format(ERROR, "creating entry state", node, graph), e);
+			throw new FixpointException(format(ERROR, "creating entry state", n, graph), e);
 		}
 
+		cached.start = startstate;
+		cached.state = entrystate;
+		cached.computed = true;
 		return entrystate;
 	}
+
+	/**
+	 * Casts the given object, stored in an untyped array, to the type of data
+	 * computed by this fixpoint.
+	 * 
+	 * @param state the object
+	 * 
+	 * @return the casted object
+	 */
+	@SuppressWarnings("unchecked")
+	protected T cast(
+			Object state) {
+		return (T) state;
+	}
+
+	/**
+	 * Prepares this fixpoint and the given working set for a new execution,
+	 * discarding the entry states cached by previous ones. This computes the
+	 * {@link NodeIndex} of the graph used by the execution: if the graph is a
+	 * {@link CodeGraph}, this is its frozen node list, obtained through
+	 * {@link CodeGraph#freeze()} (that is computed only once and shared among
+	 * executions, as long as the graph is not modified). If {@code ws} is an
+	 * {@link IndexedFIFOWorkingSet}, it is set to use the identifiers of the
+	 * index. If {@code ws} is a {@link WeakTopologicalOrderWorkingSet} whose
+	 * positions have not been set yet, the weak topological order of the graph
+	 * is computed through {@link WeakTopologicalOrder} and used as positions.
+	 * 
+	 * @param ws the working set to prepare
+	 */
+	@SuppressWarnings("unchecked")
+	protected void prepare(
+			WorkingSet<N> ws) {
+		index = indexOf(graph);
+		cache = newCache(index.size());
+		if (ws instanceof IndexedFIFOWorkingSet)
+			((IndexedFIFOWorkingSet<N>) ws).setIndexing(index::indexOf, index::getNode);
+		if (ws instanceof WeakTopologicalOrderWorkingSet) {
+			WeakTopologicalOrderWorkingSet<N> wto = (WeakTopologicalOrderWorkingSet<N>) ws;
+			if (!wto.hasPositions())
+				wto.setPositions(new WeakTopologicalOrder<G, N, E>().build(graph));
+		}
+	}
+
+	/**
+	 * Yields the {@link NodeIndex} of the given graph: if it is a
+	 * {@link CodeGraph}, this is its frozen node list (see
+	 * {@link CodeGraph#freeze()}), otherwise a new index is built through
+	 * {@link NodeIndex#of(Graph)}.
+	 * 
+	 * @param <G>   the type of the graph
+	 * @param <N>   the type of the {@link Node}s in the graph
+	 * @param <E>   the type of the {@link Edge}s in the graph
+	 * @param graph the graph
+	 * 
+	 * @return the index
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static <G extends Graph<G, N, E>,
+			N extends Node<G, N, E>,
+			E extends Edge<G, N, E>> NodeIndex<N, E> indexOf(
+					G graph) {
+		if (graph instanceof CodeGraph)
+			return (NodeIndex<N, E>) ((CodeGraph) graph).freeze();
+		return NodeIndex.of(graph);
+	}
 }
@@ -0,0 +1,120 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import it.unive.lisa.util.datastructures.graph.NodeIndex;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * An array-backed store for the results computed by a fixpoint algorithm. The
+ * result of each node of the target graph is stored in an array, at the
+ * position corresponding to the node's identifier in a {@link NodeIndex} of
+ * the graph, so that results can be read and written through identifiers
+ * without hashing the nodes. Results for objects that are not nodes of the
+ * graph (e.g., the inner expressions of a statement) are instead stored in a
+ * separate map.
+ *
+ * @param <N> the type of the nodes in the graph
+ * @param <T> the type of data computed by the fixpoint
+ */
+public class FixpointResults<N, T> {
+
+	private final NodeIndex<N, ?> index;
+
+	private final Object[] results;
+
+	private final Map<N, T> others;
+
+	private int count;
+
+	/**
+	 * Builds the store.
+	 *
+	 * @param index   the index of the graph whose results are to be stored
+	 * @param initial the initial results to store (can be {@code null})
+	 */
+	public FixpointResults(
+			NodeIndex<N, ?> index,
+			Map<N, T> initial) {
+		this.index = index;
+		this.results = new Object[index.size()];
+		this.others = new HashMap<>();
+		if (initial != null)
+			for (Entry<N, T> entry : initial.entrySet())
+				put(entry.getKey(), entry.getValue());
+	}
+
+	/**
+	 * Yields the result of the node with the given identifier.
+	 *
+	 * @param id the identifier of the node
+	 *
+	 * @return the result, or {@code null} if no result has been stored for
+	 *             that node
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(
+			int id) {
+		return (T) results[id];
+	}
+
+	/**
+	 * Stores the result of the node with the given identifier.
+	 *
+	 * @param id     the identifier of the node
+	 * @param result the result to store
+	 */
+	public void put(
+			int id,
+			T result) {
+		if (results[id] == null)
+			count++;
+		results[id] = result;
+	}
+
+	/**
+	 * Yields the result of the given node, or of the given object if it is not
+	 * a node of the indexed graph.
+	 *
+	 * @param node the node
+	 *
+	 * @return the result, or {@code null} if no result has been stored for
+	 *             that node
+	 */
+	public T get(
+			N node) {
+		int id = index.indexOf(node);
+		return id == -1 ? others.get(node) : get(id);
+	}
+
+	/**
+	 * Stores the result of the given node, or of the given object if it is not
+	 * a node of the indexed graph.
+	 *
+	 * @param node   the node
+	 * @param result the result to store
+	 */
+	public void put(
+			N node,
+			T result) {
+		int id = index.indexOf(node);
+		if (id == -1)
+			others.put(node, result);
+		else
+			put(id, result);
+	}
+
+	/**
+	 * Yields the stored results as a map.
+	 *
+	 * @return a fresh map containing all stored results
+	 */
+	public Map<N, T> toMap() {
+		Map<N, T> map = new HashMap<>(count + others.size());
+		for (int i = 0; i < results.length; i++)
+			if (results[i] != null)
+				map.put(index.getNode(i), get(i));
+		map.putAll(others);
+		return map;
+	}
+}
@@ -0,0 +1,205 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics about the work performed by one or more fixpoint executions,
+ * either {@link Fixpoint}s or {@link BackwardFixpoint}s. Fixpoints cache the
+ * result of traversing each edge together with the state of the edge's source
+ * that was traversed, reusing it until such state changes. Similarly, the
+ * entry (or exit, for backward fixpoints) state of a node is recomputed only
+ * if at least one of the states that contribute to it has changed. This
+ * object counts how many traversals have been computed, and how many
+ * traversals and states have instead been reused. Moreover, it counts how many
+ * times interprocedural analyses could avoid running a whole fixpoint by
+ * reusing a cached summary of a previous execution with the same entry state,
+ * and how many results have been reused from previous analyses instead of
+ * being computed. This class is thread-safe.
+ */
+public class FixpointStatistics {
+
+	private final LongAdder traversals;
+
+	private final LongAdder cachedTraversals;
+
+	private final LongAdder cachedStates;
+
+	private final LongAdder summaryHits;
+
+	private final LongAdder summaryMisses;
+
+	private final LongAdder reusedResults;
+
+	private final LongAdder computedResults;
+
+	/**
+	 * Builds empty statistics.
+	 */
+	public FixpointStatistics() {
+		traversals = new LongAdder();
+		cachedTraversals = new LongAdder();
+		cachedStates = new LongAdder();
+		summaryHits = new LongAdder();
+		summaryMisses = new LongAdder();
+		reusedResults = new LongAdder();
+		computedResults = new LongAdder();
+	}
+
+	/**
+	 * Records that an edge has been traversed.
+	 */
+	public void traversal() {
+		traversals.increment();
+	}
+
+	/**
+	 * Records that the result of an edge traversal has been reused.
+	 */
+	public void cachedTraversal() {
+		cachedTraversals.increment();
+	}
+
+	/**
+	 * Records that the entry (or exit) state of a node has been reused.
+	 */
+	public void cachedState() {
+		cachedStates.increment();
+	}
+
+	/**
+	 * Records that a fixpoint execution has been avoided by reusing a cached
+	 * summary.
+	 */
+	public void summaryHit() {
+		summaryHits.increment();
+	}
+
+	/**
+	 * Records that a cached summary was looked up, but none was found.
+	 */
+	public void summaryMiss() {
+		summaryMisses.increment();
+	}
+
+	/**
+	 * Records that the result of a cfg has been reused from a previous
+	 * analysis.
+	 */
+	public void reusedResult() {
+		reusedResults.increment();
+	}
+
+	/**
+	 * Records that the result of a cfg has been computed by the analysis,
+	 * while it could not be reused from a previous one.
+	 */
+	public void computedResult() {
+		computedResults.increment();
+	}
+
+	/**
+	 * Adds all the counters of the given statistics to the ones of this
+	 * object.
+	 *
+	 * @param other the statistics to add
+	 */
+	public void merge(
+			FixpointStatistics other) {
+		traversals.add(other.getTraversals());
+		cachedTraversals.add(other.getCachedTraversals());
+		cachedStates.add(other.getCachedStates());
+		summaryHits.add(other.getSummaryHits());
+		summaryMisses.add(other.getSummaryMisses());
+		reusedResults.add(other.getReusedResults());
+		computedResults.add(other.getComputedResults());
+	}
+
+	/**
+	 * Yields the number of edge traversals that have been computed.
+	 *
+	 * @return the number of traversals
+	 */
+	public long getTraversals() {
+		return traversals.sum();
+	}
+
+	/**
+	 * Yields the number of edge traversals whose result has been reused since
+	 * the state of the edge's source did not change.
+	 *
+	 * @return the number of reused traversals
+	 */
+	public long getCachedTraversals() {
+		return cachedTraversals.sum();
+	}
+
+	/**
+	 * Yields the number of entry (or exit) states that have been reused since
+	 * none of the states contributing to them did change.
+	 *
+	 * @return the number of reused states
+	 */
+	public long getCachedStates() {
+		return cachedStates.sum();
+	}
+
+	/**
+	 * Yields the number of fixpoint executions that have been avoided by
+	 * reusing a cached summary.
+	 *
+	 * @return the number of summary cache hits
+	 */
+	public long getSummaryHits() {
+		return summaryHits.sum();
+	}
+
+	/**
+	 * Yields the number of summary lookups that did not find a cached summary.
+	 *
+	 * @return the number of summary cache misses
+	 */
+	public long getSummaryMisses() {
+		return summaryMisses.sum();
+	}
+
+	/**
+	 * Yields the number of cfg results that have been reused from previous
+	 * analyses.
+	 *
+	 * @return the number of reused results
+	 */
+	public long getReusedResults() {
+		return reusedResults.sum();
+	}
+
+	/**
+	 * Yields the number of cfg results that have been computed since they
+	 * could not be reused from previous analyses.
+	 *
+	 * @return the number of computed results
+	 */
+	public long getComputedResults() {
+		return computedResults.sum();
+	}
+
+	/**
+	 * Yields the ratio between the reused results and all the results
+	 * (either reused or computed), or {@code 0} if no result has been
+	 * recorded.
+	 *
+	 * @return the ratio of reused results
+	 */
+	public double getReuseRatio() {
+		long reused = getReusedResults();
+		long total = reused + getComputedResults();
+		return total == 0 ? 0 : (double) reused / total;
+	}
+
+	@Override
+	public String toString() {
+		return "traversals: " + getTraversals() + ", cached traversals: " + getCachedTraversals()
+				+ ", cached states: " + getCachedStates() + ", summary hits: " + getSummaryHits()
+				+ ", summary misses: " + getSummaryMisses() + ", reused results: " + getReusedResults()
+				+ ", computed results: " + getComputedResults();
+	}
+}
@@ -0,0 +1,250 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import it.unive.lisa.util.datastructures.graph.Edge;
+import it.unive.lisa.util.datastructures.graph.Graph;
+import it.unive.lisa.util.datastructures.graph.Node;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An algorithm that evaluates the weak topological order (WTO) of the nodes of
+ * a graph, as defined by Bourdoncle. A WTO is a hierarchical ordering of the
+ * nodes where each strongly connected component is nested in a
+ * <i>component</i> that is identified by its <i>head</i>, that always comes
+ * before the other nodes of the component. Once flattened, the WTO is a total
+ * order of the nodes that is a topological order of the graph where all
+ * back-edges target the head of a component enclosing their source. Visiting
+ * nodes following such an order ensures that loop heads are evaluated before
+ * their bodies, and that nodes after a loop are evaluated after the whole loop
+ * has been evaluated.<br>
+ * <br>
+ * Nodes are visited starting from the entrypoints of the graph, followed by all
+ * nodes that are not reachable from them.
+ *
+ * @param <G> the type of the target {@link Graph}s
+ * @param <N> the type of {@link Node}s in the target graphs
+ * @param <E> the type of {@link Edge}s in the target graphs
+ *
+ * @see <a href="https://doi.org/10.1007/BFb0039704">F. Bourdoncle, Efficient
+ *          chaotic iteration strategies with widenings</a>
+ */
+public class WeakTopologicalOrder<G extends Graph<G, N, E>, N extends Node<G, N, E>, E extends Edge<G, N, E>> {
+
+	private static final int DONE = Integer.MAX_VALUE;
+
+	private final Map<N, Integer> positions;
+
+	private final Set<N> heads;
+
+	private final Map<N, Integer> dfn;
+
+	private final Deque<N> stack;
+
+	private int num;
+
+	/**
+	 * Builds the order. To run the algorithm, use {@link #build(Graph)}.
+	 */
+	public WeakTopologicalOrder() {
+		positions = new HashMap<>();
+		heads = new HashSet<>();
+		dfn = new HashMap<>();
+		stack = new ArrayDeque<>();
+	}
+
+	/**
+	 * Yields the last computed order through {@link #build(Graph)}. The
+	 * returned value is a map going from each node of the given graph to its
+	 * position in the flattened weak topological order, starting from
+	 * {@code 0}.
+	 *
+	 * @return a map containing, for each node of the graph passed as argument
+	 *             to the last call to {@link #build(Graph)}, its position in
+	 *             the order
+	 */
+	public Map<N, Integer> getPositions() {
+		return positions;
+	}
+
+	/**
+	 * Yields the heads of the components of the last computed order through
+	 * {@link #build(Graph)}. Each head is the first node of a strongly
+	 * connected component to be visited, and it is thus the target of all the
+	 * back-edges of the component.
+	 *
+	 * @return the heads of the components
+	 */
+	public Set<N> getHeads() {
+		return heads;
+	}
+
+	/**
+	 * Builds the weak topological order for the given graph. The returned
+	 * value, that can also be accessed later through {@link #getPositions()},
+	 * is a map going from each node of the given graph to its position in the
+	 * flattened order.
+	 *
+	 * @param graph the graph whose order is to be computed
+	 *
+	 * @return a map containing, for each node of the graph, its position in the
+	 *             order
+	 */
+	public Map<N, Integer> build(
+			G graph) {
+		positions.clear();
+		heads.clear();
+		dfn.clear();
+		stack.clear();
+		num = 0;
+
+		List<N> roots = new ArrayList<>(graph.getEntrypoints());
+		roots.addAll(graph.getNodes());
+		for (N root : roots)
+			if (!dfn.containsKey(root)) {
+				Deque<N> partition = new ArrayDeque<>();
+				visit(graph, root, partition);
+				for (N node : partition)
+					positions.put(node, positions.size());
+			}
+
+		dfn.clear();
+		return positions;
+	}
+
+	/**
+	 * Visits the nodes reachable from {@code root}, adding them to
+	 * {@code partition}. The recursive formulation of Bourdoncle's algorithm
+	 * is emulated through an explicit stack of {@link Frame}s, so that the
+	 * depth of the visit does not depend on the length of the paths of the
+	 * graph.
+	 */
+	private void visit(
+			G graph,
+			N root,
+			Deque<N> partition) {
+		Deque<Frame<N>> frames = new ArrayDeque<>();
+		frames.push(enter(graph, root, partition));
+
+		while (!frames.isEmpty()) {
+			Frame<N> frame = frames.peek();
+			if (frame.followers.hasNext()) {
+				N w = frame.followers.next();
+				Integer wdfn = dfn.get(w);
+				if (frame.component) {
+					// only nodes of the component are visited again
+					if (wdfn != null && wdfn == 0)
+						frames.push(enter(graph, w, frame.partition));
+				} else if (wdfn == null || wdfn == 0)
+					frames.push(enter(graph, w, frame.partition));
+				else
+					frame.follow(wdfn);
+				continue;
+			}
+
+			frames.pop();
+			if (frame.component) {
+				// the frame below is the one of the head, that completes
+				// once its component has been built
+				Frame<N> head = frames.pop();
+				frame.partition.addFirst(frame.node);
+				frame.partition.descendingIterator().forEachRemaining(head.partition::addFirst);
+				complete(frames, head.head);
+			} else if (frame.head != frame.dfn)
+				complete(frames, frame.head);
+			else {
+				dfn.put(frame.node, DONE);
+				N element = stack.pop();
+				if (!frame.loop) {
+					frame.partition.addFirst(frame.node);
+					complete(frames, frame.head);
+				} else {
+					// frame.node is the head of a component: all other
+					// elements of the component are visited again to
+					// discover nested ones
+					while (element != frame.node) {
+						dfn.put(element, 0);
+						element = stack.pop();
+					}
+					heads.add(frame.node);
+					frames.push(frame);
+					frames.push(new Frame<>(frame.node, new ArrayDeque<>(), graph.followersOf(frame.node), 0, true));
+				}
+			}
+		}
+	}
+
+	private Frame<N> enter(
+			G graph,
+			N v,
+			Deque<N> partition) {
+		stack.push(v);
+		int vdfn = ++num;
+		dfn.put(v, vdfn);
+		return new Frame<>(v, partition, graph.followersOf(v), vdfn, false);
+	}
+
+	private static <N> void complete(
+			Deque<Frame<N>> frames,
+			int head) {
+		// the visit of a follower of the component's head does not affect the
+		// head, as it has already been assigned its position
+		if (!frames.isEmpty() && !frames.peek().component)
+			frames.peek().follow(head);
+	}
+
+	/**
+	 * The state of the visit of a node, that is, of an activation of the
+	 * recursive {@code visit} function of Bourdoncle's algorithm, or of the
+	 * visit of the followers of the head of a component (the
+	 * {@code component} function).
+	 *
+	 * @param <N> the type of {@link Node}s in the target graphs
+	 */
+	private static final class Frame<N> {
+
+		private final N node;
+
+		private final Deque<N> partition;
+
+		private final Iterator<N> followers;
+
+		private final int dfn;
+
+		private final boolean component;
+
+		private int head;
+
+		private boolean loop;
+
+		private Frame(
+				N node,
+				Deque<N> partition,
+				Collection<N> followers,
+				int dfn,
+				boolean component) {
+			this.node = node;
+			this.partition = partition;
+			this.followers = followers.iterator();
+			this.dfn = dfn;
+			this.component = component;
+			this.head = dfn;
+			this.loop = false;
+		}
+
+		private void follow(
+				int min) {
+			if (min <= head) {
+				head = min;
+				loop = true;
+			}
+		}
+	}
+}
@@ -91,6 +91,17 @@ public abstract class CodeGraph<G extends CodeGraph<G, N, E>, N extends CodeNode
 		return list;
 	}
 
+	/**
+	 * Freezes the node list backing this graph (see {@link NodeList#freeze()}),
+	 * so that queries about the structure of this graph are answered in
+	 * constant time until it is modified.
+	 * 
+	 * @return the frozen form of the node list
+	 */
+	public FrozenNodeList<G, N, E> freeze() {
+		return list.freeze();
+	}
+
 	@Override
 	public Collection<N> getEntrypoints() {
 		return entrypoints;
@@ -0,0 +1,167 @@
+package it.unive.lisa.util.datastructures.graph.code;
+
+import it.unive.lisa.util.datastructures.graph.NodeIndex;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable, compiled form of a {@link NodeList}, obtained through
+ * {@link NodeList#freeze()}. This is a {@link NodeIndex} of the list, where
+ * each node is identified by its position in the list, that additionally
+ * stores precomputed, unmodifiable collections of followers, predecessors,
+ * ingoing and outgoing edges of each node, so that the corresponding queries
+ * on the {@link NodeList} can be answered in constant time and without
+ * allocating memory.
+ *
+ * @param <G> the type of the {@link CodeGraph}s the frozen list can be used in
+ * @param <N> the type of the {@link CodeNode}s in the frozen list
+ * @param <E> the type of the {@link CodeEdge}s in the frozen list
+ */
+public final class FrozenNodeList<G extends CodeGraph<G, N, E>,
+		N extends CodeNode<G, N, E>,
+		E extends CodeEdge<G, N, E>>
+		extends
+		NodeIndex<N, E> {
+
+	private final List<Collection<N>> followers;
+
+	private final List<Collection<N>> predecessors;
+
+	private final List<Collection<E>> outgoing;
+
+	private final List<Collection<E>> ingoing;
+
+	/**
+	 * Builds the frozen form of the given list.
+	 *
+	 * @param list  the list to freeze
+	 * @param order the nodes of the list, in the order they appear in it
+	 */
+	FrozenNodeList(
+			NodeList<G, N, E> list,
+			List<N> order) {
+		this(list, order, followers(list, order), predecessors(list, order));
+	}
+
+	private FrozenNodeList(
+			NodeList<G, N, E> list,
+			List<N> order,
+			List<Collection<N>> followers,
+			List<Collection<N>> predecessors) {
+		super(order, followers, predecessors, list::edgeConnecting);
+		this.followers = followers;
+		this.predecessors = predecessors;
+		outgoing = new ArrayList<>(order.size());
+		ingoing = new ArrayList<>(order.size());
+		for (int i = 0; i < order.size(); i++) {
+			outgoing.add(view(list.outgoingEdges(order, i, order.get(i))));
+			ingoing.add(view(list.ingoingEdges(order, i, order.get(i))));
+		}
+	}
+
+	private static <G extends CodeGraph<G, N, E>,
+			N extends CodeNode<G, N, E>,
+			E extends CodeEdge<G, N, E>> List<Collection<N>> followers(
+					NodeList<G, N, E> list,
+					List<N> order) {
+		List<Collection<N>> result = new ArrayList<>(order.size());
+		for (int i = 0; i < order.size(); i++)
+			result.add(view(list.followers(order, i, order.get(i))));
+		return result;
+	}
+
+	private static <G extends CodeGraph<G, N, E>,
+			N extends CodeNode<G, N, E>,
+			E extends CodeEdge<G, N, E>> List<Collection<N>> predecessors(
+					NodeList<G, N, E> list,
+					List<N> order) {
+		List<Collection<N>> result = new ArrayList<>(order.size());
+		for (int i = 0; i < order.size(); i++)
+			result.add(view(list.predecessors(order, i, order.get(i))));
+		return result;
+	}
+
+	private static <T> Collection<T> view(
+			Collection<T> elements) {
+		if (elements.isEmpty())
+			return Collections.emptySet();
+		return Collections.unmodifiableSet(new LinkedHashSet<>(elements));
+	}
+
+	/**
+	 * Yields the followers of the given node.
+	 *
+	 * @param id the identifier of the node
+	 *
+	 * @return the unmodifiable collection of followers
+	 */
+	public Collection<N> followersOf(
+			int id) {
+		return followers.get(id);
+	}
+
+	/**
+	 * Yields the predecessors of the given node.
+	 *
+	 * @param id the identifier of the node
+	 *
+	 * @return the unmodifiable collection of predecessors
+	 */
+	public Collection<N> predecessorsOf(
+			int id) {
+		return predecessors.get(id);
+	}
+
+	/**
+	 * Yields the outgoing edges from the given node.
+	 *
+	 * @param id the identifier of the node, or {@code -1}
+	 *
+	 * @return the unmodifiable collection of outgoing edges (empty if
+	 *             {@code id} is {@code -1})
+	 */
+	public Collection<E> getOutgoingEdges(
+			int id) {
+		return id == -1 ? Collections.emptySet() : outgoing.get(id);
+	}
+
+	/**
+	 * Yields the ingoing edges to the given node.
+	 *
+	 * @param id the identifier of the node, or {@code -1}
+	 *
+	 * @return the unmodifiable collection of ingoing edges (empty if
+	 *             {@code id} is {@code -1})
+	 */
+	public Collection<E> getIngoingEdges(
+			int id) {
+		return id == -1 ? Collections.emptySet() : ingoing.get(id);
+	}
+
+	/**
+	 * Yields all edges connecting the two given nodes, if any.
+	 *
+	 * @param src  the identifier of the source node, or {@code -1}
+	 * @param dest the identifier of the destination node, or {@code -1}
+	 *
+	 * @return the edges connecting the two nodes
+	 */
+	public Collection<E> getEdgesConnecting(
+			int src,
+			int dest) {
+		if (src == -1 || dest == -1)
+			return Collections.emptySet();
+
+		Set<E> result = new HashSet<>();
+		N destination = getNode(dest);
+		for (E e : outgoing.get(src))
+			if (e.getDestination().equals(destination))
+				result.add(e);
+		return result.isEmpty() ? Collections.emptySet() : result;
+	}
+}
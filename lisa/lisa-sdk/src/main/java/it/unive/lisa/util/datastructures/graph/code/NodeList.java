@@ -61,6 +61,12 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 */
 	private final E sequentialSingleton;
 
+	/**
+	 * The frozen form of this list, if it has been computed and no
+	 * modification happened since then.
+	 */
+	private volatile FrozenNodeList<G, N, E> frozen;
+
 	/**
 	 * Builds a new list. Offsets of nodes added to this list will be set
 	 * automatically.
@@ -126,6 +132,7 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 			// already in the graph
 			return;
 
+		frozen = null;
 		int size = nodes.size();
 		if (size != 0)
 			cutoff.add(size - 1);
@@ -145,6 +152,7 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 		if (!containsNode(node))
 			return;
 
+		frozen = null;
 		int target = nodes.indexOf(node);
 		NodeEdges<G, N, E> edges = extraEdges.get(node);
 		if (edges != null) {
@@ -207,6 +215,7 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 		if (dest == -1)
 			throw new UnsupportedOperationException("The destination node is not in the graph");
 
+		frozen = null;
 		if (e.isUnconditional() && src == dest - 1)
 			// just remove the cutoff
 			cutoff.remove(src);
@@ -228,6 +237,7 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 		if (src == -1 || dest == -1)
 			return;
 
+		frozen = null;
 		if (e.isUnconditional() && src == dest - 1)
 			// just add the cutoff
 			cutoff.add(src);
@@ -262,11 +272,33 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	public final E getEdgeConnecting(
 			N source,
 			N destination) {
+		FrozenNodeList<G, N, E> f = frozen;
+		if (f != null)
+			return f.getEdgeConnecting(f.indexOf(source), f.indexOf(destination));
+
 		int src = nodes.indexOf(source);
 		int dest = nodes.indexOf(destination);
 		if (src == -1 || dest == -1)
 			return null;
+		return edgeConnecting(src, source, dest, destination);
+	}
 
+	/**
+	 * Yields the edge connecting the two given nodes, if any.
+	 * 
+	 * @param src         the index of the source node
+	 * @param source      the source node
+	 * @param dest        the index of the destination node
+	 * @param destination the destination node
+	 * 
+	 * @return the edge connecting {@code source} to {@code destination}, or
+	 *             {@code null}
+	 */
+	E edgeConnecting(
+			int src,
+			N source,
+			int dest,
+			N destination) {
 		if (src == dest - 1 && !cutoff.contains(src))
 			return sequentialSingleton.newInstance(source, destination);
 
@@ -293,6 +325,10 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	public Collection<E> getEdgesConnecting(
 			N source,
 			N destination) {
+		FrozenNodeList<G, N, E> f = frozen;
+		if (f != null)
+			return f.getEdgesConnecting(f.indexOf(source), f.indexOf(destination));
+
 		int src = nodes.indexOf(source);
 		int dest = nodes.indexOf(destination);
 		if (src == -1 || dest == -1)
@@ -320,10 +356,30 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 */
 	public final Collection<E> getIngoingEdges(
 			N node) {
+		FrozenNodeList<G, N, E> f = frozen;
+		if (f != null)
+			return f.getIngoingEdges(f.indexOf(node));
+
 		int src = nodes.indexOf(node);
 		if (src == -1)
 			return Collections.emptySet();
+		return ingoingEdges(nodes, src, node);
+	}
 
+	/**
+	 * Yields the ingoing edges to the given node.
+	 * 
+	 * @param nodes the nodes of this list, possibly copied into a random-access
+	 *                  list
+	 * @param src   the index of the node
+	 * @param node  the node
+	 * 
+	 * @return the collection of ingoing edges
+	 */
+	Collection<E> ingoingEdges(
+			List<N> nodes,
+			int src,
+			N node) {
 		Set<E> result = new HashSet<>();
 		if (src != 0 && !cutoff.contains(src - 1))
 			result.add(sequentialSingleton.newInstance(nodes.get(src - 1), node));
@@ -344,10 +400,30 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 */
 	public final Collection<E> getOutgoingEdges(
 			N node) {
+		FrozenNodeList<G, N, E> f = frozen;
+		if (f != null)
+			return f.getOutgoingEdges(f.indexOf(node));
+
 		int src = nodes.indexOf(node);
 		if (src == -1)
 			return Collections.emptySet();
+		return outgoingEdges(nodes, src, node);
+	}
 
+	/**
+	 * Yields the outgoing edges from the given node.
+	 * 
+	 * @param nodes the nodes of this list, possibly copied into a random-access
+	 *                  list
+	 * @param src   the index of the node
+	 * @param node  the node
+	 * 
+	 * @return the collection of outgoing edges
+	 */
+	Collection<E> outgoingEdges(
+			List<N> nodes,
+			int src,
+			N node) {
 		Set<E> result = new HashSet<>();
 		if (src != nodes.size() - 1 && !cutoff.contains(src))
 			result.add(sequentialSingleton.newInstance(node, nodes.get(src + 1)));
@@ -388,10 +464,29 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 */
 	public final Collection<N> followersOf(
 			N node) {
-		int src = nodes.indexOf(node);
+		FrozenNodeList<G, N, E> f = frozen;
+		int src = f != null ? f.indexOf(node) : nodes.indexOf(node);
 		if (src == -1)
 			throw new IllegalArgumentException("'" + node + "' is not in the graph");
+		if (f != null)
+			return f.followersOf(src);
+		return followers(nodes, src, node);
+	}
 
+	/**
+	 * Yields the collection of the nodes that are followers of the given one.
+	 * 
+	 * @param nodes the nodes of this list, possibly copied into a random-access
+	 *                  list
+	 * @param src   the index of the node
+	 * @param node  the node
+	 * 
+	 * @return the collection of followers
+	 */
+	Collection<N> followers(
+			List<N> nodes,
+			int src,
+			N node) {
 		Set<N> result = new HashSet<>();
 		if (src != nodes.size() - 1 && !cutoff.contains(src))
 			result.add(nodes.get(src + 1));
@@ -416,10 +511,30 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 */
 	public final Collection<N> predecessorsOf(
 			N node) {
-		int src = nodes.indexOf(node);
+		FrozenNodeList<G, N, E> f = frozen;
+		int src = f != null ? f.indexOf(node) : nodes.indexOf(node);
 		if (src == -1)
 			throw new IllegalArgumentException("'" + node + "' is not in the graph");
+		if (f != null)
+			return f.predecessorsOf(src);
+		return predecessors(nodes, src, node);
+	}
 
+	/**
+	 * Yields the collection of the nodes that are predecessors of the given
+	 * one.
+	 * 
+	 * @param nodes the nodes of this list, possibly copied into a random-access
+	 *                  list
+	 * @param src   the index of the node
+	 * @param node  the node
+	 * 
+	 * @return the collection of predecessors
+	 */
+	Collection<N> predecessors(
+			List<N> nodes,
+			int src,
+			N node) {
 		Set<N> result = new HashSet<>();
 		if (src != 0 && !cutoff.contains(src - 1))
 			result.add(nodes.get(src - 1));
@@ -524,6 +639,9 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 */
 	public boolean containsNode(
 			N node) {
+		FrozenNodeList<G, N, E> f = frozen;
+		if (f != null)
+			return f.indexOf(node) != -1;
 		return nodes.contains(node);
 	}
 
@@ -536,6 +654,12 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 */
 	public boolean containsEdge(
 			E edge) {
+		FrozenNodeList<G, N, E> f = frozen;
+		if (f != null) {
+			int src = f.indexOf(edge.getSource());
+			return src != -1 && f.indexOf(edge.getDestination()) != -1 && f.getOutgoingEdges(src).contains(edge);
+		}
+
 		int src = nodes.indexOf(edge.getSource());
 		int dest = nodes.indexOf(edge.getDestination());
 		if (src == -1 || dest == -1)
@@ -553,6 +677,33 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 		return edges.outgoing.contains(edge);
 	}
 
+	/**
+	 * Yields the frozen form of this list, that assigns a dense integer
+	 * identifier to each node and stores adjacency information in compressed
+	 * sparse row layout. The frozen form is computed on the first invocation of
+	 * this method, and it is then used to answer all queries about this list
+	 * until the list is modified: any modification discards it, and a new one
+	 * has to be computed by invoking this method again.
+	 * 
+	 * @return the frozen form of this list
+	 */
+	public FrozenNodeList<G, N, E> freeze() {
+		FrozenNodeList<G, N, E> f = frozen;
+		if (f == null)
+			frozen = f = new FrozenNodeList<>(this, new ArrayList<>(nodes));
+		return f;
+	}
+
+	/**
+	 * Yields whether or not this list has been frozen through
+	 * {@link #freeze()} and not modified since then.
+	 * 
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean isFrozen() {
+		return frozen != null;
+	}
+
 	@Override
 	public Iterator<N> iterator() {
 		return getNodes().iterator();
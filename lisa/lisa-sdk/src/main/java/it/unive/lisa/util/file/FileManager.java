@@ -19,7 +19,7 @@ import org.apache.commons.io.IOUtils;
 
 /**
  * A file manager that provides standard functionalities for communicating with
- * the file system.
+ * the file system. Files can be created concurrently from multiple threads.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
@@ -29,9 +29,9 @@ public class FileManager {
 
 	private final Collection<String> createdFiles = new TreeSet<>();
 
-	private boolean usedPlainCytoscape = false;
+	private volatile boolean usedPlainCytoscape = false;
 
-	private boolean usedCompoundCytoscape = false;
+	private volatile boolean usedCompoundCytoscape = false;
 
 	/**
 	 * Builds a new manager that will produce files in the given
@@ -267,10 +267,14 @@ public class FileManager {
 			parent = new File(workdir, cleanFileName(path, true));
 		File file = new File(parent, cleanFileName(name, false));
 
-		if (!parent.exists() && !parent.mkdirs())
+		// another thread might create the directories concurrently
+		if (!parent.mkdirs() && !parent.isDirectory())
 			throw new IOException("Unable to create directory structure for " + file);
 
-		createdFiles.add(FilenameUtils.separatorsToUnix(workdir.toPath().relativize(file.toPath()).toString()));
+		String relative = FilenameUtils.separatorsToUnix(workdir.toPath().relativize(file.toPath()).toString());
+		synchronized (createdFiles) {
+			createdFiles.add(relative);
+		}
 		try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8.newEncoder())) {
 			if (bom)
 				writer.write('\ufeff');
@@ -188,7 +188,12 @@ public class IntInterval implements Iterable<Long>, Comparable<IntInterval> {
 			return ONE;
 		if (i.is(-1))
 			return MINUS_ONE;
-		return new IntInterval(i.low.roundDown(), i.high.roundUp());
+		MathNumber low = i.low.roundDown();
+		MathNumber high = i.high.roundUp();
+		// integer bounds are returned as-is by rounding
+		if (low == i.low && high == i.high)
+			return i;
+		return new IntInterval(low, high);
 	}
 
 	/**
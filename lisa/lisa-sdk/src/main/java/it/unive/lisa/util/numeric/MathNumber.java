@@ -7,11 +7,22 @@ import java.math.RoundingMode;
 /**
  * A wrapper around {@link BigDecimal} to represent the mathematical concept of
  * a number, that can be also plus or minus infinity, in a convenient way.
+ * Integers that fit in a {@code long} (except {@link Long#MIN_VALUE}) are
+ * stored inline, without any {@link BigDecimal}: arithmetic between them is
+ * performed on {@code long}s, checking for overflows, and falls back to
+ * {@link BigDecimal}s only when an overflow happens or when the result is not
+ * an integer. Numbers stored in the two forms behave exactly as the
+ * {@link BigDecimal}s they represent, also w.r.t. {@link #equals(Object)},
+ * {@link #hashCode()} and {@link #toString()}.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
 public class MathNumber implements Comparable<MathNumber> {
 
+	private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+
+	private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
 	/**
 	 * The constant for plus infinity.
 	 */
@@ -43,6 +54,38 @@ public class MathNumber implements Comparable<MathNumber> {
 	 */
 	public static final MathNumber NaN = new MathNumber((byte) 3);
 
+	/**
+	 * Cache of the numbers between {@link #CACHE_LOW} and {@link #CACHE_HIGH},
+	 * returned by arithmetic operations.
+	 */
+	private static final MathNumber[] CACHE;
+
+	private static final int CACHE_LOW = -128;
+
+	private static final int CACHE_HIGH = 1024;
+
+	static {
+		CACHE = new MathNumber[CACHE_HIGH - CACHE_LOW + 1];
+		for (int i = 0; i < CACHE.length; i++)
+			CACHE[i] = new MathNumber((long) (i + CACHE_LOW));
+		CACHE[-CACHE_LOW - 1] = MINUS_ONE;
+		CACHE[-CACHE_LOW] = ZERO;
+		CACHE[-CACHE_LOW + 1] = ONE;
+	}
+
+	/**
+	 * The value of this number, if it is stored inline (that is, if
+	 * {@link #compact} is {@code true}).
+	 */
+	private final long value;
+
+	/**
+	 * Whether or not this number is stored inline in {@link #value}. If this
+	 * is {@code false}, this number is either stored in {@link #number}, or it
+	 * is infinite or NaN (if {@link #number} is {@code null}).
+	 */
+	private final boolean compact;
+
 	private final BigDecimal number;
 
 	/**
@@ -57,7 +100,10 @@ public class MathNumber implements Comparable<MathNumber> {
 	 */
 	public MathNumber(
 			long number) {
-		this.number = BigDecimal.valueOf(number);
+		// the minimum value cannot be negated, so it is kept as a big decimal
+		this.compact = number != Long.MIN_VALUE;
+		this.value = compact ? number : 0;
+		this.number = compact ? null : BigDecimal.valueOf(number);
 		this.sign = number > 0 ? (byte) 1 : number == 0 ? (byte) 0 : (byte) -1;
 	}
 
@@ -68,8 +114,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	 */
 	public MathNumber(
 			double number) {
-		this.number = BigDecimal.valueOf(number);
-		this.sign = number > 0 ? (byte) 1 : number == 0 ? (byte) 0 : (byte) -1;
+		this(BigDecimal.valueOf(number));
 	}
 
 	/**
@@ -79,23 +124,40 @@ public class MathNumber implements Comparable<MathNumber> {
 	 */
 	public MathNumber(
 			BigDecimal number) {
-		this.number = number;
+		// integers with no scale are the ones that BigDecimal.valueOf(long)
+		// produces, and that can thus be stored inline
+		this.compact = number.scale() == 0 && number.compareTo(LONG_MIN) > 0 && number.compareTo(LONG_MAX) <= 0;
+		this.value = compact ? number.longValue() : 0;
+		this.number = compact ? null : number;
 		this.sign = number.signum() > 0 ? (byte) 1 : number.signum() == 0 ? (byte) 0 : (byte) -1;
 	}
 
 	private MathNumber(
 			byte sign) {
+		this.compact = false;
+		this.value = 0;
 		this.number = null;
 		this.sign = sign;
 	}
 
+	private static MathNumber of(
+			long value) {
+		if (value >= CACHE_LOW && value <= CACHE_HIGH)
+			return CACHE[(int) value - CACHE_LOW];
+		return new MathNumber(value);
+	}
+
+	private BigDecimal big() {
+		return compact ? BigDecimal.valueOf(value) : number;
+	}
+
 	/**
 	 * Yields {@code true} if this number is minus infinity.
 	 * 
 	 * @return {@code true} if that condition holds
 	 */
 	public boolean isMinusInfinity() {
-		return number == null && isNegative();
+		return !compact && number == null && isNegative();
 	}
 
 	/**
@@ -104,7 +166,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @return {@code true} if that condition holds
 	 */
 	public boolean isPlusInfinity() {
-		return number == null && isPositive();
+		return !compact && number == null && isPositive();
 	}
 
 	/**
@@ -136,7 +198,8 @@ public class MathNumber implements Comparable<MathNumber> {
 	 */
 	public boolean is(
 			int n) {
-		return number != null && number.equals(new BigDecimal(n));
+		// integers are always stored inline
+		return compact && value == n;
 	}
 
 	/**
@@ -174,17 +237,15 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @return {@code true} if that condition holds
 	 */
 	public boolean isNaN() {
-		return number == null && sign == (byte) 3;
+		return sign == (byte) 3;
 	}
 
 	private static MathNumber cached(
 			MathNumber i) {
+		if (i.compact && i.value >= CACHE_LOW && i.value <= CACHE_HIGH)
+			return CACHE[(int) i.value - CACHE_LOW];
 		if (i.isZero())
 			return ZERO;
-		if (i.is(1))
-			return ONE;
-		if (i.is(-1))
-			return MINUS_ONE;
 		return i;
 	}
 
@@ -213,7 +274,14 @@ public class MathNumber implements Comparable<MathNumber> {
 			// this is finite
 			return other;
 
-		return cached(new MathNumber(number.add(other.number)));
+		if (compact && other.compact) {
+			long r = value + other.value;
+			// overflow iff both operands have a sign different from r
+			if (((value ^ r) & (other.value ^ r)) >= 0)
+				return of(r);
+		}
+
+		return cached(new MathNumber(big().add(other.big())));
 	}
 
 	/**
@@ -241,7 +309,15 @@ public class MathNumber implements Comparable<MathNumber> {
 			// this is finite
 			return other.multiply(MINUS_ONE);
 
-		return cached(new MathNumber(number.subtract(other.number)));
+		if (compact && other.compact) {
+			long r = value - other.value;
+			// overflow iff the operands have different signs, and r has a
+			// sign different from this
+			if (((value ^ other.value) & (value ^ r)) >= 0)
+				return of(r);
+		}
+
+		return cached(new MathNumber(big().subtract(other.big())));
 	}
 
 	/**
@@ -277,7 +353,15 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (isZero() || other.isZero())
 			return ZERO;
 
-		return cached(new MathNumber(number.multiply(other.number)));
+		if (compact && other.compact) {
+			long hi = Math.multiplyHigh(value, other.value);
+			long lo = value * other.value;
+			// no overflow iff the high bits are just the sign extension of lo
+			if ((hi == 0 && lo >= 0) || (hi == -1 && lo < 0))
+				return of(lo);
+		}
+
+		return cached(new MathNumber(big().multiply(other.big())));
 	}
 
 	/**
@@ -308,7 +392,15 @@ public class MathNumber implements Comparable<MathNumber> {
 			else
 				return MINUS_INFINITY;
 
-		return cached(new MathNumber(number.divide(other.number, 100, RoundingMode.HALF_UP).stripTrailingZeros()));
+		if (compact && other.compact && value % other.value == 0) {
+			long q = value / other.value;
+			// stripTrailingZeros() would yield a negative scale for
+			// multiples of 10, that cannot be stored inline
+			if (q % 10 != 0)
+				return of(q);
+		}
+
+		return cached(new MathNumber(big().divide(other.big(), 100, RoundingMode.HALF_UP).stripTrailingZeros()));
 	}
 
 	@Override
@@ -336,7 +428,10 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (isPlusInfinity() || other.isMinusInfinity())
 			return 1;
 
-		return CollectionUtilities.nullSafeCompare(true, number, other.number, BigDecimal::compareTo);
+		if (compact && other.compact)
+			return Long.compare(value, other.value);
+
+		return CollectionUtilities.nullSafeCompare(true, big(), other.big(), BigDecimal::compareTo);
 	}
 
 	/**
@@ -359,7 +454,10 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (other.isMinusInfinity() || isPlusInfinity())
 			return other;
 
-		return cached(new MathNumber(number.min(other.number)));
+		if (compact && other.compact)
+			return value <= other.value ? this : other;
+
+		return cached(new MathNumber(big().min(other.big())));
 	}
 
 	/**
@@ -382,7 +480,10 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (isMinusInfinity() || other.isPlusInfinity())
 			return other;
 
-		return cached(new MathNumber(number.max(other.number)));
+		if (compact && other.compact)
+			return value >= other.value ? this : other;
+
+		return cached(new MathNumber(big().max(other.big())));
 	}
 
 	/**
@@ -449,6 +550,9 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (isMinusInfinity())
 			return PLUS_INFINITY;
 
+		if (compact)
+			return value >= 0 ? this : of(-value);
+
 		return cached(new MathNumber(number.abs()));
 	}
 
@@ -461,7 +565,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @return this number rounded up towards plus infinity
 	 */
 	public MathNumber roundUp() {
-		if (isInfinite() || isNaN())
+		if (isInfinite() || isNaN() || compact)
 			return this;
 		return cached(new MathNumber(number.setScale(0, RoundingMode.CEILING)));
 	}
@@ -475,7 +579,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @return this number rounded down towards minus infinity
 	 */
 	public MathNumber roundDown() {
-		if (isInfinite() || isNaN())
+		if (isInfinite() || isNaN() || compact)
 			return this;
 		return cached(new MathNumber(number.setScale(0, RoundingMode.FLOOR)));
 	}
@@ -491,7 +595,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	public int toInt() throws MathNumberConversionException {
 		if (isNaN() || isInfinite())
 			throw new MathNumberConversionException(this);
-		return number.intValue();
+		return compact ? (int) value : number.intValue();
 	}
 
 	/**
@@ -505,7 +609,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	public double toDouble() throws MathNumberConversionException {
 		if (isNaN() || isInfinite())
 			throw new MathNumberConversionException(this);
-		return number.doubleValue();
+		return compact ? (double) value : number.doubleValue();
 	}
 
 	/**
@@ -519,7 +623,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	public byte toByte() throws MathNumberConversionException {
 		if (isNaN() || isInfinite())
 			throw new MathNumberConversionException(this);
-		return number.byteValue();
+		return compact ? (byte) value : number.byteValue();
 	}
 
 	/**
@@ -533,7 +637,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	public short toShort() throws MathNumberConversionException {
 		if (isNaN() || isInfinite())
 			throw new MathNumberConversionException(this);
-		return number.shortValue();
+		return compact ? (short) value : number.shortValue();
 	}
 
 	/**
@@ -547,7 +651,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	public float toFloat() throws MathNumberConversionException {
 		if (isNaN() || isInfinite())
 			throw new MathNumberConversionException(this);
-		return number.floatValue();
+		return compact ? (float) value : number.floatValue();
 	}
 
 	/**
@@ -561,18 +665,32 @@ public class MathNumber implements Comparable<MathNumber> {
 	public long toLong() throws MathNumberConversionException {
 		if (isNaN() || isInfinite())
 			throw new MathNumberConversionException(this);
-		return number.longValue();
+		return compact ? value : number.longValue();
 	}
 
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + ((number == null) ? 0 : number.hashCode());
+		// only one between value and number is set, the other contributing
+		// with 0 (the hash code of BigDecimal.ZERO is 0 as well)
+		result = prime * result + hashOf(value) + (number == null ? 0 : number.hashCode());
 		result = prime * result + sign;
 		return result;
 	}
 
+	/**
+	 * Yields the hash code of {@code BigDecimal.valueOf(value)}, without
+	 * building it, to keep the hash codes of numbers stored inline equal to
+	 * the ones of the {@link BigDecimal}s they represent.
+	 */
+	private static int hashOf(
+			long value) {
+		long abs = value < 0 ? -value : value;
+		int temp = (int) (((int) (abs >>> 32)) * 31 + (abs & 0xffffffffL));
+		return 31 * (value < 0 ? -temp : temp);
+	}
+
 	@Override
 	public boolean equals(
 			Object obj) {
@@ -583,6 +701,10 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (getClass() != obj.getClass())
 			return false;
 		MathNumber other = (MathNumber) obj;
+		// compact is implied by the other fields: it holds exactly when
+		// number is null and the sign is the one of value
+		if (value != other.value)
+			return false;
 		if (number == null) {
 			if (other.number != null)
 				return false;
@@ -595,6 +717,8 @@ public class MathNumber implements Comparable<MathNumber> {
 
 	@Override
 	public String toString() {
+		if (compact)
+			return Long.toString(value);
 		return isNaN() ? "NaN" : isMinusInfinity() ? "-Inf" : isPlusInfinity() ? "+Inf" : number.toString();
 	}
 
@@ -620,6 +744,6 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (isMinusInfinity())
 			throw new IllegalStateException();
 
-		return number;
+		return big();
 	}
 }
@@ -1,5 +1,6 @@
 package it.unive.lisa.checks.syntactic;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import it.unive.lisa.TestLanguageFeatures;
@@ -24,8 +25,11 @@ import it.unive.lisa.program.cfg.statement.NoOp;
 import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.VariableRef;
 import it.unive.lisa.util.file.FileManager;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import org.apache.commons.collections4.CollectionUtils;
 import org.junit.Test;
 
@@ -139,4 +143,26 @@ public class CheckToolTest {
 
 		assertTrue("Wrong set of warnings", CollectionUtils.isEqualCollection(exp, tool.getWarnings()));
 	}
+
+	@Test
+	public void testConcurrentWarningsAreSorted() throws InterruptedException {
+		CheckTool tool = new CheckTool(new LiSAConfiguration(), new FileManager("foo"));
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			int offset = t;
+			threads[t] = new Thread(() -> {
+				for (int i = offset; i < 100; i += threads.length)
+					tool.warnOn(new NoOp(cfg, new SourceCodeLocation("fake", i, 0)), "foo" + i);
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		List<Warning> warnings = new ArrayList<>(tool.getWarnings());
+		assertEquals(100, warnings.size());
+		List<Warning> sorted = new ArrayList<>(warnings);
+		Collections.sort(sorted);
+		assertEquals(sorted, warnings);
+	}
 }
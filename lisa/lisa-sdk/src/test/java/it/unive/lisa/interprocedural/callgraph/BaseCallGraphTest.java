@@ -1,14 +1,18 @@
 package it.unive.lisa.interprocedural.callgraph;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import it.unive.lisa.TestCallGraph;
 import it.unive.lisa.TestLanguageFeatures;
 import it.unive.lisa.TestTypeSystem;
+import it.unive.lisa.analysis.symbols.NameSymbol;
 import it.unive.lisa.analysis.symbols.SymbolAliasing;
 import it.unive.lisa.program.Application;
+import it.unive.lisa.program.ClassUnit;
+import it.unive.lisa.program.CompilationUnit;
 import it.unive.lisa.program.Program;
 import it.unive.lisa.program.ProgramValidationException;
 import it.unive.lisa.program.SourceCodeLocation;
@@ -22,14 +26,20 @@ import it.unive.lisa.program.cfg.statement.VariableRef;
 import it.unive.lisa.program.cfg.statement.call.CFGCall;
 import it.unive.lisa.program.cfg.statement.call.Call;
 import it.unive.lisa.program.cfg.statement.call.Call.CallType;
+import it.unive.lisa.program.cfg.statement.call.OpenCall;
 import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
 import it.unive.lisa.type.BooleanType;
 import it.unive.lisa.type.StringType;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.type.TypeSystem;
+import it.unive.lisa.type.UnitType;
 import it.unive.lisa.type.Untyped;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import org.junit.Test;
 
@@ -75,6 +85,38 @@ public class BaseCallGraphTest {
 		}
 	}
 
+	private final class UnitT implements UnitType {
+		private final CompilationUnit unit;
+
+		private UnitT(
+				CompilationUnit unit) {
+			this.unit = unit;
+		}
+
+		@Override
+		public CompilationUnit getUnit() {
+			return unit;
+		}
+
+		@Override
+		public Type commonSupertype(
+				Type other) {
+			return canBeAssignedTo(other) ? other : Untyped.INSTANCE;
+		}
+
+		@Override
+		public boolean canBeAssignedTo(
+				Type other) {
+			return other instanceof UnitT && unit.isInstanceOf(((UnitT) other).unit);
+		}
+
+		@Override
+		public Set<Type> allInstances(
+				TypeSystem types) {
+			return Collections.singleton(this);
+		}
+	}
+
 	/**
 	 * @see <a href="https://github.com/lisa-analyzer/lisa/issues/145">#145</a>
 	 */
@@ -168,4 +210,190 @@ public class BaseCallGraphTest {
 		assertEquals(1, callees.size());
 		assertSame(cfg2_2, callees.iterator().next());
 	}
+
+	private static CFG cfg(
+			Program p,
+			String name) {
+		return new CFG(new CodeMemberDescriptor(new SourceCodeLocation(name, 0, 0), p, false, name));
+	}
+
+	@Test
+	public void testIncrementalReachability() {
+		CallGraph cg = new TestCallGraph();
+		Program p = new Program(new TestLanguageFeatures(), new TestTypeSystem());
+		CFG a = cfg(p, "a");
+		CFG b = cfg(p, "b");
+		CFG c = cfg(p, "c");
+		CFG d = cfg(p, "d");
+		CFG e = cfg(p, "e");
+		CallGraphNode na = new CallGraphNode(cg, a);
+		CallGraphNode nb = new CallGraphNode(cg, b);
+		CallGraphNode nc = new CallGraphNode(cg, c);
+		CallGraphNode nd = new CallGraphNode(cg, d);
+		CallGraphNode ne = new CallGraphNode(cg, e);
+		cg.addNode(na, true);
+		cg.addNode(nb);
+		cg.addNode(nc);
+		cg.addNode(nd);
+		cg.addNode(ne);
+		cg.addEdge(new CallGraphEdge(na, nb));
+		cg.addEdge(new CallGraphEdge(nb, nc));
+		cg.addEdge(new CallGraphEdge(nc, nb));
+		cg.addEdge(new CallGraphEdge(nc, nd));
+		cg.addEdge(new CallGraphEdge(ne, ne));
+
+		assertEquals(Set.of(b, c, d), cg.getCalleesTransitively(a));
+		assertEquals(Set.of(b, c, d), cg.getCalleesTransitively(b));
+		assertEquals(Set.of(a, b, c), cg.getCallersTransitively(d));
+		assertEquals(Set.of(a, b, c, e), cg.getCallersTransitively(List.of(b, e)));
+		assertTrue(cg.callsTransitively(List.of(c), b));
+		assertFalse(cg.callsTransitively(List.of(d, e), a));
+		assertEquals(Set.of(Set.of(b, c), Set.of(e)), cg.getRecursions());
+		assertEquals(Set.of(Set.of(b, c)), cg.getRecursionsContaining(c));
+
+		// closing a loop merges the recursions
+		cg.addEdge(new CallGraphEdge(nd, na));
+		assertEquals(Set.of(a, b, c, d), cg.getCalleesTransitively(a));
+		assertTrue(cg.callsTransitively(List.of(d), a));
+		assertEquals(Set.of(Set.of(a, b, c, d), Set.of(e)), cg.getRecursions());
+		assertTrue(cg.getRecursionsContaining(d).contains(Set.of(a, b, c, d)));
+	}
+
+	@Test
+	public void testCondensedReachability() {
+		// labels of random graphs (with recursions and shared callees) must
+		// agree with the closure of their edges while edges are added
+		Program p = new Program(new TestLanguageFeatures(), new TestTypeSystem());
+		List<CFG> cfgs = new ArrayList<>();
+		for (int i = 0; i < 40; i++)
+			cfgs.add(cfg(p, "m" + i));
+		List<Set<CFG>> callees = new ArrayList<>();
+		for (int i = 0; i < cfgs.size(); i++)
+			callees.add(new HashSet<>());
+
+		Random random = new Random(42);
+		CallGraphReachability index = new CallGraphReachability();
+		cfgs.forEach(index::add);
+		for (int edge = 0; edge < 80; edge++) {
+			int src = random.nextInt(cfgs.size());
+			// edges mostly go forward, so that few recursions are created
+			int dest = random.nextInt(10) == 0 ? random.nextInt(cfgs.size())
+					: Math.min(cfgs.size() - 1, src + 1 + random.nextInt(5));
+			index.addEdge(cfgs.get(src), cfgs.get(dest));
+			callees.get(src).add(cfgs.get(dest));
+
+			for (int i = 0; i < cfgs.size(); i++) {
+				CFG cfg = cfgs.get(i);
+				Set<CFG> reachable = closure(cfgs, callees, i);
+				assertEquals(reachable, index.descendantsOf(List.of(cfg)));
+				for (CFG other : cfgs) {
+					assertEquals(reachable.contains(other), index.reaches(List.of(cfg), other));
+					assertEquals(reachable.contains(other),
+							index.ancestorsOf(List.of(other)).contains(cfg));
+				}
+			}
+		}
+	}
+
+	private static Set<CFG> closure(
+			List<CFG> cfgs,
+			List<Set<CFG>> callees,
+			int start) {
+		Set<CFG> result = new HashSet<>();
+		List<CFG> todo = new ArrayList<>(callees.get(start));
+		while (!todo.isEmpty()) {
+			CFG cfg = todo.remove(todo.size() - 1);
+			if (result.add(cfg))
+				todo.addAll(callees.get(cfgs.indexOf(cfg)));
+		}
+		return result;
+	}
+
+	private static CFG method(
+			CompilationUnit unit,
+			String name,
+			Type receiver) {
+		SourceCodeLocation loc = new SourceCodeLocation(unit.getName() + "." + name, 0, 0);
+		CFG cfg = new CFG(new CodeMemberDescriptor(loc, unit, true, name, new Parameter(loc, "this", receiver)));
+		cfg.addNode(new Ret(cfg, loc), true);
+		unit.addInstanceCodeMember(cfg);
+		return cfg;
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testInstanceDispatch()
+			throws CallResolutionException, ProgramValidationException, CallGraphConstructionException {
+		Program p = new Program(new TestLanguageFeatures(), new TestTypeSystem());
+		ClassUnit a = new ClassUnit(new SourceCodeLocation("A", 0, 0), p, "A", false);
+		ClassUnit b = new ClassUnit(new SourceCodeLocation("B", 0, 0), p, "B", false);
+		b.addAncestor(a);
+		p.addUnit(a);
+		p.addUnit(b);
+		UnitT ta = new UnitT(a), tb = new UnitT(b);
+		CFG fooA = method(a, "foo", ta);
+		CFG barA = method(a, "bar", ta);
+		CFG fooB = method(b, "foo", tb);
+		method(b, "other", tb);
+
+		CFG main = cfg(p, "main");
+		SourceCodeLocation loc = new SourceCodeLocation("main", 1, 0);
+		UnresolvedCall foo = new UnresolvedCall(main, loc, CallType.INSTANCE, null, "foo",
+				new VariableRef(main, loc, "x", tb));
+		UnresolvedCall baz = new UnresolvedCall(main, new SourceCodeLocation("main", 2, 0), CallType.INSTANCE,
+				null, "baz", new VariableRef(main, loc, "x", tb));
+		UnresolvedCall upper = new UnresolvedCall(main, new SourceCodeLocation("main", 3, 0), CallType.INSTANCE,
+				null, "FOO", new VariableRef(main, loc, "x", tb));
+		Ret ret = new Ret(main, new SourceCodeLocation("main", 4, 0));
+		main.addNode(foo, true);
+		main.addNode(baz);
+		main.addNode(upper);
+		main.addNode(ret);
+		main.addEdge(new SequentialEdge(foo, baz));
+		main.addEdge(new SequentialEdge(baz, upper));
+		main.addEdge(new SequentialEdge(upper, ret));
+		p.addCodeMember(main);
+		p.getFeatures().getProgramValidationLogic().validateAndFinalize(p);
+
+		Application app = new Application(p);
+		BaseCallGraph cg = new TestCallGraph();
+		cg.init(app);
+		Set<Type>[] types = (Set<Type>[]) new Set<?>[] { Set.of(tb) };
+
+		// inherited members are candidates as well
+		Call resolved = cg.resolve(foo, types, new SymbolAliasing());
+		assertEquals(Set.of(fooA, fooB), Set.copyOf(((CFGCall) resolved).getTargets()));
+		assertTrue(cg.resolve(baz, types, new SymbolAliasing()) instanceof OpenCall);
+
+		// members can be reached through aliases of their names
+		SymbolAliasing aliasing = new SymbolAliasing().alias(new NameSymbol("bar"), new NameSymbol("baz"));
+		cg.init(new Application(p));
+		Call aliased = cg.resolve(baz, types, aliasing);
+		assertEquals(Set.of(barA), Set.copyOf(((CFGCall) aliased).getTargets()));
+
+		// resolutions are reused when running again on the same application,
+		// and their edges are added to the new graph
+		cg.init(app);
+		Call first = cg.resolve(foo, types, new SymbolAliasing());
+		cg.init(app);
+		assertTrue(cg.getCallSites(fooB).isEmpty());
+		assertSame(first, cg.resolve(foo, types, new SymbolAliasing()));
+		assertEquals(Set.of(fooA, fooB), Set.copyOf(cg.getCallees(main)));
+		assertEquals(Set.of(foo), Set.copyOf(cg.getCallSites(fooB)));
+
+		// names are always matched through matchCodeMemberName
+		assertTrue(cg.resolve(upper, types, new SymbolAliasing()) instanceof OpenCall);
+		BaseCallGraph insensitive = new TestCallGraph() {
+			@Override
+			public boolean matchCodeMemberName(
+					UnresolvedCall call,
+					String qualifier,
+					String name) {
+				return name.equalsIgnoreCase(call.getTargetName());
+			}
+		};
+		insensitive.init(app);
+		resolved = insensitive.resolve(upper, types, new SymbolAliasing());
+		assertEquals(Set.of(fooA, fooB), Set.copyOf(((CFGCall) resolved).getTargets()));
+	}
 }
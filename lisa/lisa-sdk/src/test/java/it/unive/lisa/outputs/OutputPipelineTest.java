@@ -0,0 +1,62 @@
+package it.unive.lisa.outputs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class OutputPipelineTest {
+
+	@Test
+	public void testAllTasksAreExecuted() {
+		for (int threads = 0; threads < 4; threads++) {
+			AtomicInteger done = new AtomicInteger();
+			try (OutputPipeline pipeline = new OutputPipeline(threads)) {
+				for (int i = 0; i < 100; i++)
+					pipeline.submit(done::incrementAndGet);
+			}
+			assertEquals(100, done.get());
+		}
+	}
+
+	@Test
+	public void testPendingTasksAreBounded() {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger max = new AtomicInteger();
+		AtomicInteger submitted = new AtomicInteger();
+		try (OutputPipeline pipeline = new OutputPipeline(2)) {
+			for (int i = 0; i < 50; i++) {
+				pipeline.submit(() -> {
+					running.incrementAndGet();
+					try {
+						Thread.sleep(1);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+				submitted.incrementAndGet();
+				// pending tasks are the submitted ones that did not start
+				max.accumulateAndGet(submitted.get() - running.get(), Math::max);
+			}
+		}
+		assertTrue("Too many pending tasks: " + max.get(), max.get() <= 4);
+	}
+
+	@Test
+	public void testFailuresAreReported() {
+		RuntimeException error = new RuntimeException("failure");
+		try {
+			try (OutputPipeline pipeline = new OutputPipeline(2)) {
+				pipeline.submit(() -> {
+					throw error;
+				});
+			}
+			fail("The failure has not been reported");
+		} catch (OutputDumpingException e) {
+			assertSame(error, e.getCause());
+		}
+	}
+}
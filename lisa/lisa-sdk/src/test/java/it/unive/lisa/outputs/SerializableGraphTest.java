@@ -8,6 +8,7 @@ import it.unive.lisa.outputs.serializableGraph.SerializableCFG;
 import it.unive.lisa.outputs.serializableGraph.SerializableEdge;
 import it.unive.lisa.outputs.serializableGraph.SerializableGraph;
 import it.unive.lisa.outputs.serializableGraph.SerializableNode;
+import it.unive.lisa.outputs.serializableGraph.SerializableString;
 import it.unive.lisa.program.ClassUnit;
 import it.unive.lisa.program.Program;
 import it.unive.lisa.program.SyntheticLocation;
@@ -21,10 +22,13 @@ import it.unive.lisa.program.cfg.statement.Assignment;
 import it.unive.lisa.program.cfg.statement.Return;
 import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.VariableRef;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.SortedSet;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import org.junit.Test;
 
@@ -454,4 +458,42 @@ public class SerializableGraphTest {
 		assertEquals(expected, graph);
 	}
 
+
+	@Test
+	public void testStreamedDump() throws IOException {
+		CFG cfg = new CFG(new CodeMemberDescriptor(SyntheticLocation.INSTANCE, unit, false, "streamed"));
+		VariableRef c1 = new VariableRef(cfg, SyntheticLocation.INSTANCE, "1");
+		VariableRef c2 = new VariableRef(cfg, SyntheticLocation.INSTANCE, "2");
+		VariableRef c3 = new VariableRef(cfg, SyntheticLocation.INSTANCE, "3");
+		VariableRef lvar = new VariableRef(cfg, SyntheticLocation.INSTANCE, "l");
+		VariableRef xvar = new VariableRef(cfg, SyntheticLocation.INSTANCE, "x");
+		Assignment condition = new Assignment(cfg, SyntheticLocation.INSTANCE, c1, c2);
+		Assignment a1 = new Assignment(cfg, SyntheticLocation.INSTANCE, lvar, c3);
+		Return ret = new Return(cfg, SyntheticLocation.INSTANCE, xvar);
+		cfg.addNode(condition, true);
+		cfg.addNode(a1);
+		cfg.addNode(ret);
+		cfg.addEdge(new TrueEdge(condition, a1));
+		cfg.addEdge(new FalseEdge(condition, ret));
+		cfg.addEdge(new SequentialEdge(a1, condition));
+
+		// descriptions only for some of the nodes
+		StringWriter expected = new StringWriter();
+		StringWriter actual = new StringWriter();
+		SerializableCFG.fromCFG(cfg, (
+				g,
+				st) -> st instanceof VariableRef ? null : new SerializableString(new TreeMap<>(), st.toString()))
+				.dump(expected);
+		SerializableCFG.dump(cfg, (
+				g,
+				st) -> st instanceof VariableRef ? null : new SerializableString(new TreeMap<>(), st.toString()),
+				actual);
+		assertEquals(expected.toString(), actual.toString());
+
+		expected = new StringWriter();
+		actual = new StringWriter();
+		SerializableCFG.fromCFG(cfg).dump(expected);
+		SerializableCFG.dump(cfg, null, actual);
+		assertEquals(expected.toString(), actual.toString());
+	}
 }
@@ -0,0 +1,94 @@
+package it.unive.lisa.symbolic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.annotations.Annotation;
+import it.unive.lisa.symbolic.heap.HeapReference;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.HeapLocation;
+import it.unive.lisa.symbolic.value.MemoryPointer;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.symbolic.value.operator.binary.NumericNonOverflowingAdd;
+import it.unive.lisa.type.ReferenceType;
+import it.unive.lisa.type.Untyped;
+import org.junit.Test;
+
+public class ExpressionInternerTest {
+
+	private static final SourceCodeLocation LOC = new SourceCodeLocation("fake", 1, 1);
+
+	private static final SourceCodeLocation OTHER = new SourceCodeLocation("fake", 2, 1);
+
+	private static Variable x(
+			SourceCodeLocation location) {
+		return new Variable(Untyped.INSTANCE, "x", location);
+	}
+
+	private static BinaryExpression add(
+			SymbolicExpression left,
+			SourceCodeLocation location) {
+		return new BinaryExpression(Untyped.INSTANCE, left, new Constant(Untyped.INSTANCE, 1, location),
+				NumericNonOverflowingAdd.INSTANCE, location);
+	}
+
+	@Test
+	public void testIndistinguishableExpressionsAreShared() {
+		Variable x = ExpressionInterner.intern(x(LOC));
+		assertSame(x, ExpressionInterner.intern(x(LOC)));
+
+		BinaryExpression sum = ExpressionInterner.intern(add(x(LOC), LOC));
+		BinaryExpression other = add(x(LOC), LOC);
+		assertNotSame(sum, other);
+		assertSame(sum, ExpressionInterner.intern(other));
+		assertEquals(sum.hashCode(), other.hashCode());
+	}
+
+	@Test
+	public void testEqualButDistinguishableExpressionsAreKept() {
+		Variable x = ExpressionInterner.intern(x(LOC));
+
+		// equality of identifiers only considers their name
+		Variable typed = new Variable(new ReferenceType(Untyped.INSTANCE), "x", LOC);
+		assertEquals(x, typed);
+		assertSame(typed, ExpressionInterner.intern(typed));
+
+		Variable elsewhere = x(OTHER);
+		assertSame(elsewhere, ExpressionInterner.intern(elsewhere));
+
+		Variable annotated = x(LOC);
+		annotated.addAnnotation(new Annotation("@Untrusted"));
+		assertSame(annotated, ExpressionInterner.intern(annotated));
+
+		// differences in sub-expressions are detected as well
+		BinaryExpression sum = ExpressionInterner.intern(add(x, LOC));
+		BinaryExpression typedSum = add(typed, LOC);
+		assertEquals(sum, typedSum);
+		assertSame(typedSum, ExpressionInterner.intern(typedSum));
+
+		HeapLocation loc = new HeapLocation(Untyped.INSTANCE, "l", false, LOC);
+		HeapLocation weak = new HeapLocation(Untyped.INSTANCE, "l", true, LOC);
+		MemoryPointer pointer = ExpressionInterner.intern(new MemoryPointer(Untyped.INSTANCE, loc, LOC));
+		assertSame(pointer, ExpressionInterner.intern(new MemoryPointer(Untyped.INSTANCE, loc, LOC)));
+		MemoryPointer weakPointer = new MemoryPointer(Untyped.INSTANCE, weak, LOC);
+		assertSame(weakPointer, ExpressionInterner.intern(weakPointer));
+		HeapReference ref = ExpressionInterner.intern(new HeapReference(Untyped.INSTANCE, pointer, LOC));
+		assertSame(ref, ExpressionInterner.intern(new HeapReference(Untyped.INSTANCE, pointer, LOC)));
+	}
+
+	@Test
+	public void testManyExpressions() {
+		ExpressionInterner.clear();
+		Variable[] vars = new Variable[10000];
+		for (int i = 0; i < vars.length; i++)
+			vars[i] = ExpressionInterner.intern(new Variable(Untyped.INSTANCE, "v" + i, LOC));
+		assertEquals(vars.length, ExpressionInterner.size());
+		for (int i = 0; i < vars.length; i++)
+			assertSame(vars[i], ExpressionInterner.intern(new Variable(Untyped.INSTANCE, "v" + i, LOC)));
+		ExpressionInterner.clear();
+		assertEquals(0, ExpressionInterner.size());
+	}
+}
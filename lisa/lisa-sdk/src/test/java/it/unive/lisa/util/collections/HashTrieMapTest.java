@@ -0,0 +1,161 @@
+package it.unive.lisa.util.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import org.junit.Test;
+
+public class HashTrieMapTest {
+
+	private static class Key {
+
+		private final int id;
+
+		// few distinct hashes, to stress collisions
+		private final int hash;
+
+		private Key(
+				int id,
+				int hash) {
+			this.id = id;
+			this.hash = hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(
+				Object obj) {
+			return obj instanceof Key && ((Key) obj).id == id;
+		}
+
+		@Override
+		public String toString() {
+			return "k" + id;
+		}
+	}
+
+	private static void check(
+			Map<Key, Integer> expected,
+			HashTrieMap<Key, Integer> actual) {
+		assertEquals(expected.size(), actual.size());
+		assertEquals(expected, actual);
+		assertEquals(actual, expected);
+		assertEquals(expected.hashCode(), actual.hashCode());
+		for (Entry<Key, Integer> e : expected.entrySet()) {
+			assertTrue(actual.containsKey(e.getKey()));
+			assertEquals(e.getValue(), actual.get(e.getKey()));
+		}
+		int count = 0;
+		for (Entry<Key, Integer> e : actual.entrySet()) {
+			assertEquals(expected.get(e.getKey()), e.getValue());
+			count++;
+		}
+		assertEquals(expected.size(), count);
+	}
+
+	private static void randomOperations(
+			int hashes) {
+		Random random = new Random(hashes);
+		Map<Key, Integer> expected = new HashMap<>();
+		HashTrieMap<Key, Integer> actual = new HashTrieMap<>();
+		Key[] keys = new Key[500];
+		for (int i = 0; i < keys.length; i++)
+			keys[i] = new Key(i, hashes == 0 ? random.nextInt() : random.nextInt(hashes));
+
+		for (int i = 0; i < 5000; i++) {
+			Key k = keys[random.nextInt(keys.length)];
+			if (random.nextInt(3) == 0)
+				assertEquals(expected.remove(k), actual.remove(k));
+			else {
+				Integer v = random.nextInt(10);
+				assertEquals(expected.put(k, v), actual.put(k, v));
+			}
+		}
+
+		check(expected, actual);
+	}
+
+	@Test
+	public void testRandomOperations() {
+		randomOperations(0);
+	}
+
+	@Test
+	public void testRandomOperationsWithCollisions() {
+		randomOperations(7);
+		randomOperations(1);
+	}
+
+	@Test
+	public void testCopiesAreIndependent() {
+		HashTrieMap<Key, Integer> original = new HashTrieMap<>();
+		for (int i = 0; i < 100; i++)
+			original.put(new Key(i, i), i);
+		Map<Key, Integer> snapshot = new HashMap<>(original);
+
+		HashTrieMap<Key, Integer> copy = new HashTrieMap<>(original);
+		assertTrue(copy.sharesStructureWith(original));
+		copy.put(new Key(5, 5), 42);
+		copy.remove(new Key(6, 6));
+		copy.put(new Key(1000, 1000), 0);
+
+		assertFalse(copy.sharesStructureWith(original));
+		check(snapshot, original);
+		assertEquals(Integer.valueOf(42), copy.get(new Key(5, 5)));
+		assertNull(copy.get(new Key(6, 6)));
+		assertEquals(101 - 1, copy.size());
+	}
+
+	@Test
+	public void testIteratorRemoval() {
+		HashTrieMap<Key, Integer> map = new HashTrieMap<>();
+		Map<Key, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 100; i++) {
+			map.put(new Key(i, i % 10), i);
+			if (i % 2 == 0)
+				expected.put(new Key(i, i % 10), i);
+		}
+
+		for (Iterator<Entry<Key, Integer>> it = map.entrySet().iterator(); it.hasNext();)
+			if (it.next().getValue() % 2 != 0)
+				it.remove();
+
+		check(expected, map);
+	}
+
+	@Test
+	public void testCollectDifferences() {
+		HashTrieMap<Key, Integer> base = new HashTrieMap<>();
+		for (int i = 0; i < 1000; i++)
+			base.put(new Key(i, i), i);
+
+		HashTrieMap<Key, Integer> first = new HashTrieMap<>(base);
+		HashTrieMap<Key, Integer> second = new HashTrieMap<>(base);
+		first.put(new Key(3, 3), -3);
+		first.remove(new Key(7, 7));
+		second.put(new Key(3, 3), 33);
+		second.put(new Key(2000, 2000), 2000);
+
+		Map<Key, Integer> onlyFirst = new HashMap<>();
+		Map<Key, Integer> onlySecond = new HashMap<>();
+		first.collectDifferences(second, onlyFirst, onlySecond);
+
+		assertEquals(Map.of(new Key(3, 3), -3), onlyFirst);
+		assertEquals(Map.of(new Key(3, 3), 33, new Key(7, 7), 7, new Key(2000, 2000), 2000), onlySecond);
+
+		onlyFirst.clear();
+		first.collectDifferences(first, onlyFirst, null);
+		assertTrue(onlyFirst.isEmpty());
+	}
+}
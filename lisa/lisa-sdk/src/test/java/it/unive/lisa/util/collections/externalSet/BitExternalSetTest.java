@@ -1,6 +1,7 @@
 package it.unive.lisa.util.collections.externalSet;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -61,6 +62,13 @@ public class BitExternalSetTest {
 		}
 	}
 
+	@SuppressWarnings("unchecked")
+	private static Set<String>[] pair(
+			Set<String> first,
+			Set<String> second) {
+		return (Set<String>[]) new Set<?>[] { first, second };
+	}
+
 	private static void populateTriple(
 			Set<String>[] sets1,
 			Set<String>[] sets2,
@@ -403,4 +411,48 @@ public class BitExternalSetTest {
 		tmp.removeAll(set2);
 		verify(Set::equals, Pair.of(tmp, eset1.difference(eset2)));
 	}
+
+	@Test
+	public void testBulkCollectionOperations() {
+		ExternalSetCache<String> cache = new ExternalSetCache<>();
+		ExternalSet<String> eset1 = cache.mkEmptySet();
+		ExternalSet<String> eset2 = cache.mkEmptySet();
+		Set<String> set1 = new HashSet<>();
+		Set<String> set2 = new HashSet<>();
+		populateDouble(pair(set1, eset1), pair(set2, eset2));
+		// make the two sets share some elements
+		for (String str : new ArrayList<>(set1).subList(0, 100)) {
+			set2.add(str);
+			eset2.add(str);
+		}
+
+		// bitsets over the same cache are combined word by word (the casts
+		// select the methods of Set instead of the ones of ExternalSet)
+		ExternalSet<String> eres = eset1.copy();
+		Set<String> res = new HashSet<>(set1);
+		assertEquals(res.addAll(set2), eres.addAll((Set<String>) eset2));
+		assertEquals(res, eres);
+		assertEquals(res.size(), eres.size());
+		assertTrue(eres.containsAll(eset1));
+		assertTrue(eres.containsAll(eset2));
+		assertEquals(set1.containsAll(set2), eset1.containsAll(eset2));
+		assertFalse(eres.addAll((Set<String>) eset1));
+
+		eres = eset1.copy();
+		res = new HashSet<>(set1);
+		assertEquals(res.retainAll(set2), eres.retainAll(eset2));
+		assertEquals(res, eres);
+		assertEquals(100, eres.size());
+
+		eres = eset1.copy();
+		res = new HashSet<>(set1);
+		assertEquals(res.removeAll(set2), eres.removeAll(eset2));
+		assertEquals(res, eres);
+		assertFalse(eres.removeAll(eset2));
+		assertTrue(eres.removeAll(eres));
+		assertTrue(eres.isEmpty());
+
+		assertTrue(eset1.difference(eset1).isEmpty());
+		assertFalse(eset1.remove("not in the set"));
+	}
 }
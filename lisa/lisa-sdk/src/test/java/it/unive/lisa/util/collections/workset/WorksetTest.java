@@ -11,6 +11,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.junit.Test;
 
@@ -192,4 +193,66 @@ public class WorksetTest {
 				el) -> random(ws, lifo, false, el), "a", null, "c", "d",
 				"d", "f", "a", "b", null, "i");
 	}
+
+	@Test
+	public void WeakTopologicalOrderWsTest() {
+		// without positions, this behaves as a FIFO working set
+		linear(WeakTopologicalOrderWorkingSet.mk(), false, false, "a", "b", "c", "d", "e", "f", "g", "h", "i");
+		random(WeakTopologicalOrderWorkingSet.mk(), false, false, "a", "b", "c", "d", null);
+
+		WeakTopologicalOrderWorkingSet<String> ws = WeakTopologicalOrderWorkingSet.mk();
+		ws.setPositions(Map.of("a", 0, "b", 1, "c", 2, "d", 3));
+		for (String s : List.of("z", "d", "b", "y", "c", "b", "a"))
+			ws.push(s);
+		assertEquals("Duplicates were pushed", 6, ws.size());
+		List<String> popped = new ArrayList<>();
+		while (!ws.isEmpty())
+			popped.add(ws.pop());
+		assertEquals("Elements were not popped in order", List.of("a", "b", "c", "d", "z", "y"), popped);
+	}
+
+	@Test
+	public void IndexedFIFOWsTest() {
+		linear(IndexedFIFOWorkingSet.mk(), false, false, "a", "b", "c", "d", "e", "f", "g", "h", "i");
+		random(IndexedFIFOWorkingSet.mk(), false, false, "a", "b", "c", "d", "e", "f", "g", "h", "i");
+
+		// growing the queue after wrapping around must preserve the order
+		IndexedFIFOWorkingSet<Integer> ints = IndexedFIFOWorkingSet.mk();
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 10; i++)
+			ints.push(i);
+		for (int i = 0; i < 5; i++)
+			ints.pop();
+		for (int i = 5; i < 40; i++) {
+			ints.push(i);
+			expected.add(i);
+		}
+		List<Integer> popped = new ArrayList<>();
+		while (!ints.isEmpty())
+			popped.add(ints.pop());
+		assertEquals("Elements were not popped in order", expected, popped);
+
+		IndexedFIFOWorkingSet<String> ws = IndexedFIFOWorkingSet.mk();
+		List<String> nodes = List.of("a", "b", "c", "d");
+		ws.setIndexing(nodes::indexOf, nodes::get);
+		for (String s : List.of("d", "b", "d", "c"))
+			ws.push(s);
+		assertEquals("Duplicates were pushed", 3, ws.size());
+		ws.pushIndex(0);
+		assertEquals("Contents do not match", List.of("d", "b", "c", "a"), ws.getContents());
+		assertEquals("Wrong index popped", 3, ws.popIndex());
+		assertEquals("Wrong element popped", "b", ws.pop());
+		try {
+			ws.push("z");
+			fail("An element outside of the indexing was pushed");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			ws.setIndexing(nodes::indexOf, nodes::get);
+			fail("The indexing of a non-empty working set was changed");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
 }
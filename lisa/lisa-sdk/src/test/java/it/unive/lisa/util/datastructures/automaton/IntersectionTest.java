@@ -25,9 +25,9 @@ public class IntersectionTest {
 		st[4] = new State(4, false, true);
 		Collections.addAll(states, st);
 
-		st2[0] = new State(2, true, false);
+		st2[0] = new State(0, true, false);
 		st2[1] = new State(1, false, false);
-		st2[2] = new State(0, false, true);
+		st2[2] = new State(2, false, true);
 		Collections.addAll(states2, st2);
 
 		delta.add(new Transition<>(st[0], st[1], new TestSymbol("a")));
@@ -66,9 +66,9 @@ public class IntersectionTest {
 		delta.add(new Transition<>(st[1], st[2], new TestSymbol("c")));
 		delta.add(new Transition<>(st[2], st[3], new TestSymbol("b")));
 
-		st2[0] = new State(2, true, false);
+		st2[0] = new State(0, true, false);
 		st2[1] = new State(1, false, false);
-		st2[2] = new State(0, false, true);
+		st2[2] = new State(2, false, true);
 		Collections.addAll(states2, st2);
 
 		delta2.add(new Transition<>(st2[0], st2[1], new TestSymbol("a")));
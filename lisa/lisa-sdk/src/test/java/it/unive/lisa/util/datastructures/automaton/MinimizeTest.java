@@ -2,8 +2,10 @@ package it.unive.lisa.util.datastructures.automaton;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Collections;
+import java.util.Random;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import org.junit.Test;
@@ -185,4 +187,32 @@ public class MinimizeTest {
 
 		assertSame(a, a.minimize());
 	}
+
+	@Test
+	public void sameResultAsBrzozowski() {
+		Random random = new Random(42);
+		for (int k = 0; k < 200; k++) {
+			State[] st = new State[6];
+			SortedSet<State> states = new TreeSet<>();
+			for (int i = 0; i < st.length; i++)
+				states.add(st[i] = new State(i, i == 0, random.nextInt(3) == 0));
+			SortedSet<Transition<TestSymbol>> delta = new TreeSet<>();
+			for (int i = 0; i < 12; i++)
+				delta.add(new Transition<>(st[random.nextInt(st.length)], st[random.nextInt(st.length)],
+						new TestSymbol(random.nextBoolean() ? "a" : "b")));
+
+			TestAutomaton a = new TestAutomaton(states, delta);
+			TestAutomaton hopcroft = a.minimize();
+			TestAutomaton brzozowski = a.minimizeBrzozowski();
+			// brzozowski's algorithm removes all states if the language is
+			// empty, while hopcroft's one keeps the initial state
+			if (!hopcroft.acceptsEmptyLanguage()) {
+				assertEquals(brzozowski.getStates().size(), hopcroft.getStates().size());
+				assertEquals(brzozowski.getTransitions().size(), hopcroft.getTransitions().size());
+			}
+			assertEquals(hopcroft, brzozowski.canonicalForm());
+			assertTrue(a.hasSameCanonicalForm(brzozowski));
+			assertSame(hopcroft, a.canonicalForm());
+		}
+	}
 }
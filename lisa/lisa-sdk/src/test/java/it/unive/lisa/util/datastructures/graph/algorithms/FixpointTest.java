@@ -355,4 +355,50 @@ public class FixpointTest {
 			fail("The fixpoint computation hasn't thrown an exception");
 		assertNull("Fixpoint failed", res);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testCachedTraversals() {
+		TestGraph graph = new TestGraph();
+		TestNode source = new TestNode(1);
+		TestNode left = new TestNode(2);
+		TestNode right = new TestNode(3);
+		TestNode join = new TestNode(4);
+		TestNode end = new TestNode(5);
+		graph.addNode(source, true);
+		graph.addNode(left);
+		graph.addNode(right);
+		graph.addNode(join);
+		graph.addNode(end);
+		graph.addEdge(new TestEdge(source, left));
+		graph.addEdge(new TestEdge(source, right));
+		graph.addEdge(new TestEdge(left, join));
+		graph.addEdge(new TestEdge(right, join));
+		graph.addEdge(new TestEdge(join, end));
+
+		// join gets pushed twice, and the second time none of its
+		// predecessors has changed
+		Fixpoint<TestGraph, TestNode, TestEdge, Set<TestNode>> fix = new Fixpoint<>(graph, false);
+		Map<TestNode, Set<TestNode>> res = null;
+		try {
+			res = fix.fixpoint(
+					Map.of(source, Set.of()),
+					FIFOWorkingSet.mk(),
+					new FixpointTester());
+		} catch (FixpointException e) {
+			e.printStackTrace(System.err);
+			fail("The fixpoint computation has thrown an exception");
+		}
+
+		assertNotNull("Fixpoint failed", res);
+		assertEquals("Fixpoint returned wrong result",
+				Map.of(source, Set.of(source),
+						left, Set.of(source, left),
+						right, Set.of(source, right),
+						join, Set.of(source, left, right, join),
+						end, Set.of(source, left, right, join, end)),
+				res);
+		assertEquals("Wrong number of traversals", 5, fix.getStatistics().getTraversals());
+		assertEquals("Wrong number of cached traversals", 2, fix.getStatistics().getCachedTraversals());
+		assertEquals("Wrong number of cached states", 1, fix.getStatistics().getCachedStates());
+	}
+}
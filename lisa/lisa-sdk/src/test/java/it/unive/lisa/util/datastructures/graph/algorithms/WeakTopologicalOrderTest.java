@@ -0,0 +1,99 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import static org.junit.Assert.assertEquals;
+
+import it.unive.lisa.util.datastructures.graph.TestGraph;
+import it.unive.lisa.util.datastructures.graph.TestGraph.TestEdge;
+import it.unive.lisa.util.datastructures.graph.TestGraph.TestNode;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+
+public class WeakTopologicalOrderTest {
+
+	@Test
+	public void testLoop() {
+		TestGraph graph = new TestGraph();
+		TestNode one = new TestNode(1);
+		TestNode two = new TestNode(2);
+		TestNode three = new TestNode(3);
+		TestNode four = new TestNode(4);
+		TestNode five = new TestNode(5);
+		graph.addNode(one, true);
+		graph.addNode(two);
+		graph.addNode(three);
+		graph.addNode(four);
+		graph.addNode(five);
+		graph.addEdge(new TestEdge(one, two));
+		graph.addEdge(new TestEdge(two, three));
+		graph.addEdge(new TestEdge(three, four));
+		graph.addEdge(new TestEdge(four, two));
+		graph.addEdge(new TestEdge(two, five));
+
+		WeakTopologicalOrder<TestGraph, TestNode, TestEdge> wto = new WeakTopologicalOrder<>();
+		Map<TestNode, Integer> res = wto.build(graph);
+		// 1 (2 3 4) 5
+		assertEquals("WTO returned wrong result",
+				Map.of(one, 0, two, 1, three, 2, four, 3, five, 4),
+				res);
+		assertEquals("WTO returned wrong heads", Set.of(two), wto.getHeads());
+	}
+
+	@Test
+	public void testNestedLoops() {
+		TestGraph graph = new TestGraph();
+		TestNode one = new TestNode(1);
+		TestNode two = new TestNode(2);
+		TestNode three = new TestNode(3);
+		TestNode four = new TestNode(4);
+		TestNode five = new TestNode(5);
+		TestNode six = new TestNode(6);
+		TestNode seven = new TestNode(7);
+		graph.addNode(one, true);
+		graph.addNode(two);
+		graph.addNode(three);
+		graph.addNode(four);
+		graph.addNode(five);
+		graph.addNode(six);
+		graph.addNode(seven);
+		graph.addEdge(new TestEdge(one, two));
+		graph.addEdge(new TestEdge(two, three));
+		graph.addEdge(new TestEdge(three, four));
+		graph.addEdge(new TestEdge(four, three));
+		graph.addEdge(new TestEdge(three, five));
+		graph.addEdge(new TestEdge(five, two));
+		graph.addEdge(new TestEdge(two, six));
+		// unreachable
+		graph.addEdge(new TestEdge(seven, six));
+
+		WeakTopologicalOrder<TestGraph, TestNode, TestEdge> wto = new WeakTopologicalOrder<>();
+		Map<TestNode, Integer> res = wto.build(graph);
+		// 1 (2 (3 4) 5) 6 7
+		assertEquals("WTO returned wrong result",
+				Map.of(one, 0, two, 1, three, 2, four, 3, five, 4, six, 5, seven, 6),
+				res);
+		assertEquals("WTO returned wrong heads", Set.of(two, three), wto.getHeads());
+	}
+
+	@Test
+	public void testLongPaths() {
+		// a straight line followed by a loop, both longer than what a
+		// recursive visit could handle
+		int length = 200_000;
+		TestGraph graph = new TestGraph();
+		TestNode[] nodes = new TestNode[2 * length];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = new TestNode(i);
+			graph.addNode(nodes[i], i == 0);
+			if (i > 0)
+				graph.addEdge(new TestEdge(nodes[i - 1], nodes[i]));
+		}
+		graph.addEdge(new TestEdge(nodes[nodes.length - 1], nodes[length]));
+
+		WeakTopologicalOrder<TestGraph, TestNode, TestEdge> wto = new WeakTopologicalOrder<>();
+		Map<TestNode, Integer> res = wto.build(graph);
+		for (int i = 0; i < nodes.length; i++)
+			assertEquals("WTO returned wrong result", i, (int) res.get(nodes[i]));
+		assertEquals("WTO returned wrong heads", Set.of(nodes[length]), wto.getHeads());
+	}
+}
@@ -11,6 +11,7 @@ import it.unive.lisa.util.datastructures.graph.code.TestCodeGraph.TestCodeEdge;
 import it.unive.lisa.util.datastructures.graph.code.TestCodeGraph.TestCodeNode;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -609,4 +610,77 @@ public class NodeListTest {
 
 		verify(adj, nodes, edges, matrix, entries, exits, "after removing " + removed.toString());
 	}
+
+	@Test
+	public void testFrozenStructure() {
+		Collection<TestCodeNode> nodes = new HashSet<>();
+		Collection<TestCodeEdge> edges = new HashSet<>();
+		Collection<TestCodeNode> entries = new HashSet<>();
+		Collection<TestCodeNode> exits = new HashSet<>();
+		NodeList<TestCodeGraph, TestCodeNode, TestCodeEdge> matrix = new NodeList<>(new TestCodeEdge(null, null));
+		Map<TestCodeNode, Collection<TestCodeNode>> adj = populate(matrix, nodes, edges, entries, exits);
+
+		FrozenNodeList<TestCodeGraph, TestCodeNode, TestCodeEdge> frozen = matrix.freeze();
+		assertTrue(matrix.isFrozen());
+		assertEquals(nodes.size(), frozen.size());
+		for (TestCodeNode node : nodes) {
+			int id = frozen.indexOf(node);
+			assertEquals(node, frozen.getNode(id));
+
+			Collection<TestCodeNode> follows = new HashSet<>();
+			for (int pos = frozen.followersStart(id); pos < frozen.followersEnd(id); pos++) {
+				TestCodeNode follower = frozen.getNode(frozen.followerAt(pos));
+				follows.add(follower);
+				assertEquals(new TestCodeEdge(node, follower), frozen.outgoingEdgeAt(pos));
+			}
+			assertTrue(isEqualCollection(adj.getOrDefault(node, Collections.emptySet()), follows));
+
+			Collection<TestCodeNode> preds = new HashSet<>();
+			for (int pos = frozen.predecessorsStart(id); pos < frozen.predecessorsEnd(id); pos++) {
+				TestCodeNode predecessor = frozen.getNode(frozen.predecessorAt(pos));
+				preds.add(predecessor);
+				assertEquals(new TestCodeEdge(predecessor, node), frozen.ingoingEdgeAt(pos));
+			}
+			assertTrue(isEqualCollection(matrix.predecessorsOf(node), preds));
+		}
+		verify(adj, nodes, edges, matrix, entries, exits, "when frozen");
+		assertTrue(matrix.isFrozen());
+	}
+
+	@Test
+	public void testFrozenInvalidation() {
+		Collection<TestCodeNode> nodes = new HashSet<>();
+		Collection<TestCodeEdge> edges = new HashSet<>();
+		Collection<TestCodeNode> entries = new HashSet<>();
+		Collection<TestCodeNode> exits = new HashSet<>();
+		NodeList<TestCodeGraph, TestCodeNode, TestCodeEdge> matrix = new NodeList<>(new TestCodeEdge(null, null));
+		Map<TestCodeNode, Collection<TestCodeNode>> adj = populate(matrix, nodes, edges, entries, exits);
+		matrix.freeze();
+
+		TestCodeEdge e = random(edges);
+		edges.remove(e);
+		adj.get(e.getSource()).remove(e.getDestination());
+		matrix.removeEdge(e);
+		assertFalse(matrix.isFrozen());
+		matrix.freeze();
+
+		TestCodeNode n = random(nodes);
+		nodes.remove(n);
+		edges.removeIf(edge -> edge.getSource() == n || edge.getDestination() == n);
+		adj.remove(n);
+		adj.forEach((
+				nn,
+				follows) -> follows.remove(n));
+		matrix.removeNode(n);
+		assertFalse(matrix.isFrozen());
+		matrix.freeze();
+
+		entries = new HashSet<>(nodes);
+		exits = new HashSet<>(nodes);
+		for (TestCodeEdge edge : edges) {
+			entries.remove(edge.getDestination());
+			exits.remove(edge.getSource());
+		}
+		verify(adj, nodes, edges, matrix, entries, exits, "after modifying a frozen list");
+	}
 }
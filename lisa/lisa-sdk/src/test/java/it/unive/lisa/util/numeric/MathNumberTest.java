@@ -8,6 +8,9 @@ import static it.unive.lisa.util.numeric.MathNumber.PLUS_INFINITY;
 import static it.unive.lisa.util.numeric.MathNumber.ZERO;
 import static org.junit.Assert.assertEquals;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
 import org.junit.Test;
 
 public class MathNumberTest {
@@ -212,4 +215,52 @@ public class MathNumberTest {
 		assertEquals("-inf max +inf != -inf", PLUS_INFINITY, MINUS_INFINITY.max(PLUS_INFINITY));
 		assertEquals("-inf max -inf != -inf", MINUS_INFINITY, MINUS_INFINITY.max(MINUS_INFINITY));
 	}
+
+	private static void assertSameAs(
+			BigDecimal expected,
+			MathNumber actual) {
+		// numbers must behave exactly as the big decimals they represent
+		MathNumber exp = new MathNumber(expected);
+		assertEquals(exp, actual);
+		assertEquals(expected.toString(), actual.toString());
+		assertEquals(31 * (31 + expected.hashCode()) + expected.signum(), actual.hashCode());
+		assertEquals(0, expected.compareTo(actual.getNumber()));
+	}
+
+	@Test
+	public void testInlineNumbersAgreeWithBigDecimals() {
+		Random random = new Random(42);
+		long[] special = { 0, 1, -1, 10, -10, 100, 1024, -129, Integer.MAX_VALUE, Integer.MIN_VALUE,
+				Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE / 2, Long.MIN_VALUE / 2, 3037000500L, -3037000500L };
+		long[] values = new long[special.length + 200];
+		System.arraycopy(special, 0, values, 0, special.length);
+		for (int i = special.length; i < values.length; i++)
+			values[i] = i % 2 == 0 ? random.nextLong() : random.nextInt(2000) - 1000;
+
+		for (long a : values) {
+			BigDecimal ba = BigDecimal.valueOf(a);
+			MathNumber na = new MathNumber(a);
+			assertSameAs(ba, na);
+			assertSameAs(ba.abs(), na.abs());
+			for (int j = 0; j < 30; j++) {
+				long b = values[random.nextInt(values.length)];
+				BigDecimal bb = BigDecimal.valueOf(b);
+				MathNumber nb = new MathNumber(b);
+				assertSameAs(ba.add(bb), na.add(nb));
+				assertSameAs(ba.subtract(bb), na.subtract(nb));
+				assertSameAs(ba.multiply(bb), na.multiply(nb));
+				if (b != 0)
+					assertSameAs(ba.divide(bb, 100, RoundingMode.HALF_UP).stripTrailingZeros(), na.divide(nb));
+				assertSameAs(ba.min(bb), na.min(nb));
+				assertSameAs(ba.max(bb), na.max(nb));
+				assertEquals(Integer.signum(ba.compareTo(bb)), Integer.signum(na.compareTo(nb)));
+			}
+		}
+
+		// numbers with a scale are not integers
+		assertEquals("2.0", new MathNumber(2.0).toString());
+		assertEquals(false, new MathNumber(2.0).equals(new MathNumber(2)));
+		assertEquals(0, new MathNumber(2.0).compareTo(new MathNumber(2)));
+		assertEquals(new MathNumber(2), new MathNumber(2.5).roundDown());
+	}
 }